@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.bookkeeper.mledger.impl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.bookkeeper.client.BookKeeper.DigestType;
+import org.apache.bookkeeper.client.LedgerHandle;
+import org.apache.bookkeeper.client.PulsarMockBookKeeper;
+import org.apache.bookkeeper.common.util.OrderedScheduler;
+import org.apache.bookkeeper.mledger.AsyncCallbacks.ReadEntriesCallback;
+import org.apache.bookkeeper.mledger.Entry;
+import org.apache.bookkeeper.mledger.ManagedLedgerException;
+import org.apache.bookkeeper.mledger.ManagedLedgerFactoryConfig;
+import org.apache.bookkeeper.util.ZkUtils;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.MockZooKeeper;
+import org.apache.zookeeper.ZooDefs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link EntryCacheImpl} of a managed ledger running on the in-memory BookKeeper and ZooKeeper mocks, so that no
+ * service is needed.
+ *
+ * <p>Only the cache hits are measured: the misses are served by the BookKeeper mock, whose cost does not tell anything
+ * about a real bookie.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntryCacheBenchmark {
+
+    // Number of entries in the cache
+    @Param({ "10000" })
+    public int entries;
+
+    @Param({ "1024" })
+    public int entrySize;
+
+    // Number of entries read at once by a cursor
+    @Param({ "1", "100" })
+    public int readBatchSize;
+
+    private OrderedScheduler executor;
+    private MockZooKeeper zkc;
+    private PulsarMockBookKeeper bkc;
+    private ManagedLedgerFactoryImpl factory;
+
+    private EntryCache entryCache;
+    private LedgerHandle ledger;
+    private byte[] data;
+
+    private long nextEntryToRead;
+    private long nextEntryToInsert;
+    private int entriesRead;
+
+    // Entries are returned synchronously on cache hits
+    private final ReadEntriesCallback readCallback = new ReadEntriesCallback() {
+        @Override
+        public void readEntriesComplete(List<Entry> readEntries, Object ctx) {
+            entriesRead = readEntries.size();
+            readEntries.forEach(Entry::release);
+        }
+
+        @Override
+        public void readEntriesFailed(ManagedLedgerException exception, Object ctx) {
+            throw new IllegalStateException(exception);
+        }
+    };
+
+    @Setup
+    public void setup() throws Exception {
+        executor = OrderedScheduler.newSchedulerBuilder().numThreads(1).name("microbench").build();
+        zkc = MockZooKeeper.newInstance();
+        ZkUtils.createFullPathOptimistic(zkc, "/ledgers/available/192.168.1.1:5000", new byte[0], null, null);
+        zkc.create("/ledgers/LAYOUT", "1\nflat:1".getBytes(), null, null);
+        bkc = new PulsarMockBookKeeper(zkc, executor.chooseThread(this));
+
+        ManagedLedgerFactoryConfig conf = new ManagedLedgerFactoryConfig();
+        // Room for the entries read and for the entries inserted by the benchmark, so that nothing gets evicted
+        conf.setMaxCacheSize(4L * entries * entrySize);
+        factory = new ManagedLedgerFactoryImpl(bkc, zkc, conf);
+        zkc.create("/managed-ledgers", new byte[0], ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT);
+
+        ManagedLedgerImpl managedLedger = (ManagedLedgerImpl) factory.open("microbench");
+        entryCache = factory.getEntryCacheManager().getEntryCache(managedLedger);
+
+        data = new byte[entrySize];
+        ledger = bkc.createLedger(DigestType.CRC32, new byte[0]);
+        for (int i = 0; i < entries; i++) {
+            long entryId = ledger.addEntry(data);
+            EntryImpl entry = EntryImpl.create(ledger.getId(), entryId, data);
+            entryCache.insert(entry);
+            entry.release();
+        }
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        factory.shutdown();
+        bkc.shutdown();
+        zkc.shutdown();
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int cachedRead() {
+        final long first = nextEntryToRead;
+        nextEntryToRead = (nextEntryToRead + readBatchSize) % (entries - readBatchSize);
+        entryCache.asyncReadEntry(ledger, first, first + readBatchSize - 1, false, readCallback, null);
+        return entriesRead;
+    }
+
+    @Benchmark
+    public boolean insert() {
+        // The inserted entries go to another ledger than the one read
+        final long insertLedgerId = ledger.getId() + 1;
+        if (nextEntryToInsert == entries) {
+            // Keep the size of the cache bounded, the cost is spread over the insertions
+            entryCache.invalidateAllEntries(insertLedgerId);
+            nextEntryToInsert = 0;
+        }
+
+        EntryImpl entry = EntryImpl.create(insertLedgerId, nextEntryToInsert++, data);
+        boolean inserted = entryCache.insert(entry);
+        entry.release();
+        return inserted;
+    }
+}
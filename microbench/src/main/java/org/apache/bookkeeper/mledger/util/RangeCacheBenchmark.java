@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.bookkeeper.mledger.util;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.bookkeeper.mledger.impl.EntryImpl;
+import org.apache.bookkeeper.mledger.impl.PositionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * {@link RangeCache} holding the entries of a ledger, as in the entry cache of the managed ledgers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RangeCacheBenchmark {
+
+    private static final long LEDGER_ID = 1234L;
+    private static final int ENTRY_SIZE = 1024;
+
+    // Number of entries in the cache
+    @Param({ "10000" })
+    public int entries;
+
+    // Number of entries read at once by a cursor
+    @Param({ "1", "100" })
+    public int readBatchSize;
+
+    private RangeCache<PositionImpl, EntryImpl> cache;
+    private long nextEntryToRead;
+
+    // Window of entries moving forward in the cache, like a managed ledger whose readers keep up with the writes
+    private long firstEntry;
+    private long lastEntry;
+
+    @Setup
+    public void setup() {
+        cache = new RangeCache<>(EntryImpl::getLength);
+        for (lastEntry = 0; lastEntry < entries; lastEntry++) {
+            cache.put(PositionImpl.get(LEDGER_ID, lastEntry), newEntry(lastEntry));
+        }
+        firstEntry = 0;
+    }
+
+    @TearDown
+    public void teardown() {
+        cache.clear();
+    }
+
+    private static EntryImpl newEntry(long entryId) {
+        ByteBuf data = PooledByteBufAllocator.DEFAULT.directBuffer(ENTRY_SIZE);
+        data.writerIndex(ENTRY_SIZE);
+        EntryImpl entry = EntryImpl.create(LEDGER_ID, entryId, data);
+        data.release();
+        return entry;
+    }
+
+    @Benchmark
+    public int getRange() {
+        final long first = firstEntry + nextEntryToRead;
+        nextEntryToRead = (nextEntryToRead + readBatchSize) % (entries - readBatchSize);
+
+        Collection<EntryImpl> range = cache.getRange(PositionImpl.get(LEDGER_ID, first),
+                PositionImpl.get(LEDGER_ID, first + readBatchSize - 1));
+        int size = range.size();
+        range.forEach(EntryImpl::release);
+        return size;
+    }
+
+    @Benchmark
+    public long putAndEvict() {
+        // Add an entry at the end of the window, and drop the oldest one
+        cache.put(PositionImpl.get(LEDGER_ID, lastEntry), newEntry(lastEntry));
+        lastEntry++;
+        cache.removeRange(PositionImpl.get(LEDGER_ID, firstEntry), PositionImpl.get(LEDGER_ID, firstEntry), true);
+        firstEntry++;
+        return cache.getSize();
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.client.impl;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.common.api.ByteBufPair;
+import org.apache.pulsar.common.api.Commands;
+import org.apache.pulsar.common.api.Commands.ChecksumType;
+import org.apache.pulsar.common.api.proto.PulsarApi.CompressionType;
+import org.apache.pulsar.common.api.proto.PulsarApi.MessageMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Batching of the messages of a producer by {@link BatchMessageContainer}, up to the serialization of the SEND command
+ * of the batch, as done by {@link ProducerImpl} before writing the batch to the connection.
+ *
+ * <p>The score is in batches per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchMessageContainerBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int messagesPerBatch;
+
+    @Param({ "128", "1024" })
+    public int messageSize;
+
+    @Param({ "NONE", "LZ4" })
+    public CompressionType compressionType;
+
+    private BatchMessageContainer container;
+    private byte[] payload;
+    private long sequenceId;
+
+    @Setup
+    public void setup() {
+        container = new BatchMessageContainer(messagesPerBatch, compressionType, "persistent://tenant/ns/topic",
+                "producer");
+        payload = new byte[messageSize];
+    }
+
+    @Benchmark
+    public int batch() {
+        final long publishTime = System.currentTimeMillis();
+        for (int i = 0; i < messagesPerBatch; i++) {
+            MessageMetadata.Builder metadata = MessageMetadata.newBuilder().setProducerName("producer")
+                    .setSequenceId(sequenceId++).setPublishTime(publishTime);
+            container.add(MessageImpl.create(metadata, ByteBuffer.wrap(payload), Schema.BYTES), null);
+        }
+
+        final ByteBuf compressedPayload = container.getCompressedBatchMetadataAndPayload();
+        final MessageMetadata batchMetadata = container.setBatchAndBuild();
+        // The command takes the ownership of the payload
+        final ByteBufPair cmd = Commands.newSend(1L, container.sequenceId, container.numMessagesInBatch,
+                ChecksumType.Crc32c, batchMetadata, compressedPayload);
+        final int size = cmd.readableBytes();
+
+        cmd.release();
+        batchMetadata.recycle();
+        final List<MessageImpl<?>> messages = container.messages;
+        container.clear();
+        messages.forEach(MessageImpl::recycle);
+        return size;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.api;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.common.api.Commands.ChecksumType;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck.AckType;
+import org.apache.pulsar.common.api.proto.PulsarApi.KeyValue;
+import org.apache.pulsar.common.api.proto.PulsarApi.MessageIdData;
+import org.apache.pulsar.common.api.proto.PulsarApi.MessageMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Serialization of the commands and of the metadata written for each message by the producers, the broker and the
+ * consumers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandsBenchmark {
+
+    @Param({ "128", "4096" })
+    public int payloadSize;
+
+    private MessageMetadata metadata;
+    private MessageIdData messageId;
+    private ByteBuf payload;
+    private ByteBuf metadataAndPayload;
+    private long sequenceId;
+
+    @Setup
+    public void setup() {
+        metadata = MessageMetadata.newBuilder().setProducerName("standalone-0-1").setSequenceId(0)
+                .setPublishTime(System.currentTimeMillis())
+                .addProperties(KeyValue.newBuilder().setKey("key").setValue("value").build()).build();
+        messageId = MessageIdData.newBuilder().setLedgerId(1234L).setEntryId(0L).build();
+        payload = PooledByteBufAllocator.DEFAULT.directBuffer(payloadSize);
+        payload.writeBytes(new byte[payloadSize]);
+        metadataAndPayload = Commands.serializeMetadataAndPayload(ChecksumType.Crc32c, metadata, payload);
+        payload.readerIndex(0);
+    }
+
+    @TearDown
+    public void teardown() {
+        payload.release();
+        metadataAndPayload.release();
+    }
+
+    @Benchmark
+    public int newSend() {
+        // The command takes the ownership of the payload
+        ByteBufPair cmd = Commands.newSend(1L, sequenceId++, 1, ChecksumType.Crc32c, metadata, payload.retain());
+        int size = cmd.readableBytes();
+        cmd.release();
+        return size;
+    }
+
+    @Benchmark
+    public int serializeMetadataAndPayload() {
+        // The payload is read when copied after the metadata
+        payload.readerIndex(0);
+        ByteBuf buffer = Commands.serializeMetadataAndPayload(ChecksumType.Crc32c, metadata, payload);
+        int size = buffer.readableBytes();
+        buffer.release();
+        return size;
+    }
+
+    @Benchmark
+    public int newMessage() {
+        metadataAndPayload.readerIndex(0);
+        ByteBufPair cmd = Commands.newMessage(1L, messageId, 0, metadataAndPayload.retain());
+        int size = cmd.readableBytes();
+        cmd.release();
+        return size;
+    }
+
+    @Benchmark
+    public long parseMessageMetadata() {
+        metadataAndPayload.readerIndex(0);
+        MessageMetadata parsed = Commands.parseMessageMetadata(metadataAndPayload);
+        long publishTime = parsed.getPublishTime();
+        parsed.recycle();
+        return publishTime;
+    }
+
+    @Benchmark
+    public int newAck() {
+        ByteBuf cmd = Commands.newAck(1L, 1234L, sequenceId++, AckType.Individual, null, Collections.emptyMap());
+        int size = cmd.readableBytes();
+        cmd.release();
+        return size;
+    }
+}
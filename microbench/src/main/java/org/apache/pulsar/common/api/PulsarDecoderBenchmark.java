@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.api;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.common.api.Commands.ChecksumType;
+import org.apache.pulsar.common.api.proto.PulsarApi.BaseCommand;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck.AckType;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandFlow;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandMessage;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandSend;
+import org.apache.pulsar.common.api.proto.PulsarApi.MessageIdData;
+import org.apache.pulsar.common.api.proto.PulsarApi.MessageMetadata;
+import org.apache.pulsar.common.util.protobuf.ByteBufCodedInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Decoding cost of the commands exchanged for each message, through the generic parsing of {@link BaseCommand} and
+ * through {@link HotCommandDecoder}.
+ *
+ * <p>Run with {@code -prof gc} to compare the allocations of both paths.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PulsarDecoderBenchmark {
+
+    @Param({ "SEND", "MESSAGE", "ACK", "FLOW" })
+    public BaseCommand.Type type;
+
+    // The serialized command, without the sizes nor the payload
+    private ByteBuf command;
+    private int commandSize;
+
+    @Setup
+    public void setup() {
+        final ByteBuf frame;
+        switch (type) {
+        case SEND: {
+            MessageMetadata metadata = MessageMetadata.newBuilder().setProducerName("producer").setSequenceId(1L)
+                    .setPublishTime(System.currentTimeMillis()).build();
+            ByteBufPair pair = Commands.newSend(1L, 123456L, 1, ChecksumType.Crc32c, metadata,
+                    Unpooled.wrappedBuffer(new byte[1024]));
+            frame = ByteBufPair.coalesce(pair);
+            pair.release();
+            break;
+        }
+        case MESSAGE: {
+            MessageIdData messageId = MessageIdData.newBuilder().setLedgerId(1234L).setEntryId(567890L).build();
+            ByteBufPair pair = Commands.newMessage(1L, messageId, 0, Unpooled.wrappedBuffer(new byte[1024]));
+            frame = ByteBufPair.coalesce(pair);
+            pair.release();
+            break;
+        }
+        case ACK:
+            frame = Commands.newAck(1L, 1234L, 567890L, AckType.Individual, null, Collections.emptyMap());
+            break;
+        case FLOW:
+            frame = Commands.newFlow(1L, 1000);
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported command " + type);
+        }
+
+        // Skip the total size, then read the command size
+        commandSize = frame.getInt(4);
+        command = Unpooled.directBuffer(commandSize);
+        command.writeBytes(frame, 8, commandSize);
+        frame.release();
+    }
+
+    @TearDown
+    public void teardown() {
+        command.release();
+    }
+
+    @Benchmark
+    public long genericParsing() throws IOException {
+        command.setIndex(0, commandSize);
+        ByteBufCodedInputStream cmdInputStream = ByteBufCodedInputStream.get(command);
+        BaseCommand.Builder cmdBuilder = BaseCommand.newBuilder();
+        BaseCommand cmd = cmdBuilder.mergeFrom(cmdInputStream, null).build();
+        cmdInputStream.recycle();
+
+        final long result;
+        switch (cmd.getType()) {
+        case SEND:
+            result = cmd.getSend().getSequenceId();
+            cmd.getSend().recycle();
+            break;
+        case MESSAGE:
+            result = cmd.getMessage().getMessageId().getEntryId();
+            cmd.getMessage().recycle();
+            break;
+        case ACK: {
+            CommandAck ack = cmd.getAck();
+            result = ack.getMessageId(0).getEntryId();
+            for (int i = 0; i < ack.getMessageIdCount(); i++) {
+                ack.getMessageId(i).recycle();
+            }
+            ack.recycle();
+            break;
+        }
+        default:
+            result = cmd.getFlow().getMessagePermits();
+            cmd.getFlow().recycle();
+            break;
+        }
+        cmdBuilder.recycle();
+        cmd.recycle();
+        return result;
+    }
+
+    @Benchmark
+    public long hotCommandDecoding() {
+        command.setIndex(0, commandSize);
+        final long result;
+        switch (HotCommandDecoder.readType(command)) {
+        case SEND: {
+            CommandSend send = HotCommandDecoder.readSend(command);
+            result = send.getSequenceId();
+            send.recycle();
+            break;
+        }
+        case MESSAGE: {
+            CommandMessage message = HotCommandDecoder.readMessage(command);
+            result = message.getMessageId().getEntryId();
+            message.recycle();
+            break;
+        }
+        case ACK: {
+            CommandAck ack = HotCommandDecoder.readAck(command);
+            result = ack.getMessageId(0).getEntryId();
+            for (int i = 0; i < ack.getMessageIdCount(); i++) {
+                ack.getMessageId(i).recycle();
+            }
+            ack.recycle();
+            break;
+        }
+        default: {
+            CommandFlow flow = HotCommandDecoder.readFlow(command);
+            result = flow.getMessagePermits();
+            flow.recycle();
+            break;
+        }
+        }
+        return result;
+    }
+}
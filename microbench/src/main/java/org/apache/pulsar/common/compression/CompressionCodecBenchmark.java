@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.compression;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.common.api.proto.PulsarApi.CompressionType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Compression throughput and ratio of the codecs on JSON events, the typical payload of the producers.
+ *
+ * <p>The ratio is the compressedBytes / uncompressedBytes counters reported with the encode results.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionCodecBenchmark {
+
+    @Param({ "LZ4", "ZLIB", "ZSTD", "SNAPPY" })
+    public CompressionType type;
+
+    // A single small message, and batches of messages
+    @Param({ "256", "4096", "131072" })
+    public int payloadSize;
+
+    private CompressionCodec codec;
+    private ByteBuf payload;
+    private ByteBuf compressed;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Sizes {
+        public long uncompressedBytes;
+        public long compressedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            uncompressedBytes = 0;
+            compressedBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        codec = CompressionCodecProvider.getCompressionCodec(type);
+        byte[] events = jsonEvents(payloadSize);
+        payload = PooledByteBufAllocator.DEFAULT.directBuffer(events.length);
+        payload.writeBytes(events);
+        compressed = codec.encode(payload);
+    }
+
+    @TearDown
+    public void tearDown() {
+        payload.release();
+        compressed.release();
+    }
+
+    @Benchmark
+    public ByteBuf encode(Sizes sizes) {
+        ByteBuf encoded = codec.encode(payload);
+        sizes.uncompressedBytes += payload.readableBytes();
+        sizes.compressedBytes += encoded.readableBytes();
+        encoded.release();
+        return encoded;
+    }
+
+    @Benchmark
+    public ByteBuf decode() throws IOException {
+        ByteBuf decoded = codec.decode(compressed, payload.readableBytes());
+        decoded.release();
+        return decoded;
+    }
+
+    // Events with the same keys and a mix of repeated and random values, generated with a fixed seed so that all the
+    // codecs compress the same content
+    static byte[] jsonEvents(int size) {
+        final String[] eventTypes = { "page_view", "click", "add_to_cart", "purchase", "logout" };
+        final String[] countries = { "US", "FR", "DE", "IN", "BR", "JP" };
+        final Random random = new Random(42);
+        final StringBuilder sb = new StringBuilder(size + 256);
+        long timestamp = 1546300800000L;
+        while (sb.length() < size) {
+            timestamp += random.nextInt(1000);
+            sb.append("{\"eventType\":\"").append(eventTypes[random.nextInt(eventTypes.length)])
+                    .append("\",\"timestamp\":").append(timestamp)
+                    .append(",\"userId\":\"user-").append(random.nextInt(100000))
+                    .append("\",\"sessionId\":\"").append(Long.toHexString(random.nextLong()))
+                    .append("\",\"country\":\"").append(countries[random.nextInt(countries.length)])
+                    .append("\",\"amount\":").append(random.nextInt(10000) / 100.0)
+                    .append(",\"userAgent\":\"Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36\"}\n");
+        }
+        sb.setLength(size);
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Throughput of the CRC32C implementations of {@link Crc32cChecksum}, over a single buffer and over headers and payload
+ * held in separate buffers, as done when sending and receiving messages.
+ *
+ * <p>The jdk implementation requires Java 9 or later.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Crc32cChecksumBenchmark {
+
+    // Size of the metadata of a message, in front of its payload
+    private static final int HEADERS_SIZE = 64;
+
+    @Param({ "jdk", "circe" })
+    public String implementation;
+
+    @Param({ "128", "1024", "65536", "1048576" })
+    public int payloadSize;
+
+    @Param({ "true", "false" })
+    public boolean direct;
+
+    private Crc32cChecksum.Implementation crc32c;
+    private ByteBuf headers;
+    private ByteBuf payload;
+
+    @Setup
+    public void setup() {
+        crc32c = "jdk".equals(implementation) ? Crc32cChecksum.JDK : Crc32cChecksum.CIRCE;
+        if (crc32c == null) {
+            throw new IllegalStateException("java.util.zip.CRC32C requires Java 9 or later");
+        }
+
+        final Random random = new Random(42);
+        headers = allocate(HEADERS_SIZE, random);
+        payload = allocate(payloadSize, random);
+    }
+
+    private ByteBuf allocate(int size, Random random) {
+        final byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        final ByteBuf buffer = direct ? PooledByteBufAllocator.DEFAULT.directBuffer(size)
+                : PooledByteBufAllocator.DEFAULT.heapBuffer(size);
+        return buffer.writeBytes(bytes);
+    }
+
+    @TearDown
+    public void teardown() {
+        headers.release();
+        payload.release();
+    }
+
+    @Benchmark
+    public int payload() {
+        return crc32c.checksum(payload);
+    }
+
+    @Benchmark
+    public int headersAndPayload() {
+        return crc32c.checksum(headers, payload);
+    }
+}
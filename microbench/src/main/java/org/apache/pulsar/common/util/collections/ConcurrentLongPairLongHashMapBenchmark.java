@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.collections;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.common.util.collections.ConcurrentLongPairSet.LongPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ConcurrentLongPairLongHashMap}, used for the pending acks of the consumers and the redelivery counters,
+ * compared to a {@link ConcurrentHashMap} keyed by {@link LongPair} objects, which boxes the keys and the values.
+ *
+ * <p>The maps are shared by the benchmark threads, use {@code -t} to change their number, and {@code -prof gc} to see
+ * the allocations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentLongPairLongHashMapBenchmark {
+
+    // The ledger of the positions
+    private static final long LEDGER_ID = 1234L;
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private ConcurrentLongPairLongHashMap longPairLongMap;
+    private Map<LongPair, Long> concurrentHashMap;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int entryId;
+
+        int next(int size) {
+            entryId = entryId + 1 < size ? entryId + 1 : 0;
+            return entryId;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        longPairLongMap = new ConcurrentLongPairLongHashMap(size);
+        concurrentHashMap = new ConcurrentHashMap<>(size);
+        // Only the even entries are in the maps, so that half of the lookups miss
+        for (int i = 0; i < size; i += 2) {
+            longPairLongMap.put(LEDGER_ID, i, 1);
+            concurrentHashMap.put(new LongPair(LEDGER_ID, i), 1L);
+        }
+    }
+
+    @Benchmark
+    public long longPairLongMapGet(Cursor cursor) {
+        return longPairLongMap.get(LEDGER_ID, cursor.next(size));
+    }
+
+    @Benchmark
+    public Long concurrentHashMapGet(Cursor cursor) {
+        return concurrentHashMap.get(new LongPair(LEDGER_ID, cursor.next(size)));
+    }
+
+    @Benchmark
+    public long longPairLongMapPutRemove(Cursor cursor) {
+        // Odd entries only, to leave the content of the map unchanged between the operations
+        long entryId = cursor.next(size) | 1;
+        longPairLongMap.put(LEDGER_ID, entryId, 10);
+        return longPairLongMap.remove(LEDGER_ID, entryId);
+    }
+
+    @Benchmark
+    public Long concurrentHashMapPutRemove(Cursor cursor) {
+        long entryId = cursor.next(size) | 1;
+        concurrentHashMap.put(new LongPair(LEDGER_ID, entryId), 10L);
+        return concurrentHashMap.remove(new LongPair(LEDGER_ID, entryId));
+    }
+
+    @Benchmark
+    public long longPairLongMapIncrement(Cursor cursor) {
+        return longPairLongMap.addAndGet(LEDGER_ID, cursor.next(size), 1);
+    }
+
+    @Benchmark
+    public Long concurrentHashMapIncrement(Cursor cursor) {
+        return concurrentHashMap.merge(new LongPair(LEDGER_ID, cursor.next(size)), 1L, Long::sum);
+    }
+}
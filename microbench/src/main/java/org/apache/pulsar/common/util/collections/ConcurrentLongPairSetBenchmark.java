@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.collections;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.common.util.collections.ConcurrentLongPairSet.LongPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ConcurrentLongPairSet}, used for the positions of the messages to redeliver and of the pending individual
+ * acknowledgments of the consumers, compared to concurrent sets of {@link LongPair} objects, which allocate on each
+ * insertion and lookup.
+ *
+ * <p>The sets are shared by the benchmark threads, use {@code -t} to change their number, and {@code -prof gc} to see
+ * the allocations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentLongPairSetBenchmark {
+
+    // The ledger of the positions
+    private static final long LEDGER_ID = 1234L;
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private ConcurrentLongPairSet longPairSet;
+    private Set<LongPair> concurrentHashSet;
+    private Set<LongPair> concurrentSkipListSet;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int entryId;
+
+        int next(int size) {
+            entryId = entryId + 1 < size ? entryId + 1 : 0;
+            return entryId;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        longPairSet = new ConcurrentLongPairSet(size);
+        concurrentHashSet = ConcurrentHashMap.newKeySet(size);
+        concurrentSkipListSet = new ConcurrentSkipListSet<>();
+        // Only the even entries are in the sets, so that half of the lookups miss
+        for (int i = 0; i < size; i += 2) {
+            longPairSet.add(LEDGER_ID, i);
+            concurrentHashSet.add(new LongPair(LEDGER_ID, i));
+            concurrentSkipListSet.add(new LongPair(LEDGER_ID, i));
+        }
+    }
+
+    @Benchmark
+    public boolean longPairSetContains(Cursor cursor) {
+        return longPairSet.contains(LEDGER_ID, cursor.next(size));
+    }
+
+    @Benchmark
+    public boolean concurrentHashSetContains(Cursor cursor) {
+        return concurrentHashSet.contains(new LongPair(LEDGER_ID, cursor.next(size)));
+    }
+
+    @Benchmark
+    public boolean concurrentSkipListSetContains(Cursor cursor) {
+        return concurrentSkipListSet.contains(new LongPair(LEDGER_ID, cursor.next(size)));
+    }
+
+    @Benchmark
+    public boolean longPairSetAddRemove(Cursor cursor) {
+        // Odd entries only, to leave the content of the set unchanged between the operations
+        long entryId = cursor.next(size) | 1;
+        longPairSet.add(LEDGER_ID, entryId);
+        return longPairSet.remove(LEDGER_ID, entryId);
+    }
+
+    @Benchmark
+    public boolean concurrentHashSetAddRemove(Cursor cursor) {
+        long entryId = cursor.next(size) | 1;
+        concurrentHashSet.add(new LongPair(LEDGER_ID, entryId));
+        return concurrentHashSet.remove(new LongPair(LEDGER_ID, entryId));
+    }
+
+    @Benchmark
+    public boolean concurrentSkipListSetAddRemove(Cursor cursor) {
+        long entryId = cursor.next(size) | 1;
+        concurrentSkipListSet.add(new LongPair(LEDGER_ID, entryId));
+        return concurrentSkipListSet.remove(new LongPair(LEDGER_ID, entryId));
+    }
+}
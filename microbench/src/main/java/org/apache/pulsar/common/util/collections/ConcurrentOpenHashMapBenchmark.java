@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.collections;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ConcurrentOpenHashMap}, used for the topics, producers and consumers of the broker, compared to
+ * {@link ConcurrentHashMap}.
+ *
+ * <p>The maps are shared by the benchmark threads, use {@code -t} to change their number.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentOpenHashMapBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private String[] keys;
+    private ConcurrentOpenHashMap<String, String> openHashMap;
+    private ConcurrentHashMap<String, String> concurrentHashMap;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        int next(int size) {
+            index = index + 1 < size ? index + 1 : 0;
+            return index;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        keys = new String[size];
+        openHashMap = new ConcurrentOpenHashMap<>(size);
+        concurrentHashMap = new ConcurrentHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            keys[i] = "persistent://tenant/namespace/topic-" + i;
+            // Only the even keys are in the maps, so that half of the lookups miss
+            if (i % 2 == 0) {
+                openHashMap.put(keys[i], keys[i]);
+                concurrentHashMap.put(keys[i], keys[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public String openHashMapGet(Cursor cursor) {
+        return openHashMap.get(keys[cursor.next(size)]);
+    }
+
+    @Benchmark
+    public String concurrentHashMapGet(Cursor cursor) {
+        return concurrentHashMap.get(keys[cursor.next(size)]);
+    }
+
+    @Benchmark
+    public String openHashMapPutRemove(Cursor cursor) {
+        // Odd keys only, to leave the content of the map unchanged between the operations
+        String key = keys[cursor.next(size) | 1];
+        openHashMap.put(key, key);
+        return openHashMap.remove(key);
+    }
+
+    @Benchmark
+    public String concurrentHashMapPutRemove(Cursor cursor) {
+        String key = keys[cursor.next(size) | 1];
+        concurrentHashMap.put(key, key);
+        return concurrentHashMap.remove(key);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.collections;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * Handoff of the messages between the IO threads and the application thread through the incoming messages queue of
+ * the consumers: {@link GrowableMpscArrayBlockingQueue} compared to {@link GrowableArrayBlockingQueue}.
+ *
+ * <p>Each group has producer threads adding the items and one consumer thread polling them, use {@code -tg} to change
+ * the number of threads, e.g. {@code -tg 4,1} for 4 producers. The producers wait when the consumer lags behind, and
+ * the consumer waits for the next item, so the scores of the group are the handoff rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class GrowableBlockingQueueBenchmark {
+
+    // Maximum number of items in the queue before the producers back off
+    private static final int MAX_BACKLOG = 64 * 1024;
+
+    private static final Integer ITEM = 1;
+
+    @Param({ "GrowableArrayBlockingQueue", "GrowableMpscArrayBlockingQueue" })
+    public String queueType;
+
+    private BlockingQueue<Integer> queue;
+
+    @Setup
+    public void setup() {
+        if ("GrowableArrayBlockingQueue".equals(queueType)) {
+            queue = new GrowableArrayBlockingQueue<>();
+        } else {
+            queue = new GrowableMpscArrayBlockingQueue<>();
+        }
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public boolean produce(Control control) {
+        while (queue.size() >= MAX_BACKLOG && !control.stopMeasurement) {
+            Thread.yield();
+        }
+
+        return queue.offer(ITEM);
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public Integer consume(Control control) {
+        // Not blocking in take(), which would never return once the producers are stopped
+        Integer item;
+        while ((item = queue.poll()) == null && !control.stopMeasurement) {
+            // Spin until the next item
+        }
+
+        return item;
+    }
+}
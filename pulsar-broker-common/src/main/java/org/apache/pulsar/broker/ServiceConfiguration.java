@@ -33,6 +33,7 @@ import org.apache.pulsar.broker.authorization.PulsarAuthorizationProvider;
 import org.apache.pulsar.common.configuration.FieldContext;
 import org.apache.pulsar.common.configuration.PulsarConfiguration;
 import org.apache.pulsar.common.policies.data.BacklogQuota;
+import org.apache.pulsar.common.util.netty.TransportProfile;
 
 /**
  * Pulsar service configuration object.
@@ -68,6 +69,9 @@ public class ServiceConfiguration implements PulsarConfiguration {
     // Number of threads to use for Netty IO
     private int numIOThreads = 2 * Runtime.getRuntime().availableProcessors();
 
+    // Netty options of the connections of the clients: "Default", "LowLatency" or "HighThroughput"
+    private TransportProfile transportProfile = TransportProfile.Default;
+
     // Enable the WebSocket API service
     private boolean webSocketServiceEnabled = false;
 
@@ -82,6 +86,9 @@ public class ServiceConfiguration implements PulsarConfiguration {
     private boolean failureDomainsEnabled = false;
     // Zookeeper session timeout in milliseconds
     private long zooKeeperSessionTimeoutMillis = 30000;
+    // Load all the namespace policies in the ZooKeeper cache when the broker starts, with pipelined async requests.
+    // Each loaded policies z-node gets a watch from the broker.
+    private boolean zooKeeperCachePrefetchEnabled = false;
     // Time to wait for broker graceful shutdown. After this time elapses, the
     // process will be killed
     @FieldContext(dynamic = true)
@@ -195,10 +202,24 @@ public class ServiceConfiguration implements PulsarConfiguration {
     // Max number of concurrent topic loading request broker allows to control number of zk-operations
     @FieldContext(dynamic = true)
     private int maxConcurrentTopicLoadRequest = 5000;
+    // Max number of topic loading requests waiting for one of the maxConcurrentTopicLoadRequest permits. Once reached,
+    // new topic loading requests fail immediately with TooManyRequests and clients retry later
+    @FieldContext(dynamic = true)
+    private int maxPendingTopicLoadRequest = 10000;
     // Max concurrent non-persistent message can be processed per connection
     private int maxConcurrentNonPersistentMessagePerConnection = 1000;
     // Number of worker threads to serve non-persistent topic
     private int numWorkerThreadsForNonPersistentTopic = Runtime.getRuntime().availableProcessors();;
+    // Number of shards used to dispatch the messages published on a non-persistent topic to its subscriptions. Each
+    // shard is served by one of the non-persistent topic worker threads. 0 means messages are always dispatched on
+    // the publishing thread
+    private int nonPersistentTopicFanOutShards = 0;
+    // Min number of subscriptions on a non-persistent topic to dispatch messages through the fan-out shards instead
+    // of the publishing thread
+    private int nonPersistentTopicFanOutMinSubscriptions = 100;
+    // Max number of messages queued for dispatch in each fan-out shard of a non-persistent topic, after which
+    // messages are dropped for the subscriptions of that shard
+    private int nonPersistentTopicFanOutMaxPendingMessagesPerShard = 1000;
 
     // Enable broker to load persistent topics
     private boolean enablePersistentTopics = true;
@@ -253,6 +274,9 @@ public class ServiceConfiguration implements PulsarConfiguration {
     private boolean authenticationEnabled = false;
     // Autentication provider name list, which is a list of class names
     private Set<String> authenticationProviders = Sets.newTreeSet();
+    // Number of threads verifying the credentials of the clients connecting with the binary protocol, so that the
+    // verification does not block the IO threads. 0 to verify the credentials on the IO threads
+    private int authenticationVerificationThreads = 0;
 
     // Enforce authorization
     private boolean authorizationEnabled = false;
@@ -275,6 +299,11 @@ public class ServiceConfiguration implements PulsarConfiguration {
     // (wildcard matching only applicable if wildcard-char:
     // * presents at first or last position eg: *.pulsar.service, pulsar.service.*)
     private boolean authorizationAllowWildcardsMatching = false;
+    // Time to keep the produce and consume authorization decisions of the default authorization provider in cache.
+    // The decisions on the topics of a namespace are also dropped when its policies change. 0 disables the cache
+    private int authorizationCacheTTLSeconds = 60;
+    // Max number of authorization decisions kept in cache
+    private int authorizationCacheMaxSize = 100000;
 
     // Authentication settings of the broker itself. Used when the broker connects
     // to other brokers, either in same or other clusters. Default uses plugin which disables authentication
@@ -396,12 +425,18 @@ public class ServiceConfiguration implements PulsarConfiguration {
     // load placement strategy[weightedRandomSelection/leastLoadedServer] (only used by SimpleLoadManagerImpl)
     @Deprecated
     private String loadBalancerPlacementStrategy = "leastLoadedServer"; // weighted random selection
+    // Name of the ModularLoadManagerStrategy class used to place bundles (only used by ModularLoadManagerImpl)
+    private String loadBalancerLoadPlacementStrategy =
+            "org.apache.pulsar.broker.loadbalance.impl.LeastLongTermMessageRate";
     // Percentage of change to trigger load report update
     @FieldContext(dynamic = true)
     private int loadBalancerReportUpdateThresholdPercentage = 10;
     // maximum interval to update load report
     @FieldContext(dynamic = true)
     private int loadBalancerReportUpdateMaxIntervalMinutes = 15;
+    // Publish the bundle stats of the load report in a compact binary format, as a snapshot followed by deltas of the
+    // changed bundles (only used by ModularLoadManagerImpl). All the brokers of the cluster must have the same setting
+    private boolean loadBalancerCompactLoadReportEnabled = false;
     // Frequency of report to collect
     private int loadBalancerHostUsageCheckIntervalMinutes = 1;
     // Enable/disable automatic bundle unloading for load-shedding
@@ -413,6 +448,12 @@ public class ServiceConfiguration implements PulsarConfiguration {
     // Prevent the same topics to be shed and moved to other broker more that
     // once within this timeframe
     private long loadBalancerSheddingGracePeriodMinutes = 30;
+    // Name of the LoadSheddingStrategy class used to select the bundles to unload (only used by ModularLoadManagerImpl)
+    private String loadBalancerLoadSheddingStrategy = "org.apache.pulsar.broker.loadbalance.impl.OverloadShedder";
+    // When shedding a bundle, select its new owner upfront and hand the bundle over to it: clients are redirected to
+    // the new owner, which acquires the bundle and loads its topics right after they are closed on the current owner
+    @FieldContext(dynamic = true)
+    private boolean loadBalancerBundleHandoffEnabled = false;
     // Usage threshold to determine a broker as under-loaded (only used by SimpleLoadManagerImpl)
     @Deprecated
     private int loadBalancerBrokerUnderloadedThresholdPercentage = 50;
@@ -423,6 +464,27 @@ public class ServiceConfiguration implements PulsarConfiguration {
     // Usage threshold to determine a broker as over-loaded
     @FieldContext(dynamic = true)
     private int loadBalancerBrokerOverloadedThresholdPercentage = 85;
+    // Weights of the resource usages when scoring the brokers (only used by LeastWeightedResourceUsage)
+    @FieldContext(dynamic = true)
+    private double loadBalancerCPUResourceWeight = 1.0;
+    @FieldContext(dynamic = true)
+    private double loadBalancerMemoryResourceWeight = 1.0;
+    @FieldContext(dynamic = true)
+    private double loadBalancerDirectMemoryResourceWeight = 1.0;
+    @FieldContext(dynamic = true)
+    private double loadBalancerBandwidthInResourceWeight = 1.0;
+    @FieldContext(dynamic = true)
+    private double loadBalancerBandwidthOutResourceWeight = 1.0;
+    // Usage threshold above the average usage of the cluster to determine a broker as over-loaded
+    // (only used by ThresholdShedder)
+    @FieldContext(dynamic = true)
+    private int loadBalancerBrokerThresholdShedderPercentage = 10;
+    // Weight of the previous usage of a broker when averaging its usage over time (only used by ThresholdShedder)
+    @FieldContext(dynamic = true)
+    private double loadBalancerHistoryResourcePercentage = 0.9;
+    // Minimum throughput, in MByte/s, to offload from an over-loaded broker (only used by ThresholdShedder)
+    @FieldContext(dynamic = true)
+    private double loadBalancerBundleUnloadMinThroughputThreshold = 10;
     // Interval to flush dynamic resource quota to ZooKeeper
     private int loadBalancerResourceQuotaUpdateIntervalMinutes = 15;
     // Usage threshold to determine a broker is having just right level of load (only used by SimpleLoadManagerImpl)
@@ -444,6 +506,11 @@ public class ServiceConfiguration implements PulsarConfiguration {
     private int loadBalancerNamespaceBundleMaxBandwidthMbytes = 100;
     // maximum number of bundles in a namespace
     private int loadBalancerNamespaceMaximumBundles = 128;
+    // Algorithm picking the boundaries of a bundle split: "range_equally_divide" splits the hash range of the bundle
+    // in two halves, "topic_load_weighted" splits at the median of the topic hashes weighted by their throughput, and
+    // gives a topic carrying more than half of the throughput of the bundle a bundle of its own
+    @FieldContext(dynamic = true)
+    private String namespaceBundleSplitAlgorithm = "range_equally_divide";
     // Name of load manager to use
     @FieldContext(dynamic = true)
     private String loadManagerClassName = "org.apache.pulsar.broker.loadbalance.impl.ModularLoadManagerImpl";
@@ -463,6 +530,12 @@ public class ServiceConfiguration implements PulsarConfiguration {
     private String replicatorPrefix = "pulsar.repl";
     // Replicator producer queue size;
     private int replicationProducerQueueSize = 1000;
+    // Max number of entries to read from the local managed ledger in a single read by each replicator. Larger
+    // batches help keeping the replicator producer queue full on high-latency links
+    private int replicationReadBatchSize = 100;
+    // Max number of bytes that each replicator is allowed to have in flight towards the remote cluster (sent and
+    // not yet acknowledged). 0 means the replicator is only limited by replicationProducerQueueSize
+    private long replicationMaxPendingBytes = 0;
     // @deprecated - Use brokerClientTlsEnabled instead.
     @Deprecated
     private boolean replicationTlsEnabled = false;
@@ -493,6 +566,9 @@ public class ServiceConfiguration implements PulsarConfiguration {
             "org.apache.pulsar.broker.service.schema.JsonSchemaCompatibilityCheck",
             "org.apache.pulsar.broker.service.schema.AvroSchemaCompatibilityCheck"
     );
+    // Max number of entries in each of the in-memory caches of the schema registry: the schemas by version, the
+    // results of the compatibility checks and the schema entries read from the storage
+    private int schemaRegistryCacheMaxEntries = 1000;
 
     /**** --- WebSocket --- ****/
     // Number of IO threads in Pulsar Client used in WebSocket proxy
@@ -506,6 +582,12 @@ public class ServiceConfiguration implements PulsarConfiguration {
     // If true, export topic level metrics otherwise namespace level
     private boolean exposeTopicLevelMetricsInPrometheus = true;
     private boolean exposeConsumerLevelMetricsInPrometheus = false;
+    // If true, Prometheus scrapes are served from a rendering of the metrics that is rebuilt every
+    // statsUpdateFrequencyInSecs, instead of walking all the topics on each scrape
+    private boolean exposePrometheusMetricsFromCache = false;
+    // If true, track the latency distribution of publish, dispatch and ack operations for each persistent topic. The
+    // percentiles are reported in the topic stats and in the Prometheus metrics
+    private boolean topicLatencyHistogramsEnabled = false;
 
     /**** --- Functions --- ****/
     private boolean functionsWorkerEnabled = false;
@@ -24,7 +24,9 @@ import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Date;
 
 import javax.naming.AuthenticationException;
 
@@ -32,6 +34,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.pulsar.broker.ServiceConfiguration;
 import org.apache.pulsar.broker.authentication.utils.AuthTokenUtils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
 public class AuthenticationProviderToken implements AuthenticationProvider {
 
     public final static String HTTP_HEADER_NAME = "Authorization";
@@ -43,8 +50,26 @@ public class AuthenticationProviderToken implements AuthenticationProvider {
     // When public/private key pair is configured
     final static String CONF_TOKEN_PUBLIC_KEY = "tokenPublicKey";
 
+    // Max number of verified tokens to keep in cache, 0 to verify the signature of each token
+    final static String CONF_TOKEN_VERIFICATION_CACHE_MAX_SIZE = "tokenVerificationCacheMaxSize";
+    final static long DEFAULT_TOKEN_VERIFICATION_CACHE_MAX_SIZE = 10000;
+
     private Key validationKey;
 
+    // Roles of the tokens whose signature was already verified, by hash of the token
+    private Cache<HashCode, VerifiedToken> verifiedTokens;
+
+    private static final class VerifiedToken {
+        private final String role;
+        // Expiration time of the token, or null if it never expires
+        private final Date expiration;
+
+        VerifiedToken(String role, Date expiration) {
+            this.role = role;
+            this.expiration = expiration;
+        }
+    }
+
     @Override
     public void close() throws IOException {
         // noop
@@ -53,6 +78,11 @@ public class AuthenticationProviderToken implements AuthenticationProvider {
     @Override
     public void initialize(ServiceConfiguration config) throws IOException {
         this.validationKey = getValidationKey(config);
+
+        final long cacheMaxSize = getVerificationCacheMaxSize(config);
+        if (cacheMaxSize > 0) {
+            this.verifiedTokens = CacheBuilder.newBuilder().maximumSize(cacheMaxSize).build();
+        }
     }
 
     @Override
@@ -83,19 +113,52 @@ public class AuthenticationProviderToken implements AuthenticationProvider {
             throw new AuthenticationException("No token credentials passed");
         }
 
-        // Validate the token
+        if (verifiedTokens == null) {
+            return validateToken(token).getSubject();
+        }
+
+        // The signature of a token only depends on the token and the validation key, which does not change, so a token
+        // already verified only needs its expiration to be checked again. An expired token is parsed again to fail
+        // with the usual error.
+        final HashCode tokenHash = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        final VerifiedToken verifiedToken = verifiedTokens.getIfPresent(tokenHash);
+        if (verifiedToken != null) {
+            if (verifiedToken.expiration == null || verifiedToken.expiration.getTime() > System.currentTimeMillis()) {
+                return verifiedToken.role;
+            }
+            verifiedTokens.invalidate(tokenHash);
+        }
+
+        final Claims claims = validateToken(token);
+        verifiedTokens.put(tokenHash, new VerifiedToken(claims.getSubject(), claims.getExpiration()));
+        return claims.getSubject();
+    }
+
+    private Claims validateToken(String token) throws AuthenticationException {
         try {
             @SuppressWarnings("unchecked")
             Jwt<?, Claims> jwt = Jwts.parser()
                     .setSigningKey(validationKey)
                     .parse(token);
 
-            return jwt.getBody().getSubject();
+            return jwt.getBody();
         } catch (JwtException e) {
             throw new AuthenticationException("Failed to authentication token: " + e.getMessage());
         }
     }
 
+    private static long getVerificationCacheMaxSize(ServiceConfiguration conf) throws IOException {
+        final String cacheMaxSize = (String) conf.getProperty(CONF_TOKEN_VERIFICATION_CACHE_MAX_SIZE);
+        if (StringUtils.isBlank(cacheMaxSize)) {
+            return DEFAULT_TOKEN_VERIFICATION_CACHE_MAX_SIZE;
+        }
+        try {
+            return Long.parseLong(cacheMaxSize.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid " + CONF_TOKEN_VERIFICATION_CACHE_MAX_SIZE + ": " + cacheMaxSize);
+        }
+    }
+
     /**
      * Try to get the validation key for tokens from several possible config options.
      */
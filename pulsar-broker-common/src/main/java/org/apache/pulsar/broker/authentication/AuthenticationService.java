@@ -21,6 +21,10 @@ package org.apache.pulsar.broker.authentication;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.naming.AuthenticationException;
 import javax.servlet.http.HttpServletRequest;
@@ -33,6 +37,8 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Maps;
 
+import io.netty.util.concurrent.DefaultThreadFactory;
+
 /**
  * Authentication service
  *
@@ -43,6 +49,9 @@ public class AuthenticationService implements Closeable {
 
     private final Map<String, AuthenticationProvider> providers = Maps.newHashMap();
 
+    // Threads verifying the credentials of binary protocol connections, or null to verify them on the caller thread
+    private final ExecutorService verificationExecutor;
+
     public AuthenticationService(ServiceConfiguration conf) throws PulsarServerException {
         anonymousUserRole = conf.getAnonymousUserRole();
         if (conf.isAuthenticationEnabled()) {
@@ -66,6 +75,13 @@ public class AuthenticationService implements Closeable {
         } else {
             LOG.info("Authentication is disabled");
         }
+
+        if (conf.isAuthenticationEnabled() && conf.getAuthenticationVerificationThreads() > 0) {
+            verificationExecutor = Executors.newFixedThreadPool(conf.getAuthenticationVerificationThreads(),
+                    new DefaultThreadFactory("pulsar-authentication"));
+        } else {
+            verificationExecutor = null;
+        }
     }
 
     public String authenticate(AuthenticationDataSource authData, String authMethodName)
@@ -81,6 +97,39 @@ public class AuthenticationService implements Closeable {
         }
     }
 
+    /**
+     * Authenticate on the verification threads, if configured, so that the caller thread is not blocked by expensive
+     * verifications, such as the signature of the tokens.
+     *
+     * @return the future of the role, completed on the verification threads, or before returning when no verification
+     *         thread is configured
+     */
+    public CompletableFuture<String> authenticateAsync(AuthenticationDataSource authData, String authMethodName) {
+        CompletableFuture<String> roleFuture = new CompletableFuture<>();
+        if (verificationExecutor == null) {
+            completeAuthentication(roleFuture, authData, authMethodName);
+        } else {
+            try {
+                verificationExecutor.execute(() -> completeAuthentication(roleFuture, authData, authMethodName));
+            } catch (RejectedExecutionException e) {
+                roleFuture.completeExceptionally(new AuthenticationException("Authentication service is closed"));
+            }
+        }
+        return roleFuture;
+    }
+
+    private void completeAuthentication(CompletableFuture<String> roleFuture, AuthenticationDataSource authData,
+            String authMethodName) {
+        try {
+            roleFuture.complete(authenticate(authData, authMethodName));
+        } catch (AuthenticationException e) {
+            roleFuture.completeExceptionally(e);
+        } catch (Throwable t) {
+            LOG.warn("Failed to authenticate with {}", authMethodName, t);
+            roleFuture.completeExceptionally(new AuthenticationException("Failed to authenticate: " + t.getMessage()));
+        }
+    }
+
     public String authenticateHttpRequest(HttpServletRequest request) throws AuthenticationException {
         // Try to validate with any configured provider
         AuthenticationDataSource authData = new AuthenticationDataHttps(request);
@@ -107,6 +156,9 @@ public class AuthenticationService implements Closeable {
 
     @Override
     public void close() throws IOException {
+        if (verificationExecutor != null) {
+            verificationExecutor.shutdown();
+        }
         for (AuthenticationProvider provider : providers.values()) {
             provider.close();
         }
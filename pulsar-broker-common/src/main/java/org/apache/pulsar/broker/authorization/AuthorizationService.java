@@ -21,8 +21,12 @@ package org.apache.pulsar.broker.authorization;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.pulsar.zookeeper.ZooKeeperCache.cacheTimeOutInSec;
 
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pulsar.broker.PulsarServerException;
@@ -32,20 +36,47 @@ import org.apache.pulsar.broker.cache.ConfigurationCacheService;
 import org.apache.pulsar.common.naming.NamespaceName;
 import org.apache.pulsar.common.naming.TopicName;
 import org.apache.pulsar.common.policies.data.AuthAction;
+import org.apache.pulsar.common.policies.data.Policies;
 import org.apache.pulsar.common.util.FutureUtil;
+import org.apache.pulsar.zookeeper.ZooKeeperCache;
+import org.apache.pulsar.zookeeper.ZooKeeperCacheListener;
+import org.apache.zookeeper.data.Stat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.prometheus.client.Counter;
+
 /**
  * Authorization service that manages pluggable authorization provider and authorize requests accordingly.
  *
  */
-public class AuthorizationService {
+public class AuthorizationService implements ZooKeeperCacheListener<Policies> {
     private static final Logger log = LoggerFactory.getLogger(AuthorizationService.class);
 
+    private static final String POLICY_ROOT = "/admin/policies/";
+
+    private static final Counter decisionCacheHits = Counter
+            .build("pulsar_authorization_cache_hits", "Counter of authorization checks served from the cache").create()
+            .register();
+
+    private static final Counter decisionCacheMisses = Counter
+            .build("pulsar_authorization_cache_misses", "Counter of authorization checks sent to the provider")
+            .create().register();
+
     private AuthorizationProvider provider;
     private final ServiceConfiguration conf;
 
+    // Decisions of the provider, only used with PulsarAuthorizationProvider since its decisions only depend on the
+    // namespace policies, whose changes invalidate the decisions through the policies cache watch. The decisions on a
+    // namespace are only used while its policies are in the cache, and therefore watched.
+    private Cache<DecisionKey, Boolean> decisionCache;
+    private ZooKeeperCache policiesZkCache;
+    // Incremented on each invalidation, so that decisions computed before an invalidation are not cached after it
+    private final AtomicLong decisionCacheInvalidations = new AtomicLong();
+
     public AuthorizationService(ServiceConfiguration conf, ConfigurationCacheService configCache)
             throws PulsarServerException {
 
@@ -65,11 +96,106 @@ public class AuthorizationService {
             } catch (Throwable e) {
                 throw new PulsarServerException("Failed to load an authorization provider.", e);
             }
+
+            if (provider instanceof PulsarAuthorizationProvider && configCache.cache() != null
+                    && configCache.policiesCache() != null && conf.getAuthorizationCacheTTLSeconds() > 0) {
+                policiesZkCache = configCache.cache();
+                decisionCache = CacheBuilder.newBuilder().maximumSize(conf.getAuthorizationCacheMaxSize())
+                        .expireAfterWrite(conf.getAuthorizationCacheTTLSeconds(), TimeUnit.SECONDS).build();
+                configCache.policiesCache().registerListener(this);
+            }
         } else {
             log.info("Authorization is disabled");
         }
     }
 
+    private static final class DecisionKey {
+        private final String role;
+        private final String namespace;
+        private final String topic;
+        private final AuthAction action;
+        private final String subscription;
+
+        DecisionKey(String role, TopicName topicName, AuthAction action, String subscription) {
+            this.role = role;
+            this.namespace = topicName.getNamespace();
+            this.topic = topicName.toString();
+            this.action = action;
+            this.subscription = subscription;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey other = (DecisionKey) obj;
+            return Objects.equals(role, other.role) && topic.equals(other.topic) && action == other.action
+                    && Objects.equals(subscription, other.subscription);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(role, topic, action, subscription);
+        }
+    }
+
+    /**
+     * Invalidate the cached decisions on the topics of a namespace whose policies changed.
+     */
+    @Override
+    public void onUpdate(String path, Policies data, Stat stat) {
+        if (path.startsWith(POLICY_ROOT)) {
+            invalidateDecisions(path.substring(POLICY_ROOT.length()));
+        }
+    }
+
+    private void invalidateDecisions(String namespace) {
+        if (decisionCache != null) {
+            decisionCacheInvalidations.incrementAndGet();
+            decisionCache.asMap().keySet().removeIf(key -> key.namespace.equals(namespace));
+        }
+    }
+
+    private CompletableFuture<Boolean> cachedDecision(TopicName topicName, String role, AuthAction action,
+            String subscription, Supplier<CompletableFuture<Boolean>> decision) {
+        if (decisionCache == null) {
+            return decision.get();
+        }
+
+        final DecisionKey key = new DecisionKey(role, topicName, action, subscription);
+        final String policiesPath = POLICY_ROOT + key.namespace;
+        final Boolean cachedDecision = decisionCache.getIfPresent(key);
+        if (cachedDecision != null && policiesZkCache.getDataIfPresent(policiesPath) != null) {
+            decisionCacheHits.inc();
+            return CompletableFuture.completedFuture(cachedDecision);
+        }
+
+        decisionCacheMisses.inc();
+        final long invalidations = decisionCacheInvalidations.get();
+        return decision.get().thenApply(authorized -> {
+            if (authorized != null && decisionCacheInvalidations.get() == invalidations
+                    && policiesZkCache.getDataIfPresent(policiesPath) != null) {
+                decisionCache.put(key, authorized);
+            }
+            return authorized;
+        });
+    }
+
+    /**
+     * @return the number of authorization checks served from the cache of decisions
+     */
+    public static double getDecisionCacheHits() {
+        return decisionCacheHits.get();
+    }
+
+    /**
+     * @return the number of authorization checks which were not found in the cache of decisions
+     */
+    public static double getDecisionCacheMisses() {
+        return decisionCacheMisses.get();
+    }
+
     /**
      *
      * Grant authorization-action permission on a namespace to the given client
@@ -89,7 +215,8 @@ public class AuthorizationService {
             String authDataJson) {
 
         if (provider != null) {
-            return provider.grantPermissionAsync(namespace, actions, role, authDataJson);
+            return provider.grantPermissionAsync(namespace, actions, role, authDataJson)
+                    .thenRun(() -> invalidateDecisions(namespace.toString()));
         }
         return FutureUtil.failedFuture(new IllegalStateException("No authorization provider configured"));
     }
@@ -109,7 +236,8 @@ public class AuthorizationService {
             String authDataJson) {
 
         if (provider != null) {
-            return provider.grantPermissionAsync(topicname, actions, role, authDataJson);
+            return provider.grantPermissionAsync(topicname, actions, role, authDataJson)
+                    .thenRun(() -> invalidateDecisions(topicname.getNamespace()));
         }
         return FutureUtil.failedFuture(new IllegalStateException("No authorization provider configured"));
 
@@ -131,7 +259,8 @@ public class AuthorizationService {
         }
 
         if (provider != null) {
-            return provider.canProduceAsync(topicName, role, authenticationData);
+            return cachedDecision(topicName, role, AuthAction.produce, null,
+                    () -> provider.canProduceAsync(topicName, role, authenticationData));
         }
         return FutureUtil.failedFuture(new IllegalStateException("No authorization provider configured"));
     }
@@ -152,7 +281,8 @@ public class AuthorizationService {
             return CompletableFuture.completedFuture(true);
         }
         if (provider != null) {
-            return provider.canConsumeAsync(topicName, role, authenticationData, subscription);
+            return cachedDecision(topicName, role, AuthAction.consume, subscription,
+                    () -> provider.canConsumeAsync(topicName, role, authenticationData, subscription));
         }
         return FutureUtil.failedFuture(new IllegalStateException("No authorization provider configured"));
     }
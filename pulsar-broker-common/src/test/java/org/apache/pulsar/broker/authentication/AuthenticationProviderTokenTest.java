@@ -284,4 +284,52 @@ public class AuthenticationProviderTokenTest {
 
         provider.close();
     }
+
+    @Test
+    public void testVerificationCacheHonoursExpiration() throws Exception {
+        SecretKey secretKey = AuthTokenUtils.createSecretKey(SignatureAlgorithm.HS256);
+
+        AuthenticationProviderToken provider = new AuthenticationProviderToken();
+
+        Properties properties = new Properties();
+        properties.setProperty(AuthenticationProviderToken.CONF_TOKEN_SECRET_KEY,
+                AuthTokenUtils.encodeKeyBase64(secretKey));
+        properties.setProperty(AuthenticationProviderToken.CONF_TOKEN_VERIFICATION_CACHE_MAX_SIZE, "10");
+
+        ServiceConfiguration conf = new ServiceConfiguration();
+        conf.setProperties(properties);
+        provider.initialize(conf);
+
+        // The expiration of the tokens has a precision of one second
+        long expirationMillis = (System.currentTimeMillis() / 1000 + 2) * 1000;
+        String token = AuthTokenUtils.createToken(secretKey, "my-test-subject",
+                Optional.of(new Date(expirationMillis)));
+        AuthenticationDataSource authData = new AuthenticationDataSource() {
+            @Override
+            public boolean hasDataFromCommand() {
+                return true;
+            }
+
+            @Override
+            public String getCommandData() {
+                return token;
+            }
+        };
+
+        // First verification, then served from the cache
+        assertEquals(provider.authenticate(authData), "my-test-subject");
+        assertEquals(provider.authenticate(authData), "my-test-subject");
+
+        Thread.sleep(expirationMillis - System.currentTimeMillis() + 100);
+
+        // The cached token expired
+        try {
+            provider.authenticate(authData);
+            fail("Should have failed");
+        } catch (AuthenticationException e) {
+            // expected, token was expired
+        }
+
+        provider.close();
+    }
 }
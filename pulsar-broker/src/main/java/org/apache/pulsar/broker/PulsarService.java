@@ -71,6 +71,7 @@ import org.apache.pulsar.broker.service.BrokerService;
 import org.apache.pulsar.broker.service.Topic;
 import org.apache.pulsar.broker.service.schema.SchemaRegistryService;
 import org.apache.pulsar.broker.stats.MetricsGenerator;
+import org.apache.pulsar.broker.stats.prometheus.PrometheusMetricsCache;
 import org.apache.pulsar.broker.stats.prometheus.PrometheusMetricsServlet;
 import org.apache.pulsar.broker.web.WebService;
 import org.apache.pulsar.client.admin.PulsarAdmin;
@@ -127,6 +128,7 @@ public class PulsarService implements AutoCloseable {
     private LeaderElectionService leaderElectionService = null;
     private BrokerService brokerService = null;
     private WebService webService = null;
+    private PrometheusMetricsCache prometheusMetricsCache = null;
     private WebSocketService webSocketService = null;
     private ConfigurationCacheService configurationCacheService = null;
     private LocalZooKeeperCacheService localZkCacheService = null;
@@ -223,6 +225,12 @@ public class PulsarService implements AutoCloseable {
                 this.brokerService = null;
             }
 
+            // Closed after the broker service, which refreshes it when the stats are updated
+            if (this.prometheusMetricsCache != null) {
+                this.prometheusMetricsCache.close();
+                this.prometheusMetricsCache = null;
+            }
+
             if (this.managedLedgerClientFactory != null) {
                 this.managedLedgerClientFactory.close();
                 this.managedLedgerClientFactory = null;
@@ -380,8 +388,14 @@ public class PulsarService implements AutoCloseable {
             this.webService.addRestResources("/admin/v2", "org.apache.pulsar.broker.admin.v2", true, attributeMap);
             this.webService.addRestResources("/lookup", "org.apache.pulsar.broker.lookup", true, attributeMap);
 
+            if (config.isExposePrometheusMetricsFromCache()) {
+                this.prometheusMetricsCache = new PrometheusMetricsCache(this,
+                        config.isExposeTopicLevelMetricsInPrometheus(),
+                        config.isExposeConsumerLevelMetricsInPrometheus());
+            }
             this.webService.addServlet("/metrics",
-                    new ServletHolder(new PrometheusMetricsServlet(this, config.isExposeTopicLevelMetricsInPrometheus(), config.isExposeConsumerLevelMetricsInPrometheus())),
+                    new ServletHolder(new PrometheusMetricsServlet(this, config.isExposeTopicLevelMetricsInPrometheus(),
+                            config.isExposeConsumerLevelMetricsInPrometheus(), prometheusMetricsCache)),
                     false, attributeMap);
 
             if (config.isWebSocketServiceEnabled()) {
@@ -545,6 +559,18 @@ public class PulsarService implements AutoCloseable {
 
         this.configurationCacheService = new ConfigurationCacheService(getGlobalZkCache(), this.config.getClusterName());
         this.localZkCacheService = new LocalZooKeeperCacheService(getLocalZkCache(), this.configurationCacheService);
+
+        if (config.isZooKeeperCachePrefetchEnabled()) {
+            // The namespace policies are at /admin/policies/<tenant>/<namespace>, load them in the background
+            long startTime = System.nanoTime();
+            this.configurationCacheService.policiesCache().prefetchAsync(ConfigurationCacheService.POLICIES_ROOT, 2)
+                    .thenAccept(loadedPolicies -> LOG.info("Prefetched {} namespace policies in {} ms",
+                            loadedPolicies, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)))
+                    .exceptionally(ex -> {
+                        LOG.warn("Failed to prefetch the namespace policies: {}", ex.getMessage());
+                        return null;
+                    });
+        }
     }
 
     private void startNamespaceService() throws PulsarServerException {
@@ -592,7 +618,7 @@ public class PulsarService implements AutoCloseable {
                 try {
                     TopicName topicName = TopicName.get(topic);
                     if (bundle.includes(topicName)) {
-                        CompletableFuture<Topic> future = brokerService.getOrCreateTopic(topic);
+                        CompletableFuture<Topic> future = brokerService.preloadTopic(topic);
                         if (future != null) {
                             persistentTopics.add(future);
                         }
@@ -671,6 +697,15 @@ public class PulsarService implements AutoCloseable {
         return this.brokerService;
     }
 
+    /**
+     * Get the cached rendering of the Prometheus metrics, if enabled.
+     *
+     * @return the metrics cache or null if metrics are generated on each scrape
+     */
+    public PrometheusMetricsCache getPrometheusMetricsCache() {
+        return this.prometheusMetricsCache;
+    }
+
     public BookKeeper getBookKeeperClient() {
         return managedLedgerClientFactory.getBookKeeperClient();
     }
@@ -533,6 +533,10 @@ public abstract class NamespacesBase extends AdminResource {
 
     @SuppressWarnings("deprecation")
     public void internalUnloadNamespaceBundle(String bundleRange, boolean authoritative) {
+        internalUnloadNamespaceBundle(bundleRange, authoritative, null);
+    }
+
+    public void internalUnloadNamespaceBundle(String bundleRange, boolean authoritative, String destinationBroker) {
         log.info("[{}] Unloading namespace bundle {}/{}", clientAppId(), namespaceName, bundleRange);
 
         validateSuperUserAccess();
@@ -557,7 +561,11 @@ public abstract class NamespacesBase extends AdminResource {
         NamespaceBundle nsBundle = validateNamespaceBundleOwnership(namespaceName, policies.bundles, bundleRange,
                 authoritative, true);
         try {
-            pulsar().getNamespaceService().unloadNamespaceBundle(nsBundle);
+            if (isBlank(destinationBroker)) {
+                pulsar().getNamespaceService().unloadNamespaceBundle(nsBundle);
+            } else {
+                pulsar().getNamespaceService().unloadNamespaceBundle(nsBundle, destinationBroker);
+            }
             log.info("[{}] Successfully unloaded namespace bundle {}", clientAppId(), nsBundle.toString());
         } catch (Exception e) {
             log.error("[{}] Failed to unload namespace bundle {}/{}", clientAppId(), namespaceName, bundleRange, e);
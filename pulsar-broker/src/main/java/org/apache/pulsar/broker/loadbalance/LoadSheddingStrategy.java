@@ -21,6 +21,8 @@ package org.apache.pulsar.broker.loadbalance;
 import com.google.common.collect.Multimap;
 
 import org.apache.pulsar.broker.ServiceConfiguration;
+import org.apache.pulsar.broker.loadbalance.impl.OverloadShedder;
+import org.slf4j.LoggerFactory;
 
 /**
  * Load management component which determines the criteria for unloading bundles.
@@ -37,4 +39,23 @@ public interface LoadSheddingStrategy {
      * @return A map from all selected bundles to the brokers on which they reside.
      */
     Multimap<String, String> findBundlesForUnloading(LoadData loadData, ServiceConfiguration conf);
+
+    /**
+     * Create a load shedding strategy using the configuration.
+     *
+     * @param conf
+     *            ServiceConfiguration to use.
+     * @return A load shedding strategy from the given configurations.
+     */
+    static LoadSheddingStrategy create(final ServiceConfiguration conf) {
+        try {
+            final Class<?> strategyClass = Class.forName(conf.getLoadBalancerLoadSheddingStrategy());
+            return (LoadSheddingStrategy) strategyClass.getConstructor().newInstance();
+        } catch (Exception e) {
+            LoggerFactory.getLogger(LoadSheddingStrategy.class).warn(
+                    "Failed to create load shedding strategy {}, using OverloadShedder",
+                    conf.getLoadBalancerLoadSheddingStrategy(), e);
+        }
+        return new OverloadShedder();
+    }
 }
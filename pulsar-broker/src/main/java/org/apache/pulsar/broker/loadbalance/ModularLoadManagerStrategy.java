@@ -24,6 +24,7 @@ import java.util.Set;
 import org.apache.pulsar.broker.BundleData;
 import org.apache.pulsar.broker.ServiceConfiguration;
 import org.apache.pulsar.broker.loadbalance.impl.LeastLongTermMessageRate;
+import org.slf4j.LoggerFactory;
 
 /**
  * Interface which serves as a component for ModularLoadManagerImpl, flexibly allowing the injection of potentially
@@ -56,10 +57,13 @@ public interface ModularLoadManagerStrategy {
      */
     static ModularLoadManagerStrategy create(final ServiceConfiguration conf) {
         try {
-            // Only one strategy at the moment.
-            return new LeastLongTermMessageRate(conf);
+            final Class<?> strategyClass = Class.forName(conf.getLoadBalancerLoadPlacementStrategy());
+            return (ModularLoadManagerStrategy) strategyClass.getConstructor(ServiceConfiguration.class)
+                    .newInstance(conf);
         } catch (Exception e) {
-            // Ignore
+            LoggerFactory.getLogger(ModularLoadManagerStrategy.class).warn(
+                    "Failed to create placement strategy {}, using LeastLongTermMessageRate",
+                    conf.getLoadBalancerLoadPlacementStrategy(), e);
         }
         return new LeastLongTermMessageRate(conf);
     }
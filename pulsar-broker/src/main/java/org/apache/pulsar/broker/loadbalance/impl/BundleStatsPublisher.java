@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.loadbalance.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.pulsar.broker.loadbalance.impl.LoadReportFormat.BundleStats;
+import org.apache.pulsar.broker.loadbalance.impl.LoadReportFormat.BundleStatsReport;
+import org.apache.pulsar.policies.data.loadbalancer.NamespaceBundleStats;
+
+/**
+ * Builds the binary bundle stats reports published by a broker.
+ *
+ * <p>A snapshot with the stats of all the bundles is published first. Each following report is a delta containing the
+ * bundles whose stats changed by more than the given threshold, or were removed, since that snapshot. Deltas are
+ * cumulative, so that the leader only needs the snapshot and the latest delta to rebuild the stats of the broker. When
+ * the delta grows larger than half of the snapshot, a new snapshot is taken.
+ */
+class BundleStatsPublisher {
+
+    /**
+     * The reports to write on ZooKeeper after an update. The snapshot is only set when a new one was taken, and must be
+     * written before the delta.
+     */
+    static class Reports {
+        final BundleStatsReport snapshot;
+        final BundleStatsReport delta;
+
+        Reports(BundleStatsReport snapshot, BundleStatsReport delta) {
+            this.snapshot = snapshot;
+            this.delta = delta;
+        }
+    }
+
+    private long snapshotId = -1;
+    private int snapshotSize = 0;
+
+    // The stats of each bundle as last published, either in the snapshot or in a delta
+    private final Map<String, NamespaceBundleStats> publishedStats = new HashMap<>();
+
+    // The bundles published in a delta since the snapshot, and the bundles removed since the snapshot
+    private final Set<String> changedBundles = new HashSet<>();
+    private final Set<String> removedBundles = new HashSet<>();
+
+    /**
+     * Compute the reports to publish for the given bundle stats.
+     *
+     * @param bundleStats
+     *            the current stats of the bundles owned by the broker
+     * @param thresholdPercentage
+     *            the percentage of change above which the stats of a bundle are published again
+     */
+    synchronized Reports update(Map<String, NamespaceBundleStats> bundleStats, double thresholdPercentage) {
+        for (Map.Entry<String, NamespaceBundleStats> entry : bundleStats.entrySet()) {
+            final String bundle = entry.getKey();
+            final NamespaceBundleStats published = publishedStats.get(bundle);
+            if (published == null || hasChanged(published, entry.getValue(), thresholdPercentage)) {
+                publishedStats.put(bundle, copy(entry.getValue()));
+                changedBundles.add(bundle);
+                removedBundles.remove(bundle);
+            }
+        }
+        publishedStats.keySet().removeIf(bundle -> {
+            if (!bundleStats.containsKey(bundle)) {
+                changedBundles.remove(bundle);
+                removedBundles.add(bundle);
+                return true;
+            }
+            return false;
+        });
+
+        BundleStatsReport snapshot = null;
+        if (snapshotId < 0 || changedBundles.size() + removedBundles.size() > snapshotSize / 2) {
+            snapshotId = Math.max(snapshotId + 1, System.currentTimeMillis());
+            snapshotSize = publishedStats.size();
+            changedBundles.clear();
+            removedBundles.clear();
+            snapshot = buildReport(true, publishedStats.keySet());
+        }
+
+        return new Reports(snapshot, buildReport(false, changedBundles));
+    }
+
+    /**
+     * Forget the published state, so that the next update takes a new snapshot. To be used when the published reports
+     * may have been lost.
+     */
+    synchronized void reset() {
+        snapshotId = -1;
+        snapshotSize = 0;
+        publishedStats.clear();
+        changedBundles.clear();
+        removedBundles.clear();
+    }
+
+    private BundleStatsReport buildReport(boolean isSnapshot, Set<String> bundles) {
+        final BundleStatsReport.Builder builder = BundleStatsReport.newBuilder().setSnapshotId(snapshotId)
+                .setSnapshot(isSnapshot);
+        for (String bundle : bundles) {
+            builder.addStats(toBundleStats(bundle, publishedStats.get(bundle)));
+        }
+        if (!isSnapshot) {
+            builder.addAllRemovedBundles(removedBundles);
+        }
+        return builder.build();
+    }
+
+    private static boolean hasChanged(NamespaceBundleStats oldStats, NamespaceBundleStats newStats,
+            double thresholdPercentage) {
+        return oldStats.consumerCount != newStats.consumerCount || oldStats.producerCount != newStats.producerCount
+                || oldStats.topics != newStats.topics
+                || percentChange(oldStats.msgRateIn, newStats.msgRateIn) > thresholdPercentage
+                || percentChange(oldStats.msgRateOut, newStats.msgRateOut) > thresholdPercentage
+                || percentChange(oldStats.msgThroughputIn, newStats.msgThroughputIn) > thresholdPercentage
+                || percentChange(oldStats.msgThroughputOut, newStats.msgThroughputOut) > thresholdPercentage
+                || percentChange(oldStats.cacheSize, newStats.cacheSize) > thresholdPercentage;
+    }
+
+    private static double percentChange(final double oldValue, final double newValue) {
+        if (oldValue == 0) {
+            return newValue == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return 100 * Math.abs((oldValue - newValue) / oldValue);
+    }
+
+    private static NamespaceBundleStats copy(NamespaceBundleStats stats) {
+        final NamespaceBundleStats copy = new NamespaceBundleStats();
+        copy.msgRateIn = stats.msgRateIn;
+        copy.msgThroughputIn = stats.msgThroughputIn;
+        copy.msgRateOut = stats.msgRateOut;
+        copy.msgThroughputOut = stats.msgThroughputOut;
+        copy.consumerCount = stats.consumerCount;
+        copy.producerCount = stats.producerCount;
+        copy.topics = stats.topics;
+        copy.cacheSize = stats.cacheSize;
+        return copy;
+    }
+
+    static BundleStats toBundleStats(String bundle, NamespaceBundleStats stats) {
+        return BundleStats.newBuilder().setBundle(bundle).setMsgRateIn(stats.msgRateIn)
+                .setMsgThroughputIn(stats.msgThroughputIn).setMsgRateOut(stats.msgRateOut)
+                .setMsgThroughputOut(stats.msgThroughputOut).setConsumerCount(stats.consumerCount)
+                .setProducerCount(stats.producerCount).setTopics(stats.topics).setCacheSize(stats.cacheSize).build();
+    }
+}
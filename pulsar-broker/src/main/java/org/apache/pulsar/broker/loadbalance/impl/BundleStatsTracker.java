@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.loadbalance.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.pulsar.broker.loadbalance.impl.LoadReportFormat.BundleStats;
+import org.apache.pulsar.broker.loadbalance.impl.LoadReportFormat.BundleStatsReport;
+import org.apache.pulsar.policies.data.loadbalancer.NamespaceBundleStats;
+
+/**
+ * Rebuilds, on the leader, the bundle stats of a broker from the reports built by {@link BundleStatsPublisher}.
+ *
+ * <p>The map and set returned by {@link #getStats()} and {@link #getBundles()} are never modified once returned: each
+ * report which changes the stats produces new ones.
+ */
+class BundleStatsTracker {
+
+    private long snapshotId = -1;
+    private BundleStatsReport lastAppliedReport = null;
+
+    private Map<String, NamespaceBundleStats> stats = Collections.emptyMap();
+    private Set<String> bundles = Collections.emptySet();
+
+    /**
+     * Apply a report to the tracked stats.
+     *
+     * @return false if the report is a delta based on a snapshot that was not applied, in which case the snapshot must
+     *         be applied first
+     */
+    boolean apply(BundleStatsReport report) {
+        if (report == lastAppliedReport) {
+            return true;
+        }
+
+        final Map<String, NamespaceBundleStats> newStats;
+        if (report.getSnapshot()) {
+            newStats = new HashMap<>(report.getStatsCount());
+            snapshotId = report.getSnapshotId();
+        } else if (report.getSnapshotId() == snapshotId) {
+            newStats = new HashMap<>(stats);
+            report.getRemovedBundlesList().forEach(newStats::remove);
+        } else {
+            return false;
+        }
+
+        for (BundleStats bundleStats : report.getStatsList()) {
+            newStats.put(bundleStats.getBundle(), toNamespaceBundleStats(bundleStats));
+        }
+
+        stats = newStats;
+        bundles = new HashSet<>(newStats.keySet());
+        lastAppliedReport = report;
+        return true;
+    }
+
+    Map<String, NamespaceBundleStats> getStats() {
+        return stats;
+    }
+
+    Set<String> getBundles() {
+        return bundles;
+    }
+
+    static NamespaceBundleStats toNamespaceBundleStats(BundleStats bundleStats) {
+        final NamespaceBundleStats stats = new NamespaceBundleStats();
+        stats.msgRateIn = bundleStats.getMsgRateIn();
+        stats.msgThroughputIn = bundleStats.getMsgThroughputIn();
+        stats.msgRateOut = bundleStats.getMsgRateOut();
+        stats.msgThroughputOut = bundleStats.getMsgThroughputOut();
+        stats.consumerCount = bundleStats.getConsumerCount();
+        stats.producerCount = bundleStats.getProducerCount();
+        stats.topics = bundleStats.getTopics();
+        stats.cacheSize = bundleStats.getCacheSize();
+        return stats;
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.loadbalance.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.pulsar.broker.BrokerData;
+import org.apache.pulsar.broker.BundleData;
+import org.apache.pulsar.broker.ServiceConfiguration;
+import org.apache.pulsar.broker.TimeAverageBrokerData;
+import org.apache.pulsar.broker.TimeAverageMessageData;
+import org.apache.pulsar.broker.loadbalance.LoadData;
+import org.apache.pulsar.broker.loadbalance.ModularLoadManagerStrategy;
+import org.apache.pulsar.policies.data.loadbalancer.LocalBrokerData;
+import org.apache.pulsar.policies.data.loadbalancer.ResourceUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Placement strategy which selects the broker with the lowest weighted usage of CPU, memory, direct memory, bandwidth
+ * in and bandwidth out, once the expected load of the bundle to assign and of the bundles already preallocated to the
+ * broker is added.
+ *
+ * <p>The expected load of a bundle is taken from its long term message data. Its throughput is converted into NIC
+ * bandwidth, while its CPU and direct memory costs are estimated from the resources used across all the brokers per
+ * unit of long term message rate and throughput.
+ */
+public class LeastWeightedResourceUsage implements ModularLoadManagerStrategy {
+    private static final Logger log = LoggerFactory.getLogger(LeastWeightedResourceUsage.class);
+
+    // Bytes per second to the kilobits per second used for the NIC usage.
+    private static final double KBITS_PER_BYTE = 8.0 / 1024;
+
+    // Maintain this list to reduce object creation.
+    private final ArrayList<String> bestBrokers;
+
+    public LeastWeightedResourceUsage(final ServiceConfiguration conf) {
+        bestBrokers = new ArrayList<>();
+    }
+
+    // Resources used across all the brokers, per unit of long term message rate and throughput.
+    static class ResourceCosts {
+        double cpuPerMessage = 0;
+        double directMemoryPerByte = 0;
+
+        static ResourceCosts compute(final LoadData loadData) {
+            double cpuUsage = 0;
+            double directMemoryUsage = 0;
+            double messageRate = 0;
+            double throughput = 0;
+            for (BrokerData brokerData : loadData.getBrokerData().values()) {
+                final LocalBrokerData localData = brokerData.getLocalData();
+                final TimeAverageBrokerData timeAverageData = brokerData.getTimeAverageData();
+                cpuUsage += Math.max(0, localData.getCpu().usage);
+                directMemoryUsage += Math.max(0, localData.getDirectMemory().usage);
+                messageRate += timeAverageData.getLongTermMsgRateIn() + timeAverageData.getLongTermMsgRateOut();
+                throughput += timeAverageData.getLongTermMsgThroughputIn()
+                        + timeAverageData.getLongTermMsgThroughputOut();
+            }
+
+            final ResourceCosts costs = new ResourceCosts();
+            if (messageRate > 0) {
+                costs.cpuPerMessage = cpuUsage / messageRate;
+            }
+            if (throughput > 0) {
+                costs.directMemoryPerByte = directMemoryUsage / throughput;
+            }
+            return costs;
+        }
+    }
+
+    // Usage of a resource as a fraction of its limit, after adding the given amount of usage.
+    private static double expectedUsage(final ResourceUsage usage, final double additionalUsage) {
+        if (usage.limit <= 0) {
+            return 0;
+        }
+        return (Math.max(0, usage.usage) + additionalUsage) / usage.limit;
+    }
+
+    // Form a score for a broker from the expected usage of its resources, weighted according to the configuration.
+    // Any broker which would reach the overload threshold will have a score of POSITIVE_INFINITY.
+    static double getScore(final BrokerData brokerData, final BundleData bundleToAssign, final ResourceCosts costs,
+            final ServiceConfiguration conf) {
+        double msgRate = 0;
+        double msgThroughputIn = 0;
+        double msgThroughputOut = 0;
+        final List<BundleData> expectedBundles = new ArrayList<>(brokerData.getPreallocatedBundleData().values());
+        expectedBundles.add(bundleToAssign);
+        for (BundleData bundleData : expectedBundles) {
+            if (bundleData == null || bundleData.getLongTermData() == null) {
+                continue;
+            }
+            final TimeAverageMessageData longTermData = bundleData.getLongTermData();
+            msgRate += longTermData.getMsgRateIn() + longTermData.getMsgRateOut();
+            msgThroughputIn += longTermData.getMsgThroughputIn();
+            msgThroughputOut += longTermData.getMsgThroughputOut();
+        }
+
+        final LocalBrokerData localData = brokerData.getLocalData();
+        final double cpu = expectedUsage(localData.getCpu(), msgRate * costs.cpuPerMessage);
+        final double memory = expectedUsage(localData.getMemory(), 0);
+        final double directMemory = expectedUsage(localData.getDirectMemory(),
+                (msgThroughputIn + msgThroughputOut) * costs.directMemoryPerByte);
+        final double bandwidthIn = expectedUsage(localData.getBandwidthIn(), msgThroughputIn * KBITS_PER_BYTE);
+        final double bandwidthOut = expectedUsage(localData.getBandwidthOut(), msgThroughputOut * KBITS_PER_BYTE);
+
+        final double overloadThreshold = conf.getLoadBalancerBrokerOverloadedThresholdPercentage() / 100.0;
+        final double maxUsage = Math.max(cpu,
+                Math.max(memory, Math.max(directMemory, Math.max(bandwidthIn, bandwidthOut))));
+        if (maxUsage > overloadThreshold) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        final double cpuWeight = Math.max(0, conf.getLoadBalancerCPUResourceWeight());
+        final double memoryWeight = Math.max(0, conf.getLoadBalancerMemoryResourceWeight());
+        final double directMemoryWeight = Math.max(0, conf.getLoadBalancerDirectMemoryResourceWeight());
+        final double bandwidthInWeight = Math.max(0, conf.getLoadBalancerBandwidthInResourceWeight());
+        final double bandwidthOutWeight = Math.max(0, conf.getLoadBalancerBandwidthOutResourceWeight());
+        final double totalWeight = cpuWeight + memoryWeight + directMemoryWeight + bandwidthInWeight
+                + bandwidthOutWeight;
+        if (totalWeight == 0) {
+            return maxUsage;
+        }
+
+        final double score = (cpuWeight * cpu + memoryWeight * memory + directMemoryWeight * directMemory
+                + bandwidthInWeight * bandwidthIn + bandwidthOutWeight * bandwidthOut) / totalWeight;
+        if (log.isDebugEnabled()) {
+            log.debug("Broker {} has expected usage CPU: {}, MEMORY: {}, DIRECT MEMORY: {}, BANDWIDTH IN: {}, "
+                    + "BANDWIDTH OUT: {}, score: {}", localData.getWebServiceUrl(), cpu, memory, directMemory,
+                    bandwidthIn, bandwidthOut, score);
+        }
+        return score;
+    }
+
+    /**
+     * Find a suitable broker to assign the given bundle to.
+     *
+     * @param candidates
+     *            The candidates for which the bundle may be assigned.
+     * @param bundleToAssign
+     *            The data for the bundle to assign.
+     * @param loadData
+     *            The load data from the leader broker.
+     * @param conf
+     *            The service configuration.
+     * @return The name of the selected broker as it appears on ZooKeeper.
+     */
+    @Override
+    public Optional<String> selectBroker(final Set<String> candidates, final BundleData bundleToAssign,
+            final LoadData loadData, final ServiceConfiguration conf) {
+        bestBrokers.clear();
+        final ResourceCosts costs = ResourceCosts.compute(loadData);
+        double minScore = Double.POSITIVE_INFINITY;
+        // Maintain a list of all the best scoring brokers and then randomly
+        // select one of them at the end.
+        for (String broker : candidates) {
+            final BrokerData brokerData = loadData.getBrokerData().get(broker);
+            if (brokerData == null) {
+                continue;
+            }
+            final double score = getScore(brokerData, bundleToAssign, costs, conf);
+            if (score == Double.POSITIVE_INFINITY) {
+                log.warn("Broker {} would be overloaded by the assignment of the bundle", broker);
+            }
+            if (score < minScore) {
+                // Clear best brokers since this score beats the other brokers.
+                bestBrokers.clear();
+                bestBrokers.add(broker);
+                minScore = score;
+            } else if (score == minScore) {
+                // Add this broker to best brokers since it ties with the best score.
+                bestBrokers.add(broker);
+            }
+        }
+        if (bestBrokers.isEmpty()) {
+            // All brokers are overloaded.
+            // Assign randomly in this case.
+            bestBrokers.addAll(candidates);
+        }
+
+        if (bestBrokers.isEmpty()) {
+            // If still, it means there are no available brokers at this point
+            return Optional.empty();
+        }
+
+        return Optional.of(bestBrokers.get(ThreadLocalRandom.current().nextInt(bestBrokers.size())));
+    }
+}
@@ -29,6 +29,7 @@ import io.netty.util.concurrent.DefaultThreadFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -36,6 +37,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -61,6 +63,7 @@ import org.apache.pulsar.broker.loadbalance.LoadSheddingStrategy;
 import org.apache.pulsar.broker.loadbalance.ModularLoadManager;
 import org.apache.pulsar.broker.loadbalance.ModularLoadManagerStrategy;
 import org.apache.pulsar.broker.loadbalance.impl.LoadManagerShared.BrokerTopicLoadingPredicate;
+import org.apache.pulsar.broker.loadbalance.impl.LoadReportFormat.BundleStatsReport;
 import org.apache.pulsar.client.admin.PulsarAdminException;
 import org.apache.pulsar.common.naming.NamespaceBundleFactory;
 import org.apache.pulsar.common.naming.NamespaceName;
@@ -110,6 +113,11 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
     // Path to ZNode containing TimeAverageBrokerData jsons for each broker.
     public static final String TIME_AVERAGE_BROKER_ZPATH = "/loadbalance/broker-time-average";
 
+    // Paths to ZNodes containing the binary bundle stats snapshot and delta of each broker, when compact load reports
+    // are enabled.
+    public static final String BUNDLE_STATS_SNAPSHOT_ZPATH = "/loadbalance/bundle-stats/snapshot";
+    public static final String BUNDLE_STATS_DELTA_ZPATH = "/loadbalance/bundle-stats/delta";
+
     // ZooKeeper Cache of the currently available active brokers.
     // availableActiveBrokers.get() will return a set of the broker names without an http prefix.
     private ZooKeeperChildrenCache availableActiveBrokers;
@@ -120,6 +128,12 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
     // ZooKeeper cache of the local broker data, stored in LoadManager.LOADBALANCE_BROKER_ROOT.
     private ZooKeeperDataCache<LocalBrokerData> brokerDataCache;
 
+    // Bundle stats rebuilt from the reports of each broker, when compact load reports are enabled.
+    private final Map<String, BundleStatsTracker> bundleStatsTrackers;
+
+    // Builds the bundle stats reports of this broker, when compact load reports are enabled.
+    private final BundleStatsPublisher bundleStatsPublisher;
+
     // Broker host usage object used to calculate system resource usage.
     private BrokerHostUsage brokerHostUsage;
 
@@ -130,6 +144,10 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
     // Path to the ZNode containing the LocalBrokerData json for this broker.
     private String brokerZnodePath;
 
+    // Paths to the ZNodes containing the bundle stats reports of this broker.
+    private String bundleStatsSnapshotZPath;
+    private String bundleStatsDeltaZPath;
+
     // Strategy to use for splitting bundles.
     private BundleSplitStrategy bundleSplitStrategy;
 
@@ -190,11 +208,12 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
     public ModularLoadManagerImpl() {
         brokerCandidateCache = new HashSet<>();
         brokerToNamespaceToBundleRange = new HashMap<>();
+        bundleStatsTrackers = new ConcurrentHashMap<>();
+        bundleStatsPublisher = new BundleStatsPublisher();
         defaultStats = new NamespaceBundleStats();
         filterPipeline = new ArrayList<>();
         loadData = new LoadData();
         loadSheddingPipeline = new ArrayList<>();
-        loadSheddingPipeline.add(new OverloadShedder());
         preallocatedBundleToBroker = new ConcurrentHashMap<>();
         scheduler = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("pulsar-modular-load-manager"));
         this.brokerToFailureDomainMap = Maps.newHashMap();
@@ -276,6 +295,7 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
 
 
         placementStrategy = ModularLoadManagerStrategy.create(conf);
+        loadSheddingPipeline.add(LoadSheddingStrategy.create(conf));
         policies = new SimpleResourceAllocationPolicies(pulsar);
         zkClient = pulsar.getZkClient();
         filterPipeline.add(new BrokerVersionFilter());
@@ -454,11 +474,21 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
     private void updateAllBrokerData() {
         final Set<String> activeBrokers = getAvailableBrokers();
         final Map<String, BrokerData> brokerDataMap = loadData.getBrokerData();
+
+        // Send the reads of the brokers data which are not cached at once, instead of waiting for them one by one
+        final Map<String, CompletableFuture<Optional<LocalBrokerData>>> brokerDataFutures = new HashMap<>();
+        for (String broker : activeBrokers) {
+            String key = String.format("%s/%s", LoadManager.LOADBALANCE_BROKERS_ROOT, broker);
+            brokerDataFutures.put(broker, brokerDataCache.getAsync(key));
+        }
+
         for (String broker : activeBrokers) {
             try {
-                String key = String.format("%s/%s", LoadManager.LOADBALANCE_BROKERS_ROOT, broker);
-                final LocalBrokerData localData = brokerDataCache.get(key)
+                final LocalBrokerData localData = brokerDataFutures.get(broker).get()
                         .orElseThrow(KeeperException.NoNodeException::new);
+                if (conf.isLoadBalancerCompactLoadReportEnabled()) {
+                    updateBundleStatsFromReports(broker, localData);
+                }
 
                 if (brokerDataMap.containsKey(broker)) {
                     // Replace previous local broker data.
@@ -483,6 +513,34 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
                 brokerDataMap.remove(broker);
             }
         }
+        bundleStatsTrackers.keySet().retainAll(activeBrokers);
+    }
+
+    // As the leader broker, fill the bundle stats of a broker from the snapshot and the delta it published. The delta
+    // is read without a watch: a broker always writes its bundle stats reports before its broker data, which is
+    // watched already.
+    private void updateBundleStatsFromReports(final String broker, final LocalBrokerData localData) throws Exception {
+        final BundleStatsReport delta;
+        try {
+            delta = BundleStatsReport.parseFrom(zkClient.getData(BUNDLE_STATS_DELTA_ZPATH + "/" + broker, false, null));
+        } catch (NoNodeException e) {
+            // The broker did not publish its bundle stats yet
+            bundleStatsTrackers.remove(broker);
+            return;
+        }
+
+        final BundleStatsTracker tracker = bundleStatsTrackers.computeIfAbsent(broker, k -> new BundleStatsTracker());
+        if (!tracker.apply(delta)) {
+            // The delta refers to a snapshot which was not applied yet
+            final byte[] snapshot = zkClient.getData(BUNDLE_STATS_SNAPSHOT_ZPATH + "/" + broker, false, null);
+            tracker.apply(BundleStatsReport.parseFrom(snapshot));
+            if (!tracker.apply(delta) && log.isDebugEnabled()) {
+                // A newer snapshot was taken in the meantime, its delta will be applied on the next update
+                log.debug("[{}] Bundle stats delta does not match the latest snapshot", broker);
+            }
+        }
+        localData.setLastStats(tracker.getStats());
+        localData.setBundles(tracker.getBundles());
     }
 
     // As the leader broker, use the local broker data saved on ZooKeeper to update the bundle stats so that better load
@@ -600,18 +658,62 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
                         return;
                     }
 
-                    log.info("[Overload shedder] Unloading bundle: {} from broker {}", bundle, broker);
+                    final Optional<String> destination = conf.isLoadBalancerBundleHandoffEnabled()
+                            ? selectHandoffDestination(namespaceName, bundleRange, broker) : Optional.empty();
                     try {
-                        pulsar.getAdminClient().namespaces().unloadNamespaceBundle(namespaceName, bundleRange);
+                        if (destination.isPresent()) {
+                            log.info("[Overload shedder] Handing over bundle: {} from broker {} to broker {}", bundle,
+                                    broker, destination.get());
+                            pulsar.getAdminClient().namespaces().unloadNamespaceBundle(namespaceName, bundleRange,
+                                    destination.get());
+                        } else {
+                            log.info("[Overload shedder] Unloading bundle: {} from broker {}", bundle, broker);
+                            pulsar.getAdminClient().namespaces().unloadNamespaceBundle(namespaceName, bundleRange);
+                        }
                         loadData.getRecentlyUnloadedBundles().put(bundle, System.currentTimeMillis());
                     } catch (PulsarServerException | PulsarAdminException e) {
                         log.warn("Error when trying to perform load shedding on {} for broker {}", bundle, broker, e);
+                        destination.ifPresent(d -> removePreallocation(bundle, d));
                     }
                 });
             });
         }
     }
 
+    /**
+     * As the leader broker, select the broker that will take over a bundle being shed, excluding its current owner.
+     * The bundle is preallocated to the selected broker, so that the lookups that follow the unload are directed to
+     * it.
+     */
+    private Optional<String> selectHandoffDestination(String namespace, String bundleRange, String currentBroker) {
+        try {
+            ServiceUnitId serviceUnit = pulsar.getNamespaceService().getNamespaceBundleFactory().getBundle(namespace,
+                    bundleRange);
+            return selectBrokerForAssignment(serviceUnit, Optional.of(currentBroker));
+        } catch (Exception e) {
+            log.warn("Failed to select the broker to hand over {}/{} to: {}", namespace, bundleRange, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void removePreallocation(String bundle, String broker) {
+        synchronized (brokerCandidateCache) {
+            if (preallocatedBundleToBroker.remove(bundle, broker)) {
+                final BrokerData brokerData = loadData.getBrokerData().get(broker);
+                if (brokerData != null) {
+                    brokerData.getPreallocatedBundleData().remove(bundle);
+                }
+                final String namespaceName = LoadManagerShared.getNamespaceNameFromBundleName(bundle);
+                final String bundleRange = LoadManagerShared.getBundleRangeFromBundleName(bundle);
+                final Set<String> bundleRanges = brokerToNamespaceToBundleRange
+                        .getOrDefault(broker, Collections.emptyMap()).get(namespaceName);
+                if (bundleRanges != null) {
+                    bundleRanges.remove(bundleRange);
+                }
+            }
+        }
+    }
+
     public boolean shouldAntiAffinityNamespaceUnload(String namespace, String bundle, String currentBroker) {
         try {
             Optional<Policies> nsPolicies = pulsar.getConfigurationCache().policiesCache()
@@ -696,18 +798,23 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
      */
     @Override
     public Optional<String> selectBrokerForAssignment(final ServiceUnitId serviceUnit) {
+        return selectBrokerForAssignment(serviceUnit, Optional.empty());
+    }
+
+    private Optional<String> selectBrokerForAssignment(final ServiceUnitId serviceUnit,
+            final Optional<String> excludedBroker) {
         // Use brokerCandidateCache as a lock to reduce synchronization.
         synchronized (brokerCandidateCache) {
             final String bundle = serviceUnit.toString();
-            if (preallocatedBundleToBroker.containsKey(bundle)) {
+            if (preallocatedBundleToBroker.containsKey(bundle)
+                    && !preallocatedBundleToBroker.get(bundle).equals(excludedBroker.orElse(null))) {
                 // If the given bundle is already in preallocated, return the selected broker.
                 return Optional.of(preallocatedBundleToBroker.get(bundle));
             }
             final BundleData data = loadData.getBundleData().computeIfAbsent(bundle,
                     key -> getBundleDataOrDefault(bundle));
             brokerCandidateCache.clear();
-            LoadManagerShared.applyNamespacePolicies(serviceUnit, policies, brokerCandidateCache, getAvailableBrokers(),
-                    brokerTopicLoadingPredicate);
+            applyNamespacePolicies(serviceUnit, excludedBroker);
 
             // filter brokers which owns topic higher than threshold
             LoadManagerShared.filterBrokersWithLargeTopicCount(brokerCandidateCache, loadData,
@@ -729,14 +836,12 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
                 }
             } catch ( BrokerFilterException x ) {
                 // restore the list of brokers to the full set
-                LoadManagerShared.applyNamespacePolicies(serviceUnit, policies, brokerCandidateCache, getAvailableBrokers(),
-                        brokerTopicLoadingPredicate);
+                applyNamespacePolicies(serviceUnit, excludedBroker);
             }
 
             if ( brokerCandidateCache.isEmpty() ) {
                 // restore the list of brokers to the full set
-                LoadManagerShared.applyNamespacePolicies(serviceUnit, policies, brokerCandidateCache, getAvailableBrokers(),
-                        brokerTopicLoadingPredicate);
+                applyNamespacePolicies(serviceUnit, excludedBroker);
             }
 
             // Choose a broker among the potentially smaller filtered list, when possible
@@ -754,9 +859,11 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
             final double maxUsage = loadData.getBrokerData().get(broker.get()).getLocalData().getMaxResourceUsage();
             if (maxUsage > overloadThreshold) {
                 // All brokers that were in the filtered list were overloaded, so check if there is a better broker
-                LoadManagerShared.applyNamespacePolicies(serviceUnit, policies, brokerCandidateCache, getAvailableBrokers(),
-                        brokerTopicLoadingPredicate);
+                applyNamespacePolicies(serviceUnit, excludedBroker);
                 broker = placementStrategy.selectBroker(brokerCandidateCache, data, loadData, conf);
+                if (!broker.isPresent()) {
+                    return broker;
+                }
             }
 
             // Add new bundle to preallocated.
@@ -771,6 +878,12 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
         }
     }
 
+    private void applyNamespacePolicies(final ServiceUnitId serviceUnit, final Optional<String> excludedBroker) {
+        LoadManagerShared.applyNamespacePolicies(serviceUnit, policies, brokerCandidateCache, getAvailableBrokers(),
+                brokerTopicLoadingPredicate);
+        excludedBroker.ifPresent(brokerCandidateCache::remove);
+    }
+
     /**
      * As any broker, start the load manager.
      *
@@ -785,10 +898,16 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
 
             String lookupServiceAddress = pulsar.getAdvertisedAddress() + ":" + conf.getWebServicePort();
             brokerZnodePath = LoadManager.LOADBALANCE_BROKERS_ROOT + "/" + lookupServiceAddress;
+            bundleStatsSnapshotZPath = BUNDLE_STATS_SNAPSHOT_ZPATH + "/" + lookupServiceAddress;
+            bundleStatsDeltaZPath = BUNDLE_STATS_DELTA_ZPATH + "/" + lookupServiceAddress;
             final String timeAverageZPath = TIME_AVERAGE_BROKER_ZPATH + "/" + lookupServiceAddress;
             updateLocalBrokerData();
+            if (conf.isLoadBalancerCompactLoadReportEnabled()) {
+                bundleStatsPublisher.reset();
+                writeBundleStatsReports();
+            }
             try {
-                ZkUtils.createFullPathOptimistic(zkClient, brokerZnodePath, localData.getJsonBytes(),
+                ZkUtils.createFullPathOptimistic(zkClient, brokerZnodePath, getBrokerDataBytes(),
                         ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL);
             } catch (KeeperException.NodeExistsException e) {
                 long ownerZkSessionId = getBrokerZnodeOwner();
@@ -799,7 +918,7 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
                             "Broker-znode owned by different zk-session " + ownerZkSessionId);
                 }
                 // Node may already be created by another load manager: in this case update the data.
-                zkClient.setData(brokerZnodePath, localData.getJsonBytes(), -1);
+                zkClient.setData(brokerZnodePath, getBrokerDataBytes(), -1);
             } catch (Exception e) {
                 // Catching exception here to print the right error message
                 log.error("Unable to create znode - [{}] for load balance on zookeeper ", brokerZnodePath, e);
@@ -858,7 +977,10 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
             updateLocalBrokerData();
             if (needBrokerDataUpdate()) {
                 localData.setLastUpdate(System.currentTimeMillis());
-                zkClient.setData(brokerZnodePath, localData.getJsonBytes(), -1);
+                if (conf.isLoadBalancerCompactLoadReportEnabled()) {
+                    writeBundleStatsReports();
+                }
+                zkClient.setData(brokerZnodePath, getBrokerDataBytes(), -1);
 
                 // Clear deltas.
                 localData.getLastBundleGains().clear();
@@ -872,6 +994,47 @@ public class ModularLoadManagerImpl implements ModularLoadManager, ZooKeeperCach
         }
     }
 
+    // With compact load reports, the bundle stats are published in binary reports and left out of the broker data.
+    private byte[] getBrokerDataBytes() throws Exception {
+        if (conf.isLoadBalancerCompactLoadReportEnabled()) {
+            return localData.copyWithoutBundleStats().getJsonBytes();
+        }
+        return localData.getJsonBytes();
+    }
+
+    // Write the bundle stats reports of this broker, with a new snapshot if needed.
+    private void writeBundleStatsReports() throws Exception {
+        final double thresholdPercentage = conf.getLoadBalancerReportUpdateThresholdPercentage();
+        try {
+            BundleStatsPublisher.Reports reports = bundleStatsPublisher.update(localData.getLastStats(),
+                    thresholdPercentage);
+            if (reports.snapshot == null) {
+                try {
+                    zkClient.setData(bundleStatsDeltaZPath, reports.delta.toByteArray(), -1);
+                    return;
+                } catch (NoNodeException e) {
+                    // The reports were removed along with the previous ZooKeeper session
+                    bundleStatsPublisher.reset();
+                    reports = bundleStatsPublisher.update(localData.getLastStats(), thresholdPercentage);
+                }
+            }
+            setOrCreateEphemeralData(bundleStatsSnapshotZPath, reports.snapshot.toByteArray());
+            setOrCreateEphemeralData(bundleStatsDeltaZPath, reports.delta.toByteArray());
+        } catch (Exception e) {
+            // The leader may have missed a report: start again from a new snapshot
+            bundleStatsPublisher.reset();
+            throw e;
+        }
+    }
+
+    private void setOrCreateEphemeralData(final String path, final byte[] data) throws Exception {
+        try {
+            zkClient.setData(path, data, -1);
+        } catch (NoNodeException e) {
+            ZkUtils.createFullPathOptimistic(zkClient, path, data, ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL);
+        }
+    }
+
     @Override
     public Deserializer<LocalBrokerData> getLoadReportDeserializer() {
         return loadReportDeserializer;
@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.loadbalance.impl;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.pulsar.broker.BrokerData;
+import org.apache.pulsar.broker.BundleData;
+import org.apache.pulsar.broker.ServiceConfiguration;
+import org.apache.pulsar.broker.TimeAverageMessageData;
+import org.apache.pulsar.broker.loadbalance.LoadData;
+import org.apache.pulsar.broker.loadbalance.LoadSheddingStrategy;
+import org.apache.pulsar.policies.data.loadbalancer.LocalBrokerData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load shedding strategy which unloads bundles from the brokers whose usage is above the average usage of the cluster
+ * by more than loadBalancerBrokerThresholdShedderPercentage.
+ *
+ * <p>The usage of a broker is the maximum of its resource usages, weighted by the loadBalancer*ResourceWeight settings,
+ * and smoothed over time with loadBalancerHistoryResourcePercentage so that short spikes do not trigger any unloading.
+ * For each broker above the threshold, the strategy selects the smallest set of bundles whose throughput brings the
+ * broker back to the middle of the band between the average and the threshold, leaving some room before the broker can
+ * be selected again. Bundles unloaded within LoadBalancerSheddingGracePeriodMinutes are never selected, and nothing is
+ * unloaded when the throughput to move is below loadBalancerBundleUnloadMinThroughputThreshold.
+ */
+public class ThresholdShedder implements LoadSheddingStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(ThresholdShedder.class);
+
+    private static final double MB = 1024 * 1024;
+
+    private final Multimap<String, String> selectedBundlesCache = ArrayListMultimap.create();
+
+    // Usage of each broker, averaged over time.
+    private final Map<String, Double> brokerAvgResourceUsage = new HashMap<>();
+
+    /**
+     * Attempt to shed some bundles off every broker whose usage is above the average by more than the threshold.
+     *
+     * @param loadData
+     *            The load data to used to make the unloading decision.
+     * @param conf
+     *            The service configuration.
+     * @return A map from bundles to unload to the brokers on which they are loaded.
+     */
+    @Override
+    public synchronized Multimap<String, String> findBundlesForUnloading(final LoadData loadData,
+            final ServiceConfiguration conf) {
+        selectedBundlesCache.clear();
+        final double threshold = conf.getLoadBalancerBrokerThresholdShedderPercentage() / 100.0;
+        final double minThroughputToOffload = conf.getLoadBalancerBundleUnloadMinThroughputThreshold() * MB;
+        final Map<String, Long> recentlyUnloadedBundles = loadData.getRecentlyUnloadedBundles();
+
+        final double avgUsage = updateAvgResourceUsage(loadData, conf);
+        if (avgUsage == 0) {
+            return selectedBundlesCache;
+        }
+
+        loadData.getBrokerData().forEach((broker, brokerData) -> {
+            final LocalBrokerData localData = brokerData.getLocalData();
+            final double usage = brokerAvgResourceUsage.getOrDefault(broker, 0.0);
+            if (usage <= avgUsage + threshold) {
+                if (log.isDebugEnabled()) {
+                    log.debug("[{}] Broker usage {} is within the threshold of the average usage {}", broker, usage,
+                            avgUsage);
+                }
+                return;
+            }
+
+            // Move enough traffic to go back to the middle of the band between the average and the threshold
+            final double targetUsage = avgUsage + threshold / 2;
+            final double brokerThroughput = localData.getMsgThroughputIn() + localData.getMsgThroughputOut();
+            final double throughputToOffload = brokerThroughput * (usage - targetUsage) / usage;
+            if (throughputToOffload < minThroughputToOffload) {
+                if (log.isDebugEnabled()) {
+                    log.debug("[{}] Broker usage {} is above the threshold but only {} MByte/s would be offloaded",
+                            broker, usage, throughputToOffload / MB);
+                }
+                return;
+            }
+
+            if (localData.getBundles().size() <= 1) {
+                log.warn("[{}] Broker usage {} is above the average usage {} but it has {} bundle(s), "
+                        + "no load shedding will be done on this broker", broker, usage, avgUsage,
+                        localData.getBundles().size());
+                return;
+            }
+
+            log.info("Attempting to shed load on {}, whose usage {}% is above the average usage {}% by more than {}% "
+                    + "-- Offloading at least {} MByte/s of traffic", broker, 100 * usage, 100 * avgUsage,
+                    100 * threshold, throughputToOffload / MB);
+
+            final List<Pair<String, Double>> bundles = new ArrayList<>();
+            for (String bundle : localData.getBundles()) {
+                final BundleData bundleData = loadData.getBundleData().get(bundle);
+                if (bundleData == null || recentlyUnloadedBundles.containsKey(bundle)) {
+                    continue;
+                }
+                // Consider short-term byte rate to address system resource burden
+                final TimeAverageMessageData shortTermData = bundleData.getShortTermData();
+                bundles.add(Pair.of(bundle, shortTermData.getMsgThroughputIn() + shortTermData.getMsgThroughputOut()));
+            }
+            selectBundles(broker, bundles, throughputToOffload);
+        });
+
+        return selectedBundlesCache;
+    }
+
+    // Select the smallest set of bundles whose throughput reaches the throughput to offload. The largest bundles are
+    // picked first, and the last one is the smallest bundle which covers the remaining throughput, to avoid moving
+    // more traffic than needed.
+    private void selectBundles(final String broker, final List<Pair<String, Double>> bundles,
+            final double throughputToOffload) {
+        // Sort by throughput in reverse order
+        bundles.sort((e1, e2) -> Double.compare(e2.getRight(), e1.getRight()));
+        double remaining = throughputToOffload;
+        int next = 0;
+        while (remaining > 0 && next < bundles.size()) {
+            int selected = next;
+            if (bundles.get(next).getRight() > remaining) {
+                while (selected + 1 < bundles.size() && bundles.get(selected + 1).getRight() >= remaining) {
+                    ++selected;
+                }
+                selectedBundlesCache.put(broker, bundles.get(selected).getLeft());
+                return;
+            }
+            selectedBundlesCache.put(broker, bundles.get(selected).getLeft());
+            remaining -= bundles.get(selected).getRight();
+            ++next;
+        }
+    }
+
+    // Update the time average usage of each broker and return the average usage across the brokers.
+    private double updateAvgResourceUsage(final LoadData loadData, final ServiceConfiguration conf) {
+        final double historyPercentage = conf.getLoadBalancerHistoryResourcePercentage();
+        brokerAvgResourceUsage.keySet().retainAll(loadData.getBrokerData().keySet());
+        double totalUsage = 0;
+        for (Map.Entry<String, BrokerData> entry : loadData.getBrokerData().entrySet()) {
+            final double usage = getMaxResourceUsageWithWeight(entry.getValue().getLocalData(), conf);
+            final Double historyUsage = brokerAvgResourceUsage.get(entry.getKey());
+            final double avgUsage = historyUsage == null ? usage
+                    : historyUsage * historyPercentage + (1 - historyPercentage) * usage;
+            brokerAvgResourceUsage.put(entry.getKey(), avgUsage);
+            totalUsage += avgUsage;
+        }
+        return loadData.getBrokerData().isEmpty() ? 0 : totalUsage / loadData.getBrokerData().size();
+    }
+
+    private static double getMaxResourceUsageWithWeight(final LocalBrokerData localData,
+            final ServiceConfiguration conf) {
+        return Math.max(localData.getCpu().percentUsage() * conf.getLoadBalancerCPUResourceWeight(),
+                Math.max(localData.getMemory().percentUsage() * conf.getLoadBalancerMemoryResourceWeight(),
+                        Math.max(localData.getDirectMemory().percentUsage()
+                                * conf.getLoadBalancerDirectMemoryResourceWeight(),
+                                Math.max(localData.getBandwidthIn().percentUsage()
+                                        * conf.getLoadBalancerBandwidthInResourceWeight(),
+                                        localData.getBandwidthOut().percentUsage()
+                                                * conf.getLoadBalancerBandwidthOutResourceWeight())))) / 100;
+    }
+}
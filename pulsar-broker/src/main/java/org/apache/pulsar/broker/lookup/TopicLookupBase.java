@@ -19,13 +19,19 @@
 package org.apache.pulsar.broker.lookup;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.apache.pulsar.common.api.Commands.newLookupErrorResponse;
-import static org.apache.pulsar.common.api.Commands.newLookupResponse;
+import static org.apache.pulsar.common.api.Commands.newLookupErrorResponseCommand;
+import static org.apache.pulsar.common.api.Commands.newLookupResponseCommand;
+
+import com.google.common.collect.Lists;
 
 import io.netty.buffer.ByteBuf;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -38,8 +44,11 @@ import javax.ws.rs.core.Response;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pulsar.broker.PulsarService;
 import org.apache.pulsar.broker.authentication.AuthenticationDataSource;
+import org.apache.pulsar.broker.namespace.NamespaceService;
 import org.apache.pulsar.broker.web.PulsarWebResource;
 import org.apache.pulsar.broker.web.RestException;
+import org.apache.pulsar.common.api.Commands;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.LookupType;
 import org.apache.pulsar.common.api.proto.PulsarApi.ServerError;
 import org.apache.pulsar.common.lookup.data.LookupData;
@@ -47,6 +56,7 @@ import org.apache.pulsar.common.naming.NamespaceBundle;
 import org.apache.pulsar.common.naming.TopicDomain;
 import org.apache.pulsar.common.naming.TopicName;
 import org.apache.pulsar.common.util.Codec;
+import org.apache.pulsar.common.util.FutureUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -156,9 +166,83 @@ public class TopicLookupBase extends PulsarWebResource {
      */
     public static CompletableFuture<ByteBuf> lookupTopicAsync(PulsarService pulsarService, TopicName topicName,
             boolean authoritative, String clientAppId, AuthenticationDataSource authenticationData, long requestId) {
+        return lookupTopicCommandAsync(pulsarService, topicName, authoritative, clientAppId, authenticationData,
+                requestId).thenApply(Commands::newLookupResponse);
+    }
 
-        final CompletableFuture<ByteBuf> validationFuture = new CompletableFuture<>();
-        final CompletableFuture<ByteBuf> lookupfuture = new CompletableFuture<>();
+    /**
+     * Lookup the broker-service addresses of the namespace-bundles which contain the given topics, as done by
+     * {@link #lookupTopicAsync} for a single topic.
+     *
+     * Topics are grouped by namespace-bundle, and the lookups of each group are done after the lookup of its first
+     * topic has completed, so that the ownership of each bundle is only resolved (and possibly acquired) once. The
+     * lookups are not authoritative: redirects are followed by the client with single-topic lookups.
+     *
+     * @return the lookup responses, in the same order as the given topics
+     */
+    public static CompletableFuture<List<CommandLookupTopicResponse>> lookupTopicsAsync(PulsarService pulsarService,
+            List<TopicName> topicNames, String clientAppId, AuthenticationDataSource authenticationData,
+            long requestId) {
+        final NamespaceService namespaceService = pulsarService.getNamespaceService();
+        final List<CompletableFuture<NamespaceBundle>> bundleFutures = new ArrayList<>(topicNames.size());
+        topicNames.forEach(topicName -> bundleFutures.add(namespaceService.getBundleAsync(topicName)));
+
+        final List<CompletableFuture<CommandLookupTopicResponse>> lookupFutures = new ArrayList<>(topicNames.size());
+        topicNames.forEach(topicName -> lookupFutures.add(new CompletableFuture<>()));
+
+        // Group the topics by bundle once all the bundles are known. The topics whose bundle could not be found are
+        // looked up on their own, and will fail the same way as single-topic lookups.
+        FutureUtil.waitForAll(bundleFutures).whenComplete((ignore, bundlesException) -> {
+            final Map<NamespaceBundle, List<Integer>> topicsByBundle = new LinkedHashMap<>();
+            final List<List<Integer>> groups = new ArrayList<>();
+            for (int i = 0; i < topicNames.size(); i++) {
+                NamespaceBundle bundle = bundleFutures.get(i).isCompletedExceptionally() ? null
+                        : bundleFutures.get(i).join();
+                if (bundle == null) {
+                    groups.add(Lists.newArrayList(i));
+                } else {
+                    topicsByBundle.computeIfAbsent(bundle, b -> {
+                        List<Integer> group = new ArrayList<>();
+                        groups.add(group);
+                        return group;
+                    }).add(i);
+                }
+            }
+
+            for (List<Integer> group : groups) {
+                final int first = group.get(0);
+                lookupTopicCommandAsync(pulsarService, topicNames.get(first), false, clientAppId,
+                        authenticationData, requestId).whenComplete((firstResponse, firstException) -> {
+                            for (int index : group) {
+                                if (index == first) {
+                                    completeLookup(lookupFutures.get(index), firstResponse, firstException,
+                                            requestId);
+                                    continue;
+                                }
+                                final CompletableFuture<CommandLookupTopicResponse> lookupFuture = lookupFutures
+                                        .get(index);
+                                lookupTopicCommandAsync(pulsarService, topicNames.get(index), false, clientAppId,
+                                        authenticationData, requestId).whenComplete((response, exception) -> {
+                                            completeLookup(lookupFuture, response, exception, requestId);
+                                        });
+                            }
+                        });
+            }
+        });
+
+        return FutureUtil.waitForAll(lookupFutures).thenApply(ignore -> {
+            final List<CommandLookupTopicResponse> responses = new ArrayList<>(lookupFutures.size());
+            lookupFutures.forEach(future -> responses.add(future.join()));
+            return responses;
+        });
+    }
+
+    public static CompletableFuture<CommandLookupTopicResponse> lookupTopicCommandAsync(PulsarService pulsarService,
+            TopicName topicName, boolean authoritative, String clientAppId,
+            AuthenticationDataSource authenticationData, long requestId) {
+
+        final CompletableFuture<CommandLookupTopicResponse> validationFuture = new CompletableFuture<>();
+        final CompletableFuture<CommandLookupTopicResponse> lookupfuture = new CompletableFuture<>();
         final String cluster = topicName.getCluster();
 
         // (1) validate cluster
@@ -170,7 +254,7 @@ public class TopicLookupBase extends PulsarWebResource {
                             differentClusterData.getBrokerServiceUrl(), differentClusterData.getBrokerServiceUrlTls(),
                             cluster);
                 }
-                validationFuture.complete(newLookupResponse(differentClusterData.getBrokerServiceUrl(),
+                validationFuture.complete(newLookupResponseCommand(differentClusterData.getBrokerServiceUrl(),
                         differentClusterData.getBrokerServiceUrlTls(), true, LookupType.Redirect, requestId, false));
             } else {
                 // (2) authorize client
@@ -178,7 +262,7 @@ public class TopicLookupBase extends PulsarWebResource {
                     checkAuthorization(pulsarService, topicName, clientAppId, authenticationData);
                 } catch (RestException authException) {
                     log.warn("Failed to authorized {} on cluster {}", clientAppId, topicName.toString());
-                    validationFuture.complete(newLookupErrorResponse(ServerError.AuthorizationError,
+                    validationFuture.complete(newLookupErrorResponseCommand(ServerError.AuthorizationError,
                             authException.getMessage(), requestId));
                     return;
                 } catch (Exception e) {
@@ -198,17 +282,17 @@ public class TopicLookupBase extends PulsarWebResource {
                             // request should be redirect to the peer-cluster
                             if (StringUtils.isBlank(peerClusterData.getBrokerServiceUrl())
                                     && StringUtils.isBlank(peerClusterData.getBrokerServiceUrl())) {
-                                validationFuture.complete(newLookupErrorResponse(ServerError.MetadataError,
+                                validationFuture.complete(newLookupErrorResponseCommand(ServerError.MetadataError,
                                         "Redirected cluster's brokerService url is not configured", requestId));
                                 return;
                             }
-                            validationFuture.complete(newLookupResponse(peerClusterData.getBrokerServiceUrl(),
+                            validationFuture.complete(newLookupResponseCommand(peerClusterData.getBrokerServiceUrl(),
                                     peerClusterData.getBrokerServiceUrlTls(), true, LookupType.Redirect, requestId,
                                     false));
 
                         }).exceptionally(ex -> {
-                            validationFuture.complete(
-                                    newLookupErrorResponse(ServerError.MetadataError, ex.getMessage(), requestId));
+                            validationFuture.complete(newLookupErrorResponseCommand(ServerError.MetadataError,
+                                    ex.getMessage(), requestId));
                             return null;
                         });
             }
@@ -230,7 +314,7 @@ public class TopicLookupBase extends PulsarWebResource {
                             }
 
                             if (!lookupResult.isPresent()) {
-                                lookupfuture.complete(newLookupErrorResponse(ServerError.ServiceNotReady,
+                                lookupfuture.complete(newLookupErrorResponseCommand(ServerError.ServiceNotReady,
                                         "No broker was available to own " + topicName, requestId));
                                 return;
                             }
@@ -238,16 +322,16 @@ public class TopicLookupBase extends PulsarWebResource {
                             LookupData lookupData = lookupResult.get().getLookupData();
                             if (lookupResult.get().isRedirect()) {
                                 boolean newAuthoritative = isLeaderBroker(pulsarService);
-                                lookupfuture.complete(
-                                        newLookupResponse(lookupData.getBrokerUrl(), lookupData.getBrokerUrlTls(),
-                                                newAuthoritative, LookupType.Redirect, requestId, false));
+                                lookupfuture.complete(newLookupResponseCommand(lookupData.getBrokerUrl(),
+                                        lookupData.getBrokerUrlTls(), newAuthoritative, LookupType.Redirect, requestId,
+                                        false));
                             } else {
                                 // When running in standalone mode we want to redirect the client through the service
                                 // url, so that the advertised address configuration is not relevant anymore.
                                 boolean redirectThroughServiceUrl = pulsarService.getConfiguration()
                                         .isRunningStandalone();
 
-                                lookupfuture.complete(newLookupResponse(lookupData.getBrokerUrl(),
+                                lookupfuture.complete(newLookupResponseCommand(lookupData.getBrokerUrl(),
                                         lookupData.getBrokerUrlTls(), true /* authoritative */, LookupType.Connect,
                                         requestId, redirectThroughServiceUrl));
                             }
@@ -259,8 +343,8 @@ public class TopicLookupBase extends PulsarWebResource {
                                 log.warn("Failed to lookup {} for topic {} with error {}", clientAppId,
                                         topicName.toString(), ex.getMessage(), ex);
                             }
-                            lookupfuture.complete(
-                                    newLookupErrorResponse(ServerError.ServiceNotReady, ex.getMessage(), requestId));
+                            lookupfuture.complete(newLookupErrorResponseCommand(ServerError.ServiceNotReady,
+                                    ex.getMessage(), requestId));
                             return null;
                         });
             }
@@ -274,13 +358,24 @@ public class TopicLookupBase extends PulsarWebResource {
                         ex.getMessage(), ex);
             }
 
-            lookupfuture.complete(newLookupErrorResponse(ServerError.ServiceNotReady, ex.getMessage(), requestId));
+            lookupfuture.complete(
+                    newLookupErrorResponseCommand(ServerError.ServiceNotReady, ex.getMessage(), requestId));
             return null;
         });
 
         return lookupfuture;
     }
 
+    private static void completeLookup(CompletableFuture<CommandLookupTopicResponse> lookupFuture,
+            CommandLookupTopicResponse response, Throwable exception, long requestId) {
+        if (exception != null) {
+            lookupFuture.complete(
+                    newLookupErrorResponseCommand(ServerError.ServiceNotReady, exception.getMessage(), requestId));
+        } else {
+            lookupFuture.complete(response);
+        }
+    }
+
     private void completeLookupResponseExceptionally(AsyncResponse asyncResponse, Throwable t) {
         pulsar().getBrokerService().getLookupRequestSemaphore().release();
         asyncResponse.resume(t);
@@ -44,6 +44,7 @@ import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetTopicsOfNamespace.
 import org.apache.pulsar.common.lookup.data.LookupData;
 import org.apache.pulsar.common.naming.NamespaceBundle;
 import org.apache.pulsar.common.naming.NamespaceBundleFactory;
+import org.apache.pulsar.common.naming.NamespaceBundleSplitBoundaries;
 import org.apache.pulsar.common.naming.NamespaceBundles;
 import org.apache.pulsar.common.naming.NamespaceName;
 import org.apache.pulsar.common.naming.ServiceUnitId;
@@ -54,6 +55,7 @@ import org.apache.pulsar.common.policies.data.BundlesData;
 import org.apache.pulsar.common.policies.data.ClusterData;
 import org.apache.pulsar.common.policies.data.LocalPolicies;
 import org.apache.pulsar.common.policies.data.NamespaceOwnershipStatus;
+import org.apache.pulsar.common.policies.data.TopicStats;
 import org.apache.pulsar.common.policies.impl.NamespaceIsolationPolicies;
 import org.apache.pulsar.common.util.Codec;
 import org.apache.pulsar.common.util.ObjectMapperFactory;
@@ -72,6 +74,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -521,6 +525,37 @@ public class NamespaceService {
         checkNotNull(ownershipCache.getOwnedBundle(bundle)).handleUnloadRequest(pulsar, timeout, timeoutUnit);
     }
 
+    /**
+     * Unload the bundle, handing it over to the given broker when bundle handoff is enabled.
+     *
+     * @param bundle
+     *            the bundle to unload
+     * @param destinationBroker
+     *            the broker that should take over the bundle, as it appears in the load manager (host:port). If
+     *            blank, the bundle is just unloaded
+     * @throws Exception
+     */
+    public void unloadNamespaceBundle(NamespaceBundle bundle, String destinationBroker) throws Exception {
+        OwnedBundle ownedBundle = checkNotNull(ownershipCache.getOwnedBundle(bundle));
+        String destinationUrl = String.format("http://%s", destinationBroker);
+        if (StringUtils.isBlank(destinationBroker) || !config.isLoadBalancerBundleHandoffEnabled()
+                || pulsar.getWebServiceAddress().equals(destinationUrl)) {
+            ownedBundle.handleUnloadRequest(pulsar, 5, TimeUnit.MINUTES);
+            return;
+        }
+
+        Optional<LookupData> assignedBroker = Optional.empty();
+        try {
+            assignedBroker = Optional.of(createLookupResult(destinationUrl)
+                    .get(config.getZooKeeperSessionTimeoutMillis(), TimeUnit.MILLISECONDS).getLookupData());
+        } catch (Exception e) {
+            // The bundle can still be unloaded, clients will find the new owner through a regular lookup
+            LOG.warn("Failed to get the service urls of broker {} to hand over bundle {}: {}", destinationBroker,
+                    bundle, e.getMessage());
+        }
+        ownedBundle.handleUnloadRequest(pulsar, 5, TimeUnit.MINUTES, assignedBroker);
+    }
+
     public Map<String, NamespaceOwnershipStatus> getOwnedNameSpacesStatus() throws Exception {
         NamespaceIsolationPolicies nsIsolationPolicies = this.getLocalNamespaceIsolationPolicies();
         Map<String, NamespaceOwnershipStatus> ownedNsStatus = new HashMap<String, NamespaceOwnershipStatus>();
@@ -604,26 +639,52 @@ public class NamespaceService {
         return unloadFuture;
     }
 
+    /**
+     * Pick the boundaries at which a bundle is split, according to namespaceBundleSplitAlgorithm. The topic load
+     * weighted split falls back to two halves of the hash range when the topics of the bundle have no load.
+     */
+    long[] getSplitBoundaries(NamespaceBundle bundle) {
+        if (NamespaceBundleSplitBoundaries.TOPIC_LOAD_WEIGHTED.equals(config.getNamespaceBundleSplitAlgorithm())) {
+            final SortedMap<Long, Double> loadByHash = new TreeMap<>();
+            pulsar.getBrokerService()
+                    .getAllTopicsFromNamespaceBundle(bundle.getNamespaceObject().toString(), bundle.toString())
+                    .forEach(topic -> {
+                        final TopicStats stats = topic.getStats();
+                        loadByHash.merge(bundleFactory.getLongHashCode(topic.getName()),
+                                stats.msgThroughputIn + stats.msgThroughputOut, Double::sum);
+                    });
+            final long[] splitBoundaries = NamespaceBundleSplitBoundaries.topicLoadWeighted(bundle.getKeyRange(),
+                    loadByHash);
+            if (splitBoundaries != null) {
+                return splitBoundaries;
+            }
+        }
+        return NamespaceBundleSplitBoundaries.rangeEquallyDivided(bundle.getKeyRange(),
+                2 /* by default split into 2 */);
+    }
+
     void splitAndOwnBundleOnceAndRetry(NamespaceBundle bundle,
                                        boolean unload,
                                        AtomicInteger counter,
                                        CompletableFuture<Void> unloadFuture) {
         CompletableFuture<List<NamespaceBundle>> updateFuture = new CompletableFuture<>();
 
+        final long[] splitBoundaries = getSplitBoundaries(bundle);
         final Pair<NamespaceBundles, List<NamespaceBundle>> splittedBundles = bundleFactory.splitBundles(bundle,
-            2 /* by default split into 2 */);
+            splitBoundaries);
 
         // Split and updateNamespaceBundles. Update may fail because of concurrent write to Zookeeper.
         if (splittedBundles != null) {
             checkNotNull(splittedBundles.getLeft());
             checkNotNull(splittedBundles.getRight());
-            checkArgument(splittedBundles.getRight().size() == 2, "bundle has to be split in two bundles");
+            checkArgument(splittedBundles.getRight().size() == splitBoundaries.length + 1,
+                "bundle has to be split in %s bundles", splitBoundaries.length + 1);
             NamespaceName nsname = bundle.getNamespaceObject();
             if (LOG.isDebugEnabled()) {
-                LOG.debug("[{}] splitAndOwnBundleOnce: {}, counter: {},  2 bundles: {}, {}",
-                    nsname.toString(), bundle.getBundleRange(), counter.get(),
-                    splittedBundles != null ? splittedBundles.getRight().get(0).getBundleRange() : "null splittedBundles",
-                    splittedBundles != null ? splittedBundles.getRight().get(1).getBundleRange() : "null splittedBundles");
+                LOG.debug("[{}] splitAndOwnBundleOnce: {}, counter: {}, {} bundles: {}",
+                    nsname.toString(), bundle.getBundleRange(), counter.get(), splittedBundles.getRight().size(),
+                    splittedBundles.getRight().stream().map(NamespaceBundle::getBundleRange)
+                            .collect(Collectors.toList()));
             }
             try {
                 // take ownership of newly split bundles
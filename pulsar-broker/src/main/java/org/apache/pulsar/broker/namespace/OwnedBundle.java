@@ -18,12 +18,15 @@
  */
 package org.apache.pulsar.broker.namespace;
 
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.pulsar.broker.PulsarService;
+import org.apache.pulsar.broker.service.Topic;
+import org.apache.pulsar.common.lookup.data.LookupData;
 import org.apache.pulsar.common.naming.NamespaceBundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -92,6 +95,31 @@ public class OwnedBundle {
      * @throws Exception
      */
     public void handleUnloadRequest(PulsarService pulsar, long timeout, TimeUnit timeoutUnit) throws Exception {
+        handleUnloadRequest(pulsar, timeout, timeoutUnit, Optional.empty());
+    }
+
+    /**
+     * It unloads the bundle, handing it over to the given broker if present.
+     *
+     * <pre>
+     * a. disable bundle ownership in memory and not in zk
+     * b. redirect producers and consumers to the new owner and close all the topics concurrently
+     * c. delete ownership znode from zookeeper
+     * d. look up one of the topics, so that the new owner acquires the bundle and starts loading its topics before
+     *    the clients reconnect
+     * </pre>
+     *
+     * @param pulsar
+     * @param timeout
+     *            timeout for unloading bundle. It doesn't throw exception if it timesout while waiting on closing all
+     *            topics
+     * @param timeoutUnit
+     * @param assignedBroker
+     *            the broker taking over the bundle, if known
+     * @throws Exception
+     */
+    public void handleUnloadRequest(PulsarService pulsar, long timeout, TimeUnit timeoutUnit,
+            Optional<LookupData> assignedBroker) throws Exception {
 
         long unloadBundleStartTime = System.nanoTime();
         // Need a per namespace RenetrantReadWriteLock
@@ -116,13 +144,21 @@ public class OwnedBundle {
         }
 
         int unloadedTopics = 0;
+        Optional<String> handoffTopic = Optional.empty();
         try {
             LOG.info("Disabling ownership: {}", this.bundle);
             pulsar.getNamespaceService().getOwnershipCache().updateBundleState(this.bundle, false);
 
+            if (assignedBroker.isPresent()) {
+                handoffTopic = pulsar.getBrokerService()
+                        .getAllTopicsFromNamespaceBundle(bundle.getNamespaceObject().toString(), bundle.toString())
+                        .stream().map(Topic::getName).findFirst();
+            }
+
             // close topics forcefully
             try {
-                unloadedTopics = pulsar.getBrokerService().unloadServiceUnit(bundle).get(timeout, timeoutUnit);
+                unloadedTopics = pulsar.getBrokerService().unloadServiceUnit(bundle, assignedBroker).get(timeout,
+                        timeoutUnit);
             } catch (TimeoutException e) {
                 // ignore topic-close failure to unload bundle
                 LOG.error("Failed to close topics in namespace {} in {}/{} timeout", bundle.toString(), timeout,
@@ -145,6 +181,17 @@ public class OwnedBundle {
             throw new RuntimeException(e);
         }
 
+        if (handoffTopic.isPresent()) {
+            // Let the load manager assign the bundle now, instead of waiting for the first client lookup. The new owner
+            // acquires the bundle and preloads its topics while the redirected clients are reconnecting
+            try {
+                pulsar.getAdminClient().lookups().lookupTopic(handoffTopic.get());
+            } catch (Exception e) {
+                LOG.warn("Failed to hand over bundle {} to {}: {}", bundle, assignedBroker.get().getHttpUrl(),
+                        e.getMessage());
+            }
+        }
+
         double unloadBundleTime = TimeUnit.NANOSECONDS.toMillis((System.nanoTime() - unloadBundleStartTime));
         LOG.info("Unloading {} namespace-bundle with {} topics completed in {} ms", this.bundle, unloadedTopics, unloadBundleTime);
     }
@@ -24,6 +24,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.bookkeeper.util.ZkUtils;
 import org.apache.pulsar.broker.PulsarService;
@@ -36,6 +37,9 @@ import org.apache.pulsar.zookeeper.ZooKeeperCache;
 import org.apache.pulsar.zookeeper.ZooKeeperDataCache;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.Watcher.Event.EventType;
+import org.apache.zookeeper.Watcher.Event.KeeperState;
 import org.apache.zookeeper.ZooDefs.Ids;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,9 +49,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.MoreExecutors;
 
+import io.prometheus.client.Counter;
+
 /**
  * This class provides a cache service for all the service unit ownership among the brokers. It provide a cache service
  * as well as ZooKeeper read/write functions for a) lookup of a service unit ownership to a broker; b) take ownership of
@@ -59,6 +67,14 @@ public class OwnershipCache {
 
     private static final Logger LOG = LoggerFactory.getLogger(OwnershipCache.class);
 
+    private static final Counter ownerLookupCacheHits = Counter
+            .build("pulsar_ownership_cache_hits", "Counter of bundle owner lookups served without reading ZooKeeper")
+            .create().register();
+
+    private static final Counter ownerLookupCacheMisses = Counter
+            .build("pulsar_ownership_cache_misses", "Counter of bundle owner lookups which had to read ZooKeeper")
+            .create().register();
+
     /**
      * The local broker URL that this <code>OwnershipCache</code> will set as owner
      */
@@ -85,6 +101,27 @@ public class OwnershipCache {
      */
     private final ZooKeeperDataCache<NamespaceEphemeralData> ownershipReadOnlyCache;
 
+    /**
+     * The bundles found without owner in <code>ZooKeeper</code>. An entry is removed by a watch as soon as the
+     * ownership node of the bundle is created, so that repeated lookups of a bundle which is not owned yet do not all
+     * go to <code>ZooKeeper</code>
+     */
+    private final Cache<String, Boolean> unownedBundlesCache;
+
+    /**
+     * Watch on the ownership node of the bundles without owner
+     */
+    private final Watcher unownedBundleWatcher = event -> {
+        if (event.getType() == EventType.None) {
+            // Watches may be lost along with the session
+            if (event.getState() != KeeperState.SyncConnected) {
+                invalidateUnownedBundles();
+            }
+        } else if (event.getPath() != null) {
+            invalidateUnownedBundle(event.getPath());
+        }
+    };
+
     /**
      * The loading cache of locally owned <code>NamespaceBundle</code> objects
      */
@@ -130,6 +167,7 @@ public class OwnershipCache {
                                 LOG.debug("Successfully acquired zk lock on {}", namespaceBundleZNode);
                             }
                             ownershipReadOnlyCache.invalidate(namespaceBundleZNode);
+                            invalidateUnownedBundle(namespaceBundleZNode);
                             future.complete(new OwnedBundle(
                                     ServiceUnitZkUtils.suBundleFromPath(namespaceBundleZNode, bundleFactory)));
                         } else {
@@ -158,6 +196,7 @@ public class OwnershipCache {
         this.bundleFactory = bundleFactory;
         this.localZkCache = pulsar.getLocalZkCache();
         this.ownershipReadOnlyCache = pulsar.getLocalZkCacheService().ownerInfoCache();
+        this.unownedBundlesCache = CacheBuilder.newBuilder().expireAfterWrite(5, TimeUnit.MINUTES).build();
         // ownedBundlesCache contains all namespaces that are owned by the local broker
         this.ownedBundlesCache = Caffeine.newBuilder().executor(MoreExecutors.directExecutor())
                 .buildAsync(new OwnedServiceUnitCacheLoader());
@@ -177,6 +216,7 @@ public class OwnershipCache {
 
         CompletableFuture<OwnedBundle> ownedBundleFuture = ownedBundlesCache.getIfPresent(path);
         if (ownedBundleFuture != null) {
+            ownerLookupCacheHits.inc();
             // Either we're the owners or we're trying to become the owner.
             return ownedBundleFuture.thenApply(serviceUnit -> {
                 // We are the owner of the service unit
@@ -184,8 +224,48 @@ public class OwnershipCache {
             });
         }
 
-        // If we're not the owner, we need to check if anybody else is
-        return ownershipReadOnlyCache.getAsync(path);
+        if (unownedBundlesCache.getIfPresent(path) != null) {
+            ownerLookupCacheHits.inc();
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        // If we're not the owner, we need to check if anybody else is. The owners found in ZooKeeper are cached, and
+        // invalidated by a watch on their ownership node.
+        if (localZkCache.getDataIfPresent(path) != null) {
+            ownerLookupCacheHits.inc();
+        } else {
+            ownerLookupCacheMisses.inc();
+        }
+        return ownershipReadOnlyCache.getAsync(path).thenApply(ownerData -> {
+            if (!ownerData.isPresent()) {
+                watchUnownedBundle(path);
+            }
+            return ownerData;
+        });
+    }
+
+    /**
+     * Cache the absence of owner for the bundle, once a watch is set on its ownership node.
+     */
+    private void watchUnownedBundle(String path) {
+        try {
+            localZkCache.getZooKeeper().exists(path, unownedBundleWatcher, (rc, p, ctx, stat) -> {
+                if (rc == KeeperException.Code.NONODE.intValue()) {
+                    unownedBundlesCache.put(path, Boolean.TRUE);
+                }
+            }, null);
+        } catch (Exception e) {
+            // The bundle is just not cached
+            LOG.warn("Failed to set a watch on {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void invalidateUnownedBundle(String path) {
+        unownedBundlesCache.invalidate(path);
+    }
+
+    private void invalidateUnownedBundles() {
+        unownedBundlesCache.invalidateAll();
     }
 
     /**
@@ -202,6 +282,7 @@ public class OwnershipCache {
         CompletableFuture<NamespaceEphemeralData> future = new CompletableFuture<>();
 
         LOG.info("Trying to acquire ownership of {}", bundle);
+        invalidateUnownedBundle(path);
 
         // Doing a get() on the ownedBundlesCache will trigger an async ZK write to acquire the lock over the
         // service unit
@@ -256,6 +337,7 @@ public class OwnershipCache {
                 LOG.info("[{}] Removed zk lock for service unit: {}", key, KeeperException.Code.get(rc));
                 ownedBundlesCache.synchronous().invalidate(key);
                 ownershipReadOnlyCache.invalidate(key);
+                invalidateUnownedBundle(key);
                 result.complete(null);
             } else {
                 LOG.warn("[{}] Failed to delete the namespace ephemeral node. key={}", key,
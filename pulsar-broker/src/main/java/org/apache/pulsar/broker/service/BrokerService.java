@@ -27,13 +27,9 @@ import static org.apache.pulsar.broker.cache.ConfigurationCacheService.POLICIES;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Queues;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.PooledByteBufAllocator;
-import io.netty.channel.AdaptiveRecvByteBufAllocator;
-import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.handler.ssl.SslContext;
 import io.netty.util.concurrent.DefaultThreadFactory;
@@ -50,7 +46,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
@@ -72,8 +67,6 @@ import org.apache.bookkeeper.mledger.ManagedLedgerException;
 import org.apache.bookkeeper.mledger.ManagedLedgerException.ManagedLedgerNotFoundException;
 import org.apache.bookkeeper.mledger.ManagedLedgerFactory;
 import org.apache.bookkeeper.util.ZkUtils;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.pulsar.broker.PulsarServerException;
 import org.apache.pulsar.broker.PulsarService;
 import org.apache.pulsar.broker.ServiceConfiguration;
@@ -91,6 +84,7 @@ import org.apache.pulsar.broker.service.persistent.PersistentDispatcherMultipleC
 import org.apache.pulsar.broker.service.persistent.PersistentDispatcherSingleActiveConsumer;
 import org.apache.pulsar.broker.service.persistent.PersistentTopic;
 import org.apache.pulsar.broker.stats.ClusterReplicationMetrics;
+import org.apache.pulsar.broker.stats.prometheus.PrometheusMetricsCache;
 import org.apache.pulsar.broker.web.PulsarWebResource;
 import org.apache.pulsar.broker.zookeeper.aspectj.ClientCnxnAspect;
 import org.apache.pulsar.broker.zookeeper.aspectj.ClientCnxnAspect.EventListner;
@@ -102,6 +96,7 @@ import org.apache.pulsar.client.impl.ClientBuilderImpl;
 import org.apache.pulsar.client.impl.PulsarClientImpl;
 import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
 import org.apache.pulsar.common.configuration.FieldContext;
+import org.apache.pulsar.common.lookup.data.LookupData;
 import org.apache.pulsar.common.naming.NamespaceBundle;
 import org.apache.pulsar.common.naming.NamespaceBundleFactory;
 import org.apache.pulsar.common.naming.NamespaceName;
@@ -155,14 +150,13 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
     private static final ConcurrentOpenHashMap<String, ConfigField> dynamicConfigurationMap = prepareDynamicConfigurationMap();
     private final ConcurrentOpenHashMap<String, Consumer<?>> configRegisteredListeners;
 
-    private final ConcurrentLinkedQueue<Pair<String, CompletableFuture<Optional<Topic>>>> pendingTopicLoadingQueue;
+    private final TopicLoadScheduler topicLoadScheduler;
 
     private AuthorizationService authorizationService = null;
     private final ScheduledExecutorService statsUpdater;
     private final ScheduledExecutorService backlogQuotaChecker;
 
     protected final AtomicReference<Semaphore> lookupRequestSemaphore;
-    protected final AtomicReference<Semaphore> topicLoadRequestSemaphore;
 
     private final ScheduledExecutorService inactivityMonitor;
     private final ScheduledExecutorService messageExpiryMonitor;
@@ -198,7 +192,6 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
         this.replicationClients = new ConcurrentOpenHashMap<>();
         this.keepAliveIntervalSeconds = pulsar.getConfiguration().getKeepAliveIntervalSeconds();
         this.configRegisteredListeners = new ConcurrentOpenHashMap<>();
-        this.pendingTopicLoadingQueue = Queues.newConcurrentLinkedQueue();
 
         this.multiLayerTopicsMap = new ConcurrentOpenHashMap<>();
         this.pulsarStats = new PulsarStats(pulsar);
@@ -247,8 +240,8 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
         updateConfigurationAndRegisterListeners();
         this.lookupRequestSemaphore = new AtomicReference<Semaphore>(
                 new Semaphore(pulsar.getConfiguration().getMaxConcurrentLookupRequest(), false));
-        this.topicLoadRequestSemaphore = new AtomicReference<Semaphore>(
-                new Semaphore(pulsar.getConfiguration().getMaxConcurrentTopicLoadRequest(), false));
+        this.topicLoadScheduler = new TopicLoadScheduler(pulsar.getConfiguration().getMaxConcurrentTopicLoadRequest(),
+                pulsar.getConfiguration().getMaxPendingTopicLoadRequest(), this::createPersistentTopic);
         if (pulsar.getConfiguration().getMaxUnackedMessagesPerBroker() > 0
                 && pulsar.getConfiguration().getMaxUnackedMessagesPerSubscriptionOnBrokerBlocked() > 0.0) {
             this.maxUnackedMessages = pulsar.getConfiguration().getMaxUnackedMessagesPerBroker();
@@ -280,14 +273,10 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
                 pulsar.getConfiguration().getClusterName());
 
         ServerBootstrap bootstrap = new ServerBootstrap();
-        bootstrap.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
         bootstrap.group(acceptorGroup, workerGroup);
-        bootstrap.childOption(ChannelOption.TCP_NODELAY, true);
-        bootstrap.childOption(ChannelOption.RCVBUF_ALLOCATOR,
-                new AdaptiveRecvByteBufAllocator(1024, 16 * 1024, 1 * 1024 * 1024));
+        pulsar.getConfiguration().getTransportProfile().apply(bootstrap);
 
         bootstrap.channel(EventLoopUtil.getServerSocketChannelClass(workerGroup));
-        EventLoopUtil.enableTriggeredMode(bootstrap);
 
         ServiceConfiguration serviceConfig = pulsar.getConfiguration();
 
@@ -459,14 +448,22 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
     }
 
     public CompletableFuture<Optional<Topic>> getTopicIfExists(final String topic) {
-        return getTopic(topic, false /* createIfMissing */);
+        return getTopic(topic, false /* createIfMissing */, true /* highPriority */);
     }
 
     public CompletableFuture<Topic> getOrCreateTopic(final String topic) {
-        return getTopic(topic, true /* createIfMissing */).thenApply(Optional::get);
+        return getTopic(topic, true /* createIfMissing */, true /* highPriority */).thenApply(Optional::get);
     }
 
-    private CompletableFuture<Optional<Topic>> getTopic(final String topic, boolean createIfMissing) {
+    /**
+     * Load or create a topic in the background, without delaying the topics requested by clients.
+     */
+    public CompletableFuture<Topic> preloadTopic(final String topic) {
+        return getTopic(topic, true /* createIfMissing */, false /* highPriority */).thenApply(Optional::get);
+    }
+
+    private CompletableFuture<Optional<Topic>> getTopic(final String topic, boolean createIfMissing,
+            boolean highPriority) {
         try {
             CompletableFuture<Optional<Topic>> topicFuture = topics.get(topic);
             if (topicFuture != null) {
@@ -475,13 +472,18 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
                     // Exceptional topics should be recreated.
                     topics.remove(topic, topicFuture);
                 } else {
+                    if (highPriority && !topicFuture.isDone()) {
+                        // A client is waiting for the topic, in case it was queued by a background load
+                        topicLoadScheduler.promote(topic);
+                    }
                     return topicFuture;
                 }
             }
             final boolean isPersistentTopic = TopicName.get(topic).getDomain().equals(TopicDomain.persistent);
             return topics.computeIfAbsent(topic, (topicName) -> {
-                    return isPersistentTopic ? this.loadOrCreatePersistentTopic(topicName, createIfMissing)
-                        : createNonPersistentTopic(topicName);
+                    return isPersistentTopic
+                            ? this.loadOrCreatePersistentTopic(topicName, createIfMissing, highPriority)
+                            : createNonPersistentTopic(topicName);
             });
         } catch (IllegalArgumentException e) {
             log.warn("[{}] Illegalargument exception when loading topic", topic, e);
@@ -580,42 +582,26 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
 
     /**
      * It creates a topic async and returns CompletableFuture. It also throttles down configured max-concurrent topic
-     * loading and puts them into queue once in-process topics are created.
+     * loading and puts them into queue once in-process topics are created, see {@link TopicLoadScheduler}.
      *
      * @param topic persistent-topic name
+     * @param createIfMissing whether the topic has to be created if it does not exist
+     * @param highPriority whether the topic is requested by a client, rather than loaded in the background
      * @return CompletableFuture<Topic>
      * @throws RuntimeException
      */
     protected CompletableFuture<Optional<Topic>> loadOrCreatePersistentTopic(final String topic,
-            boolean createIfMissing) throws RuntimeException {
+            boolean createIfMissing, boolean highPriority) throws RuntimeException {
         checkTopicNsOwnership(topic);
 
-        final CompletableFuture<Optional<Topic>> topicFuture = new CompletableFuture<>();
         if (!pulsar.getConfiguration().isEnablePersistentTopics()) {
             if (log.isDebugEnabled()) {
                 log.debug("Broker is unable to load persistent topic {}", topic);
             }
-            topicFuture.completeExceptionally(new NotAllowedException("Broker is not unable to load persistent topic"));
-            return topicFuture;
+            return failedFuture(new NotAllowedException("Broker is not unable to load persistent topic"));
         }
 
-        final Semaphore topicLoadSemaphore = topicLoadRequestSemaphore.get();
-
-        if (topicLoadSemaphore.tryAcquire()) {
-            createPersistentTopic(topic, createIfMissing, topicFuture);
-            topicFuture.handle((persistentTopic, ex) -> {
-                // release permit and process pending topic
-                topicLoadSemaphore.release();
-                createPendingLoadTopic();
-                return null;
-            });
-        } else {
-            pendingTopicLoadingQueue.add(new ImmutablePair<String, CompletableFuture<Optional<Topic>>>(topic, topicFuture));
-            if (log.isDebugEnabled()) {
-                log.debug("topic-loading for {} added into pending queue", topic);
-            }
-        }
-        return topicFuture;
+        return topicLoadScheduler.schedule(topic, createIfMissing, highPriority);
     }
 
     private void createPersistentTopic(final String topic, boolean createIfMissing, CompletableFuture<Optional<Topic>> topicFuture) {
@@ -841,8 +827,12 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
     }
 
     public void updateRates() {
-        synchronized (pulsarStats) {
-            pulsarStats.updateStats(multiLayerTopicsMap);
+        pulsarStats.updateStats(multiLayerTopicsMap);
+
+        PrometheusMetricsCache metricsCache = pulsar.getPrometheusMetricsCache();
+        if (metricsCache != null) {
+            // Rebuild the metrics rendering served to Prometheus scrapers with the rates just computed
+            metricsCache.refresh();
         }
     }
 
@@ -964,6 +954,23 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
      * @return
      */
     public CompletableFuture<Integer> unloadServiceUnit(NamespaceBundle serviceUnit) {
+        return unloadServiceUnit(serviceUnit, Optional.empty());
+    }
+
+    /**
+     * Unload all the topics of the given bundle.
+     *
+     * When the broker taking over the bundle is already known, producers and consumers are first told to reconnect
+     * to it, so that they don't have to go through a new lookup.
+     *
+     * @param serviceUnit
+     *            the bundle to unload
+     * @param assignedBroker
+     *            the broker that will be serving the bundle, if known
+     * @return a future with the number of unloaded topics
+     */
+    public CompletableFuture<Integer> unloadServiceUnit(NamespaceBundle serviceUnit,
+            Optional<LookupData> assignedBroker) {
         CompletableFuture<Integer> result = new CompletableFuture<Integer>();
         List<CompletableFuture<Void>> closeFutures = Lists.newArrayList();
         topics.forEach((name, topicFuture) -> {
@@ -971,8 +978,8 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
             if (serviceUnit.includes(topicName)) {
                 // Topic needs to be unloaded
                 log.info("[{}] Unloading topic", topicName);
-                closeFutures.add(topicFuture
-                        .thenCompose(t -> t.isPresent() ? t.get().close() : CompletableFuture.completedFuture(null)));
+                closeFutures.add(topicFuture.thenCompose(t -> t.isPresent() ? unloadTopic(t.get(), assignedBroker)
+                        : CompletableFuture.completedFuture(null)));
             }
         });
         CompletableFuture<Void> aggregator = FutureUtil.waitForAll(closeFutures);
@@ -983,6 +990,19 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
         return result;
     }
 
+    private CompletableFuture<Void> unloadTopic(Topic topic, Optional<LookupData> assignedBroker) {
+        if (!assignedBroker.isPresent()) {
+            return topic.close();
+        }
+
+        // Redirect the clients to the new owner before closing the topic, which would otherwise just disconnect them
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+        topic.getProducers().forEach(producer -> futures.add(producer.disconnect(assignedBroker)));
+        topic.getSubscriptions().forEach((name, subscription) -> Lists.newArrayList(subscription.getConsumers())
+                .forEach(consumer -> consumer.disconnect(assignedBroker)));
+        return FutureUtil.waitForAll(futures).thenCompose(v -> topic.close());
+    }
+
     public AuthorizationService getAuthorizationService() {
         return authorizationService;
     }
@@ -1138,7 +1158,12 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
                 (maxConcurrentLookupRequest) -> lookupRequestSemaphore.set(new Semaphore((int) maxConcurrentLookupRequest, false)));
         // add listener on "maxConcurrentTopicLoadRequest" value change
         registerConfigurationListener("maxConcurrentTopicLoadRequest",
-                (maxConcurrentTopicLoadRequest) -> topicLoadRequestSemaphore.set(new Semaphore((int) maxConcurrentTopicLoadRequest, false)));
+                (maxConcurrentTopicLoadRequest) -> topicLoadScheduler
+                        .setMaxConcurrentLoads((int) maxConcurrentTopicLoadRequest));
+        // add listener on "maxPendingTopicLoadRequest" value change
+        registerConfigurationListener("maxPendingTopicLoadRequest",
+                (maxPendingTopicLoadRequest) -> topicLoadScheduler
+                        .setMaxPendingLoads((int) maxPendingTopicLoadRequest));
         registerConfigurationListener("loadManagerClassName", className -> {
             try {
                 final LoadManager newLoadManager = LoadManager.create(pulsar);
@@ -1364,42 +1389,6 @@ public class BrokerService implements Closeable, ZooKeeperCacheListener<Policies
         return dynamicConfigurationMap;
     }
 
-    /**
-     * Create pending topic and on completion it picks the next one until processes all topics in
-     * {@link #pendingTopicLoadingQueue}.<br/>
-     * It also tries to acquire {@link #topicLoadRequestSemaphore} so throttle down newly incoming topics and release
-     * permit if it was successful to acquire it.
-     */
-    private void createPendingLoadTopic() {
-        Pair<String, CompletableFuture<Optional<Topic>>> pendingTopic = pendingTopicLoadingQueue.poll();
-        if (pendingTopic == null) {
-            return;
-        }
-
-        final String topic = pendingTopic.getLeft();
-        try {
-            checkTopicNsOwnership(topic);
-            CompletableFuture<Optional<Topic>> pendingFuture = pendingTopic.getRight();
-            final Semaphore topicLoadSemaphore = topicLoadRequestSemaphore.get();
-            final boolean acquiredPermit = topicLoadSemaphore.tryAcquire();
-            createPersistentTopic(topic, true, pendingFuture);
-            pendingFuture.handle((persistentTopic, ex) -> {
-                // release permit and process next pending topic
-                if (acquiredPermit) {
-                    topicLoadSemaphore.release();
-                }
-                createPendingLoadTopic();
-                return null;
-            });
-        } catch (RuntimeException re) {
-            log.error("Failed to create pending topic {} {}", topic, re);
-            pendingTopic.getRight().completeExceptionally(re.getCause());
-            // schedule to process next pending topic
-            inactivityMonitor.schedule(() -> createPendingLoadTopic(), 100, TimeUnit.MILLISECONDS);
-        }
-
-    }
-
     public OrderedExecutor getTopicOrderedExecutor() {
         return topicOrderedExecutor;
     }
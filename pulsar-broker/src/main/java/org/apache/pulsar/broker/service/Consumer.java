@@ -35,6 +35,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.stream.Collectors;
@@ -45,8 +46,6 @@ import org.apache.bookkeeper.mledger.Entry;
 import org.apache.bookkeeper.mledger.Position;
 import org.apache.bookkeeper.mledger.impl.PositionImpl;
 import org.apache.bookkeeper.mledger.util.Rate;
-import org.apache.bookkeeper.util.collections.ConcurrentLongLongPairHashMap;
-import org.apache.bookkeeper.util.collections.ConcurrentLongLongPairHashMap.LongPair;
 import org.apache.pulsar.broker.PulsarServerException;
 import org.apache.pulsar.broker.authentication.AuthenticationDataSource;
 import org.apache.pulsar.common.api.Commands;
@@ -57,9 +56,11 @@ import org.apache.pulsar.common.api.proto.PulsarApi.CommandSubscribe.InitialPosi
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandSubscribe.SubType;
 import org.apache.pulsar.common.api.proto.PulsarApi.MessageIdData;
 import org.apache.pulsar.common.api.proto.PulsarApi.ProtocolVersion;
+import org.apache.pulsar.common.lookup.data.LookupData;
 import org.apache.pulsar.common.naming.TopicName;
 import org.apache.pulsar.common.policies.data.ConsumerStats;
 import org.apache.pulsar.common.util.DateFormatter;
+import org.apache.pulsar.common.util.collections.ConcurrentLongPairLongHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -96,7 +97,7 @@ public class Consumer {
             AtomicIntegerFieldUpdater.newUpdater(Consumer.class, "permitsReceivedWhileConsumerBlocked");
     private volatile int permitsReceivedWhileConsumerBlocked = 0;
 
-    private final ConcurrentLongLongPairHashMap pendingAcks;
+    private final ConcurrentLongPairLongHashMap pendingAcks;
 
     private final ConsumerStats stats;
 
@@ -146,7 +147,7 @@ public class Consumer {
         stats.metadata = this.metadata;
 
         if (subType == SubType.Shared) {
-            this.pendingAcks = new ConcurrentLongLongPairHashMap(256, 1);
+            this.pendingAcks = new ConcurrentLongPairLongHashMap(256, 1);
         } else {
             // We don't need to keep track of pending acks if the subscription is not shared
             this.pendingAcks = null;
@@ -321,7 +322,7 @@ public class Consumer {
                 continue;
             }
             if (pendingAcks != null) {
-                pendingAcks.put(entry.getLedgerId(), entry.getEntryId(), batchSize, 0);
+                pendingAcks.put(entry.getLedgerId(), entry.getEntryId(), batchSize);
             }
             // check if consumer supports batch message
             if (batchSize > 1 && !clientSupportBatchMessages) {
@@ -366,8 +367,15 @@ public class Consumer {
     }
 
     public void disconnect() {
+        disconnect(Optional.empty());
+    }
+
+    /**
+     * Close the consumer and tell the client which broker is taking over the topic, if known.
+     */
+    public void disconnect(Optional<LookupData> assignedBroker) {
         log.info("Disconnecting consumer: {}", this);
-        cnx.closeConsumer(this);
+        cnx.closeConsumer(this, assignedBroker);
         try {
             close();
         } catch (BrokerServiceException e) {
@@ -569,7 +577,7 @@ public class Consumer {
      */
     private void removePendingAcks(PositionImpl position) {
         Consumer ackOwnedConsumer = null;
-        if (pendingAcks.get(position.getLedgerId(), position.getEntryId()) == null) {
+        if (!pendingAcks.containsKey(position.getLedgerId(), position.getEntryId())) {
             for (Consumer consumer : subscription.getConsumers()) {
                 if (!consumer.equals(this) && consumer.getPendingAcks().containsKey(position.getLedgerId(), position.getEntryId())) {
                     ackOwnedConsumer = consumer;
@@ -582,8 +590,9 @@ public class Consumer {
 
         // remove pending message from appropriate consumer and unblock unAckMsg-flow if requires
         if (ackOwnedConsumer != null) {
-            int totalAckedMsgs = (int) ackOwnedConsumer.getPendingAcks().get(position.getLedgerId(), position.getEntryId()).first;
-            if (!ackOwnedConsumer.getPendingAcks().remove(position.getLedgerId(), position.getEntryId())) {
+            long totalAckedMsgs = ackOwnedConsumer.getPendingAcks().remove(position.getLedgerId(),
+                    position.getEntryId());
+            if (totalAckedMsgs == ConcurrentLongPairLongHashMap.ValueNotFound) {
                 // Message was already removed by the other consumer
                 return;
             }
@@ -592,7 +601,7 @@ public class Consumer {
             }
             // unblock consumer-throttling when receives half of maxUnackedMessages => consumer can start again
             // consuming messages
-            if (((addAndGetUnAckedMsgs(ackOwnedConsumer, -totalAckedMsgs) <= (maxUnackedMessages / 2))
+            if (((addAndGetUnAckedMsgs(ackOwnedConsumer, (int) -totalAckedMsgs) <= (maxUnackedMessages / 2))
                     && ackOwnedConsumer.blockedConsumerOnUnackedMsgs)
                     && ackOwnedConsumer.shouldBlockConsumerOnUnackMsgs()) {
                 ackOwnedConsumer.blockedConsumerOnUnackedMsgs = false;
@@ -601,7 +610,7 @@ public class Consumer {
         }
     }
 
-    public ConcurrentLongLongPairHashMap getPendingAcks() {
+    public ConcurrentLongPairLongHashMap getPendingAcks() {
         return pendingAcks;
     }
 
@@ -622,7 +631,7 @@ public class Consumer {
         if (pendingAcks != null) {
             AtomicInteger totalRedeliveryMessages = new AtomicInteger(0);
             pendingAcks.forEach(
-                    (ledgerId, entryId, batchSize, none) -> totalRedeliveryMessages.addAndGet((int) batchSize));
+                    (ledgerId, entryId, batchSize) -> totalRedeliveryMessages.addAndGet((int) batchSize));
             msgRedeliver.recordMultipleEvents(totalRedeliveryMessages.get(), totalRedeliveryMessages.get());
             pendingAcks.clear();
         }
@@ -635,10 +644,9 @@ public class Consumer {
         List<PositionImpl> pendingPositions = Lists.newArrayList();
         for (MessageIdData msg : messageIds) {
             PositionImpl position = PositionImpl.get(msg.getLedgerId(), msg.getEntryId());
-            LongPair batchSize = pendingAcks.get(position.getLedgerId(), position.getEntryId());
-            if (batchSize != null) {
-                pendingAcks.remove(position.getLedgerId(), position.getEntryId());
-                totalRedeliveryMessages += batchSize.first;
+            long batchSize = pendingAcks.remove(position.getLedgerId(), position.getEntryId());
+            if (batchSize != ConcurrentLongPairLongHashMap.ValueNotFound) {
+                totalRedeliveryMessages += batchSize;
                 pendingPositions.add(position);
             }
         }
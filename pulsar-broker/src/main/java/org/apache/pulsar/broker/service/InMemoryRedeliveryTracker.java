@@ -19,29 +19,33 @@
 package org.apache.pulsar.broker.service;
 
 import org.apache.bookkeeper.mledger.Position;
+import org.apache.bookkeeper.mledger.impl.PositionImpl;
+import org.apache.pulsar.common.util.collections.ConcurrentLongPairLongHashMap;
 
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class InMemoryRedeliveryTracker implements RedeliveryTracker {
 
-    private ConcurrentHashMap<Position, AtomicInteger> trackerCache = new ConcurrentHashMap<>(16);
+    // Redelivery count of each position, without allocating on lookups
+    private final ConcurrentLongPairLongHashMap trackerCache = new ConcurrentLongPairLongHashMap(16, 1);
 
     @Override
     public int incrementAndGetRedeliveryCount(Position position) {
-        trackerCache.putIfAbsent(position, new AtomicInteger(0));
-        return trackerCache.get(position).incrementAndGet();
+        PositionImpl positionImpl = (PositionImpl) position;
+        return (int) trackerCache.addAndGet(positionImpl.getLedgerId(), positionImpl.getEntryId(), 1);
     }
 
     @Override
     public int getRedeliveryCount(Position position) {
-        return trackerCache.getOrDefault(position, new AtomicInteger(0)).get();
+        PositionImpl positionImpl = (PositionImpl) position;
+        long count = trackerCache.get(positionImpl.getLedgerId(), positionImpl.getEntryId());
+        return count != ConcurrentLongPairLongHashMap.ValueNotFound ? (int) count : 0;
     }
 
     @Override
     public void remove(Position position) {
-        trackerCache.remove(position);
+        PositionImpl positionImpl = (PositionImpl) position;
+        trackerCache.remove(positionImpl.getLedgerId(), positionImpl.getEntryId());
     }
 
     @Override
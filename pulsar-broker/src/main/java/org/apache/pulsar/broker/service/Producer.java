@@ -19,9 +19,9 @@
 package org.apache.pulsar.broker.service;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.scurrilous.circe.checksum.Crc32cIntChecksum.computeChecksum;
 import static org.apache.pulsar.common.api.Commands.hasChecksum;
 import static org.apache.pulsar.common.api.Commands.readChecksum;
+import static org.apache.pulsar.common.util.Crc32cChecksum.computeChecksum;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
@@ -31,6 +31,7 @@ import io.netty.util.Recycler.Handle;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import org.apache.bookkeeper.mledger.util.Rate;
@@ -43,6 +44,7 @@ import org.apache.pulsar.broker.service.persistent.PersistentTopic;
 import org.apache.pulsar.common.api.Commands;
 import org.apache.pulsar.common.api.proto.PulsarApi.MessageMetadata;
 import org.apache.pulsar.common.api.proto.PulsarApi.ServerError;
+import org.apache.pulsar.common.lookup.data.LookupData;
 import org.apache.pulsar.common.naming.TopicName;
 import org.apache.pulsar.common.policies.data.NonPersistentPublisherStats;
 import org.apache.pulsar.common.policies.data.PublisherStats;
@@ -76,6 +78,8 @@ public class Producer {
     private final boolean isRemote;
     private final String remoteCluster;
     private final boolean isNonPersistentTopic;
+    // Only time the publishes when the topic has a publish latency histogram
+    private final boolean isPublishLatencyTracked;
     private final boolean isEncrypted;
 
     private final Map<String, String> metadata;
@@ -94,6 +98,8 @@ public class Producer {
         this.msgIn = new Rate();
         this.isNonPersistentTopic = topic instanceof NonPersistentTopic;
         this.msgDrop = this.isNonPersistentTopic ? new Rate() : null;
+        this.isPublishLatencyTracked = topic instanceof PersistentTopic
+                && ((PersistentTopic) topic).getPublishLatency() != null;
 
         this.metadata = metadata != null ? metadata : Collections.emptyMap();
 
@@ -242,6 +248,7 @@ public class Producer {
         private Rate rateIn;
         private int msgSize;
         private long batchSize;
+        private long startTimeNs;
 
         private String originalProducerName;
         private long originalSequenceId;
@@ -302,6 +309,9 @@ public class Producer {
 
                 this.ledgerId = ledgerId;
                 this.entryId = entryId;
+                if (producer.isPublishLatencyTracked) {
+                    ((PersistentTopic) producer.topic).recordPublishLatency(System.nanoTime() - startTimeNs);
+                }
                 producer.cnx.ctx().channel().eventLoop().execute(this);
             }
         }
@@ -318,9 +328,8 @@ public class Producer {
 
             // stats
             rateIn.recordMultipleEvents(batchSize, msgSize);
-            producer.cnx.ctx().writeAndFlush(
-                    Commands.newSendReceipt(producer.producerId, sequenceId, ledgerId, entryId),
-                    producer.cnx.ctx().voidPromise());
+            producer.cnx.writeAndFlushLater(
+                    Commands.newSendReceipt(producer.producerId, sequenceId, ledgerId, entryId));
             producer.cnx.completedSendOperation(producer.isNonPersistentTopic);
             producer.publishOperationCompleted();
             recycle();
@@ -334,6 +343,7 @@ public class Producer {
             callback.rateIn = rateIn;
             callback.msgSize = msgSize;
             callback.batchSize = batchSize;
+            callback.startTimeNs = producer.isPublishLatencyTracked ? System.nanoTime() : 0;
             callback.originalProducerName = null;
             callback.originalSequenceId = -1;
             return callback;
@@ -359,6 +369,7 @@ public class Producer {
             ledgerId = -1;
             entryId = -1;
             batchSize = 0;
+            startTimeNs = 0;
             recyclerHandle.recycle(this);
         }
     }
@@ -426,10 +437,21 @@ public class Producer {
      * @return Completable future indicating completion of producer close
      */
     public CompletableFuture<Void> disconnect() {
+        return disconnect(Optional.empty());
+    }
+
+    /**
+     * Same as {@link #disconnect()}, additionally telling the client which broker is taking over the topic.
+     *
+     * @param assignedBroker
+     *            the broker the client should reconnect to, if known
+     * @return Completable future indicating completion of producer close
+     */
+    public CompletableFuture<Void> disconnect(Optional<LookupData> assignedBroker) {
         if (!closeFuture.isDone()) {
             log.info("Disconnecting producer: {}", this);
             cnx.ctx().executor().execute(() -> {
-                cnx.closeProducer(this);
+                cnx.closeProducer(this, assignedBroker);
                 closeNow();
             });
         }
@@ -50,6 +50,7 @@ public class PulsarChannelInitializer extends ChannelInitializer<SocketChannel>
     @Override
     protected void initChannel(SocketChannel ch) throws Exception {
         ServiceConfiguration serviceConfig = pulsar.getConfiguration();
+        serviceConfig.getTransportProfile().initPipeline(ch.pipeline());
         if (enableTLS) {
             SslContext sslCtx = SecurityUtility.createNettySslContextForServer(
                     serviceConfig.isTlsAllowInsecureConnection(), serviceConfig.getTlsTrustCertsFilePath(),
@@ -19,9 +19,12 @@
 package org.apache.pulsar.broker.service;
 
 import java.io.Closeable;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import org.apache.pulsar.broker.PulsarService;
@@ -44,34 +47,56 @@ import com.google.common.collect.Maps;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
-import io.netty.util.ReferenceCountUtil;
 
+/**
+ * Collects the broker, namespace, bundle and topic stats.
+ *
+ * <p>The topics accumulate their counters with striped adders (see {@link org.apache.bookkeeper.mledger.util.Rate}),
+ * which are merged by {@link #updateStats(ConcurrentOpenHashMap)} on the stats thread. The results of each round are
+ * published as a single immutable {@link StatsSnapshot}, so that admin stats, load reports and metrics readers never
+ * wait for the stats computation to complete.
+ */
 public class PulsarStats implements Closeable {
     private static final Logger log = LoggerFactory.getLogger(PulsarStats.class);
 
-    private volatile ByteBuf topicStatsBuf;
-    private volatile ByteBuf tempTopicStatsBuf;
-    private NamespaceStats nsStats;
+    private static final int INITIAL_TOPIC_STATS_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Immutable view of the stats computed during a single stats round.
+     */
+    private static class StatsSnapshot {
+        final ByteBuf topicStatsBuf;
+        final Map<String, NamespaceBundleStats> bundleStats;
+        final List<Metrics> metricsCollection;
+
+        StatsSnapshot(ByteBuf topicStatsBuf, Map<String, NamespaceBundleStats> bundleStats,
+                List<Metrics> metricsCollection) {
+            this.topicStatsBuf = topicStatsBuf;
+            this.bundleStats = Collections.unmodifiableMap(bundleStats);
+            this.metricsCollection = Collections.unmodifiableList(metricsCollection);
+        }
+    }
+
+    private final AtomicReference<StatsSnapshot> snapshot;
+
+    // Bundles invalidated since the current stats round started, to drop them again from the snapshot it publishes
+    private final Set<String> invalidatedBundles = ConcurrentHashMap.newKeySet();
+
+    // The following fields are only accessed by the thread computing the stats, while holding updateLock
+    private final Object updateLock = new Object();
+    private final NamespaceStats nsStats;
     private final ClusterReplicationMetrics clusterReplicationMetrics;
-    private Map<String, NamespaceBundleStats> bundleStats;
-    private List<Metrics> tempMetricsCollection;
-    private List<Metrics> metricsCollection;
-    private List<NonPersistentTopic> tempNonPersistentTopics;
+    private final List<NonPersistentTopic> tempNonPersistentTopics;
     private final BrokerOperabilityMetrics brokerOperabilityMetrics;
     private final boolean exposePublisherStats;
 
-    private final ReentrantReadWriteLock bufferLock = new ReentrantReadWriteLock();
-
     public PulsarStats(PulsarService pulsar) {
-        this.topicStatsBuf = Unpooled.buffer(16 * 1024);
-        this.tempTopicStatsBuf = Unpooled.buffer(16 * 1024);
+        this.snapshot = new AtomicReference<>(new StatsSnapshot(Unpooled.EMPTY_BUFFER, Collections.emptyMap(),
+                Collections.emptyList()));
 
         this.nsStats = new NamespaceStats();
         this.clusterReplicationMetrics = new ClusterReplicationMetrics(pulsar.getConfiguration().getClusterName(),
                 pulsar.getConfiguration().isReplicationMetricsEnabled());
-        this.bundleStats = Maps.newHashMap();
-        this.tempMetricsCollection = Lists.newArrayList();
-        this.metricsCollection = Lists.newArrayList();
         this.brokerOperabilityMetrics = new BrokerOperabilityMetrics(pulsar.getConfiguration().getClusterName(),
                 pulsar.getAdvertisedAddress());
         this.tempNonPersistentTopics = Lists.newArrayList();
@@ -81,27 +106,39 @@ public class PulsarStats implements Closeable {
 
     @Override
     public void close() {
-        bufferLock.writeLock().lock();
-        try {
-            ReferenceCountUtil.safeRelease(topicStatsBuf);
-            ReferenceCountUtil.safeRelease(tempTopicStatsBuf);
-        } finally {
-            bufferLock.writeLock().unlock();
-        }
+        // The stats buffers are heap buffers: just drop the references to the last snapshot
+        snapshot.set(new StatsSnapshot(Unpooled.EMPTY_BUFFER, Collections.emptyMap(), Collections.emptyList()));
     }
 
     public ClusterReplicationMetrics getClusterReplicationMetrics() {
         return clusterReplicationMetrics;
     }
 
-    public synchronized void updateStats(
+    public void updateStats(
             ConcurrentOpenHashMap<String, ConcurrentOpenHashMap<String, ConcurrentOpenHashMap<String, Topic>>> topicsMap) {
+        synchronized (updateLock) {
+            // The bundles invalidated before this round get fresh stats from it
+            invalidatedBundles.clear();
+            StatsSnapshot newSnapshot = computeStats(topicsMap);
+            snapshot.set(newSnapshot);
+
+            // An invalidation which raced with the computation may have been applied to the previous snapshot only
+            invalidatedBundles.forEach(this::removeBundleStats);
+        }
+    }
+
+    private StatsSnapshot computeStats(
+            ConcurrentOpenHashMap<String, ConcurrentOpenHashMap<String, ConcurrentOpenHashMap<String, Topic>>> topicsMap) {
+        // Size the new buffer after the previous rendering, to avoid resizing it while writing the stats
+        int initialBufferSize = Math.max(INITIAL_TOPIC_STATS_BUFFER_SIZE,
+                snapshot.get().topicStatsBuf.readableBytes());
+        ByteBuf topicStatsBuf = Unpooled.buffer(initialBufferSize);
+        StatsOutputStream topicStatsStream = new StatsOutputStream(topicStatsBuf);
 
-        StatsOutputStream topicStatsStream = new StatsOutputStream(tempTopicStatsBuf);
+        Map<String, NamespaceBundleStats> bundleStats = Maps.newHashMap();
+        List<Metrics> metricsCollection = Lists.newArrayList();
 
         try {
-            tempMetricsCollection.clear();
-            bundleStats.clear();
             brokerOperabilityMetrics.reset();
 
             // Json begin
@@ -120,7 +157,6 @@ public class PulsarStats implements Closeable {
                     bundles.forEach((bundle, topics) -> {
                         NamespaceBundleStats currentBundleStats = bundleStats.computeIfAbsent(bundle,
                                 k -> new NamespaceBundleStats());
-                        currentBundleStats.reset();
                         currentBundleStats.topics = topics.size();
 
                         topicStatsStream.startObject(NamespaceBundle.getBundleRange(bundle));
@@ -169,18 +205,18 @@ public class PulsarStats implements Closeable {
 
                     topicStatsStream.endObject();
                     // Update metricsCollection with namespace stats
-                    tempMetricsCollection.add(nsStats.add(namespaceName));
+                    metricsCollection.add(nsStats.add(namespaceName));
                 } catch (Exception e) {
                     log.error("Failed to generate namespace stats for namespace {}: {}", namespaceName, e.getMessage(),
                             e);
                 }
             });
             if (clusterReplicationMetrics.isMetricsEnabled()) {
-                clusterReplicationMetrics.get().forEach(clusterMetric -> tempMetricsCollection.add(clusterMetric));
+                clusterReplicationMetrics.get().forEach(clusterMetric -> metricsCollection.add(clusterMetric));
                 clusterReplicationMetrics.reset();
             }
             brokerOperabilityMetrics.getMetrics()
-                    .forEach(brokerOperabilityMetric -> tempMetricsCollection.add(brokerOperabilityMetric));
+                    .forEach(brokerOperabilityMetric -> metricsCollection.add(brokerOperabilityMetric));
 
             // json end
             topicStatsStream.endObject();
@@ -188,41 +224,42 @@ public class PulsarStats implements Closeable {
             log.error("Unable to update topic stats", e);
         }
 
-        // swap metricsCollection and tempMetricsCollection
-        List<Metrics> tempRefMetrics = metricsCollection;
-        metricsCollection = tempMetricsCollection;
-        tempMetricsCollection = tempRefMetrics;
-
-        bufferLock.writeLock().lock();
-        try {
-            ByteBuf tmp = topicStatsBuf;
-            topicStatsBuf = tempTopicStatsBuf;
-            tempTopicStatsBuf = tmp;
-            tempTopicStatsBuf.clear();
-        } finally {
-            bufferLock.writeLock().unlock();
-        }
+        return new StatsSnapshot(topicStatsBuf, bundleStats, metricsCollection);
     }
 
     public NamespaceBundleStats invalidBundleStats(String bundleName) {
-        return bundleStats.remove(bundleName);
+        // Record the invalidation before applying it, so that a stats round publishing its snapshot concurrently
+        // either sees it or is replaced by the snapshot it is applied to
+        invalidatedBundles.add(bundleName);
+        return removeBundleStats(bundleName);
+    }
+
+    private NamespaceBundleStats removeBundleStats(String bundleName) {
+        StatsSnapshot current;
+        Map<String, NamespaceBundleStats> bundleStats;
+        do {
+            current = snapshot.get();
+            if (!current.bundleStats.containsKey(bundleName)) {
+                return null;
+            }
+            bundleStats = Maps.newHashMap(current.bundleStats);
+            bundleStats.remove(bundleName);
+        } while (!snapshot.compareAndSet(current,
+                new StatsSnapshot(current.topicStatsBuf, bundleStats, current.metricsCollection)));
+        return current.bundleStats.get(bundleName);
     }
 
     public void getDimensionMetrics(Consumer<ByteBuf> consumer) {
-        bufferLock.readLock().lock();
-        try {
-            consumer.accept(topicStatsBuf);
-        } finally {
-            bufferLock.readLock().unlock();
-        }
+        // Give each reader its own indexes over the shared content
+        consumer.accept(snapshot.get().topicStatsBuf.duplicate());
     }
 
     public List<Metrics> getTopicMetrics() {
-        return metricsCollection;
+        return snapshot.get().metricsCollection;
     }
 
     public Map<String, NamespaceBundleStats> getBundleStats() {
-        return bundleStats;
+        return snapshot.get().bundleStats;
     }
 
     public void recordTopicLoadTimeValue(String topic, long topicLoadLatencyMs) {
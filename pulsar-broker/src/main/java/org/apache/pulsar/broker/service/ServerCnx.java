@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.apache.pulsar.broker.admin.impl.PersistentTopicsBase.getPartitionedTopicMetadata;
 import static org.apache.pulsar.broker.lookup.TopicLookupBase.lookupTopicAsync;
+import static org.apache.pulsar.broker.lookup.TopicLookupBase.lookupTopicsAsync;
 import static org.apache.pulsar.common.api.Commands.newLookupErrorResponse;
 import static org.apache.pulsar.common.api.proto.PulsarApi.ProtocolVersion.v5;
 
@@ -34,15 +35,17 @@ import io.netty.channel.ChannelOption;
 import io.netty.handler.ssl.SslHandler;
 
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import javax.naming.AuthenticationException;
 import javax.net.ssl.SSLSession;
 
 import org.apache.bookkeeper.mledger.Position;
@@ -78,7 +81,10 @@ import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetLastMessageId;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetSchema;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetTopicsOfNamespace;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopic;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadata;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandProducer;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandRedeliverUnacknowledgedMessages;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandSeek;
@@ -91,9 +97,11 @@ import org.apache.pulsar.common.api.proto.PulsarApi.MessageIdData;
 import org.apache.pulsar.common.api.proto.PulsarApi.MessageMetadata;
 import org.apache.pulsar.common.api.proto.PulsarApi.ProtocolVersion;
 import org.apache.pulsar.common.api.proto.PulsarApi.ServerError;
+import org.apache.pulsar.common.lookup.data.LookupData;
 import org.apache.pulsar.common.naming.Metadata;
 import org.apache.pulsar.common.naming.NamespaceName;
 import org.apache.pulsar.common.naming.TopicName;
+import org.apache.pulsar.common.partition.PartitionedTopicMetadata;
 import org.apache.pulsar.common.policies.data.BacklogQuota;
 import org.apache.pulsar.common.policies.data.ConsumerStats;
 import org.apache.pulsar.common.schema.SchemaData;
@@ -131,7 +139,7 @@ public class ServerCnx extends PulsarHandler {
     private final boolean schemaValidationEnforced;
 
     enum State {
-        Start, Connected, Failed
+        Start, Connecting, Connected, Failed
     }
 
     public ServerCnx(PulsarService pulsar) {
@@ -382,6 +390,204 @@ public class ServerCnx extends PulsarHandler {
         }
     }
 
+    @Override
+    protected void handleLookupTopics(CommandLookupTopics lookupTopics) {
+        final long requestId = lookupTopics.getRequestId();
+        final boolean partitionedMetadata = lookupTopics.getPartitionedMetadata();
+        // Copy the topics, since the command is recycled once this method returns
+        final List<String> topics = new ArrayList<>(lookupTopics.getTopicsList());
+        if (log.isDebugEnabled()) {
+            log.debug("[{}] Received {} for {} topics from {}", requestId,
+                    partitionedMetadata ? "PartitionMetadataLookups" : "Lookups", topics.size(), remoteAddress);
+        }
+
+        // Each topic of the batch counts as one pending lookup request. Only take the permits which are available, so
+        // that a batch larger than the limit is partially served: the remaining topics fail with TooManyRequests
+        final Semaphore lookupSemaphore = service.getLookupRequestSemaphore();
+        int acquiredPermits = 0;
+        while (acquiredPermits < topics.size() && lookupSemaphore.tryAcquire()) {
+            acquiredPermits++;
+        }
+        final int permits = acquiredPermits;
+        if (permits == 0) {
+            if (log.isDebugEnabled()) {
+                log.debug("[{}] Failed batched lookup due to too many lookup-requests", remoteAddress);
+            }
+            writeLookupTopicsErrors(requestId, partitionedMetadata, topics.size(), ServerError.TooManyRequests,
+                    "Failed due to too many pending lookup requests");
+            return;
+        }
+
+        if (invalidOriginalPrincipal(originalPrincipal)) {
+            final String msg = "Valid Proxy Client role should be provided for lookup ";
+            log.warn("[{}] {} with role {} and proxyClientAuthRole {} on {} topics", remoteAddress, msg, authRole,
+                    originalPrincipal, topics.size());
+            writeLookupTopicsErrors(requestId, partitionedMetadata, topics.size(), ServerError.AuthorizationError,
+                    msg);
+            lookupSemaphore.release(permits);
+            return;
+        }
+
+        final List<CompletableFuture<CommandLookupTopicResponse>> lookupFutures = new ArrayList<>(topics.size());
+        final List<CompletableFuture<CommandPartitionedTopicMetadataResponse>> partitionFutures = new ArrayList<>(
+                topics.size());
+        final List<TopicName> topicsToLookup = new ArrayList<>(topics.size());
+        final List<CompletableFuture<CommandLookupTopicResponse>> lookupsToComplete = new ArrayList<>(topics.size());
+        final List<CompletableFuture<Void>> authorizationFutures = new ArrayList<>(topics.size());
+        final String finalOriginalPrincipal = originalPrincipal;
+
+        for (int index = 0; index < topics.size(); index++) {
+            final String topic = topics.get(index);
+            final CompletableFuture<CommandLookupTopicResponse> lookupFuture = new CompletableFuture<>();
+            final CompletableFuture<CommandPartitionedTopicMetadataResponse> partitionFuture =
+                    new CompletableFuture<>();
+            lookupFutures.add(lookupFuture);
+            partitionFutures.add(partitionFuture);
+
+            if (index >= permits) {
+                if (log.isDebugEnabled()) {
+                    log.debug("[{}] Failed lookup due to too many lookup-requests {}", remoteAddress, topic);
+                }
+                completeLookupTopicError(lookupFuture, partitionFuture, partitionedMetadata,
+                        ServerError.TooManyRequests, "Failed due to too many pending lookup requests", requestId);
+                continue;
+            }
+
+            final TopicName topicName;
+            try {
+                topicName = TopicName.get(topic);
+            } catch (Throwable t) {
+                if (log.isDebugEnabled()) {
+                    log.debug("[{}] Failed to parse topic name '{}'", remoteAddress, topic, t);
+                }
+                completeLookupTopicError(lookupFuture, partitionFuture, partitionedMetadata,
+                        ServerError.InvalidTopicName, "Invalid topic name: " + t.getMessage(), requestId);
+                continue;
+            }
+
+            CompletableFuture<Boolean> isProxyAuthorizedFuture;
+            if (service.isAuthorizationEnabled() && originalPrincipal != null) {
+                isProxyAuthorizedFuture = service.getAuthorizationService().canLookupAsync(topicName, authRole,
+                        authenticationData);
+            } else {
+                isProxyAuthorizedFuture = CompletableFuture.completedFuture(true);
+            }
+            authorizationFutures.add(isProxyAuthorizedFuture.handle((isProxyAuthorized, ex) -> {
+                if (ex != null || !isProxyAuthorized) {
+                    final String msg = ex != null ? "Exception occured while trying to authorize lookup"
+                            : "Proxy Client is not authorized to Lookup";
+                    log.warn("[{}] {} with role {} on topic {}", remoteAddress, msg, authRole, topicName);
+                    completeLookupTopicError(lookupFuture, partitionFuture, partitionedMetadata,
+                            ServerError.AuthorizationError, msg, requestId);
+                } else if (partitionedMetadata) {
+                    CompletableFuture<PartitionedTopicMetadata> metadataFuture;
+                    try {
+                        metadataFuture = getPartitionedTopicMetadata(getBrokerService().pulsar(), authRole,
+                                finalOriginalPrincipal, authenticationData, topicName);
+                    } catch (Throwable t) {
+                        metadataFuture = FutureUtil.failedFuture(t);
+                    }
+                    metadataFuture.handle((metadata, metadataException) -> {
+                        if (metadataException == null) {
+                            partitionFuture.complete(Commands
+                                    .newPartitionMetadataResponseCommand(metadata.partitions, requestId));
+                        } else if (metadataException instanceof PulsarClientException) {
+                            log.warn("Failed to authorize {} at [{}] on topic {} : {}", getRole(),
+                                    remoteAddress, topicName, metadataException.getMessage());
+                            partitionFuture.complete(Commands.newPartitionMetadataResponseCommand(
+                                    ServerError.AuthorizationError, metadataException.getMessage(),
+                                    requestId));
+                        } else {
+                            log.warn("Failed to get Partitioned Metadata [{}] {}: {}", remoteAddress,
+                                    topicName, metadataException.getMessage(), metadataException);
+                            ServerError error = (metadataException instanceof RestException)
+                                    && ((RestException) metadataException).getResponse().getStatus() < 500
+                                            ? ServerError.MetadataError : ServerError.ServiceNotReady;
+                            partitionFuture.complete(Commands.newPartitionMetadataResponseCommand(error,
+                                    metadataException.getMessage(), requestId));
+                        }
+                        return null;
+                    });
+                } else {
+                    synchronized (topicsToLookup) {
+                        topicsToLookup.add(topicName);
+                        lookupsToComplete.add(lookupFuture);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        if (!partitionedMetadata) {
+            // Lookup all the authorized topics at once, so that they are grouped by bundle
+            FutureUtil.waitForAll(authorizationFutures).thenRun(() -> {
+                if (topicsToLookup.isEmpty()) {
+                    return;
+                }
+                CompletableFuture<List<CommandLookupTopicResponse>> lookupFuture;
+                try {
+                    lookupFuture = lookupTopicsAsync(getBrokerService().pulsar(), topicsToLookup,
+                            finalOriginalPrincipal != null ? finalOriginalPrincipal : authRole, authenticationData,
+                            requestId);
+                } catch (Throwable t) {
+                    lookupFuture = FutureUtil.failedFuture(t);
+                }
+                lookupFuture.handle((lookupResponses, ex) -> {
+                    for (int i = 0; i < lookupsToComplete.size(); i++) {
+                        if (ex == null) {
+                            lookupsToComplete.get(i).complete(lookupResponses.get(i));
+                        } else {
+                            // it should never happen
+                            log.warn("[{}] lookup failed with error {}, {}", remoteAddress,
+                                    topicsToLookup.get(i), ex.getMessage(), ex);
+                            lookupsToComplete.get(i).complete(Commands.newLookupErrorResponseCommand(
+                                    ServerError.ServiceNotReady, ex.getMessage(), requestId));
+                        }
+                    }
+                    return null;
+                });
+            });
+        }
+
+        final CompletableFuture<?> responsesFuture = partitionedMetadata ? FutureUtil.waitForAll(partitionFutures)
+                : FutureUtil.waitForAll(lookupFutures);
+        responsesFuture.thenRun(() -> {
+            final List<CommandLookupTopicResponse> lookupResponses = new ArrayList<>();
+            final List<CommandPartitionedTopicMetadataResponse> partitionResponses = new ArrayList<>();
+            if (partitionedMetadata) {
+                partitionFutures.forEach(future -> partitionResponses.add(future.join()));
+            } else {
+                lookupFutures.forEach(future -> lookupResponses.add(future.join()));
+            }
+            ctx.writeAndFlush(Commands.newLookupTopicsResponse(requestId, lookupResponses, partitionResponses));
+            lookupSemaphore.release(permits);
+        });
+    }
+
+    private static void completeLookupTopicError(CompletableFuture<CommandLookupTopicResponse> lookupFuture,
+            CompletableFuture<CommandPartitionedTopicMetadataResponse> partitionFuture, boolean partitionedMetadata,
+            ServerError error, String message, long requestId) {
+        if (partitionedMetadata) {
+            partitionFuture.complete(Commands.newPartitionMetadataResponseCommand(error, message, requestId));
+        } else {
+            lookupFuture.complete(Commands.newLookupErrorResponseCommand(error, message, requestId));
+        }
+    }
+
+    private void writeLookupTopicsErrors(long requestId, boolean partitionedMetadata, int numTopics,
+            ServerError error, String message) {
+        final List<CommandLookupTopicResponse> lookupResponses = new ArrayList<>(numTopics);
+        final List<CommandPartitionedTopicMetadataResponse> partitionResponses = new ArrayList<>(numTopics);
+        for (int i = 0; i < numTopics; i++) {
+            if (partitionedMetadata) {
+                partitionResponses.add(Commands.newPartitionMetadataResponseCommand(error, message, requestId));
+            } else {
+                lookupResponses.add(Commands.newLookupErrorResponseCommand(error, message, requestId));
+            }
+        }
+        ctx.writeAndFlush(Commands.newLookupTopicsResponse(requestId, lookupResponses, partitionResponses));
+    }
+
     @Override
     protected void handleConsumerStats(CommandConsumerStats commandConsumerStats) {
         if (log.isDebugEnabled()) {
@@ -433,63 +639,96 @@ public class ServerCnx extends PulsarHandler {
         return commandConsumerStatsResponseBuilder;
     }
 
-    private String getOriginalPrincipal(String originalAuthData, String originalAuthMethod, String originalPrincipal,
-            SSLSession sslSession) throws AuthenticationException {
+    private CompletableFuture<String> getOriginalPrincipalAsync(String originalAuthData, String originalAuthMethod,
+            String originalPrincipal, SSLSession sslSession) {
         if (authenticateOriginalAuthData) {
             if (originalAuthData != null) {
-                originalPrincipal = getBrokerService().getAuthenticationService().authenticate(
+                return getBrokerService().getAuthenticationService().authenticateAsync(
                         new AuthenticationDataCommand(originalAuthData, remoteAddress, sslSession), originalAuthMethod);
             } else {
-                originalPrincipal = null;
+                return CompletableFuture.completedFuture(null);
             }
         }
-        return originalPrincipal;
+        return CompletableFuture.completedFuture(originalPrincipal);
     }
 
     @Override
     protected void handleConnect(CommandConnect connect) {
         checkArgument(state == State.Start);
+        final int protocolVersion = connect.getProtocolVersion();
+        final String version = connect.hasClientVersion() ? connect.getClientVersion() : null;
         if (service.isAuthenticationEnabled()) {
-            try {
-                String authMethod = "none";
-                if (connect.hasAuthMethodName()) {
-                    authMethod = connect.getAuthMethodName();
-                } else if (connect.hasAuthMethod()) {
-                    // Legacy client is passing enum
-                    authMethod = connect.getAuthMethod().name().substring(10).toLowerCase();
-                }
-
-                String authData = connect.getAuthData().toStringUtf8();
-                ChannelHandler sslHandler = ctx.channel().pipeline().get(PulsarChannelInitializer.TLS_HANDLER);
-                SSLSession sslSession = null;
-                if (sslHandler != null) {
-                    sslSession = ((SslHandler) sslHandler).engine().getSession();
-                }
-                originalPrincipal = getOriginalPrincipal(
-                        connect.hasOriginalAuthData() ? connect.getOriginalAuthData() : null,
-                        connect.hasOriginalAuthMethod() ? connect.getOriginalAuthMethod() : null,
-                        connect.hasOriginalPrincipal() ? connect.getOriginalPrincipal() : null,
-                        sslSession);
-                authenticationData = new AuthenticationDataCommand(authData, remoteAddress, sslSession);
-                authRole = getBrokerService().getAuthenticationService()
-                        .authenticate(authenticationData, authMethod);
-
-                log.info("[{}] Client successfully authenticated with {} role {} and originalPrincipal {}", remoteAddress, authMethod, authRole, originalPrincipal);
-            } catch (AuthenticationException e) {
-                String msg = "Unable to authenticate";
-                log.warn("[{}] {}: {}", remoteAddress, msg, e.getMessage());
-                ctx.writeAndFlush(Commands.newError(-1, ServerError.AuthenticationError, msg));
-                close();
-                return;
+            final String authMethod = getAuthMethod(connect);
+            String authData = connect.getAuthData().toStringUtf8();
+            ChannelHandler sslHandler = ctx.channel().pipeline().get(PulsarChannelInitializer.TLS_HANDLER);
+            SSLSession sslSession = null;
+            if (sslHandler != null) {
+                sslSession = ((SslHandler) sslHandler).engine().getSession();
+            }
+            final CompletableFuture<String> originalPrincipalFuture = getOriginalPrincipalAsync(
+                    connect.hasOriginalAuthData() ? connect.getOriginalAuthData() : null,
+                    connect.hasOriginalAuthMethod() ? connect.getOriginalAuthMethod() : null,
+                    connect.hasOriginalPrincipal() ? connect.getOriginalPrincipal() : null,
+                    sslSession);
+            authenticationData = new AuthenticationDataCommand(authData, remoteAddress, sslSession);
+            final CompletableFuture<String> authRoleFuture = getBrokerService().getAuthenticationService()
+                    .authenticateAsync(authenticationData, authMethod);
+
+            final CompletableFuture<Void> authenticationFuture = CompletableFuture.allOf(authRoleFuture,
+                    originalPrincipalFuture);
+            if (authenticationFuture.isDone()) {
+                completeAuthentication(authRoleFuture, originalPrincipalFuture, authMethod, protocolVersion, version);
+            } else {
+                // The credentials are verified on the authentication threads, the connection is not usable until then
+                state = State.Connecting;
+                authenticationFuture.whenComplete((ignore, ex) -> ctx.executor().execute(() -> completeAuthentication(
+                        authRoleFuture, originalPrincipalFuture, authMethod, protocolVersion, version)));
             }
+            return;
+        }
+        completeConnect(protocolVersion, version);
+    }
+
+    private static String getAuthMethod(CommandConnect connect) {
+        if (connect.hasAuthMethodName()) {
+            return connect.getAuthMethodName();
+        } else if (connect.hasAuthMethod()) {
+            // Legacy client is passing enum
+            return connect.getAuthMethod().name().substring(10).toLowerCase();
+        } else {
+            return "none";
         }
+    }
+
+    private void completeAuthentication(CompletableFuture<String> authRoleFuture,
+            CompletableFuture<String> originalPrincipalFuture, String authMethod, int protocolVersion,
+            String version) {
+        try {
+            authRole = authRoleFuture.getNow(null);
+            originalPrincipal = originalPrincipalFuture.getNow(null);
+        } catch (CompletionException e) {
+            rejectConnect(e.getCause());
+            return;
+        }
+        log.info("[{}] Client successfully authenticated with {} role {} and originalPrincipal {}", remoteAddress,
+                authMethod, authRole, originalPrincipal);
+        completeConnect(protocolVersion, version);
+    }
+
+    private void rejectConnect(Throwable cause) {
+        String msg = "Unable to authenticate";
+        log.warn("[{}] {}: {}", remoteAddress, msg, cause.getMessage());
+        ctx.writeAndFlush(Commands.newError(-1, ServerError.AuthenticationError, msg));
+        close();
+    }
+
+    private void completeConnect(int protocolVersion, String version) {
         if (log.isDebugEnabled()) {
             log.debug("Received CONNECT from {}", remoteAddress);
         }
-        ctx.writeAndFlush(Commands.newConnected(connect.getProtocolVersion()));
+        ctx.writeAndFlush(Commands.newConnected(protocolVersion));
         state = State.Connected;
-        remoteEndpointProtocolVersion = connect.getProtocolVersion();
-        String version = connect.hasClientVersion() ? connect.getClientVersion() : null;
+        remoteEndpointProtocolVersion = protocolVersion;
         if (isNotBlank(version) && !version.contains(" ") /* ignore default version: pulsar client */) {
             this.clientVersion = version.intern();
         }
@@ -953,7 +1192,7 @@ public class ServerCnx extends PulsarHandler {
                 final long producerId = send.getProducerId();
                 final long sequenceId = send.getSequenceId();
                 service.getTopicOrderedExecutor().executeOrdered(producer.getTopic().getName(), SafeRun.safeRun(() -> {
-                    ctx.writeAndFlush(Commands.newSendReceipt(producerId, sequenceId, -1, -1), ctx.voidPromise());
+                    writeAndFlushLater(Commands.newSendReceipt(producerId, sequenceId, -1, -1));
                 }));
                 producer.recordMessageDrop(send.getNumMessages());
                 return;
@@ -1268,6 +1507,14 @@ public class ServerCnx extends PulsarHandler {
     }
 
     public void closeProducer(Producer producer) {
+        closeProducer(producer, Optional.empty());
+    }
+
+    /**
+     * Removes the producer from the connection and sends the close command to the client. When an assigned broker is
+     * given, the client is told to reconnect directly to it instead of doing a new lookup.
+     */
+    public void closeProducer(Producer producer, Optional<LookupData> assignedBroker) {
         // removes producer-connection from map and send close command to producer
         if (log.isDebugEnabled()) {
             log.debug("[{}] Removed producer: {}", remoteAddress, producer);
@@ -1275,7 +1522,9 @@ public class ServerCnx extends PulsarHandler {
         long producerId = producer.getProducerId();
         producers.remove(producerId);
         if (remoteEndpointProtocolVersion >= v5.getNumber()) {
-            ctx.writeAndFlush(Commands.newCloseProducer(producerId, -1L));
+            ctx.writeAndFlush(Commands.newCloseProducer(producerId, -1L,
+                    assignedBroker.map(LookupData::getBrokerUrl).orElse(null),
+                    assignedBroker.map(LookupData::getBrokerUrlTls).orElse(null)));
         } else {
             close();
         }
@@ -1283,6 +1532,14 @@ public class ServerCnx extends PulsarHandler {
     }
 
     public void closeConsumer(Consumer consumer) {
+        closeConsumer(consumer, Optional.empty());
+    }
+
+    /**
+     * Removes the consumer from the connection and sends the close command to the client. When an assigned broker is
+     * given, the client is told to reconnect directly to it instead of doing a new lookup.
+     */
+    public void closeConsumer(Consumer consumer, Optional<LookupData> assignedBroker) {
         // removes consumer-connection from map and send close command to consumer
         if (log.isDebugEnabled()) {
             log.debug("[{}] Removed consumer: {}", remoteAddress, consumer);
@@ -1290,7 +1547,9 @@ public class ServerCnx extends PulsarHandler {
         long consumerId = consumer.consumerId();
         consumers.remove(consumerId);
         if (remoteEndpointProtocolVersion >= v5.getNumber()) {
-            ctx.writeAndFlush(Commands.newCloseConsumer(consumerId, -1L));
+            ctx.writeAndFlush(Commands.newCloseConsumer(consumerId, -1L,
+                    assignedBroker.map(LookupData::getBrokerUrl).orElse(null),
+                    assignedBroker.map(LookupData::getBrokerUrlTls).orElse(null)));
         } else {
             close();
         }
@@ -0,0 +1,259 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.service;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.pulsar.broker.service.BrokerServiceException.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Summary;
+
+/**
+ * Scheduler of the persistent topic loads of a broker.
+ *
+ * <p>At most maxConcurrentTopicLoadRequest topics are loaded at once, the other loads wait in a queue. Loads requested
+ * by clients go before the background loads, such as the preloading of the topics of a bundle, and a background load
+ * is promoted as soon as a client asks for its topic. Once maxPendingTopicLoadRequest loads are waiting, a client load
+ * takes the place of the last queued background load, and the other loads fail immediately with
+ * {@link TooManyRequestsException} so that clients retry later instead of timing out.
+ */
+public class TopicLoadScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(TopicLoadScheduler.class);
+
+    private static final Gauge pendingLoadsGauge = Gauge
+            .build("pulsar_topic_load_pending_requests", "Number of topic loads waiting for a permit").create()
+            .register();
+
+    private static final Gauge activeLoadsGauge = Gauge
+            .build("pulsar_topic_load_active_requests", "Number of topic loads in progress").create().register();
+
+    private static final Counter rejectedLoads = Counter
+            .build("pulsar_topic_load_rejected_requests", "Counter of topic loads rejected because of a full queue")
+            .create().register();
+
+    private static final Summary loadLatency = Summary
+            .build("pulsar_topic_load_latency_seconds", "Time to load a topic, including the time spent in the queue")
+            .quantile(0.5, 0.01).quantile(0.99, 0.01).create().register();
+
+    /**
+     * Loads a topic and completes the given future once done.
+     */
+    public interface Loader {
+        void load(String topic, boolean createIfMissing, CompletableFuture<Optional<Topic>> topicFuture);
+    }
+
+    private static class PendingLoad {
+        final String topic;
+        final boolean createIfMissing;
+        final CompletableFuture<Optional<Topic>> topicFuture;
+        // A promoted load is in both queues, only the first poll starts it
+        final AtomicBoolean claimed = new AtomicBoolean(false);
+        volatile boolean highPriority;
+
+        PendingLoad(String topic, boolean createIfMissing, CompletableFuture<Optional<Topic>> topicFuture,
+                boolean highPriority) {
+            this.topic = topic;
+            this.createIfMissing = createIfMissing;
+            this.topicFuture = topicFuture;
+            this.highPriority = highPriority;
+        }
+    }
+
+    private final Loader loader;
+    private final AtomicReference<Semaphore> permits;
+    private volatile int maxPendingLoads;
+
+    private final Queue<PendingLoad> highPriorityLoads = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedDeque<PendingLoad> lowPriorityLoads = new ConcurrentLinkedDeque<>();
+    private final ConcurrentMap<String, PendingLoad> pendingLoadsByTopic = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingLoads = new AtomicInteger();
+
+    // Number of requests to process the queues, so that a single thread processes them at a time
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    public TopicLoadScheduler(int maxConcurrentLoads, int maxPendingLoads, Loader loader) {
+        this.loader = loader;
+        this.permits = new AtomicReference<>(new Semaphore(maxConcurrentLoads, false));
+        this.maxPendingLoads = maxPendingLoads;
+    }
+
+    /**
+     * Load a topic as soon as a permit is available.
+     *
+     * @param topic
+     *            the topic to load
+     * @param createIfMissing
+     *            whether the topic has to be created if it does not exist
+     * @param highPriority
+     *            whether the load is requested by a client, rather than done in the background
+     * @return the future of the topic, completed with {@link TooManyRequestsException} if too many loads are pending,
+     *         or if the queued background load is replaced by a client load
+     */
+    public CompletableFuture<Optional<Topic>> schedule(String topic, boolean createIfMissing, boolean highPriority) {
+        final CompletableFuture<Optional<Topic>> topicFuture = new CompletableFuture<>();
+        final Semaphore semaphore = permits.get();
+        if (pendingLoads.get() == 0 && semaphore.tryAcquire()) {
+            recordLatency(topicFuture);
+            start(new PendingLoad(topic, createIfMissing, topicFuture, highPriority), semaphore);
+            return topicFuture;
+        }
+
+        if (pendingLoads.incrementAndGet() > maxPendingLoads && !(highPriority && evictLowPriorityLoad())) {
+            pendingLoads.decrementAndGet();
+            rejectedLoads.inc();
+            log.warn("[{}] Failed to load topic: {} topic loads are already pending", topic, maxPendingLoads);
+            topicFuture.completeExceptionally(
+                    new TooManyRequestsException("Too many topic loads are pending, retry later"));
+            return topicFuture;
+        }
+
+        recordLatency(topicFuture);
+        final PendingLoad pendingLoad = new PendingLoad(topic, createIfMissing, topicFuture, highPriority);
+        pendingLoadsGauge.inc();
+        pendingLoadsByTopic.put(topic, pendingLoad);
+        (highPriority ? highPriorityLoads : lowPriorityLoads).add(pendingLoad);
+        if (log.isDebugEnabled()) {
+            log.debug("[{}] Topic load added into the pending queue, high priority: {}", topic, highPriority);
+        }
+
+        // A permit may have been released while the load was queued
+        drain();
+        return topicFuture;
+    }
+
+    /**
+     * Move the pending load of a topic before the background loads, once a client asks for the topic.
+     */
+    public void promote(String topic) {
+        final PendingLoad pendingLoad = pendingLoadsByTopic.get(topic);
+        if (pendingLoad != null && !pendingLoad.highPriority && !pendingLoad.claimed.get()) {
+            pendingLoad.highPriority = true;
+            highPriorityLoads.add(pendingLoad);
+            if (log.isDebugEnabled()) {
+                log.debug("[{}] Promoted pending topic load", topic);
+            }
+        }
+    }
+
+    public void setMaxConcurrentLoads(int maxConcurrentLoads) {
+        permits.set(new Semaphore(maxConcurrentLoads, false));
+        drain();
+    }
+
+    public void setMaxPendingLoads(int maxPendingLoads) {
+        this.maxPendingLoads = maxPendingLoads;
+    }
+
+    public int getPendingLoads() {
+        return pendingLoads.get();
+    }
+
+    private static void recordLatency(CompletableFuture<Optional<Topic>> topicFuture) {
+        final long startTimeNanos = System.nanoTime();
+        topicFuture.whenComplete((t, ex) -> loadLatency
+                .observe((double) (System.nanoTime() - startTimeNanos) / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private void start(PendingLoad load, Semaphore semaphore) {
+        activeLoadsGauge.inc();
+        load.topicFuture.whenComplete((t, ex) -> {
+            activeLoadsGauge.dec();
+            semaphore.release();
+            drain();
+        });
+        try {
+            loader.load(load.topic, load.createIfMissing, load.topicFuture);
+        } catch (RuntimeException e) {
+            log.warn("[{}] Failed to load topic", load.topic, e);
+            load.topicFuture.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    // Start pending loads while permits are available. Loads completing synchronously only request another pass,
+    // instead of recursing into this method.
+    private void drain() {
+        int missed = drainRequests.incrementAndGet();
+        if (missed != 1) {
+            return;
+        }
+        do {
+            while (pendingLoads.get() > 0) {
+                final Semaphore semaphore = permits.get();
+                if (!semaphore.tryAcquire()) {
+                    break;
+                }
+                final PendingLoad load = pollPendingLoad();
+                if (load == null) {
+                    semaphore.release();
+                    break;
+                }
+                start(load, semaphore);
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // Reject the last queued background load, to make room for a client load
+    private boolean evictLowPriorityLoad() {
+        PendingLoad load;
+        while ((load = lowPriorityLoads.pollLast()) != null) {
+            // A promoted load is requested by a client as well, and is still in the high priority queue
+            if (!load.highPriority && load.claimed.compareAndSet(false, true)) {
+                pendingLoadsByTopic.remove(load.topic, load);
+                pendingLoads.decrementAndGet();
+                pendingLoadsGauge.dec();
+                rejectedLoads.inc();
+                log.warn("[{}] Failed to load topic in the background: replaced by a client topic load", load.topic);
+                load.topicFuture.completeExceptionally(
+                        new TooManyRequestsException("Too many topic loads are pending, retry later"));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PendingLoad pollPendingLoad() {
+        PendingLoad load;
+        while ((load = highPriorityLoads.poll()) != null || (load = lowPriorityLoads.poll()) != null) {
+            if (load.claimed.compareAndSet(false, true)) {
+                pendingLoadsByTopic.remove(load.topic, load);
+                pendingLoads.decrementAndGet();
+                pendingLoadsGauge.dec();
+                return load;
+            }
+        }
+        return null;
+    }
+}
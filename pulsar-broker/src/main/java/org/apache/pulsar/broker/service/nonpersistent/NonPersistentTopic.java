@@ -45,6 +45,7 @@ import org.apache.bookkeeper.common.util.OrderedExecutor;
 import org.apache.bookkeeper.mledger.Entry;
 import org.apache.bookkeeper.mledger.Position;
 import org.apache.bookkeeper.mledger.util.SafeRun;
+import org.apache.pulsar.broker.ServiceConfiguration;
 import org.apache.pulsar.broker.admin.AdminResource;
 import org.apache.pulsar.broker.service.BrokerService;
 import org.apache.pulsar.broker.service.BrokerServiceException;
@@ -103,6 +104,12 @@ public class NonPersistentTopic implements Topic {
 
     private final ConcurrentOpenHashMap<String, NonPersistentReplicator> replicators;
 
+    // Dispatches published messages to the subscriptions, possibly sharded across the topic executor threads
+    private final NonPersistentTopicFanOut fanOut;
+
+    // Guards the updates of the subscriptions together with the fan-out, so that both always have the same ones
+    private final Object subscriptionsLock = new Object();
+
     private final BrokerService brokerService;
 
     private volatile boolean isFenced;
@@ -174,6 +181,10 @@ public class NonPersistentTopic implements Topic {
         this.isFenced = false;
         this.replicatorPrefix = brokerService.pulsar().getConfiguration().getReplicatorPrefix();
         this.executor = brokerService.getTopicOrderedExecutor();
+        ServiceConfiguration conf = brokerService.pulsar().getConfiguration();
+        this.fanOut = new NonPersistentTopicFanOut(topic, executor, conf.getNonPersistentTopicFanOutShards(),
+                conf.getNonPersistentTopicFanOutMinSubscriptions(),
+                conf.getNonPersistentTopicFanOutMaxPendingMessagesPerShard());
         USAGE_COUNT_UPDATER.set(this, 0);
 
         this.lastActive = System.nanoTime();
@@ -197,19 +208,7 @@ public class NonPersistentTopic implements Topic {
         callback.completed(null, 0L, 0L);
         ENTRIES_ADDED_COUNTER_UPDATER.incrementAndGet(this);
 
-        subscriptions.forEach((name, subscription) -> {
-            ByteBuf duplicateBuffer = data.retainedDuplicate();
-            Entry entry = create(0L, 0L, duplicateBuffer);
-            // entry internally retains data so, duplicateBuffer should be release here
-            duplicateBuffer.release();
-            if (subscription.getDispatcher() != null) {
-                subscription.getDispatcher().sendMessages(Collections.singletonList(entry));
-            } else {
-                // it happens when subscription is created but dispatcher is not created as consumer is not added
-                // yet
-                entry.release();
-            }
-        });
+        fanOut.sendMessage(data);
 
         if (!replicators.isEmpty()) {
             replicators.forEach((name, replicator) -> {
@@ -359,8 +358,12 @@ public class NonPersistentTopic implements Topic {
             lock.readLock().unlock();
         }
 
-        NonPersistentSubscription subscription = subscriptions.computeIfAbsent(subscriptionName,
-                name -> new NonPersistentSubscription(this, subscriptionName));
+        NonPersistentSubscription subscription;
+        synchronized (subscriptionsLock) {
+            subscription = subscriptions.computeIfAbsent(subscriptionName,
+                    name -> new NonPersistentSubscription(this, subscriptionName));
+            fanOut.addSubscription(subscriptionName, subscription);
+        }
 
         try {
             Consumer consumer = new Consumer(subscription, subType, topic, consumerId, priorityLevel, consumerName, 0, cnx,
@@ -399,7 +402,10 @@ public class NonPersistentTopic implements Topic {
     }
 
     void removeSubscription(String subscriptionName) {
-        subscriptions.remove(subscriptionName);
+        synchronized (subscriptionsLock) {
+            subscriptions.remove(subscriptionName);
+            fanOut.removeSubscription(subscriptionName);
+        }
     }
 
     @Override
@@ -718,6 +724,7 @@ public class NonPersistentTopic implements Topic {
         topicStats.reset();
 
         replicators.forEach((region, replicator) -> replicator.updateRates());
+        fanOut.updateRates();
 
         nsStats.producerCount += producers.size();
         bundleStats.producerCount += producers.size();
@@ -820,6 +827,7 @@ public class NonPersistentTopic implements Topic {
         topicStatsStream.writePair("msgRateOut", topicStats.aggMsgRateOut);
         topicStatsStream.writePair("msgThroughputIn", topicStats.aggMsgThroughputIn);
         topicStatsStream.writePair("msgThroughputOut", topicStats.aggMsgThroughputOut);
+        topicStatsStream.writePair("msgFanOutDropRate", fanOut.getMsgDropRate());
 
         nsStats.msgRateIn += topicStats.aggMsgRateIn;
         nsStats.msgRateOut += topicStats.aggMsgRateOut;
@@ -854,6 +862,8 @@ public class NonPersistentTopic implements Topic {
         });
 
         stats.averageMsgSize = stats.msgRateIn == 0.0 ? 0.0 : (stats.msgThroughputIn / stats.msgRateIn);
+        stats.msgFanOutDropRate = fanOut.getMsgDropRate();
+        stats.fanOutShardsPendingMessages = fanOut.getPendingMessagesPerShard();
 
         subscriptions.forEach((name, subscription) -> {
             NonPersistentSubscriptionStats subStats = subscription.getStats();
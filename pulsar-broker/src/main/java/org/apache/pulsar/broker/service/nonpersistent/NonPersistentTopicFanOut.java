@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.service.nonpersistent;
+
+import static org.apache.bookkeeper.mledger.impl.EntryCacheManager.create;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.bookkeeper.common.util.OrderedExecutor;
+import org.apache.bookkeeper.mledger.Entry;
+import org.apache.bookkeeper.mledger.util.Rate;
+import org.apache.pulsar.common.util.collections.ConcurrentOpenHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Distributes the messages published on a non-persistent topic to its subscriptions.
+ *
+ * <p>Subscriptions are partitioned into a fixed number of shards, each one bound to a thread of the topic ordered
+ * executor. When the topic has fewer subscriptions than the configured threshold, messages are dispatched on the
+ * publishing thread. Otherwise each shard receives a single retained reference of the published buffer and performs
+ * the dispatch to its own subscriptions, so that the publishing IO thread is not the bottleneck for topics with a
+ * large number of subscribers. When a shard has too many messages queued, new messages for that shard are dropped.
+ */
+class NonPersistentTopicFanOut {
+
+    private final String topic;
+    private final Shard[] shards;
+    private final int minSubscriptionsForAsyncDispatch;
+    private final int maxPendingMessagesPerShard;
+
+    private final AtomicInteger subscriptionsCount = new AtomicInteger();
+
+    private static class Shard {
+        final ConcurrentOpenHashMap<String, NonPersistentSubscription> subscriptions = new ConcurrentOpenHashMap<>(16,
+                1);
+        final ExecutorService executor;
+        final AtomicInteger pendingMessages = new AtomicInteger();
+        final Rate msgDrop = new Rate();
+
+        Shard(ExecutorService executor) {
+            this.executor = executor;
+        }
+    }
+
+    NonPersistentTopicFanOut(String topic, OrderedExecutor executor, int numShards,
+            int minSubscriptionsForAsyncDispatch, int maxPendingMessagesPerShard) {
+        this.topic = topic;
+        this.minSubscriptionsForAsyncDispatch = minSubscriptionsForAsyncDispatch;
+        this.maxPendingMessagesPerShard = maxPendingMessagesPerShard;
+
+        // numShards <= 0 means that sharding is disabled: a single shard is always dispatched on the publishing thread
+        this.shards = new Shard[Math.max(1, numShards)];
+        long baseKey = topic.hashCode();
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(numShards > 0 ? executor.chooseThread(baseKey + i) : null);
+        }
+    }
+
+    void addSubscription(String name, NonPersistentSubscription subscription) {
+        if (getShard(name).subscriptions.putIfAbsent(name, subscription) == null) {
+            subscriptionsCount.incrementAndGet();
+        }
+    }
+
+    void removeSubscription(String name) {
+        if (getShard(name).subscriptions.remove(name) != null) {
+            subscriptionsCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Dispatch the published message to all the subscriptions. The caller keeps the ownership of the buffer.
+     */
+    void sendMessage(ByteBuf data) {
+        boolean asyncDispatch = shards[0].executor != null
+                && subscriptionsCount.get() >= minSubscriptionsForAsyncDispatch;
+
+        for (Shard shard : shards) {
+            if (shard.subscriptions.isEmpty()) {
+                continue;
+            }
+
+            // Keep dispatching asynchronously while there are queued messages in the shard, to preserve ordering
+            if (!asyncDispatch && shard.pendingMessages.get() == 0) {
+                dispatch(shard, data);
+                continue;
+            }
+
+            if (shard.pendingMessages.incrementAndGet() > maxPendingMessagesPerShard) {
+                shard.pendingMessages.decrementAndGet();
+                shard.msgDrop.recordEvent();
+                if (log.isDebugEnabled()) {
+                    log.debug("[{}] Dropping message in fan-out shard, {} messages already pending", topic,
+                            maxPendingMessagesPerShard);
+                }
+                continue;
+            }
+
+            data.retain();
+            try {
+                shard.executor.execute(() -> {
+                    try {
+                        dispatch(shard, data);
+                    } finally {
+                        data.release();
+                        shard.pendingMessages.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                data.release();
+                shard.pendingMessages.decrementAndGet();
+                shard.msgDrop.recordEvent();
+                log.warn("[{}] Failed to schedule fan-out of message: {}", topic, e.getMessage());
+            }
+        }
+    }
+
+    private static void dispatch(Shard shard, ByteBuf data) {
+        shard.subscriptions.forEach((name, subscription) -> {
+            ByteBuf duplicateBuffer = data.retainedDuplicate();
+            Entry entry = create(0L, 0L, duplicateBuffer);
+            // entry internally retains data so, duplicateBuffer should be release here
+            duplicateBuffer.release();
+            if (subscription.getDispatcher() != null) {
+                subscription.getDispatcher().sendMessages(Collections.singletonList(entry));
+            } else {
+                // it happens when subscription is created but dispatcher is not created as consumer is not added
+                // yet
+                entry.release();
+            }
+        });
+    }
+
+    private Shard getShard(String subscriptionName) {
+        return shards[(subscriptionName.hashCode() & Integer.MAX_VALUE) % shards.length];
+    }
+
+    double getMsgDropRate() {
+        double rate = 0;
+        for (Shard shard : shards) {
+            rate += shard.msgDrop.getRate();
+        }
+        return rate;
+    }
+
+    List<Integer> getPendingMessagesPerShard() {
+        List<Integer> pendingMessages = Lists.newArrayListWithCapacity(shards.length);
+        for (Shard shard : shards) {
+            pendingMessages.add(shard.pendingMessages.get());
+        }
+        return pendingMessages;
+    }
+
+    void updateRates() {
+        for (Shard shard : shards) {
+            shard.msgDrop.calculateRate();
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(NonPersistentTopicFanOut.class);
+}
@@ -74,6 +74,9 @@ public class PersistentDispatcherMultipleConsumers  extends AbstractDispatcherMu
     private final RedeliveryTracker redeliveryTracker;
 
     private boolean havePendingRead = false;
+    // Start time of the pending normal read, or 0 if the read is waiting for new entries to be published or the
+    // dispatch latency is not tracked
+    private volatile long readStartTimeNs = 0;
     private boolean havePendingReplayRead = false;
     private boolean shouldRewindBeforeReadingOrReplaying = false;
     private final String name;
@@ -199,7 +202,7 @@ public class PersistentDispatcherMultipleConsumers  extends AbstractDispatcherMu
                 if (log.isDebugEnabled()) {
                     log.debug("[{}] Consumer are left, reading more entries", name);
                 }
-                consumer.getPendingAcks().forEach((ledgerId, entryId, batchSize, none) -> {
+                consumer.getPendingAcks().forEach((ledgerId, entryId, batchSize) -> {
                     messagesToReplay.add(ledgerId, entryId);
                 });
                 totalAvailablePermits -= consumer.getAvailablePermits();
@@ -317,6 +320,8 @@ public class PersistentDispatcherMultipleConsumers  extends AbstractDispatcherMu
                             consumerList.size());
                 }
                 havePendingRead = true;
+                readStartTimeNs = topic.getDispatchLatency() != null && cursor.hasMoreEntries()
+                        ? System.nanoTime() : 0;
                 cursor.asyncReadEntriesOrWait(messagesToRead, this, ReadType.Normal);
             } else {
                 log.debug("[{}] Cannot schedule next read until previous one is done", name);
@@ -444,6 +449,10 @@ public class PersistentDispatcherMultipleConsumers  extends AbstractDispatcherMu
             }
         }
 
+        if (readType == ReadType.Normal && readStartTimeNs > 0 && totalMessagesSent > 0) {
+            topic.recordDispatchLatency(System.nanoTime() - readStartTimeNs);
+        }
+
         // acquire message-dispatch permits for already delivered messages
         if (serviceConfig.isDispatchThrottlingOnNonBacklogConsumerEnabled() || !cursor.isActive()) {
             topic.getDispatchRateLimiter().tryDispatchPermit(totalMessagesSent, totalBytesSent);
@@ -549,7 +558,7 @@ public class PersistentDispatcherMultipleConsumers  extends AbstractDispatcherMu
 
     @Override
     public synchronized void redeliverUnacknowledgedMessages(Consumer consumer) {
-        consumer.getPendingAcks().forEach((ledgerId, entryId, batchSize, none) -> {
+        consumer.getPendingAcks().forEach((ledgerId, entryId, batchSize) -> {
             messagesToReplay.add(ledgerId, entryId);
         });
         if (log.isDebugEnabled()) {
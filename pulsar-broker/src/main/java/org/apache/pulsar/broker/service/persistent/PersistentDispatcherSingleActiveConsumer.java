@@ -57,6 +57,9 @@ public final class PersistentDispatcherSingleActiveConsumer extends AbstractDisp
     private DispatchRateLimiter dispatchRateLimiter;
 
     private volatile boolean havePendingRead = false;
+    // Start time of the pending read, or 0 if the read is waiting for new entries to be published or the dispatch
+    // latency is not tracked
+    private volatile long readStartTimeNs = 0;
 
     private static final int MaxReadBatchSize = 100;
     private int readBatchSize;
@@ -207,8 +210,13 @@ public final class PersistentDispatcherSingleActiveConsumer extends AbstractDisp
                 readMoreEntries(currentConsumer);
             }
         } else {
+            final long readStartTimeNs = this.readStartTimeNs;
             currentConsumer.sendMessages(entries, (future, sentMsgInfo) -> {
                 if (future.isSuccess()) {
+                    if (readStartTimeNs > 0) {
+                        topic.recordDispatchLatency(System.nanoTime() - readStartTimeNs);
+                    }
+
                     // acquire message-dispatch permits for already delivered messages
                     if (serviceConfig.isDispatchThrottlingOnNonBacklogConsumerEnabled() || !cursor.isActive()) {
                         topic.getDispatchRateLimiter().tryDispatchPermit(sentMsgInfo.getTotalSentMessages(),
@@ -407,6 +415,8 @@ public final class PersistentDispatcherSingleActiveConsumer extends AbstractDisp
                 log.debug("[{}-{}] Schedule read of {} messages", name, consumer, messagesToRead);
             }
             havePendingRead = true;
+            readStartTimeNs = topic.getDispatchLatency() != null && cursor.hasMoreEntries()
+                    ? System.nanoTime() : 0;
             if (consumer.readCompacted()) {
                 topic.compactedTopic.asyncReadEntriesOrWait(cursor, messagesToRead, this, consumer);
             } else {
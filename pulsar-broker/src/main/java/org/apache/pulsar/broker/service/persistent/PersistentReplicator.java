@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 import org.apache.bookkeeper.mledger.AsyncCallbacks;
 import org.apache.bookkeeper.mledger.AsyncCallbacks.ClearBacklogCallback;
@@ -36,6 +37,7 @@ import org.apache.bookkeeper.mledger.ManagedLedgerException.CursorAlreadyClosedE
 import org.apache.bookkeeper.mledger.ManagedLedgerException.TooManyRequestsException;
 import org.apache.bookkeeper.mledger.Position;
 import org.apache.bookkeeper.mledger.util.Rate;
+import org.apache.pulsar.broker.ServiceConfiguration;
 import org.apache.pulsar.broker.service.AbstractReplicator;
 import org.apache.pulsar.broker.service.BrokerService;
 import org.apache.pulsar.broker.service.BrokerServiceException.NamingException;
@@ -60,15 +62,22 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
     private final ManagedCursor cursor;
 
 
-    private static final int MaxReadBatchSize = 100;
+    private final int maxReadBatchSize;
     private int readBatchSize;
 
     private final int producerQueueThreshold;
 
+    // Max number of bytes sent to the remote cluster and not yet acknowledged. 0 means no limit
+    private final long maxPendingBytes;
+
     private static final AtomicIntegerFieldUpdater<PersistentReplicator> PENDING_MESSAGES_UPDATER = AtomicIntegerFieldUpdater
             .newUpdater(PersistentReplicator.class, "pendingMessages");
     private volatile int pendingMessages = 0;
 
+    private static final AtomicLongFieldUpdater<PersistentReplicator> PENDING_BYTES_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(PersistentReplicator.class, "pendingBytes");
+    private volatile long pendingBytes = 0;
+
     private static final int FALSE = 0;
     private static final int TRUE = 1;
 
@@ -97,8 +106,13 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
         this.expiryMonitor = new PersistentMessageExpiryMonitor(topicName, Codec.decode(cursor.getName()), cursor);
         HAVE_PENDING_READ_UPDATER.set(this, FALSE);
         PENDING_MESSAGES_UPDATER.set(this, 0);
+        PENDING_BYTES_UPDATER.set(this, 0);
 
-        readBatchSize = Math.min(producerQueueSize, MaxReadBatchSize);
+        ServiceConfiguration conf = brokerService.pulsar().getConfiguration();
+        maxReadBatchSize = Math.max(1, conf.getReplicationReadBatchSize());
+        maxPendingBytes = Math.max(0, conf.getReplicationMaxPendingBytes());
+
+        readBatchSize = Math.min(producerQueueSize, maxReadBatchSize);
         producerQueueThreshold = (int) (producerQueueSize * 0.9);
 
         startProducer();
@@ -150,7 +164,12 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
     protected void readMoreEntries() {
         int availablePermits = producerQueueSize - PENDING_MESSAGES_UPDATER.get(this);
 
-        if (availablePermits > 0) {
+        if (isPendingBytesLimitReached()) {
+            if (log.isDebugEnabled()) {
+                log.debug("[{}][{} -> {}] Pending bytes limit reached ({} bytes in flight), pause reading", topicName,
+                        localCluster, remoteCluster, PENDING_BYTES_UPDATER.get(this));
+            }
+        } else if (availablePermits > 0) {
             int messagesToRead = Math.min(availablePermits, readBatchSize);
             if (!isWritable()) {
                 if (log.isDebugEnabled()) {
@@ -189,8 +208,8 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
                     entries.size());
         }
 
-        if (readBatchSize < MaxReadBatchSize) {
-            int newReadBatchSize = Math.min(readBatchSize * 2, MaxReadBatchSize);
+        if (readBatchSize < maxReadBatchSize) {
+            int newReadBatchSize = Math.min(readBatchSize * 2, maxReadBatchSize);
             if (log.isDebugEnabled()) {
                 log.debug("[{}][{} -> {}] Increasing read batch size from {} to {}", topicName, localCluster,
                         remoteCluster, readBatchSize, newReadBatchSize);
@@ -268,6 +287,7 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
 
                 // Increment pending messages for messages produced locally
                 PENDING_MESSAGES_UPDATER.incrementAndGet(this);
+                PENDING_BYTES_UPDATER.addAndGet(this, length);
 
                 msgOut.recordEvent(headersAndPayload.readableBytes());
 
@@ -275,7 +295,7 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
 
                 headersAndPayload.retain();
 
-                producer.sendAsync(msg, ProducerSendCallback.create(this, entry, msg));
+                producer.sendAsync(msg, ProducerSendCallback.create(this, entry, msg, length));
                 atLeastOneMessageSentForReplication = true;
             }
         } catch (Exception e) {
@@ -296,6 +316,10 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
         }
     }
 
+    private boolean isPendingBytesLimitReached() {
+        return maxPendingBytes > 0 && PENDING_BYTES_UPDATER.get(this) >= maxPendingBytes;
+    }
+
     public void updateCursorState() {
         if (producer != null && producer.isConnected()) {
             this.cursor.setActive();
@@ -308,6 +332,7 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
         private PersistentReplicator replicator;
         private Entry entry;
         private MessageImpl msg;
+        private int length;
 
         @Override
         public void sendComplete(Exception exception) {
@@ -326,6 +351,7 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
             entry.release();
 
             int pending = PENDING_MESSAGES_UPDATER.decrementAndGet(replicator);
+            PENDING_BYTES_UPDATER.addAndGet(replicator, -length);
 
             // In general, we schedule a new batch read operation when the occupied queue size gets smaller than half
             // the max size, unless another read operation is already in progress.
@@ -355,17 +381,20 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
             this.recyclerHandle = recyclerHandle;
         }
 
-        static ProducerSendCallback create(PersistentReplicator replicator, Entry entry, MessageImpl msg) {
+        static ProducerSendCallback create(PersistentReplicator replicator, Entry entry, MessageImpl msg,
+                int length) {
             ProducerSendCallback sendCallback = RECYCLER.get();
             sendCallback.replicator = replicator;
             sendCallback.entry = entry;
             sendCallback.msg = msg;
+            sendCallback.length = length;
             return sendCallback;
         }
 
         private void recycle() {
             replicator = null;
             entry = null; //already released and recycled on sendComplete
+            length = 0;
             if (msg != null) {
                 msg.recycle();
                 msg = null;
@@ -541,6 +570,8 @@ public class PersistentReplicator extends AbstractReplicator implements Replicat
         stats.replicationBacklog = cursor.getNumberOfEntriesInBacklog();
         stats.connected = producer != null && producer.isConnected();
         stats.replicationDelayInSeconds = getReplicationDelayInSeconds();
+        stats.pendingMessages = PENDING_MESSAGES_UPDATER.get(this);
+        stats.pendingBytes = PENDING_BYTES_UPDATER.get(this);
 
         ProducerImpl producer = this.producer;
         if (producer != null) {
@@ -179,6 +179,9 @@ public class PersistentSubscription implements Subscription {
 
     @Override
     public void acknowledgeMessage(List<Position> positions, AckType ackType, Map<String,Long> properties) {
+        // Only wrap the positions to time the ack when the topic has an ack latency histogram
+        final boolean isAckLatencyTracked = topic.getAckLatency() != null;
+        final long startTimeNs = isAckLatencyTracked ? System.nanoTime() : 0;
         if (ackType == AckType.Cumulative) {
             if (positions.size() != 1) {
                 log.warn("[{}][{}] Invalid cumulative ack received with multiple message ids", topicName, subName);
@@ -189,12 +192,14 @@ public class PersistentSubscription implements Subscription {
             if (log.isDebugEnabled()) {
                 log.debug("[{}][{}] Cumulative ack on {}", topicName, subName, position);
             }
-            cursor.asyncMarkDelete(position, properties, markDeleteCallback, position);
+            cursor.asyncMarkDelete(position, properties, markDeleteCallback,
+                    isAckLatencyTracked ? new AckContext(position, startTimeNs) : position);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug("[{}][{}] Individual acks on {}", topicName, subName, positions);
             }
-            cursor.asyncDelete(positions, deleteCallback, positions);
+            cursor.asyncDelete(positions, deleteCallback,
+                    isAckLatencyTracked ? new AckContext(positions, startTimeNs) : positions);
             dispatcher.getRedeliveryTracker().removeBatch(positions);
         }
 
@@ -204,12 +209,31 @@ public class PersistentSubscription implements Subscription {
         }
     }
 
+    // Positions being acknowledged, and the time the ack was received to record the ack latency once it is persisted.
+    // Only used when the ack latency is tracked, the callbacks get the positions themselves otherwise.
+    private static final class AckContext {
+        private final Object positions;
+        private final long startTimeNs;
+
+        AckContext(Object positions, long startTimeNs) {
+            this.positions = positions;
+            this.startTimeNs = startTimeNs;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(positions);
+        }
+    }
+
     private final MarkDeleteCallback markDeleteCallback = new MarkDeleteCallback() {
         @Override
         public void markDeleteComplete(Object ctx) {
-            PositionImpl pos = (PositionImpl) ctx;
+            if (ctx instanceof AckContext) {
+                topic.recordAckLatency(System.nanoTime() - ((AckContext) ctx).startTimeNs);
+            }
             if (log.isDebugEnabled()) {
-                log.debug("[{}][{}] Mark deleted messages until position {}", topicName, subName, pos);
+                log.debug("[{}][{}] Mark deleted messages until position {}", topicName, subName, ctx);
             }
         }
 
@@ -224,9 +248,12 @@ public class PersistentSubscription implements Subscription {
 
     private final DeleteCallback deleteCallback = new DeleteCallback() {
         @Override
-        public void deleteComplete(Object position) {
+        public void deleteComplete(Object ctx) {
+            if (ctx instanceof AckContext) {
+                topic.recordAckLatency(System.nanoTime() - ((AckContext) ctx).startTimeNs);
+            }
             if (log.isDebugEnabled()) {
-                log.debug("[{}][{}] Deleted message at {}", topicName, subName, position);
+                log.debug("[{}][{}] Deleted message at {}", topicName, subName, ctx);
             }
         }
 
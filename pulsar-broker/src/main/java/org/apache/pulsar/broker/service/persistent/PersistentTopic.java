@@ -81,6 +81,7 @@ import org.apache.pulsar.broker.service.Subscription;
 import org.apache.pulsar.broker.service.Topic;
 import org.apache.pulsar.broker.service.schema.SchemaCompatibilityStrategy;
 import org.apache.pulsar.broker.stats.ClusterReplicationMetrics;
+import org.apache.pulsar.broker.stats.LatencyHistogram;
 import org.apache.pulsar.broker.stats.NamespaceStats;
 import org.apache.pulsar.broker.stats.ReplicationMetrics;
 import org.apache.pulsar.client.admin.LongRunningProcessStatus;
@@ -173,6 +174,11 @@ public class PersistentTopic implements Topic, AddEntryCallback {
 
     private final MessageDeduplication messageDeduplication;
 
+    // Latency histograms, only created if topic latency histograms are enabled
+    private final LatencyHistogram publishLatency;
+    private final LatencyHistogram dispatchLatency;
+    private final LatencyHistogram ackLatency;
+
     private static final long COMPACTION_NEVER_RUN = -0xfebecffeL;
     CompletableFuture<Long> currentCompaction = CompletableFuture.completedFuture(COMPACTION_NEVER_RUN);
     final CompactedTopic compactedTopic;
@@ -231,6 +237,16 @@ public class PersistentTopic implements Topic, AddEntryCallback {
 
         this.compactedTopic = new CompactedTopicImpl(brokerService.pulsar().getBookKeeperClient());
 
+        if (brokerService.pulsar().getConfiguration().isTopicLatencyHistogramsEnabled()) {
+            this.publishLatency = new LatencyHistogram();
+            this.dispatchLatency = new LatencyHistogram();
+            this.ackLatency = new LatencyHistogram();
+        } else {
+            this.publishLatency = null;
+            this.dispatchLatency = null;
+            this.ackLatency = null;
+        }
+
         for (ManagedCursor cursor : ledger.getCursors()) {
             if (cursor.getName().startsWith(replicatorPrefix)) {
                 String localCluster = brokerService.pulsar().getConfiguration().getClusterName();
@@ -1170,6 +1186,12 @@ public class PersistentTopic implements Topic, AddEntryCallback {
 
         replicators.forEach((region, replicator) -> replicator.updateRates());
 
+        if (publishLatency != null) {
+            publishLatency.refresh();
+            dispatchLatency.refresh();
+            ackLatency.refresh();
+        }
+
         nsStats.producerCount += producers.size();
         bundleStats.producerCount += producers.size();
         topicStatsStream.startObject(topic);
@@ -1401,9 +1423,47 @@ public class PersistentTopic implements Topic, AddEntryCallback {
 
         stats.storageSize = ledger.getEstimatedBacklogSize();
         stats.deduplicationStatus = messageDeduplication.getStatus().toString();
+        if (publishLatency != null) {
+            LatencyHistogram.fillStats(publishLatency.getSnapshot(), stats.publishLatency);
+            LatencyHistogram.fillStats(dispatchLatency.getSnapshot(), stats.dispatchLatency);
+            LatencyHistogram.fillStats(ackLatency.getSnapshot(), stats.ackLatency);
+        }
         return stats;
     }
 
+    public void recordPublishLatency(long latencyNanos) {
+        if (publishLatency != null) {
+            publishLatency.recordLatency(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordDispatchLatency(long latencyNanos) {
+        if (dispatchLatency != null) {
+            dispatchLatency.recordLatency(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordAckLatency(long latencyNanos) {
+        if (ackLatency != null) {
+            ackLatency.recordLatency(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return the publish latency histogram or null if topic latency histograms are disabled
+     */
+    public LatencyHistogram getPublishLatency() {
+        return publishLatency;
+    }
+
+    public LatencyHistogram getDispatchLatency() {
+        return dispatchLatency;
+    }
+
+    public LatencyHistogram getAckLatency() {
+        return ackLatency;
+    }
+
     public PersistentTopicInternalStats getInternalStats() {
         PersistentTopicInternalStats stats = new PersistentTopicInternalStats();
 
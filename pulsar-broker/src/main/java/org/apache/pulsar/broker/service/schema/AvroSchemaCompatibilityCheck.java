@@ -18,6 +18,8 @@
  */
 package org.apache.pulsar.broker.service.schema;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaValidationException;
 import org.apache.avro.SchemaValidator;
@@ -34,6 +36,11 @@ import org.slf4j.LoggerFactory;
 public class AvroSchemaCompatibilityCheck implements SchemaCompatibilityCheck {
     private final static Logger log = LoggerFactory.getLogger(AvroSchemaCompatibilityCheck.class);
 
+    private static final int MAX_PARSED_SCHEMAS = 1000;
+
+    // The same few schemas are compared each time a producer connects, keep them parsed
+    private final Cache<String, Schema> parsedSchemas = Caffeine.newBuilder().maximumSize(MAX_PARSED_SCHEMAS).build();
+
     @Override
     public SchemaType getSchemaType() {
         return SchemaType.AVRO;
@@ -41,10 +48,8 @@ public class AvroSchemaCompatibilityCheck implements SchemaCompatibilityCheck {
 
     @Override
     public boolean isCompatible(SchemaData from, SchemaData to, SchemaCompatibilityStrategy strategy) {
-        Schema.Parser fromParser = new Schema.Parser();
-        Schema fromSchema = fromParser.parse(new String(from.getData()));
-        Schema.Parser toParser = new Schema.Parser();
-        Schema toSchema =  toParser.parse(new String(to.getData()));
+        Schema fromSchema = parse(from);
+        Schema toSchema = parse(to);
 
         SchemaValidator schemaValidator = createSchemaValidator(strategy, true);
         try {
@@ -55,6 +60,21 @@ public class AvroSchemaCompatibilityCheck implements SchemaCompatibilityCheck {
         return true;
     }
 
+    private Schema parse(SchemaData schemaData) {
+        String definition = new String(schemaData.getData());
+        Schema schema = parsedSchemas.getIfPresent(definition);
+        if (schema != null) {
+            SchemaCacheStats.hit(SchemaCacheStats.PARSED_SCHEMAS);
+            return schema;
+        }
+
+        SchemaCacheStats.miss(SchemaCacheStats.PARSED_SCHEMAS);
+        // Each parser keeps the names it has seen, a new one is needed for each schema
+        schema = new Schema.Parser().parse(definition);
+        parsedSchemas.put(definition, schema);
+        return schema;
+    }
+
     private static SchemaValidator createSchemaValidator(SchemaCompatibilityStrategy compatibilityStrategy,
                                                   boolean onlyLatestValidator) {
         final SchemaValidatorBuilder validatorBuilder = new SchemaValidatorBuilder();
@@ -26,6 +26,8 @@ import static java.util.Objects.nonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.apache.pulsar.broker.service.schema.BookkeeperSchemaStorage.Functions.newSchemaEntry;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.ByteString;
 
@@ -46,6 +48,7 @@ import org.apache.bookkeeper.client.BookKeeper;
 import org.apache.bookkeeper.client.LedgerEntry;
 import org.apache.bookkeeper.client.LedgerHandle;
 import org.apache.bookkeeper.util.ZkUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.pulsar.broker.PulsarService;
 import org.apache.pulsar.broker.ServiceConfiguration;
 import org.apache.pulsar.common.schema.SchemaVersion;
@@ -75,12 +78,17 @@ public class BookkeeperSchemaStorage implements SchemaStorage {
 
     private final ConcurrentMap<String, CompletableFuture<StoredSchema>> readSchemaOperations = new ConcurrentHashMap<>();
 
+    // The schema entries are never modified once written, cache them by (ledgerId, entryId). The locators pointing
+    // to them are kept up to date by the ZooKeeper cache watches.
+    private final Cache<Pair<Long, Long>, SchemaStorageFormat.SchemaEntry> schemaEntryCache;
+
     @VisibleForTesting
     BookkeeperSchemaStorage(PulsarService pulsar) {
         this.pulsar = pulsar;
         this.localZkCache = pulsar.getLocalZkCache();
         this.zooKeeper = localZkCache.getZooKeeper();
         this.config = pulsar.getConfiguration();
+        this.schemaEntryCache = Caffeine.newBuilder().maximumSize(config.getSchemaRegistryCacheMaxEntries()).build();
     }
 
     @VisibleForTesting
@@ -343,9 +351,10 @@ public class BookkeeperSchemaStorage implements SchemaStorage {
     ) {
         SchemaStorageFormat.SchemaEntry schemaEntry = newSchemaEntry(index, data);
         return createLedger().thenCompose(ledgerHandle ->
-            addEntry(ledgerHandle, schemaEntry).thenApply(entryId ->
-                Functions.newPositionInfo(ledgerHandle.getId(), entryId)
-            )
+            addEntry(ledgerHandle, schemaEntry).thenApply(entryId -> {
+                schemaEntryCache.put(Pair.of(ledgerHandle.getId(), entryId), schemaEntry);
+                return Functions.newPositionInfo(ledgerHandle.getId(), entryId);
+            })
         );
     }
 
@@ -429,6 +438,14 @@ public class BookkeeperSchemaStorage implements SchemaStorage {
     private CompletableFuture<SchemaStorageFormat.SchemaEntry> readSchemaEntry(
         SchemaStorageFormat.PositionInfo position
     ) {
+        Pair<Long, Long> entryKey = Pair.of(position.getLedgerId(), position.getEntryId());
+        SchemaStorageFormat.SchemaEntry cachedEntry = schemaEntryCache.getIfPresent(entryKey);
+        if (cachedEntry != null) {
+            SchemaCacheStats.hit(SchemaCacheStats.STORAGE_ENTRIES);
+            return completedFuture(cachedEntry);
+        }
+
+        SchemaCacheStats.miss(SchemaCacheStats.STORAGE_ENTRIES);
         if (log.isDebugEnabled()) {
             log.debug("Reading schema entry from {}", position);
         }
@@ -439,7 +456,11 @@ public class BookkeeperSchemaStorage implements SchemaStorage {
                     .thenCompose(entry -> closeLedger(ledger)
                         .thenApply(ignore -> entry)
                     )
-            ).thenCompose(Functions::parseSchemaEntry);
+            ).thenCompose(Functions::parseSchemaEntry)
+            .thenApply(entry -> {
+                schemaEntryCache.put(entryKey, entry);
+                return entry;
+            });
     }
 
     @NotNull
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.service.schema;
+
+import io.prometheus.client.Counter;
+
+/**
+ * Hits and misses of the in-memory caches of the schema registry, labelled by cache.
+ */
+final class SchemaCacheStats {
+    // Schemas by version, in the registry
+    static final String SCHEMAS = "schemas";
+    // Results of the compatibility checks, in the registry
+    static final String COMPATIBILITY = "compatibility";
+    // Parsed Avro schemas, in the compatibility checks
+    static final String PARSED_SCHEMAS = "parsed_schemas";
+    // Schema entries read from BookKeeper, in the storage
+    static final String STORAGE_ENTRIES = "storage_entries";
+
+    private static final Counter cacheHits = Counter
+            .build("pulsar_schema_cache_hits", "Counter of schema registry lookups served from memory")
+            .labelNames("cache").create().register();
+
+    private static final Counter cacheMisses = Counter
+            .build("pulsar_schema_cache_misses", "Counter of schema registry lookups which were not cached")
+            .labelNames("cache").create().register();
+
+    static void hit(String cache) {
+        cacheHits.labels(cache).inc();
+    }
+
+    static void miss(String cache) {
+        cacheMisses.labels(cache).inc();
+    }
+
+    private SchemaCacheStats() {
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.pulsar.broker.service.schema;
 
 import com.google.common.collect.Maps;
 import java.lang.reflect.Method;
+import java.time.Clock;
 import java.util.Map;
 import java.util.Set;
 import org.apache.pulsar.broker.PulsarService;
@@ -56,7 +57,8 @@ public interface SchemaRegistryService extends SchemaRegistry {
 
             schemaStorage.start();
 
-            return new SchemaRegistryServiceImpl(schemaStorage, checkers);
+            return new SchemaRegistryServiceImpl(schemaStorage, checkers, Clock.systemUTC(),
+                    config.getSchemaRegistryCacheMaxEntries());
         } catch (Exception e) {
             log.warn("Unable to create schema registry storage, defaulting to empty storage: {}", e);
         }
@@ -22,6 +22,8 @@ import static java.util.Objects.isNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.apache.pulsar.broker.service.schema.SchemaRegistryServiceImpl.Functions.toPairs;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
@@ -34,6 +36,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import javax.validation.constraints.NotNull;
 import org.apache.pulsar.broker.service.schema.proto.SchemaRegistryFormat;
@@ -43,16 +46,29 @@ import org.apache.pulsar.common.schema.SchemaVersion;
 import org.apache.pulsar.common.util.FutureUtil;
 
 public class SchemaRegistryServiceImpl implements SchemaRegistryService {
+    static final int DEFAULT_CACHE_MAX_ENTRIES = 1000;
+
     private static HashFunction hashFunction = Hashing.sha256();
     private final Map<SchemaType, SchemaCompatibilityCheck> compatibilityChecks;
     private final SchemaStorage schemaStorage;
     private final Clock clock;
 
-    @VisibleForTesting
-    SchemaRegistryServiceImpl(SchemaStorage schemaStorage, Map<SchemaType, SchemaCompatibilityCheck> compatibilityChecks, Clock clock) {
+    // The versions of a schema never change once written, so they can be cached until evicted
+    private final Cache<SchemaCacheKey, SchemaAndMetadata> schemaCache;
+    private final Cache<CompatibilityCacheKey, Boolean> compatibilityCache;
+
+    SchemaRegistryServiceImpl(SchemaStorage schemaStorage, Map<SchemaType, SchemaCompatibilityCheck> compatibilityChecks,
+                              Clock clock, int cacheMaxEntries) {
         this.schemaStorage = schemaStorage;
         this.compatibilityChecks = compatibilityChecks;
         this.clock = clock;
+        this.schemaCache = Caffeine.newBuilder().maximumSize(cacheMaxEntries).build();
+        this.compatibilityCache = Caffeine.newBuilder().maximumSize(cacheMaxEntries).build();
+    }
+
+    @VisibleForTesting
+    SchemaRegistryServiceImpl(SchemaStorage schemaStorage, Map<SchemaType, SchemaCompatibilityCheck> compatibilityChecks, Clock clock) {
+        this(schemaStorage, compatibilityChecks, clock, DEFAULT_CACHE_MAX_ENTRIES);
     }
 
     @VisibleForTesting
@@ -69,13 +85,28 @@ public class SchemaRegistryServiceImpl implements SchemaRegistryService {
     @Override
     @NotNull
     public CompletableFuture<SchemaAndMetadata> getSchema(String schemaId, SchemaVersion version) {
+        if (version != SchemaVersion.Latest) {
+            SchemaAndMetadata cachedSchema = schemaCache.getIfPresent(new SchemaCacheKey(schemaId, version));
+            if (cachedSchema != null) {
+                SchemaCacheStats.hit(SchemaCacheStats.SCHEMAS);
+                return completedFuture(cachedSchema);
+            }
+            SchemaCacheStats.miss(SchemaCacheStats.SCHEMAS);
+        }
+
         return schemaStorage.get(schemaId, version).thenCompose(stored -> {
                 if (isNull(stored)) {
                     return completedFuture(null);
                 } else {
                     return Functions.bytesToSchemaInfo(stored.data)
                         .thenApply(Functions::schemaInfoToSchema)
-                        .thenApply(schema -> new SchemaAndMetadata(schemaId, schema, stored.version));
+                        .thenApply(schema -> {
+                            SchemaAndMetadata schemaAndMetadata = new SchemaAndMetadata(schemaId, schema,
+                                    stored.version);
+                            // The latest schema is cached under its actual version
+                            schemaCache.put(new SchemaCacheKey(schemaId, stored.version), schemaAndMetadata);
+                            return schemaAndMetadata;
+                        });
                 }
             }
         );
@@ -144,9 +175,24 @@ public class SchemaRegistryServiceImpl implements SchemaRegistryService {
                                  SchemaCompatibilityStrategy strategy) {
         HashCode existingHash = hashFunction.hashBytes(existingSchema.schema.getData());
         HashCode newHash = hashFunction.hashBytes(newSchema.getData());
-        return newHash.equals(existingHash) ||
-            compatibilityChecks.getOrDefault(newSchema.getType(), SchemaCompatibilityCheck.DEFAULT)
+        if (newHash.equals(existingHash)) {
+            return true;
+        }
+
+        // The checks only depend on the content of the schemas, so their results can be reused
+        CompatibilityCacheKey key = new CompatibilityCacheKey(existingHash, existingSchema.schema.getType(), newHash,
+                newSchema.getType(), strategy);
+        Boolean cachedResult = compatibilityCache.getIfPresent(key);
+        if (cachedResult != null) {
+            SchemaCacheStats.hit(SchemaCacheStats.COMPATIBILITY);
+            return cachedResult;
+        }
+
+        SchemaCacheStats.miss(SchemaCacheStats.COMPATIBILITY);
+        boolean compatible = compatibilityChecks.getOrDefault(newSchema.getType(), SchemaCompatibilityCheck.DEFAULT)
             .isCompatible(existingSchema.schema, newSchema, strategy);
+        compatibilityCache.put(key, compatible);
+        return compatible;
     }
 
     private CompletableFuture<Boolean> checkCompatibilityWithLatest(String schemaId, SchemaData schema,
@@ -155,6 +201,68 @@ public class SchemaRegistryServiceImpl implements SchemaRegistryService {
                 (existingSchema) -> existingSchema != null && isCompatible(existingSchema, schema, strategy));
     }
 
+    private static final class SchemaCacheKey {
+        private final String schemaId;
+        private final SchemaVersion version;
+
+        SchemaCacheKey(String schemaId, SchemaVersion version) {
+            this.schemaId = schemaId;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SchemaCacheKey that = (SchemaCacheKey) o;
+            return Objects.equals(schemaId, that.schemaId) && Objects.equals(version, that.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schemaId, version);
+        }
+    }
+
+    private static final class CompatibilityCacheKey {
+        private final HashCode fromHash;
+        private final SchemaType fromType;
+        private final HashCode toHash;
+        private final SchemaType toType;
+        private final SchemaCompatibilityStrategy strategy;
+
+        CompatibilityCacheKey(HashCode fromHash, SchemaType fromType, HashCode toHash, SchemaType toType,
+                              SchemaCompatibilityStrategy strategy) {
+            this.fromHash = fromHash;
+            this.fromType = fromType;
+            this.toHash = toHash;
+            this.toType = toType;
+            this.strategy = strategy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CompatibilityCacheKey that = (CompatibilityCacheKey) o;
+            return Objects.equals(fromHash, that.fromHash) && fromType == that.fromType
+                && Objects.equals(toHash, that.toHash) && toType == that.toType && strategy == that.strategy;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromHash, fromType, toHash, toType, strategy);
+        }
+    }
+
     interface Functions {
         static SchemaType convertToDomainType(SchemaRegistryFormat.SchemaInfo.SchemaType type) {
             switch (type) {
@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.stats;
+
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.pulsar.common.policies.data.LatencyStats;
+
+/**
+ * Latency distribution of a broker operation, based on a HdrHistogram {@link Recorder}.
+ *
+ * Recording is lock-free and doesn't allocate memory, so it can be done from the IO threads. The recorded values are
+ * made visible by {@link #refresh()}, which is invoked once per stats interval and replaces the snapshot returned by
+ * {@link #getSnapshot()} with the values recorded since the previous refresh.
+ */
+public class LatencyHistogram {
+
+    // Latencies are tracked with microseconds resolution up to 1 minute. Higher values are recorded as 1 minute
+    private static final long HIGHEST_TRACKABLE_VALUE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int NUMBER_OF_SIGNIFICANT_DIGITS = 2;
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_VALUE_MICROS, NUMBER_OF_SIGNIFICANT_DIGITS);
+    private volatile Histogram snapshot = newHistogram();
+
+    public void recordLatency(long latency, TimeUnit unit) {
+        long latencyMicros = unit.toMicros(latency);
+        if (latencyMicros < 0) {
+            latencyMicros = 0;
+        } else if (latencyMicros > HIGHEST_TRACKABLE_VALUE_MICROS) {
+            latencyMicros = HIGHEST_TRACKABLE_VALUE_MICROS;
+        }
+        recorder.recordValue(latencyMicros);
+    }
+
+    /**
+     * Replace the current snapshot with the values recorded since the last refresh.
+     */
+    public void refresh() {
+        // The previous snapshot can still be in use by readers, so it cannot be recycled
+        snapshot = recorder.getIntervalHistogram();
+    }
+
+    /**
+     * @return the values recorded during the last stats interval, in microseconds. The returned histogram must not be
+     *         modified
+     */
+    public Histogram getSnapshot() {
+        return snapshot;
+    }
+
+    public static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_VALUE_MICROS, NUMBER_OF_SIGNIFICANT_DIGITS);
+    }
+
+    public static void fillStats(Histogram histogram, LatencyStats stats) {
+        stats.count = histogram.getTotalCount();
+        if (stats.count == 0) {
+            stats.reset();
+            return;
+        }
+
+        stats.avg = histogram.getMean() / 1000.0;
+        stats.p50 = histogram.getValueAtPercentile(50) / 1000.0;
+        stats.p95 = histogram.getValueAtPercentile(95) / 1000.0;
+        stats.p99 = histogram.getValueAtPercentile(99) / 1000.0;
+        stats.p999 = histogram.getValueAtPercentile(99.9) / 1000.0;
+        stats.max = histogram.getMaxValue() / 1000.0;
+    }
+}
@@ -23,6 +23,8 @@ import java.util.Map;
 
 import org.apache.bookkeeper.mledger.impl.ManagedLedgerMBeanImpl;
 import org.apache.bookkeeper.mledger.util.StatsBuckets;
+import org.HdrHistogram.Histogram;
+import org.apache.pulsar.broker.stats.LatencyHistogram;
 
 public class AggregatedNamespaceStats {
     public int topicsCount;
@@ -48,6 +50,11 @@ public class AggregatedNamespaceStats {
 
     public Map<String, AggregatedSubscriptionStats> subscriptionStats = new HashMap<>();
 
+    // Latency histograms merged from the topics of the namespace, null until a topic reports latency histograms
+    public Histogram publishLatency;
+    public Histogram dispatchLatency;
+    public Histogram ackLatency;
+
     void updateStats(TopicStats stats) {
         topicsCount++;
 
@@ -70,6 +77,17 @@ public class AggregatedNamespaceStats {
         storageWriteLatencyBuckets.addAll(stats.storageWriteLatencyBuckets);
         entrySizeBuckets.addAll(stats.entrySizeBuckets);
 
+        if (stats.publishLatency != null) {
+            if (publishLatency == null) {
+                publishLatency = LatencyHistogram.newHistogram();
+                dispatchLatency = LatencyHistogram.newHistogram();
+                ackLatency = LatencyHistogram.newHistogram();
+            }
+            publishLatency.add(stats.publishLatency);
+            dispatchLatency.add(stats.dispatchLatency);
+            ackLatency.add(stats.ackLatency);
+        }
+
         stats.replicationStats.forEach((n, as) -> {
             AggregatedReplicationStats replStats =
                     replicationStats.computeIfAbsent(n,  k -> new AggregatedReplicationStats());
@@ -78,6 +96,9 @@ public class AggregatedNamespaceStats {
             replStats.msgThroughputIn += as.msgThroughputIn;
             replStats.msgThroughputOut += as.msgThroughputOut;
             replStats.replicationBacklog += as.replicationBacklog;
+            replStats.replicationDelayInSeconds = Math.max(replStats.replicationDelayInSeconds,
+                    as.replicationDelayInSeconds);
+            replStats.replicationPendingBytes += as.replicationPendingBytes;
         });
 
         stats.subscriptionStats.forEach((n, as) -> {
@@ -117,5 +138,11 @@ public class AggregatedNamespaceStats {
 
         storageWriteLatencyBuckets.reset();
         entrySizeBuckets.reset();
+
+        if (publishLatency != null) {
+            publishLatency.reset();
+            dispatchLatency.reset();
+            ackLatency.reset();
+        }
     }
 }
@@ -33,4 +33,10 @@ public class AggregatedReplicationStats {
     /** Number of messages pending to be replicated to remote cluster */
     public long replicationBacklog;
 
+    /** Max time in seconds from the time a message was produced to the time when it is about to be replicated */
+    public long replicationDelayInSeconds;
+
+    /** Number of bytes sent to the remote cluster and not yet acknowledged */
+    public long replicationPendingBytes;
+
 }
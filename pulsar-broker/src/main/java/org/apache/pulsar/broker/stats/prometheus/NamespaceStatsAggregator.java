@@ -18,6 +18,7 @@
  */
 package org.apache.pulsar.broker.stats.prometheus;
 
+import org.HdrHistogram.Histogram;
 import org.apache.bookkeeper.mledger.impl.ManagedLedgerMBeanImpl;
 import org.apache.pulsar.broker.PulsarService;
 import org.apache.pulsar.broker.service.Topic;
@@ -89,6 +90,13 @@ public class NamespaceStatsAggregator {
 
             stats.storageWriteRate = mlStats.getAddEntryMessagesRate();
             stats.storageReadRate = mlStats.getReadEntriesRate();
+
+            PersistentTopic persistentTopic = (PersistentTopic) topic;
+            if (persistentTopic.getPublishLatency() != null) {
+                stats.publishLatency = persistentTopic.getPublishLatency().getSnapshot();
+                stats.dispatchLatency = persistentTopic.getDispatchLatency().getSnapshot();
+                stats.ackLatency = persistentTopic.getAckLatency().getSnapshot();
+            }
         }
 
         topic.getProducers().forEach(producer -> {
@@ -150,6 +158,9 @@ public class NamespaceStatsAggregator {
             aggReplStats.msgRateOut += replStats.msgRateOut;
             aggReplStats.msgThroughputOut += replStats.msgThroughputOut;
             aggReplStats.replicationBacklog += replStats.replicationBacklog;
+            aggReplStats.replicationDelayInSeconds = Math.max(aggReplStats.replicationDelayInSeconds,
+                    replStats.replicationDelayInSeconds);
+            aggReplStats.replicationPendingBytes += replStats.pendingBytes;
         });
     }
 
@@ -219,6 +230,12 @@ public class NamespaceStatsAggregator {
         metric(stream, cluster, namespace, "pulsar_entry_size_count", stats.entrySizeBuckets.getCount());
         metric(stream, cluster, namespace, "pulsar_entry_size_sum", stats.entrySizeBuckets.getSum());
 
+        if (stats.publishLatency != null) {
+            latencyMetrics(stream, cluster, namespace, "pulsar_publish_latency", stats.publishLatency);
+            latencyMetrics(stream, cluster, namespace, "pulsar_dispatch_latency", stats.dispatchLatency);
+            latencyMetrics(stream, cluster, namespace, "pulsar_ack_latency", stats.ackLatency);
+        }
+
         if (!stats.replicationStats.isEmpty()) {
             stats.replicationStats.forEach((remoteCluster, replStats) -> {
                 metricWithRemoteCluster(stream, cluster, namespace, "pulsar_replication_rate_in", remoteCluster,
@@ -231,10 +248,24 @@ public class NamespaceStatsAggregator {
                         replStats.msgThroughputOut);
                 metricWithRemoteCluster(stream, cluster, namespace, "pulsar_replication_backlog", remoteCluster,
                         replStats.replicationBacklog);
+                metricWithRemoteCluster(stream, cluster, namespace, "pulsar_replication_delay_in_seconds",
+                        remoteCluster, replStats.replicationDelayInSeconds);
+                metricWithRemoteCluster(stream, cluster, namespace, "pulsar_replication_pending_bytes",
+                        remoteCluster, replStats.replicationPendingBytes);
             });
         }
     }
 
+    private static void latencyMetrics(SimpleTextOutputStream stream, String cluster, String namespace, String name,
+            Histogram histogram) {
+        metric(stream, cluster, namespace, name + "_ms_p50", histogram.getValueAtPercentile(50) / 1000.0);
+        metric(stream, cluster, namespace, name + "_ms_p95", histogram.getValueAtPercentile(95) / 1000.0);
+        metric(stream, cluster, namespace, name + "_ms_p99", histogram.getValueAtPercentile(99) / 1000.0);
+        metric(stream, cluster, namespace, name + "_ms_p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+        metric(stream, cluster, namespace, name + "_ms_max", histogram.getMaxValue() / 1000.0);
+        metric(stream, cluster, namespace, name + "_count", histogram.getTotalCount());
+    }
+
     private static void metric(SimpleTextOutputStream stream, String cluster, String name,
             long value) {
         TopicStats.metricType(stream, name);
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.stats.prometheus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.pulsar.broker.PulsarService;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Keeps the latest rendering of the topics and functions metrics, so that scrapes don't need to walk all the topics,
+ * subscriptions and consumers of the broker.
+ *
+ * The rendering is rebuilt each time the broker stats are updated (see
+ * {@link org.apache.pulsar.broker.service.BrokerService#updateRates()}) and shared by all the scrapers until the next
+ * refresh. The metrics of the default registry, such as the JVM ones, are still rendered on each scrape.
+ */
+public class PrometheusMetricsCache {
+
+    private final PulsarService pulsar;
+    private final boolean includeTopicMetrics;
+    private final boolean includeConsumerMetrics;
+
+    // Guarded by this
+    private ByteBuf cachedMetrics = null;
+    private boolean closed = false;
+
+    public PrometheusMetricsCache(PulsarService pulsar, boolean includeTopicMetrics, boolean includeConsumerMetrics) {
+        this.pulsar = pulsar;
+        this.includeTopicMetrics = includeTopicMetrics;
+        this.includeConsumerMetrics = includeConsumerMetrics;
+    }
+
+    /**
+     * Rebuild the cached rendering of the metrics.
+     */
+    public void refresh() {
+        ByteBuf newMetrics = PrometheusMetricsGenerator.generateBrokerMetricsToBuffer(pulsar, includeTopicMetrics,
+                includeConsumerMetrics);
+
+        ByteBuf oldMetrics;
+        synchronized (this) {
+            if (closed) {
+                // A late stats update raced with the close
+                oldMetrics = newMetrics;
+            } else {
+                oldMetrics = cachedMetrics;
+                cachedMetrics = newMetrics;
+            }
+        }
+
+        if (oldMetrics != null) {
+            oldMetrics.release();
+        }
+    }
+
+    /**
+     * Write the latest rendering of the metrics into the output stream. If the metrics were not rendered yet, they are
+     * generated first.
+     */
+    public void write(OutputStream out) throws IOException {
+        PrometheusMetricsGenerator.writeSystemMetrics(pulsar, out);
+
+        ByteBuf metrics = retainCachedMetrics();
+        if (metrics == null) {
+            refresh();
+            metrics = retainCachedMetrics();
+            if (metrics == null) {
+                // The cache was closed in the meantime
+                return;
+            }
+        }
+
+        try {
+            PrometheusMetricsGenerator.writeInChunks(metrics, out);
+        } finally {
+            metrics.release();
+        }
+    }
+
+    private synchronized ByteBuf retainCachedMetrics() {
+        return cachedMetrics != null ? cachedMetrics.retain() : null;
+    }
+
+    public void close() {
+        ByteBuf metrics;
+        synchronized (this) {
+            closed = true;
+            metrics = cachedMetrics;
+            cachedMetrics = null;
+        }
+
+        if (metrics != null) {
+            metrics.release();
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.pulsar.broker.stats.prometheus;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.pulsar.broker.PulsarService;
 import static org.apache.pulsar.common.stats.JvmMetrics.getJvmDirectMemoryUsed;
@@ -35,6 +36,7 @@ import io.prometheus.client.Collector.MetricFamilySamples.Sample;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Gauge;
 import io.prometheus.client.Gauge.Child;
+import io.prometheus.client.Summary;
 import io.prometheus.client.hotspot.DefaultExports;
 import org.apache.pulsar.functions.worker.FunctionsStatsGenerator;
 
@@ -63,22 +65,78 @@ public class PrometheusMetricsGenerator {
         }).register(CollectorRegistry.defaultRegistry);
     }
 
+    // Max number of bytes written at once into the servlet output stream
+    private static final int WRITE_CHUNK_SIZE = 64 * 1024;
+
+    private static final Summary generationDuration = Summary
+            .build("pulsar_metrics_generation_duration_seconds", "-")
+            .quantile(0.5, 0.01).quantile(0.99, 0.01).register(CollectorRegistry.defaultRegistry);
+
+    private static final Summary scrapeDuration = Summary
+            .build("pulsar_metrics_scrape_duration_seconds", "-")
+            .quantile(0.5, 0.01).quantile(0.99, 0.01).register(CollectorRegistry.defaultRegistry);
+
     public static void generate(PulsarService pulsar, boolean includeTopicMetrics, boolean includeConsumerMetrics, OutputStream out) throws IOException {
+        writeSystemMetrics(pulsar, out);
+
+        ByteBuf buf = generateBrokerMetricsToBuffer(pulsar, includeTopicMetrics, includeConsumerMetrics);
+        try {
+            writeInChunks(buf, out);
+        } finally {
+            buf.release();
+        }
+    }
+
+    /**
+     * Write the metrics of the default registry, such as the JVM ones. They are cheap to collect, so they are always
+     * rendered at the time of the scrape.
+     */
+    static void writeSystemMetrics(PulsarService pulsar, OutputStream out) throws IOException {
         ByteBuf buf = ByteBufAllocator.DEFAULT.heapBuffer();
         try {
-            SimpleTextOutputStream stream = new SimpleTextOutputStream(buf);
+            generateSystemMetrics(new SimpleTextOutputStream(buf), pulsar.getConfiguration().getClusterName());
+            writeInChunks(buf, out);
+        } finally {
+            buf.release();
+        }
+    }
 
-            generateSystemMetrics(stream, pulsar.getConfiguration().getClusterName());
+    /**
+     * Generate the metrics of the topics and of the functions into a new buffer. The caller is responsible for
+     * releasing the returned buffer.
+     */
+    static ByteBuf generateBrokerMetricsToBuffer(PulsarService pulsar, boolean includeTopicMetrics,
+            boolean includeConsumerMetrics) {
+        long startTime = System.nanoTime();
+        ByteBuf buf = ByteBufAllocator.DEFAULT.heapBuffer();
+        try {
+            SimpleTextOutputStream stream = new SimpleTextOutputStream(buf);
 
             NamespaceStatsAggregator.generate(pulsar, includeTopicMetrics, includeConsumerMetrics, stream);
 
             FunctionsStatsGenerator.generate(pulsar.getWorkerService(),
                     pulsar.getConfiguration().getClusterName(), stream);
-
-            out.write(buf.array(), buf.arrayOffset(), buf.readableBytes());
-        } finally {
+        } catch (Throwable t) {
             buf.release();
+            throw t;
         }
+
+        generationDuration.observe((System.nanoTime() - startTime) / (double) TimeUnit.SECONDS.toNanos(1));
+        return buf;
+    }
+
+    static void writeInChunks(ByteBuf buf, OutputStream out) throws IOException {
+        int index = buf.readerIndex();
+        int end = buf.writerIndex();
+        while (index < end) {
+            int length = Math.min(WRITE_CHUNK_SIZE, end - index);
+            buf.getBytes(index, out, length);
+            index += length;
+        }
+    }
+
+    static void recordScrapeDuration(long startTimeNanos) {
+        scrapeDuration.observe((System.nanoTime() - startTimeNanos) / (double) TimeUnit.SECONDS.toNanos(1));
     }
 
     private static void generateSystemMetrics(SimpleTextOutputStream stream, String cluster) {
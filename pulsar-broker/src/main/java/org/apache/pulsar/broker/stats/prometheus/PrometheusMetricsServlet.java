@@ -44,13 +44,24 @@ public class PrometheusMetricsServlet extends HttpServlet {
     private final PulsarService pulsar;
     private final boolean shouldExportTopicMetrics;
     private final boolean shouldExportConsumerMetrics;
+    private final PrometheusMetricsCache metricsCache;
 
     private ExecutorService executor = null;
 
     public PrometheusMetricsServlet(PulsarService pulsar, boolean includeTopicMetrics, boolean includeConsumerMetrics) {
+        this(pulsar, includeTopicMetrics, includeConsumerMetrics, null);
+    }
+
+    /**
+     * @param metricsCache
+     *            if not null, scrapes are served from the cached rendering of the metrics
+     */
+    public PrometheusMetricsServlet(PulsarService pulsar, boolean includeTopicMetrics, boolean includeConsumerMetrics,
+            PrometheusMetricsCache metricsCache) {
         this.pulsar = pulsar;
         this.shouldExportTopicMetrics = includeTopicMetrics;
         this.shouldExportConsumerMetrics = includeConsumerMetrics;
+        this.metricsCache = metricsCache;
     }
 
     @Override
@@ -63,12 +74,19 @@ public class PrometheusMetricsServlet extends HttpServlet {
             throws ServletException, IOException {
         AsyncContext context = request.startAsync();
         executor.execute(safeRun(() -> {
+            long startTime = System.nanoTime();
             HttpServletResponse res = (HttpServletResponse) context.getResponse();
             try {
                 res.setStatus(HttpStatus.OK_200);
                 res.setContentType("text/plain");
-                PrometheusMetricsGenerator.generate(pulsar, shouldExportTopicMetrics, shouldExportConsumerMetrics, res.getOutputStream());
+                if (metricsCache != null) {
+                    metricsCache.write(res.getOutputStream());
+                } else {
+                    PrometheusMetricsGenerator.generate(pulsar, shouldExportTopicMetrics, shouldExportConsumerMetrics,
+                            res.getOutputStream());
+                }
                 context.complete();
+                PrometheusMetricsGenerator.recordScrapeDuration(startTime);
 
             } catch (IOException e) {
                 log.error("Failed to generate prometheus stats", e);
@@ -23,6 +23,7 @@ import java.util.Map;
 
 import org.apache.bookkeeper.mledger.impl.ManagedLedgerMBeanImpl;
 import org.apache.bookkeeper.mledger.util.StatsBuckets;
+import org.HdrHistogram.Histogram;
 import org.apache.pulsar.common.util.SimpleTextOutputStream;
 
 class TopicStats {
@@ -46,6 +47,11 @@ class TopicStats {
     Map<String, AggregatedReplicationStats> replicationStats = new HashMap<>();
     Map<String, AggregatedSubscriptionStats> subscriptionStats = new HashMap<>();
 
+    // Snapshots of the topic latency histograms, null if topic latency histograms are disabled
+    Histogram publishLatency;
+    Histogram dispatchLatency;
+    Histogram ackLatency;
+
     public void reset() {
         subscriptionsCount = 0;
         producersCount = 0;
@@ -64,6 +70,10 @@ class TopicStats {
         subscriptionStats.clear();
         storageWriteLatencyBuckets.reset();
         entrySizeBuckets.reset();
+
+        publishLatency = null;
+        dispatchLatency = null;
+        ackLatency = null;
     }
 
     static void printTopicStats(SimpleTextOutputStream stream, String cluster, String namespace, String topic,
@@ -109,6 +119,12 @@ class TopicStats {
         metric(stream, cluster, namespace, topic, "pulsar_entry_size_count", stats.entrySizeBuckets.getCount());
         metric(stream, cluster, namespace, topic, "pulsar_entry_size_sum", stats.entrySizeBuckets.getSum());
 
+        if (stats.publishLatency != null) {
+            latencyMetrics(stream, cluster, namespace, topic, "pulsar_publish_latency", stats.publishLatency);
+            latencyMetrics(stream, cluster, namespace, topic, "pulsar_dispatch_latency", stats.dispatchLatency);
+            latencyMetrics(stream, cluster, namespace, topic, "pulsar_ack_latency", stats.ackLatency);
+        }
+
         stats.subscriptionStats.forEach((n, subsStats) -> {
             metric(stream, cluster, namespace, topic, n, "pulsar_subscription_back_log", subsStats.msgBacklog);
             metric(stream, cluster, namespace, topic, n, "pulsar_subscription_msg_rate_redeliver", subsStats.msgRateRedeliver);
@@ -140,10 +156,24 @@ class TopicStats {
                         replStats.msgThroughputOut);
                 metricWithRemoteCluster(stream, cluster, namespace, topic, "pulsar_replication_backlog", remoteCluster,
                         replStats.replicationBacklog);
+                metricWithRemoteCluster(stream, cluster, namespace, topic, "pulsar_replication_delay_in_seconds",
+                        remoteCluster, replStats.replicationDelayInSeconds);
+                metricWithRemoteCluster(stream, cluster, namespace, topic, "pulsar_replication_pending_bytes",
+                        remoteCluster, replStats.replicationPendingBytes);
             });
         }
     }
 
+    private static void latencyMetrics(SimpleTextOutputStream stream, String cluster, String namespace, String topic,
+            String name, Histogram histogram) {
+        metric(stream, cluster, namespace, topic, name + "_ms_p50", histogram.getValueAtPercentile(50) / 1000.0);
+        metric(stream, cluster, namespace, topic, name + "_ms_p95", histogram.getValueAtPercentile(95) / 1000.0);
+        metric(stream, cluster, namespace, topic, name + "_ms_p99", histogram.getValueAtPercentile(99) / 1000.0);
+        metric(stream, cluster, namespace, topic, name + "_ms_p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+        metric(stream, cluster, namespace, topic, name + "_ms_max", histogram.getMaxValue() / 1000.0);
+        metric(stream, cluster, namespace, topic, name + "_count", histogram.getTotalCount());
+    }
+
     static void metricType(SimpleTextOutputStream stream, String name) {
         stream.write("# TYPE ").write(name).write(" gauge\n");
     }
@@ -36,7 +36,7 @@ import org.apache.pulsar.client.impl.conf.ConsumerConfigurationData;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck.AckType;
 import org.apache.pulsar.common.api.proto.PulsarApi.MessageIdData;
 import org.apache.pulsar.common.naming.TopicName;
-import org.apache.pulsar.common.util.collections.GrowableArrayBlockingQueue;
+import org.apache.pulsar.common.util.collections.GrowableMpscArrayBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -112,7 +112,7 @@ public class RawReaderImpl implements RawReader {
                 SubscriptionMode.Durable,
                 MessageId.earliest,
                 Schema.BYTES, null);
-            incomingRawMessages = new GrowableArrayBlockingQueue<>();
+            incomingRawMessages = new GrowableMpscArrayBlockingQueue<>();
             pendingRawReceives = new ConcurrentLinkedQueue<>();
         }
 
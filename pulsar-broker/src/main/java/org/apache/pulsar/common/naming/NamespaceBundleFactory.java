@@ -218,28 +218,49 @@ public class NamespaceBundleFactory implements ZooKeeperCacheListener<LocalPolic
     public Pair<NamespaceBundles, List<NamespaceBundle>> splitBundles(NamespaceBundle targetBundle, int numBundles) {
         checkArgument(canSplitBundle(targetBundle), "%s bundle can't be split further", targetBundle);
         checkNotNull(targetBundle, "can't split null bundle");
+        return splitBundles(targetBundle,
+                NamespaceBundleSplitBoundaries.rangeEquallyDivided(targetBundle.getKeyRange(), numBundles));
+    }
+
+    /**
+     * Fetches {@link NamespaceBundles} from cache for a given namespace. finds target bundle, split it at the given
+     * boundaries and returns new {@link NamespaceBundles} with newly split bundles into it.
+     *
+     * @param targetBundle
+     *            {@link NamespaceBundle} needs to be split
+     * @param splitBoundaries
+     *            sorted boundaries of the split bundles, strictly within the hash range of the target bundle
+     * @return List of split {@link NamespaceBundle} and {@link NamespaceBundles} that contains final bundles including
+     *         split bundles for a given namespace
+     */
+    public Pair<NamespaceBundles, List<NamespaceBundle>> splitBundles(NamespaceBundle targetBundle,
+            long[] splitBoundaries) {
+        checkArgument(canSplitBundle(targetBundle), "%s bundle can't be split further", targetBundle);
+        checkNotNull(targetBundle, "can't split null bundle");
         checkNotNull(targetBundle.getNamespaceObject(), "namespace must be present");
+        final Range<Long> range = targetBundle.getKeyRange();
+        long previousBoundary = range.lowerEndpoint();
+        for (long boundary : splitBoundaries) {
+            checkArgument(boundary > previousBoundary && boundary < range.upperEndpoint(),
+                    "invalid split boundary 0x%08x for bundle %s", boundary, targetBundle);
+            previousBoundary = boundary;
+        }
         NamespaceName nsname = targetBundle.getNamespaceObject();
         NamespaceBundles sourceBundle = bundlesCache.synchronous().get(nsname);
 
         final int lastIndex = sourceBundle.partitions.length - 1;
+        final int numBundles = splitBoundaries.length + 1;
 
         final long[] partitions = new long[sourceBundle.partitions.length + (numBundles - 1)];
         int pos = 0;
         int splitPartition = -1;
-        final Range<Long> range = targetBundle.getKeyRange();
         for (int i = 0; i < lastIndex; i++) {
             if (sourceBundle.partitions[i] == range.lowerEndpoint()
                     && (range.upperEndpoint() == sourceBundle.partitions[i + 1])) {
                 splitPartition = i;
-                Long maxVal = sourceBundle.partitions[i + 1];
-                Long minVal = sourceBundle.partitions[i];
-                Long segSize = (maxVal - minVal) / numBundles;
-                partitions[pos++] = minVal;
-                Long curPartition = minVal + segSize;
-                for (int j = 0; j < numBundles - 1; j++) {
-                    partitions[pos++] = curPartition;
-                    curPartition += segSize;
+                partitions[pos++] = sourceBundle.partitions[i];
+                for (long boundary : splitBoundaries) {
+                    partitions[pos++] = boundary;
                 }
             } else {
                 partitions[pos++] = sourceBundle.partitions[i];
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.naming;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.Range;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Strategies picking the boundaries at which a namespace bundle is split.
+ */
+public final class NamespaceBundleSplitBoundaries {
+
+    /**
+     * Split the hash range of the bundle into equal parts.
+     */
+    public static final String RANGE_EQUALLY_DIVIDE = "range_equally_divide";
+
+    /**
+     * Split at the median of the topic hashes weighted by the load of the topics, giving a topic which carries most of
+     * the load of the bundle a bundle of its own.
+     */
+    public static final String TOPIC_LOAD_WEIGHTED = "topic_load_weighted";
+
+    private NamespaceBundleSplitBoundaries() {
+    }
+
+    /**
+     * @return the numBundles - 1 boundaries dividing the hash range into numBundles equal parts
+     */
+    public static long[] rangeEquallyDivided(Range<Long> range, int numBundles) {
+        checkArgument(numBundles > 1, "can't split a bundle into %s bundles", numBundles);
+        final long segSize = (range.upperEndpoint() - range.lowerEndpoint()) / numBundles;
+        final long[] boundaries = new long[numBundles - 1];
+        for (int i = 0; i < boundaries.length; i++) {
+            boundaries[i] = range.lowerEndpoint() + segSize * (i + 1);
+        }
+        return boundaries;
+    }
+
+    /**
+     * Pick the boundaries balancing the load of the topics of a bundle between the split bundles.
+     *
+     * <p>If a single hash carries more than half of the load, no split point can balance it, so the hash is given a
+     * bundle of its own, which can't be split further. Otherwise, the bundle is split in two at the gap between two
+     * consecutive topic hashes which best balances the load on both sides.
+     *
+     * @param range
+     *            the hash range of the bundle
+     * @param loadByHash
+     *            the load of the topics of the bundle, by topic hash
+     * @return the sorted boundaries, or null if the load does not give any valid boundary
+     */
+    public static long[] topicLoadWeighted(Range<Long> range, SortedMap<Long, Double> loadByHash) {
+        double totalLoad = 0;
+        for (double load : loadByHash.values()) {
+            totalLoad += load;
+        }
+        if (totalLoad <= 0) {
+            return null;
+        }
+
+        final long lower = range.lowerEndpoint();
+        final long upper = range.upperEndpoint();
+
+        for (Map.Entry<Long, Double> entry : loadByHash.entrySet()) {
+            if (entry.getValue() > totalLoad / 2) {
+                return isolate(entry.getKey(), lower, upper);
+            }
+        }
+
+        // Find the gap between consecutive hashes where the load on the left is the closest to half of the total
+        double leftLoad = 0;
+        double bestImbalance = Double.MAX_VALUE;
+        long bestBoundary = -1;
+        Long previousHash = null;
+        for (Map.Entry<Long, Double> entry : loadByHash.entrySet()) {
+            if (previousHash != null) {
+                final double imbalance = Math.abs(2 * leftLoad - totalLoad);
+                if (imbalance < bestImbalance) {
+                    bestImbalance = imbalance;
+                    // Middle of the gap, so that new topics are spread evenly between both bundles
+                    bestBoundary = previousHash + (entry.getKey() - previousHash + 1) / 2;
+                }
+            }
+            leftLoad += entry.getValue();
+            previousHash = entry.getKey();
+        }
+
+        if (bestBoundary <= lower || bestBoundary >= upper) {
+            return null;
+        }
+        return new long[] { bestBoundary };
+    }
+
+    // Boundaries giving the range [hash, hash + 1) its own bundle
+    private static long[] isolate(long hash, long lower, long upper) {
+        final boolean splitBefore = hash > lower;
+        final boolean splitAfter = hash + 1 < upper;
+        if (splitBefore && splitAfter) {
+            return new long[] { hash, hash + 1 };
+        } else if (splitBefore) {
+            return new long[] { hash };
+        } else if (splitAfter) {
+            return new long[] { hash + 1 };
+        } else {
+            return null;
+        }
+    }
+}
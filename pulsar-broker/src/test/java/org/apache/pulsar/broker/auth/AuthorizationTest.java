@@ -214,6 +214,35 @@ public class AuthorizationTest extends MockedPulsarServiceBaseTest {
         admin.clusters().deleteCluster("c1");
     }
 
+    @Test
+    void cachedDecisions() throws Exception {
+        AuthorizationService auth = pulsar.getBrokerService().getAuthorizationService();
+        TopicName topic = TopicName.get("persistent://p2/c1/ns1/ds1");
+
+        admin.clusters().createCluster("c1", new ClusterData());
+        admin.tenants().createTenant("p2", new TenantInfo(Sets.newHashSet("role1"), Sets.newHashSet("c1")));
+        admin.namespaces().createNamespace("p2/c1/ns1");
+        waitForChange();
+
+        assertEquals(auth.canProduce(topic, "my-role", null), false);
+        double hits = AuthorizationService.getDecisionCacheHits();
+        assertEquals(auth.canProduce(topic, "my-role", null), false);
+        assertEquals(AuthorizationService.getDecisionCacheHits(), hits + 1);
+
+        // The policies change invalidates the cached decision
+        admin.namespaces().grantPermissionOnNamespace("p2/c1/ns1", "my-role", EnumSet.of(AuthAction.produce));
+        waitForChange();
+        assertEquals(auth.canProduce(topic, "my-role", null), true);
+
+        admin.namespaces().revokePermissionsOnNamespace("p2/c1/ns1", "my-role");
+        waitForChange();
+        assertEquals(auth.canProduce(topic, "my-role", null), false);
+
+        admin.namespaces().deleteNamespace("p2/c1/ns1");
+        admin.tenants().deleteTenant("p2");
+        admin.clusters().deleteCluster("c1");
+    }
+
     private static void waitForChange() {
         try {
             Thread.sleep(100);
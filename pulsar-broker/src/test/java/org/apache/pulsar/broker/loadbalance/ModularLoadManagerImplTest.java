@@ -368,6 +368,56 @@ public class ModularLoadManagerImplTest {
         verify(namespacesSpy1, Mockito.times(2)).unloadNamespaceBundle(Mockito.anyString(), Mockito.anyString());
     }
 
+    // Test that with bundle handoff, the shed bundle is handed over to a broker other than its current owner
+    @Test
+    public void testLoadSheddingWithBundleHandoff() throws Exception {
+        final NamespaceBundleStats stats1 = new NamespaceBundleStats();
+        final NamespaceBundleStats stats2 = new NamespaceBundleStats();
+        stats1.msgRateIn = 100;
+        stats2.msgRateIn = 200;
+        final Map<String, NamespaceBundleStats> statsMap = new ConcurrentHashMap<>();
+        statsMap.put(mockBundleName(1), stats1);
+        statsMap.put(mockBundleName(2), stats2);
+        final LocalBrokerData localBrokerData = new LocalBrokerData();
+        localBrokerData.update(new SystemResourceUsage(), statsMap);
+        final Namespaces namespacesSpy1 = spy(pulsar1.getAdminClient().namespaces());
+        AtomicReference<String> namespaceReference = new AtomicReference<>();
+        AtomicReference<String> bundleRangeReference = new AtomicReference<>();
+        AtomicReference<String> destinationReference = new AtomicReference<>();
+        doAnswer(invocation -> {
+            namespaceReference.set(invocation.getArguments()[0].toString());
+            bundleRangeReference.set(invocation.getArguments()[1].toString());
+            destinationReference.set(invocation.getArguments()[2].toString());
+            return null;
+        }).when(namespacesSpy1).unloadNamespaceBundle(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        setField(pulsar1.getAdminClient(), "namespaces", namespacesSpy1);
+        pulsar1.getConfiguration().setLoadBalancerEnabled(true);
+        pulsar1.getConfiguration().setLoadBalancerBundleHandoffEnabled(true);
+        try {
+            final LoadData loadData = (LoadData) getField(primaryLoadManager, "loadData");
+            final Map<String, BrokerData> brokerDataMap = loadData.getBrokerData();
+            final BrokerData brokerDataSpy1 = spy(brokerDataMap.get(primaryHost));
+            when(brokerDataSpy1.getLocalData()).thenReturn(localBrokerData);
+            brokerDataMap.put(primaryHost, brokerDataSpy1);
+            // Need to update all the bundle data for the shedder to see the spy.
+            primaryLoadManager.onUpdate(null, null, null);
+            Thread.sleep(100);
+            localBrokerData.setCpu(new ResourceUsage(90, 100));
+            primaryLoadManager.doLoadShedding();
+
+            verify(namespacesSpy1, Mockito.times(1)).unloadNamespaceBundle(Mockito.anyString(), Mockito.anyString(),
+                    Mockito.anyString());
+            verify(namespacesSpy1, Mockito.times(0)).unloadNamespaceBundle(Mockito.anyString(), Mockito.anyString());
+            assertEquals(destinationReference.get(), secondaryHost);
+            // The lookups following the unload are directed to the new owner
+            assertEquals(primaryLoadManager.selectBrokerForAssignment(pulsar1.getNamespaceService()
+                    .getNamespaceBundleFactory().getBundle(namespaceReference.get(), bundleRangeReference.get()))
+                    .get(), secondaryHost);
+        } finally {
+            pulsar1.getConfiguration().setLoadBalancerBundleHandoffEnabled(false);
+        }
+    }
+
     // Test that ModularLoadManagerImpl will determine that writing local data to ZooKeeper is necessary if certain
     // metrics change by a percentage threshold.
 
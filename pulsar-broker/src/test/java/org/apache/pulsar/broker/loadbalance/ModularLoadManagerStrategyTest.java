@@ -19,6 +19,7 @@
 package org.apache.pulsar.broker.loadbalance;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.util.Map;
 import java.util.Optional;
@@ -28,6 +29,7 @@ import org.apache.pulsar.broker.BundleData;
 import org.apache.pulsar.broker.ServiceConfiguration;
 import org.apache.pulsar.broker.TimeAverageBrokerData;
 import org.apache.pulsar.broker.loadbalance.impl.LeastLongTermMessageRate;
+import org.apache.pulsar.broker.loadbalance.impl.LeastWeightedResourceUsage;
 import org.apache.pulsar.policies.data.loadbalancer.LocalBrokerData;
 import org.apache.pulsar.policies.data.loadbalancer.ResourceUsage;
 import org.testng.annotations.Test;
@@ -57,6 +59,46 @@ public class ModularLoadManagerStrategyTest {
         assertEquals(strategy.selectBroker(brokerDataMap.keySet(), bundleData, loadData, conf), Optional.of("3"));
     }
 
+    // Test that least weighted resource usage accounts for all the resources, and for the load of the bundle.
+    @Test
+    public void testLeastWeightedResourceUsage() {
+        BundleData bundleData = new BundleData(10, 1000);
+        // 10 MB/s in and out, which is 81920 Kbps
+        bundleData.getLongTermData().setMsgThroughputIn(10 * 1024 * 1024);
+        bundleData.getLongTermData().setMsgThroughputOut(10 * 1024 * 1024);
+        BrokerData brokerData1 = initBrokerData();
+        BrokerData brokerData2 = initBrokerData();
+        // Broker 1 has idle CPU but a busy NIC, and broker 2 the opposite
+        brokerData1.getLocalData().setCpu(new ResourceUsage(20, 100));
+        brokerData1.getLocalData().setBandwidthIn(new ResourceUsage(700000, 1000000));
+        brokerData1.getLocalData().setBandwidthOut(new ResourceUsage(700000, 1000000));
+        brokerData2.getLocalData().setCpu(new ResourceUsage(50, 100));
+        brokerData2.getLocalData().setBandwidthIn(new ResourceUsage(100000, 1000000));
+        brokerData2.getLocalData().setBandwidthOut(new ResourceUsage(100000, 1000000));
+        LoadData loadData = new LoadData();
+        Map<String, BrokerData> brokerDataMap = loadData.getBrokerData();
+        brokerDataMap.put("1", brokerData1);
+        brokerDataMap.put("2", brokerData2);
+        ServiceConfiguration conf = new ServiceConfiguration();
+        conf.setLoadBalancerLoadPlacementStrategy(LeastWeightedResourceUsage.class.getName());
+        ModularLoadManagerStrategy strategy = ModularLoadManagerStrategy.create(conf);
+        assertTrue(strategy instanceof LeastWeightedResourceUsage);
+        assertEquals(strategy.selectBroker(brokerDataMap.keySet(), bundleData, loadData, conf), Optional.of("2"));
+
+        // Only consider the CPU
+        conf.setLoadBalancerMemoryResourceWeight(0);
+        conf.setLoadBalancerDirectMemoryResourceWeight(0);
+        conf.setLoadBalancerBandwidthInResourceWeight(0);
+        conf.setLoadBalancerBandwidthOutResourceWeight(0);
+        assertEquals(strategy.selectBroker(brokerDataMap.keySet(), bundleData, loadData, conf), Optional.of("1"));
+
+        // Broker 1 would be overloaded by the bundles preallocated to it and the bundle to assign
+        BundleData preallocatedBundleData = new BundleData(10, 1000);
+        preallocatedBundleData.getLongTermData().setMsgThroughputIn(20 * 1024 * 1024);
+        brokerData1.getPreallocatedBundleData().put("preallocated", preallocatedBundleData);
+        assertEquals(strategy.selectBroker(brokerDataMap.keySet(), bundleData, loadData, conf), Optional.of("2"));
+    }
+
     private BrokerData initBrokerData() {
         LocalBrokerData localBrokerData = new LocalBrokerData();
         localBrokerData.setCpu(new ResourceUsage());
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.loadbalance.impl;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.pulsar.broker.loadbalance.impl.LoadReportFormat.BundleStatsReport;
+import org.apache.pulsar.policies.data.loadbalancer.NamespaceBundleStats;
+import org.testng.annotations.Test;
+
+public class BundleStatsReportTest {
+
+    private static NamespaceBundleStats stats(double msgRateIn, int producerCount) {
+        NamespaceBundleStats stats = new NamespaceBundleStats();
+        stats.msgRateIn = msgRateIn;
+        stats.msgThroughputIn = msgRateIn * 1000;
+        stats.producerCount = producerCount;
+        stats.topics = 1;
+        return stats;
+    }
+
+    private static Map<String, NamespaceBundleStats> bundleStats(int numBundles) {
+        Map<String, NamespaceBundleStats> bundleStats = new HashMap<>();
+        for (int i = 0; i < numBundles; i++) {
+            bundleStats.put("prop/ns/0x0000000" + i + "_0x0000000" + (i + 1), stats(100, 1));
+        }
+        return bundleStats;
+    }
+
+    // Round-trip the report through its binary encoding, as done through ZooKeeper
+    private static BundleStatsReport serialize(BundleStatsReport report) throws Exception {
+        return BundleStatsReport.parseFrom(report.toByteArray());
+    }
+
+    @Test
+    public void testSnapshotAndDeltas() throws Exception {
+        BundleStatsPublisher publisher = new BundleStatsPublisher();
+        BundleStatsTracker tracker = new BundleStatsTracker();
+        Map<String, NamespaceBundleStats> bundleStats = bundleStats(8);
+
+        BundleStatsPublisher.Reports reports = publisher.update(bundleStats, 10);
+        assertNotNull(reports.snapshot);
+        assertEquals(reports.snapshot.getStatsCount(), 8);
+        assertEquals(reports.delta.getStatsCount(), 0);
+        assertTrue(tracker.apply(serialize(reports.snapshot)));
+        assertTrue(tracker.apply(serialize(reports.delta)));
+        assertEquals(tracker.getBundles(), bundleStats.keySet());
+
+        // Changes below the threshold are not published
+        String bundle0 = "prop/ns/0x00000000_0x00000001";
+        String bundle1 = "prop/ns/0x00000001_0x00000002";
+        bundleStats.put(bundle0, stats(105, 1));
+        bundleStats.put(bundle1, stats(200, 1));
+        reports = publisher.update(bundleStats, 10);
+        assertNull(reports.snapshot);
+        assertEquals(reports.delta.getStatsCount(), 1);
+        assertEquals(reports.delta.getStats(0).getBundle(), bundle1);
+
+        // Deltas are cumulative, so that the leader can skip intermediate ones
+        String bundle2 = "prop/ns/0x00000002_0x00000003";
+        bundleStats.put(bundle2, stats(100, 2));
+        bundleStats.remove(bundle0);
+        reports = publisher.update(bundleStats, 10);
+        assertNull(reports.snapshot);
+        assertEquals(reports.delta.getStatsCount(), 2);
+        assertEquals(reports.delta.getRemovedBundlesList(), Collections.singletonList(bundle0));
+
+        Map<String, NamespaceBundleStats> previousStats = tracker.getStats();
+        assertTrue(tracker.apply(serialize(reports.delta)));
+        assertEquals(tracker.getBundles(), bundleStats.keySet());
+        assertEquals(tracker.getStats().get(bundle1).msgRateIn, 200.0);
+        assertEquals(tracker.getStats().get(bundle2).producerCount, 2);
+        assertEquals(tracker.getStats().get(bundle1).msgThroughputIn, 200000.0);
+        // The previously returned stats are left untouched
+        assertTrue(previousStats.containsKey(bundle0));
+        assertEquals(previousStats.get(bundle1).msgRateIn, 100.0);
+    }
+
+    @Test
+    public void testNewSnapshotWhenDeltaIsLarge() throws Exception {
+        BundleStatsPublisher publisher = new BundleStatsPublisher();
+        Map<String, NamespaceBundleStats> bundleStats = bundleStats(8);
+        BundleStatsPublisher.Reports first = publisher.update(bundleStats, 10);
+
+        bundleStats.forEach((bundle, stats) -> stats.msgRateIn = 1000);
+        BundleStatsPublisher.Reports second = publisher.update(bundleStats, 10);
+        assertNotNull(second.snapshot);
+        assertTrue(second.snapshot.getSnapshotId() > first.snapshot.getSnapshotId());
+        assertEquals(second.snapshot.getStatsCount(), 8);
+        assertEquals(second.delta.getStatsCount(), 0);
+        assertEquals(second.delta.getSnapshotId(), second.snapshot.getSnapshotId());
+
+        // A tracker which missed the snapshot cannot apply the delta
+        BundleStatsTracker tracker = new BundleStatsTracker();
+        assertTrue(tracker.apply(serialize(first.snapshot)));
+        assertFalse(tracker.apply(serialize(second.delta)));
+        assertTrue(tracker.apply(serialize(second.snapshot)));
+        assertTrue(tracker.apply(serialize(second.delta)));
+        assertEquals(tracker.getStats().values().iterator().next().msgRateIn, 1000.0);
+    }
+
+    @Test
+    public void testReset() {
+        BundleStatsPublisher publisher = new BundleStatsPublisher();
+        Map<String, NamespaceBundleStats> bundleStats = bundleStats(8);
+        assertNotNull(publisher.update(bundleStats, 10).snapshot);
+        assertNull(publisher.update(bundleStats, 10).snapshot);
+
+        publisher.reset();
+        BundleStatsPublisher.Reports reports = publisher.update(bundleStats, 10);
+        assertNotNull(reports.snapshot);
+        assertEquals(reports.snapshot.getStatsCount(), 8);
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.loadbalance.impl;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+import org.apache.pulsar.broker.BrokerData;
+import org.apache.pulsar.broker.BundleData;
+import org.apache.pulsar.broker.ServiceConfiguration;
+import org.apache.pulsar.broker.TimeAverageMessageData;
+import org.apache.pulsar.broker.loadbalance.LoadData;
+import org.apache.pulsar.policies.data.loadbalancer.LocalBrokerData;
+import org.apache.pulsar.policies.data.loadbalancer.ResourceUsage;
+import org.testng.annotations.Test;
+
+public class ThresholdShedderTest {
+
+    private static final double MB = 1024 * 1024;
+
+    private final ServiceConfiguration conf;
+
+    public ThresholdShedderTest() {
+        conf = new ServiceConfiguration();
+        conf.setLoadBalancerBrokerThresholdShedderPercentage(10);
+        conf.setLoadBalancerHistoryResourcePercentage(0.9);
+        conf.setLoadBalancerBundleUnloadMinThroughputThreshold(10);
+    }
+
+    private static void addBroker(LoadData loadData, String broker, double bandwidthUsage, double... bundlesMB) {
+        LocalBrokerData localData = new LocalBrokerData();
+        localData.setBandwidthIn(new ResourceUsage(bandwidthUsage, 100));
+        localData.setBandwidthOut(new ResourceUsage(bandwidthUsage, 100));
+        double throughput = 0;
+        for (int i = 0; i < bundlesMB.length; i++) {
+            String bundle = broker + "/bundle-" + i;
+            BundleData bundleData = new BundleData();
+            TimeAverageMessageData shortTermData = new TimeAverageMessageData();
+            shortTermData.setMsgThroughputIn(bundlesMB[i] * MB / 2);
+            shortTermData.setMsgThroughputOut(bundlesMB[i] * MB / 2);
+            bundleData.setShortTermData(shortTermData);
+            loadData.getBundleData().put(bundle, bundleData);
+            localData.getBundles().add(bundle);
+            throughput += bundlesMB[i] * MB;
+        }
+        localData.setMsgThroughputIn(throughput / 2);
+        localData.setMsgThroughputOut(throughput / 2);
+        loadData.getBrokerData().put(broker, new BrokerData(localData));
+    }
+
+    // Two brokers at 10% and one at 70%: the average is 30% and the target of the overloaded broker is 35%, so half of
+    // its traffic has to be moved.
+    private static LoadData unbalancedLoadData() {
+        LoadData loadData = new LoadData();
+        addBroker(loadData, "broker-1", 10, 10);
+        addBroker(loadData, "broker-2", 10, 10);
+        addBroker(loadData, "broker-3", 70, 40, 30, 15, 10, 5);
+        return loadData;
+    }
+
+    @Test
+    public void testNoBrokers() {
+        ThresholdShedder ts = new ThresholdShedder();
+        assertTrue(ts.findBundlesForUnloading(new LoadData(), conf).isEmpty());
+    }
+
+    @Test
+    public void testBrokersWithinThreshold() {
+        ThresholdShedder ts = new ThresholdShedder();
+        LoadData loadData = new LoadData();
+        addBroker(loadData, "broker-1", 20, 10, 10);
+        addBroker(loadData, "broker-2", 30, 10, 10);
+        addBroker(loadData, "broker-3", 38, 10, 10);
+        assertTrue(ts.findBundlesForUnloading(loadData, conf).isEmpty());
+    }
+
+    @Test
+    public void testSmallestSetOfBundles() {
+        ThresholdShedder ts = new ThresholdShedder();
+        // 50 MByte/s have to be moved: the largest bundle, then the smallest one covering the remaining 10 MByte/s
+        Multimap<String, String> bundlesToUnload = ts.findBundlesForUnloading(unbalancedLoadData(), conf);
+        assertEquals(bundlesToUnload.size(), 2);
+        assertEquals(Sets.newHashSet(bundlesToUnload.get("broker-3")),
+                Sets.newHashSet("broker-3/bundle-0", "broker-3/bundle-3"));
+    }
+
+    @Test
+    public void testRecentlyUnloadedBundlesAreSkipped() {
+        ThresholdShedder ts = new ThresholdShedder();
+        LoadData loadData = unbalancedLoadData();
+        loadData.getRecentlyUnloadedBundles().put("broker-3/bundle-0", System.currentTimeMillis());
+        Multimap<String, String> bundlesToUnload = ts.findBundlesForUnloading(loadData, conf);
+        assertEquals(Sets.newHashSet(bundlesToUnload.get("broker-3")),
+                Sets.newHashSet("broker-3/bundle-1", "broker-3/bundle-2", "broker-3/bundle-4"));
+    }
+
+    @Test
+    public void testMinThroughputThreshold() {
+        ThresholdShedder ts = new ThresholdShedder();
+        conf.setLoadBalancerBundleUnloadMinThroughputThreshold(60);
+        try {
+            assertTrue(ts.findBundlesForUnloading(unbalancedLoadData(), conf).isEmpty());
+        } finally {
+            conf.setLoadBalancerBundleUnloadMinThroughputThreshold(10);
+        }
+    }
+
+    @Test
+    public void testUsageIsAveragedOverTime() {
+        ThresholdShedder ts = new ThresholdShedder();
+        LoadData loadData = new LoadData();
+        addBroker(loadData, "broker-1", 30, 40, 30);
+        addBroker(loadData, "broker-2", 30, 40, 30);
+        addBroker(loadData, "broker-3", 30, 40, 30);
+        assertTrue(ts.findBundlesForUnloading(loadData, conf).isEmpty());
+
+        // A single spike is not enough to move bundles
+        loadData.getBrokerData().get("broker-3").getLocalData().setBandwidthIn(new ResourceUsage(90, 100));
+        assertTrue(ts.findBundlesForUnloading(loadData, conf).isEmpty());
+
+        // But a sustained one is
+        Multimap<String, String> bundlesToUnload = null;
+        for (int i = 0; i < 20 && (bundlesToUnload == null || bundlesToUnload.isEmpty()); i++) {
+            bundlesToUnload = ts.findBundlesForUnloading(loadData, conf);
+        }
+        assertEquals(bundlesToUnload.keySet(), Sets.newHashSet("broker-3"));
+    }
+}
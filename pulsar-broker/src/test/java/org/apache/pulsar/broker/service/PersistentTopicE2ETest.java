@@ -21,6 +21,7 @@ package org.apache.pulsar.broker.service;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
@@ -1065,7 +1066,11 @@ public class PersistentTopicE2ETest extends BrokerTestBase {
 
         brokerService.updateRates();
 
+        // Each stats update publishes a new snapshot, leaving the previous one untouched
+        Map<String, NamespaceBundleStats> previousBundleStatsMap = bundleStatsMap;
         bundleStatsMap = brokerService.getBundleStats();
+        assertNotSame(bundleStatsMap, previousBundleStatsMap);
+        assertNotNull(previousBundleStatsMap.get("prop/ns-abc/0x00000000_0xffffffff"));
         assertEquals(bundleStatsMap.size(), 1);
         bundleStats = bundleStatsMap.get("prop/ns-abc/0x00000000_0xffffffff");
         assertNotNull(bundleStats);
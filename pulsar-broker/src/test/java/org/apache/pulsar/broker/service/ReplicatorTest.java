@@ -25,6 +25,7 @@ import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.List;
@@ -37,6 +38,8 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.bookkeeper.mledger.AsyncCallbacks.DeleteCursorCallback;
 import org.apache.bookkeeper.mledger.AsyncCallbacks.ReadEntriesCallback;
@@ -51,6 +54,7 @@ import org.apache.pulsar.broker.namespace.OwnershipCache;
 import org.apache.pulsar.broker.service.BrokerServiceException.NamingException;
 import org.apache.pulsar.broker.service.persistent.PersistentReplicator;
 import org.apache.pulsar.broker.service.persistent.PersistentTopic;
+import org.apache.pulsar.broker.stats.prometheus.PrometheusMetricsGenerator;
 import org.apache.pulsar.client.admin.PulsarAdminException.PreconditionFailedException;
 import org.apache.pulsar.client.api.MessageBuilder;
 import org.apache.pulsar.client.api.MessageRoutingMode;
@@ -503,6 +507,81 @@ public class ReplicatorTest extends ReplicatorTestBase {
         consumer1.close();
     }
 
+    /**
+     * It verifies that the replicator exposes the messages and bytes it has in flight towards the remote cluster, and
+     * that it stops reading while the configured pending bytes are reached.
+     *
+     * @throws Exception
+     */
+    @Test(timeOut = 30000)
+    public void testReplicatorPendingBytesLimit() throws Exception {
+        final int readBatchSize = 5;
+        final int numMessages = 200;
+        final int defaultReadBatchSize = pulsar1.getConfiguration().getReplicationReadBatchSize();
+        final long defaultMaxPendingBytes = pulsar1.getConfiguration().getReplicationMaxPendingBytes();
+        // The replicator reads its settings when it is created with the topic
+        pulsar1.getConfiguration().setReplicationReadBatchSize(readBatchSize);
+        pulsar1.getConfiguration().setReplicationMaxPendingBytes(1);
+
+        try {
+            final TopicName dest = TopicName.get("persistent://pulsar/ns/pendingBytesLimit");
+            MessageProducer producer1 = new MessageProducer(url1, dest);
+            MessageConsumer consumer2 = new MessageConsumer(url2, dest);
+
+            PersistentTopic topic = (PersistentTopic) pulsar1.getBrokerService().getTopicReference(dest.toString())
+                    .get();
+            PersistentReplicator replicator = (PersistentReplicator) topic.getPersistentReplicator("r2");
+
+            // Sample the stats while the messages are replicated
+            AtomicBoolean sampling = new AtomicBoolean(true);
+            AtomicLong maxPendingMessages = new AtomicLong();
+            AtomicLong maxPendingBytes = new AtomicLong();
+            ExecutorService samplerExecutor = Executors.newSingleThreadExecutor();
+            Future<?> sampler = samplerExecutor.submit(() -> {
+                while (sampling.get()) {
+                    ReplicatorStats stats = replicator.getStats();
+                    maxPendingMessages.accumulateAndGet(stats.pendingMessages, Math::max);
+                    maxPendingBytes.accumulateAndGet(stats.pendingBytes, Math::max);
+                }
+            });
+
+            producer1.produceBatch(numMessages);
+            consumer2.receive(numMessages);
+
+            ReplicatorStats stats = replicator.getStats();
+            for (int i = 0; i < 50 && (stats.replicationBacklog > 0 || stats.pendingMessages > 0); i++) {
+                Thread.sleep(100);
+                stats = replicator.getStats();
+            }
+            sampling.set(false);
+            sampler.get();
+            samplerExecutor.shutdown();
+
+            // The stats went up under load and back to 0 once everything was acknowledged by the remote cluster
+            assertTrue(maxPendingMessages.get() > 0);
+            assertTrue(maxPendingBytes.get() > 0);
+            assertEquals(stats.replicationBacklog, 0);
+            assertEquals(stats.pendingMessages, 0);
+            assertEquals(stats.pendingBytes, 0);
+
+            // With a 1 byte limit, a new batch is only read once the previous one was acknowledged
+            assertTrue(maxPendingMessages.get() <= readBatchSize,
+                    "Too many messages in flight: " + maxPendingMessages.get());
+
+            ByteArrayOutputStream metrics = new ByteArrayOutputStream();
+            PrometheusMetricsGenerator.generate(pulsar1, true, false, metrics);
+            String metricsStr = new String(metrics.toByteArray());
+            assertTrue(metricsStr.contains("pulsar_replication_pending_bytes"));
+            assertTrue(metricsStr.contains("pulsar_replication_delay_in_seconds"));
+
+            producer1.close();
+            consumer2.close();
+        } finally {
+            pulsar1.getConfiguration().setReplicationReadBatchSize(defaultReadBatchSize);
+            pulsar1.getConfiguration().setReplicationMaxPendingBytes(defaultMaxPendingBytes);
+        }
+    }
+
     @Test(timeOut = 30000)
     public void testReplicatorClearBacklog() throws Exception {
 
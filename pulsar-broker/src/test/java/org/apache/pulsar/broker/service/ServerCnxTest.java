@@ -25,6 +25,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.matches;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -35,7 +36,9 @@ import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -46,9 +49,12 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import javax.naming.AuthenticationException;
@@ -68,6 +74,8 @@ import org.apache.pulsar.broker.PulsarService;
 import org.apache.pulsar.broker.ServiceConfiguration;
 import org.apache.pulsar.broker.admin.AdminResource;
 import org.apache.pulsar.broker.authentication.AuthenticationDataCommand;
+import org.apache.pulsar.broker.authentication.AuthenticationDataSource;
+import org.apache.pulsar.broker.authentication.AuthenticationProvider;
 import org.apache.pulsar.broker.authentication.AuthenticationService;
 import org.apache.pulsar.broker.authorization.AuthorizationService;
 import org.apache.pulsar.broker.authorization.PulsarAuthorizationProvider;
@@ -88,6 +96,7 @@ import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck.AckType;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandConnected;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandError;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandProducerSuccess;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandSendError;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandSendReceipt;
@@ -337,6 +346,8 @@ public class ServerCnxTest {
         doReturn(authenticationService).when(brokerService).getAuthenticationService();
         doReturn("appid1").when(authenticationService).authenticate(new AuthenticationDataCommand(Mockito.anyString()),
                 Mockito.anyString());
+        doCallRealMethod().when(authenticationService)
+                .authenticateAsync(Mockito.any(AuthenticationDataSource.class), Mockito.anyString());
         doReturn(true).when(brokerService).isAuthenticationEnabled();
 
         resetChannel();
@@ -352,6 +363,81 @@ public class ServerCnxTest {
         channel.finish();
     }
 
+    /**
+     * Authenticates the clients once released, with their credentials as role.
+     */
+    public static class BlockingAuthenticationProvider implements AuthenticationProvider {
+        static volatile CountDownLatch released = new CountDownLatch(1);
+        static final List<String> authenticationThreads = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void initialize(ServiceConfiguration config) throws IOException {
+        }
+
+        @Override
+        public String getAuthMethodName() {
+            return "blocking";
+        }
+
+        @Override
+        public String authenticate(AuthenticationDataSource authData) throws AuthenticationException {
+            authenticationThreads.add(Thread.currentThread().getName());
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                throw new AuthenticationException(e.getMessage());
+            }
+            return authData.getCommandData();
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    @Test(timeOut = 30000)
+    public void testConnectCommandWithAuthenticationThreads() throws Exception {
+        ServiceConfiguration authConfig = new ServiceConfiguration();
+        authConfig.setAuthenticationEnabled(true);
+        authConfig.setAuthenticationProviders(Sets.newHashSet(BlockingAuthenticationProvider.class.getName()));
+        authConfig.setAuthenticationVerificationThreads(1);
+        AuthenticationService authenticationService = new AuthenticationService(authConfig);
+        doReturn(authenticationService).when(brokerService).getAuthenticationService();
+        doReturn(true).when(brokerService).isAuthenticationEnabled();
+        svcConfig.setAuthenticateOriginalAuthData(true);
+        BlockingAuthenticationProvider.released = new CountDownLatch(1);
+        BlockingAuthenticationProvider.authenticationThreads.clear();
+
+        resetChannel();
+        assertEquals(serverCnx.getState(), State.Start);
+
+        // A proxy connects on behalf of a client: both credentials are verified off the IO thread
+        ByteBuf clientCommand = Commands.newConnect("blocking", "proxy-role", null, null, "client-role",
+                "client-role", "blocking");
+        channel.writeInbound(clientCommand);
+        assertEquals(serverCnx.getState(), State.Connecting);
+        assertTrue(channel.outboundMessages().isEmpty());
+
+        BlockingAuthenticationProvider.released.countDown();
+        // The connection is completed back on the event loop of the channel
+        while (serverCnx.getState() != State.Connected) {
+            channel.runPendingTasks();
+            Thread.sleep(10);
+        }
+        assertTrue(getResponse() instanceof CommandConnected);
+        assertEquals(serverCnx.authRole, "proxy-role");
+        Field originalPrincipal = ServerCnx.class.getDeclaredField("originalPrincipal");
+        originalPrincipal.setAccessible(true);
+        assertEquals(originalPrincipal.get(serverCnx), "client-role");
+
+        assertEquals(BlockingAuthenticationProvider.authenticationThreads.size(), 2);
+        BlockingAuthenticationProvider.authenticationThreads
+                .forEach(thread -> assertTrue(thread.startsWith("pulsar-authentication")));
+
+        authenticationService.close();
+        channel.finish();
+    }
+
     @Test(timeOut = 30000)
     public void testConnectCommandWithAuthenticationNegative() throws Exception {
         AuthenticationException e = new AuthenticationException();
@@ -359,6 +445,8 @@ public class ServerCnxTest {
         doReturn(authenticationService).when(brokerService).getAuthenticationService();
         doThrow(e).when(authenticationService).authenticate(new AuthenticationDataCommand(Mockito.anyString()),
                 Mockito.anyString());
+        doCallRealMethod().when(authenticationService)
+                .authenticateAsync(Mockito.any(AuthenticationDataSource.class), Mockito.anyString());
         doReturn(true).when(brokerService).isAuthenticationEnabled();
 
         resetChannel();
@@ -1520,6 +1608,67 @@ public class ServerCnxTest {
         channel.finish();
     }
 
+    @Test(timeOut = 30000)
+    public void testInvalidTopicOnLookupTopics() throws Exception {
+        resetChannel();
+        setChannelConnected();
+
+        List<String> topics = Lists.newArrayList("xx/ass/aa/aaa", "xx/ass/aa/bbb");
+        for (boolean partitionedMetadata : new boolean[] { false, true }) {
+            channel.writeInbound(Commands.newLookupTopics(topics, partitionedMetadata, 1));
+            Object obj = getResponse();
+            assertEquals(obj.getClass(), CommandLookupTopicsResponse.class);
+            CommandLookupTopicsResponse res = (CommandLookupTopicsResponse) obj;
+            assertEquals(res.getRequestId(), 1);
+            if (partitionedMetadata) {
+                assertEquals(res.getLookupResponsesCount(), 0);
+                assertEquals(res.getPartitionMetadataResponsesCount(), 2);
+                res.getPartitionMetadataResponsesList()
+                        .forEach(response -> assertEquals(response.getError(), ServerError.InvalidTopicName));
+            } else {
+                assertEquals(res.getLookupResponsesCount(), 2);
+                assertEquals(res.getPartitionMetadataResponsesCount(), 0);
+                res.getLookupResponsesList()
+                        .forEach(response -> assertEquals(response.getError(), ServerError.InvalidTopicName));
+            }
+        }
+
+        // All the permits were released
+        assertEquals(brokerService.getLookupRequestSemaphore().availablePermits(),
+                svcConfig.getMaxConcurrentLookupRequest());
+        channel.finish();
+    }
+
+    @Test(timeOut = 30000)
+    public void testLookupTopicsThrottled() throws Exception {
+        resetChannel();
+        setChannelConnected();
+
+        Semaphore lookupSemaphore = brokerService.getLookupRequestSemaphore();
+        int permits = lookupSemaphore.drainPermits();
+        List<String> topics = Lists.newArrayList("xx/ass/aa/aaa", "xx/ass/aa/bbb", "xx/ass/aa/ccc");
+
+        // No permit available: all the topics are rejected
+        channel.writeInbound(Commands.newLookupTopics(topics, false, 1));
+        CommandLookupTopicsResponse res = (CommandLookupTopicsResponse) getResponse();
+        assertEquals(res.getLookupResponsesCount(), 3);
+        res.getLookupResponsesList()
+                .forEach(response -> assertEquals(response.getError(), ServerError.TooManyRequests));
+
+        // A batch larger than the available permits is partially served
+        lookupSemaphore.release(2);
+        channel.writeInbound(Commands.newLookupTopics(topics, true, 2));
+        res = (CommandLookupTopicsResponse) getResponse();
+        assertEquals(res.getPartitionMetadataResponsesCount(), 3);
+        assertEquals(res.getPartitionMetadataResponses(0).getError(), ServerError.InvalidTopicName);
+        assertEquals(res.getPartitionMetadataResponses(1).getError(), ServerError.InvalidTopicName);
+        assertEquals(res.getPartitionMetadataResponses(2).getError(), ServerError.TooManyRequests);
+        assertEquals(lookupSemaphore.availablePermits(), 2);
+
+        lookupSemaphore.release(permits - 2);
+        channel.finish();
+    }
+
     @Test(timeOut = 30000)
     public void testInvalidTopicOnProducer() throws Exception {
         resetChannel();
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.service;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.pulsar.broker.service.BrokerServiceException.TooManyRequestsException;
+import org.testng.annotations.Test;
+
+public class TopicLoadSchedulerTest {
+
+    // Records the loads started by the scheduler, which the tests complete explicitly
+    private static class RecordingLoader implements TopicLoadScheduler.Loader {
+        final Map<String, CompletableFuture<Optional<Topic>>> startedLoads = new LinkedHashMap<>();
+        final List<Boolean> createIfMissing = new ArrayList<>();
+
+        @Override
+        public synchronized void load(String topic, boolean createIfMissing,
+                CompletableFuture<Optional<Topic>> topicFuture) {
+            startedLoads.put(topic, topicFuture);
+            this.createIfMissing.add(createIfMissing);
+        }
+
+        synchronized List<String> startedTopics() {
+            return new ArrayList<>(startedLoads.keySet());
+        }
+
+        void complete(String topic) {
+            CompletableFuture<Optional<Topic>> future;
+            synchronized (this) {
+                future = startedLoads.get(topic);
+            }
+            future.complete(Optional.empty());
+        }
+    }
+
+    @Test
+    public void testMaxConcurrentLoads() {
+        RecordingLoader loader = new RecordingLoader();
+        TopicLoadScheduler scheduler = new TopicLoadScheduler(2, 100, loader);
+
+        scheduler.schedule("topic-1", true, true);
+        scheduler.schedule("topic-2", true, true);
+        CompletableFuture<Optional<Topic>> future3 = scheduler.schedule("topic-3", false, true);
+        assertEquals(loader.startedTopics(), Lists.newArrayList("topic-1", "topic-2"));
+        assertEquals(scheduler.getPendingLoads(), 1);
+
+        loader.complete("topic-1");
+        assertEquals(loader.startedTopics(), Lists.newArrayList("topic-1", "topic-2", "topic-3"));
+        assertEquals(scheduler.getPendingLoads(), 0);
+        // The queued load keeps its own createIfMissing flag
+        assertEquals(loader.createIfMissing, Lists.newArrayList(true, true, false));
+
+        loader.complete("topic-3");
+        assertTrue(future3.isDone());
+    }
+
+    @Test
+    public void testClientLoadsGoFirst() {
+        RecordingLoader loader = new RecordingLoader();
+        TopicLoadScheduler scheduler = new TopicLoadScheduler(1, 100, loader);
+
+        scheduler.schedule("running", true, true);
+        scheduler.schedule("background-1", true, false);
+        scheduler.schedule("background-2", true, false);
+        scheduler.schedule("client", true, true);
+
+        loader.complete("running");
+        loader.complete("client");
+        loader.complete("background-1");
+        assertEquals(loader.startedTopics(),
+                Lists.newArrayList("running", "client", "background-1", "background-2"));
+    }
+
+    @Test
+    public void testPromoteBackgroundLoad() {
+        RecordingLoader loader = new RecordingLoader();
+        TopicLoadScheduler scheduler = new TopicLoadScheduler(1, 100, loader);
+
+        scheduler.schedule("running", true, true);
+        scheduler.schedule("background-1", true, false);
+        scheduler.schedule("background-2", true, false);
+
+        // A client connects to the last queued topic
+        scheduler.promote("background-2");
+
+        loader.complete("running");
+        loader.complete("background-2");
+        loader.complete("background-1");
+        assertEquals(loader.startedTopics(), Lists.newArrayList("running", "background-2", "background-1"));
+        assertEquals(scheduler.getPendingLoads(), 0);
+    }
+
+    @Test
+    public void testFailFastOnFullQueue() throws Exception {
+        RecordingLoader loader = new RecordingLoader();
+        TopicLoadScheduler scheduler = new TopicLoadScheduler(1, 1, loader);
+
+        scheduler.schedule("running", true, true);
+        CompletableFuture<Optional<Topic>> pending = scheduler.schedule("pending", true, true);
+        CompletableFuture<Optional<Topic>> rejected = scheduler.schedule("rejected", true, true);
+
+        assertFalse(pending.isDone());
+        try {
+            rejected.get();
+            fail("Topic load should fail when the queue is full");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TooManyRequestsException);
+        }
+
+        // Once the queue is drained, new loads are accepted again
+        loader.complete("running");
+        assertFalse(scheduler.schedule("accepted", true, true).isCompletedExceptionally());
+    }
+
+    @Test
+    public void testClientLoadReplacesBackgroundLoadOnFullQueue() throws Exception {
+        RecordingLoader loader = new RecordingLoader();
+        TopicLoadScheduler scheduler = new TopicLoadScheduler(1, 2, loader);
+
+        scheduler.schedule("running", true, true);
+        CompletableFuture<Optional<Topic>> background1 = scheduler.schedule("background-1", true, false);
+        CompletableFuture<Optional<Topic>> background2 = scheduler.schedule("background-2", true, false);
+        assertEquals(scheduler.getPendingLoads(), 2);
+
+        // The background loads fill the queue, but don't prevent a client from loading its topic
+        CompletableFuture<Optional<Topic>> client = scheduler.schedule("client", true, true);
+        assertFalse(client.isDone());
+        assertFalse(background1.isDone());
+        try {
+            background2.get();
+            fail("The last background load should be rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TooManyRequestsException);
+        }
+        assertEquals(scheduler.getPendingLoads(), 2);
+
+        // Without any more background load to replace, the queue is full for client loads as well
+        CompletableFuture<Optional<Topic>> client2 = scheduler.schedule("client-2", true, true);
+        assertFalse(client2.isDone());
+        assertTrue(background1.isCompletedExceptionally());
+        assertTrue(scheduler.schedule("client-3", true, true).isCompletedExceptionally());
+        assertTrue(scheduler.schedule("background-3", true, false).isCompletedExceptionally());
+
+        loader.complete("running");
+        loader.complete("client");
+        assertEquals(loader.startedTopics(), Lists.newArrayList("running", "client", "client-2"));
+        assertEquals(scheduler.getPendingLoads(), 0);
+    }
+
+    @Test
+    public void testSynchronousCompletions() {
+        // Loads completing immediately must not recurse once per pending load
+        TopicLoadScheduler.Loader loader = (topic, createIfMissing, future) -> future.complete(Optional.empty());
+        RecordingLoader blockingLoader = new RecordingLoader();
+        TopicLoadScheduler scheduler = new TopicLoadScheduler(1, 100000, (topic, createIfMissing, future) -> {
+            if (topic.equals("blocking")) {
+                blockingLoader.load(topic, createIfMissing, future);
+            } else {
+                loader.load(topic, createIfMissing, future);
+            }
+        });
+
+        scheduler.schedule("blocking", true, true);
+        List<CompletableFuture<Optional<Topic>>> futures = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            futures.add(scheduler.schedule("topic-" + i, true, false));
+        }
+        blockingLoader.complete("blocking");
+        futures.forEach(future -> assertTrue(future.isDone()));
+        assertEquals(scheduler.getPendingLoads(), 0);
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.service.nonpersistent;
+
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.List;
+
+import org.apache.bookkeeper.common.util.OrderedExecutor;
+import org.apache.bookkeeper.mledger.Entry;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies that the messages published on a non-persistent topic are dispatched once to each subscription, either
+ * on the publishing thread or sharded across the topic executor threads, and dropped when a shard is full.
+ */
+public class NonPersistentTopicFanOutTest {
+
+    private OrderedExecutor executor;
+
+    @BeforeMethod
+    public void setup() {
+        executor = OrderedExecutor.newBuilder().numThreads(4).name("fan-out-test").build();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        executor.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NonPersistentDispatcher addSubscription(NonPersistentTopicFanOut fanOut, String name) {
+        NonPersistentDispatcher dispatcher = mock(NonPersistentDispatcher.class);
+        doAnswer(invocation -> {
+            ((List<Entry>) invocation.getArguments()[0]).forEach(Entry::release);
+            return null;
+        }).when(dispatcher).sendMessages(anyListOf(Entry.class));
+
+        NonPersistentSubscription subscription = mock(NonPersistentSubscription.class);
+        when(subscription.getDispatcher()).thenReturn(dispatcher);
+        fanOut.addSubscription(name, subscription);
+        return dispatcher;
+    }
+
+    @Test
+    public void testDispatchOnPublishingThread() {
+        NonPersistentTopicFanOut fanOut = new NonPersistentTopicFanOut("topic", executor, 0, 1, 1000);
+        NonPersistentDispatcher d1 = addSubscription(fanOut, "sub-1");
+        NonPersistentDispatcher d2 = addSubscription(fanOut, "sub-2");
+
+        ByteBuf data = Unpooled.wrappedBuffer("hello".getBytes());
+        fanOut.sendMessage(data);
+
+        verify(d1, times(1)).sendMessages(anyListOf(Entry.class));
+        verify(d2, times(1)).sendMessages(anyListOf(Entry.class));
+        assertEquals(data.refCnt(), 1);
+        assertEquals(fanOut.getPendingMessagesPerShard().size(), 1);
+    }
+
+    @Test
+    public void testShardedDispatch() throws Exception {
+        NonPersistentTopicFanOut fanOut = new NonPersistentTopicFanOut("topic", executor, 4, 1, 1000);
+        NonPersistentDispatcher[] dispatchers = new NonPersistentDispatcher[20];
+        for (int i = 0; i < dispatchers.length; i++) {
+            dispatchers[i] = addSubscription(fanOut, "sub-" + i);
+        }
+
+        ByteBuf data = Unpooled.wrappedBuffer("hello".getBytes());
+        for (int i = 0; i < 10; i++) {
+            fanOut.sendMessage(data);
+        }
+
+        for (NonPersistentDispatcher dispatcher : dispatchers) {
+            verify(dispatcher, timeout(5000).times(10)).sendMessages(anyListOf(Entry.class));
+        }
+
+        // Wait for the shards to release their reference on the buffer
+        for (int i = 0; i < 50 && data.refCnt() > 1; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(data.refCnt(), 1);
+        fanOut.getPendingMessagesPerShard().forEach(pending -> assertEquals(pending.intValue(), 0));
+    }
+
+    @Test
+    public void testDropWhenShardIsFull() {
+        NonPersistentTopicFanOut fanOut = new NonPersistentTopicFanOut("topic", executor, 2, 1, 0);
+        NonPersistentDispatcher dispatcher = addSubscription(fanOut, "sub-1");
+
+        ByteBuf data = Unpooled.wrappedBuffer("hello".getBytes());
+        fanOut.sendMessage(data);
+        fanOut.updateRates();
+
+        verify(dispatcher, never()).sendMessages(anyListOf(Entry.class));
+        assertEquals(data.refCnt(), 1);
+    }
+
+    @Test
+    public void testRemoveSubscription() {
+        NonPersistentTopicFanOut fanOut = new NonPersistentTopicFanOut("topic", executor, 0, 1, 1000);
+        NonPersistentDispatcher dispatcher = addSubscription(fanOut, "sub-1");
+        fanOut.removeSubscription("sub-1");
+
+        fanOut.sendMessage(Unpooled.wrappedBuffer("hello".getBytes()));
+
+        verify(dispatcher, never()).sendMessages(anyListOf(Entry.class));
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.service.schema;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import com.google.common.collect.Maps;
+import com.google.protobuf.ByteString;
+import java.time.Clock;
+import java.util.Map;
+import org.apache.pulsar.broker.service.schema.proto.SchemaRegistryFormat;
+import org.apache.pulsar.common.schema.SchemaData;
+import org.apache.pulsar.common.schema.SchemaType;
+import org.apache.pulsar.common.schema.SchemaVersion;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class SchemaRegistryServiceCacheTest {
+
+    private static final String schemaId = "tenant/ns/topic";
+
+    private SchemaStorage storage;
+    private SchemaCompatibilityCheck compatibilityCheck;
+    private SchemaRegistryServiceImpl schemaRegistryService;
+
+    private static StoredSchema storedSchema(String definition, long version) {
+        byte[] data = SchemaRegistryFormat.SchemaInfo.newBuilder()
+            .setSchemaId(schemaId)
+            .setType(SchemaRegistryFormat.SchemaInfo.SchemaType.AVRO)
+            .setSchema(ByteString.copyFromUtf8(definition))
+            .setUser("user")
+            .setDeleted(false)
+            .setTimestamp(0)
+            .build().toByteArray();
+        return new StoredSchema(data, new LongSchemaVersion(version));
+    }
+
+    private static SchemaData schemaData(String definition) {
+        return SchemaData.builder()
+            .user("user")
+            .type(SchemaType.AVRO)
+            .data(definition.getBytes())
+            .build();
+    }
+
+    @BeforeMethod
+    public void setup() {
+        storage = mock(SchemaStorage.class);
+        compatibilityCheck = mock(SchemaCompatibilityCheck.class);
+        Map<SchemaType, SchemaCompatibilityCheck> checks = Maps.newHashMap();
+        checks.put(SchemaType.AVRO, compatibilityCheck);
+        schemaRegistryService = new SchemaRegistryServiceImpl(storage, checks, Clock.systemUTC(), 10);
+    }
+
+    @Test
+    public void testSchemaVersionsAreCached() throws Exception {
+        SchemaVersion version0 = new LongSchemaVersion(0);
+        when(storage.get(schemaId, version0)).thenReturn(completedFuture(storedSchema("schema-0", 0)));
+
+        assertEquals(schemaRegistryService.getSchema(schemaId, version0).get().version, version0);
+        assertEquals(schemaRegistryService.getSchema(schemaId, version0).get().version, version0);
+        verify(storage, times(1)).get(schemaId, version0);
+    }
+
+    @Test
+    public void testLatestSchemaIsCachedUnderItsVersion() throws Exception {
+        SchemaVersion version1 = new LongSchemaVersion(1);
+        when(storage.get(schemaId, SchemaVersion.Latest)).thenReturn(completedFuture(storedSchema("schema-1", 1)));
+
+        assertEquals(schemaRegistryService.getSchema(schemaId).get().version, version1);
+        assertEquals(new String(schemaRegistryService.getSchema(schemaId, version1).get().schema.getData()),
+                "schema-1");
+        verify(storage, never()).get(schemaId, version1);
+
+        // The latest version can be changed by other brokers, it is always read from the storage
+        schemaRegistryService.getSchema(schemaId).get();
+        verify(storage, times(2)).get(schemaId, SchemaVersion.Latest);
+    }
+
+    @Test
+    public void testCompatibilityResultsAreMemoized() throws Exception {
+        when(storage.get(schemaId, SchemaVersion.Latest)).thenReturn(completedFuture(storedSchema("schema-1", 1)));
+        when(compatibilityCheck.isCompatible(any(), any(), any())).thenReturn(false);
+
+        SchemaData newSchema = schemaData("schema-2");
+        assertFalse(schemaRegistryService.isCompatibleWithLatestVersion(schemaId, newSchema,
+                SchemaCompatibilityStrategy.FULL).get());
+        assertFalse(schemaRegistryService.isCompatibleWithLatestVersion(schemaId, schemaData("schema-2"),
+                SchemaCompatibilityStrategy.FULL).get());
+        verify(compatibilityCheck, times(1)).isCompatible(any(), any(), eq(SchemaCompatibilityStrategy.FULL));
+
+        // The results are kept for each strategy
+        assertFalse(schemaRegistryService.isCompatibleWithLatestVersion(schemaId, newSchema,
+                SchemaCompatibilityStrategy.BACKWARD).get());
+        verify(compatibilityCheck, times(1)).isCompatible(any(), any(), eq(SchemaCompatibilityStrategy.BACKWARD));
+    }
+}
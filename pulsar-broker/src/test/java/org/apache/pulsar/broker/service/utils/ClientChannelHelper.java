@@ -29,7 +29,9 @@ import org.apache.pulsar.common.api.proto.PulsarApi.CommandConnected;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandError;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandFlow;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandMessage;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandProducer;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandProducerSuccess;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandSend;
@@ -152,6 +154,18 @@ public class ClientChannelHelper {
         protected void handleLookupResponse(CommandLookupTopicResponse connection) {
             queue.offer(CommandLookupTopicResponse.newBuilder(connection).build());
         }
+
+        @Override
+        protected void handleLookupTopicsResponse(CommandLookupTopicsResponse lookupTopicsResponse) {
+            // The nested responses are recycled by the decoder: copy each of them
+            CommandLookupTopicsResponse.Builder builder = CommandLookupTopicsResponse.newBuilder()
+                    .setRequestId(lookupTopicsResponse.getRequestId());
+            lookupTopicsResponse.getLookupResponsesList().forEach(
+                    response -> builder.addLookupResponses(CommandLookupTopicResponse.newBuilder(response).build()));
+            lookupTopicsResponse.getPartitionMetadataResponsesList().forEach(response -> builder
+                    .addPartitionMetadataResponses(CommandPartitionedTopicMetadataResponse.newBuilder(response).build()));
+            queue.offer(builder.build());
+        }
     };
 
 }
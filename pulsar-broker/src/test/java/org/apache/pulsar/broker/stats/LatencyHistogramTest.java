@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.broker.stats;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.common.policies.data.LatencyStats;
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testRecordAndRefresh() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.recordLatency(i, TimeUnit.MILLISECONDS);
+        }
+
+        // Values are not visible until the next refresh
+        assertEquals(histogram.getSnapshot().getTotalCount(), 0);
+
+        histogram.refresh();
+        assertEquals(histogram.getSnapshot().getTotalCount(), 100);
+
+        LatencyStats stats = new LatencyStats();
+        LatencyHistogram.fillStats(histogram.getSnapshot(), stats);
+        assertEquals(stats.count, 100);
+        assertEquals(stats.p50, 50.0, 1.0);
+        assertEquals(stats.p99, 99.0, 1.0);
+        assertEquals(stats.max, 100.0, 1.0);
+
+        // The next interval starts empty
+        histogram.refresh();
+        LatencyHistogram.fillStats(histogram.getSnapshot(), stats);
+        assertEquals(stats.count, 0);
+        assertEquals(stats.max, 0.0);
+    }
+
+    @Test
+    public void testOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordLatency(-1, TimeUnit.MILLISECONDS);
+        histogram.recordLatency(1, TimeUnit.HOURS);
+        histogram.refresh();
+
+        assertEquals(histogram.getSnapshot().getTotalCount(), 2);
+        assertEquals(histogram.getSnapshot().getMinValue(), 0);
+        assertTrue(histogram.getSnapshot().getMaxValue() >= TimeUnit.MINUTES.toMicros(1) * 0.99);
+    }
+
+    @Test
+    public void testAggregateStats() {
+        LatencyStats s1 = new LatencyStats();
+        s1.count = 10;
+        s1.avg = 1;
+        s1.p99 = 5;
+        LatencyStats s2 = new LatencyStats();
+        s2.count = 30;
+        s2.avg = 3;
+        s2.p99 = 2;
+
+        LatencyStats aggregated = new LatencyStats().add(s1).add(s2);
+        assertEquals(aggregated.count, 40);
+        assertEquals(aggregated.avg, 2.5);
+        assertEquals(aggregated.p99, 5.0);
+    }
+}
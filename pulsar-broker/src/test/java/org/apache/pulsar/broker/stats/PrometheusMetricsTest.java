@@ -20,6 +20,8 @@ package org.apache.pulsar.broker.stats;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.util.List;
@@ -29,6 +31,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.pulsar.broker.service.BrokerTestBase;
+import org.apache.pulsar.broker.stats.prometheus.PrometheusMetricsCache;
 import org.apache.pulsar.broker.stats.prometheus.PrometheusMetricsGenerator;
 import org.apache.pulsar.client.api.Producer;
 import org.testng.annotations.AfterClass;
@@ -40,6 +43,9 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+
 public class PrometheusMetricsTest extends BrokerTestBase {
     @BeforeClass
     @Override
@@ -135,6 +141,50 @@ public class PrometheusMetricsTest extends BrokerTestBase {
         p2.close();
     }
 
+    @Test
+    public void testPrometheusMetricsCache() throws Exception {
+        Producer<byte[]> p1 = pulsarClient.newProducer().topic("persistent://my-property/use/my-ns/my-cached-topic1")
+                .create();
+        PrometheusMetricsCache metricsCache = new PrometheusMetricsCache(pulsar, true, false);
+        Counter liveCounter = Counter.build("pulsar_test_live_registry_counter", "-").register();
+
+        ByteArrayOutputStream statsOut = new ByteArrayOutputStream();
+        metricsCache.write(statsOut);
+        String metricsStr = new String(statsOut.toByteArray());
+        assertTrue(metricsStr.contains("persistent://my-property/use/my-ns/my-cached-topic1"));
+
+        // New topics are not visible until the cache is refreshed, while the default registry is rendered live
+        Producer<byte[]> p2 = pulsarClient.newProducer().topic("persistent://my-property/use/my-ns/my-cached-topic2")
+                .create();
+        liveCounter.inc();
+        statsOut = new ByteArrayOutputStream();
+        metricsCache.write(statsOut);
+        metricsStr = new String(statsOut.toByteArray());
+        assertFalse(metricsStr.contains("persistent://my-property/use/my-ns/my-cached-topic2"));
+        assertEquals(parseMetrics(metricsStr).get("pulsar_test_live_registry_counter").iterator().next().value, 1.0);
+
+        metricsCache.refresh();
+        statsOut = new ByteArrayOutputStream();
+        metricsCache.write(statsOut);
+        metricsStr = new String(statsOut.toByteArray());
+        assertTrue(metricsStr.contains("persistent://my-property/use/my-ns/my-cached-topic1"));
+        assertTrue(metricsStr.contains("persistent://my-property/use/my-ns/my-cached-topic2"));
+
+        Multimap<String, Metric> metrics = parseMetrics(metricsStr);
+        assertFalse(metrics.get("pulsar_metrics_generation_duration_seconds_count").isEmpty());
+
+        metricsCache.close();
+        // A refresh racing with the close is dropped
+        metricsCache.refresh();
+        statsOut = new ByteArrayOutputStream();
+        metricsCache.write(statsOut);
+        assertFalse(new String(statsOut.toByteArray()).contains("persistent://my-property/use/my-ns/my-cached-topic1"));
+
+        CollectorRegistry.defaultRegistry.unregister(liveCounter);
+        p1.close();
+        p2.close();
+    }
+
     /**
      * Hacky parsing of Prometheus text format. Sould be good enough for unit tests
      */
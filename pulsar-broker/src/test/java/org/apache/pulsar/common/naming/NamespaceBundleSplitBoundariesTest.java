@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.naming;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import com.google.common.collect.Range;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.testng.annotations.Test;
+
+public class NamespaceBundleSplitBoundariesTest {
+
+    private static final Range<Long> RANGE = Range.closedOpen(0x00000000L, 0x80000000L);
+
+    @Test
+    public void testRangeEquallyDivided() {
+        assertEquals(NamespaceBundleSplitBoundaries.rangeEquallyDivided(RANGE, 2), new long[] { 0x40000000L });
+        assertEquals(NamespaceBundleSplitBoundaries.rangeEquallyDivided(RANGE, 4),
+                new long[] { 0x20000000L, 0x40000000L, 0x60000000L });
+    }
+
+    @Test
+    public void testNoLoad() {
+        SortedMap<Long, Double> loadByHash = new TreeMap<>();
+        assertNull(NamespaceBundleSplitBoundaries.topicLoadWeighted(RANGE, loadByHash));
+
+        loadByHash.put(0x10000000L, 0.0);
+        loadByHash.put(0x20000000L, 0.0);
+        assertNull(NamespaceBundleSplitBoundaries.topicLoadWeighted(RANGE, loadByHash));
+    }
+
+    @Test
+    public void testWeightedMedian() {
+        SortedMap<Long, Double> loadByHash = new TreeMap<>();
+        loadByHash.put(0x01000000L, 10.0);
+        loadByHash.put(0x02000000L, 20.0);
+        loadByHash.put(0x03000000L, 15.0);
+        loadByHash.put(0x70000000L, 40.0);
+        loadByHash.put(0x78000000L, 5.0);
+
+        // 45 on the left and 45 on the right: the split is in the middle of the gap between the 3rd and 4th topics,
+        // far from the middle of the range
+        assertEquals(NamespaceBundleSplitBoundaries.topicLoadWeighted(RANGE, loadByHash),
+                new long[] { 0x39800000L });
+    }
+
+    @Test
+    public void testIsolateHeavyTopic() {
+        SortedMap<Long, Double> loadByHash = new TreeMap<>();
+        loadByHash.put(0x10000000L, 10.0);
+        loadByHash.put(0x30000000L, 100.0);
+        loadByHash.put(0x50000000L, 10.0);
+
+        assertEquals(NamespaceBundleSplitBoundaries.topicLoadWeighted(RANGE, loadByHash),
+                new long[] { 0x30000000L, 0x30000001L });
+    }
+
+    @Test
+    public void testIsolateHeavyTopicAtRangeEdges() {
+        SortedMap<Long, Double> loadByHash = new TreeMap<>();
+        loadByHash.put(0x00000000L, 100.0);
+        loadByHash.put(0x50000000L, 10.0);
+        assertEquals(NamespaceBundleSplitBoundaries.topicLoadWeighted(RANGE, loadByHash), new long[] { 0x00000001L });
+
+        loadByHash.clear();
+        loadByHash.put(0x10000000L, 10.0);
+        loadByHash.put(0x7fffffffL, 100.0);
+        assertEquals(NamespaceBundleSplitBoundaries.topicLoadWeighted(RANGE, loadByHash), new long[] { 0x7fffffffL });
+
+        // A bundle of a single hash can't be split anymore
+        assertNull(NamespaceBundleSplitBoundaries.topicLoadWeighted(Range.closedOpen(0x7fffffffL, 0x80000000L),
+                loadByHash.tailMap(0x7fffffffL)));
+    }
+}
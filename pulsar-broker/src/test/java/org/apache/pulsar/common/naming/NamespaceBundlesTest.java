@@ -23,6 +23,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
@@ -248,6 +249,32 @@ public class NamespaceBundlesTest {
 
     }
 
+    @Test
+    public void testSplitBundleAtBoundaries() throws Exception {
+        NamespaceName nsname = NamespaceName.get("pulsar/global/ns1");
+        TopicName topicName = TopicName.get("persistent://pulsar/global/ns1/topic-1");
+        NamespaceBundles bundles = factory.getBundles(nsname);
+        NamespaceBundle bundle = bundles.findBundle(topicName);
+
+        // Give the hash 0x40000000 a bundle of its own
+        Pair<NamespaceBundles, List<NamespaceBundle>> splitBundles = factory.splitBundles(bundle,
+                new long[] { 0x40000000L, 0x40000001L });
+        assertNotNull(splitBundles);
+        assertEquals(splitBundles.getRight().size(), 3);
+        validateSplitBundlesRange(bundle, splitBundles.getRight());
+        NamespaceBundle isolatedBundle = splitBundles.getRight().get(1);
+        assertEquals(isolatedBundle.getKeyRange(), Range.range(0x40000000L, BoundType.CLOSED, 0x40000001L,
+                BoundType.OPEN));
+        assertFalse(factory.canSplitBundle(isolatedBundle));
+
+        try {
+            factory.splitBundles(bundle, new long[] { 0x40000001L, 0x40000000L });
+            fail("Should have failed due to unsorted boundaries");
+        } catch (IllegalArgumentException e) {
+            // OK, expected
+        }
+    }
+
     private void validateSplitBundlesRange(NamespaceBundle fullBundle, List<NamespaceBundle> splitBundles) {
         assertNotNull(fullBundle);
         assertNotNull(splitBundles);
@@ -841,6 +841,24 @@ public interface Namespaces {
      */
     void unloadNamespaceBundle(String namespace, String bundle) throws PulsarAdminException;
 
+    /**
+     * Unload namespace bundle, handing it over to the given broker
+     * <p>
+     * The broker currently owning the bundle redirects its producers and consumers to the destination broker, which
+     * takes over the bundle right after it is unloaded. The handoff only happens when enabled in the broker
+     * configuration (<code>loadBalancerBundleHandoffEnabled</code>), otherwise the bundle is just unloaded.
+     *
+     * @param namespace
+     * @param bundle
+     *            range of bundle to unload
+     * @param destinationBroker
+     *            the broker that should take over the bundle, as it appears in the load manager (host:port)
+     * @throws PulsarAdminException
+     *             Unexpected error
+     */
+    void unloadNamespaceBundle(String namespace, String bundle, String destinationBroker)
+            throws PulsarAdminException;
+
     /**
      * Split namespace bundle
      *
@@ -437,9 +437,18 @@ public class NamespacesImpl extends BaseResource implements Namespaces {
 
     @Override
     public void unloadNamespaceBundle(String namespace, String bundle) throws PulsarAdminException {
+        unloadNamespaceBundle(namespace, bundle, null);
+    }
+
+    @Override
+    public void unloadNamespaceBundle(String namespace, String bundle, String destinationBroker)
+            throws PulsarAdminException {
         try {
             NamespaceName ns = NamespaceName.get(namespace);
             WebTarget path = namespacePath(ns, bundle, "unload");
+            if (destinationBroker != null) {
+                path = path.queryParam("destinationBroker", destinationBroker);
+            }
             request(path).put(Entity.entity("", MediaType.APPLICATION_JSON), ErrorData.class);
         } catch (Exception e) {
             throw getApiException(e);
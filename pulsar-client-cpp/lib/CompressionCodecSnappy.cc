@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+#include "CompressionCodecSnappy.h"
+
+#include <snappy.h>
+
+namespace pulsar {
+
+SharedBuffer CompressionCodecSnappy::encode(const SharedBuffer& raw) {
+    // Get the max size of the compressed data and allocate a buffer to hold it
+    size_t maxCompressedSize = snappy::MaxCompressedLength(raw.readableBytes());
+    SharedBuffer compressed = SharedBuffer::allocate(maxCompressedSize);
+
+    size_t compressedSize;
+    snappy::RawCompress(raw.data(), raw.readableBytes(), compressed.mutableData(), &compressedSize);
+
+    compressed.bytesWritten(compressedSize);
+    return compressed;
+}
+
+bool CompressionCodecSnappy::decode(const SharedBuffer& encoded, uint32_t uncompressedSize,
+                                    SharedBuffer& decoded) {
+    size_t length;
+    if (!snappy::GetUncompressedLength(encoded.data(), encoded.readableBytes(), &length) ||
+        length != uncompressedSize) {
+        return false;
+    }
+
+    SharedBuffer decompressed = SharedBuffer::allocate(uncompressedSize);
+    if (!snappy::RawUncompress(encoded.data(), encoded.readableBytes(), decompressed.mutableData())) {
+        return false;
+    }
+
+    decompressed.bytesWritten(uncompressedSize);
+    decoded = decompressed;
+    return true;
+}
+}  // namespace pulsar
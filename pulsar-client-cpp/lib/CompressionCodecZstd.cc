@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+#include "CompressionCodecZstd.h"
+
+#include <zstd.h>
+#include <cstdlib>
+#include "LogUtils.h"
+
+DECLARE_LOG_OBJECT()
+
+namespace pulsar {
+
+CompressionCodecZstd::CompressionCodecZstd(int level) : level_(level) {}
+
+SharedBuffer CompressionCodecZstd::encode(const SharedBuffer& raw) {
+    // Get the max size of the compressed data and allocate a buffer to hold it
+    size_t maxCompressedSize = ZSTD_compressBound(raw.readableBytes());
+    SharedBuffer compressed = SharedBuffer::allocate(maxCompressedSize);
+
+    size_t compressedSize =
+        ZSTD_compress(compressed.mutableData(), maxCompressedSize, raw.data(), raw.readableBytes(), level_);
+    if (ZSTD_isError(compressedSize)) {
+        LOG_ERROR("Failed to compress buffer: " << ZSTD_getErrorName(compressedSize));
+        abort();
+    }
+
+    compressed.bytesWritten(compressedSize);
+    return compressed;
+}
+
+bool CompressionCodecZstd::decode(const SharedBuffer& encoded, uint32_t uncompressedSize,
+                                  SharedBuffer& decoded) {
+    SharedBuffer decompressed = SharedBuffer::allocate(uncompressedSize);
+
+    size_t result = ZSTD_decompress(decompressed.mutableData(), uncompressedSize, encoded.data(),
+                                    encoded.readableBytes());
+    if (ZSTD_isError(result) || result != uncompressedSize) {
+        LOG_ERROR("Failed to decompress zstd buffer: "
+                  << (ZSTD_isError(result) ? ZSTD_getErrorName(result) : "invalid uncompressed size")
+                  << " -- compressed size: " << encoded.readableBytes()
+                  << " -- uncompressed size: " << uncompressedSize);
+        return false;
+    }
+
+    decompressed.bytesWritten(uncompressedSize);
+    decoded = decompressed;
+    return true;
+}
+}  // namespace pulsar
@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+#ifndef LIB_COMPRESSIONCODECZSTD_H_
+#define LIB_COMPRESSIONCODECZSTD_H_
+
+#include "CompressionCodec.h"
+
+// Make symbol visible to unit tests
+#pragma GCC visibility push(default)
+
+namespace pulsar {
+
+class CompressionCodecZstd : public CompressionCodec {
+   public:
+    // Default level of the zstd library, same as the Java client
+    static const int DEFAULT_LEVEL = 3;
+
+    CompressionCodecZstd(int level = DEFAULT_LEVEL);
+
+    SharedBuffer encode(const SharedBuffer& raw);
+
+    bool decode(const SharedBuffer& encoded, uint32_t uncompressedSize, SharedBuffer& decoded);
+
+   private:
+    int level_;
+};
+
+}  // namespace pulsar
+
+#pragma GCC visibility pop
+
+#endif /* LIB_COMPRESSIONCODECZSTD_H_ */
@@ -32,6 +32,8 @@ void export_enums() {
             .value("NONE", CompressionNone) // Don't use 'None' since it's a keyword in py3
             .value("LZ4", CompressionLZ4)
             .value("ZLib", CompressionZLib)
+            .value("ZSTD", CompressionZSTD)
+            .value("SNAPPY", CompressionSNAPPY)
             ;
 
     enum_<ConsumerType>("ConsumerType")
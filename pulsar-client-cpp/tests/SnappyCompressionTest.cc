@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+#include <gtest/gtest.h>
+#include <lib/CompressionCodecSnappy.h>
+
+using namespace pulsar;
+
+TEST(SnappyCompressionTest, compressDecompress) {
+    CompressionCodecSnappy codec;
+
+    std::string payload = "Payload to compress, payload to compress, payload to compress";
+    SharedBuffer compressed = codec.encode(SharedBuffer::copy(payload.c_str(), payload.size()));
+    ASSERT_LT(compressed.readableBytes(), payload.size());
+
+    SharedBuffer uncompressed;
+    bool res = codec.decode(compressed, payload.size(), uncompressed);
+    ASSERT_TRUE(res);
+    ASSERT_EQ(payload, std::string(uncompressed.data(), uncompressed.readableBytes()));
+}
+
+TEST(SnappyCompressionTest, decodeWrongSize) {
+    CompressionCodecSnappy codec;
+
+    std::string payload = "Payload to compress";
+    SharedBuffer compressed = codec.encode(SharedBuffer::copy(payload.c_str(), payload.size()));
+
+    SharedBuffer uncompressed;
+    ASSERT_FALSE(codec.decode(compressed, payload.size() + 1, uncompressed));
+}
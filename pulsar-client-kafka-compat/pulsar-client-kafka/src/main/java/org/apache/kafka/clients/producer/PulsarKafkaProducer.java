@@ -125,6 +125,8 @@ public class PulsarKafkaProducer<K, V> implements Producer<K, V> {
             pulsarProducerBuilder.compressionType(CompressionType.ZLIB);
         } else if ("lz4".equals(compressionType)) {
             pulsarProducerBuilder.compressionType(CompressionType.LZ4);
+        } else if ("snappy".equals(compressionType)) {
+            pulsarProducerBuilder.compressionType(CompressionType.SNAPPY);
         }
 
 
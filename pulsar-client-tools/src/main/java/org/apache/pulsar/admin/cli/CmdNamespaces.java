@@ -404,13 +404,19 @@ public class CmdNamespaces extends CmdBase {
         @Parameter(names = { "--bundle", "-b" }, description = "{start-boundary}_{end-boundary}\n")
         private String bundle;
 
+        @Parameter(names = { "--destinationBroker", "-d" },
+                description = "Broker to hand the bundle over to (host:port), only used with --bundle\n")
+        private String destinationBroker;
+
         @Override
         void run() throws PulsarAdminException {
             String namespace = validateNamespace(params);
             if (bundle == null) {
                 admin.namespaces().unload(namespace);
-            } else {
+            } else if (destinationBroker == null) {
                 admin.namespaces().unloadNamespaceBundle(namespace, bundle);
+            } else {
+                admin.namespaces().unloadNamespaceBundle(namespace, bundle, destinationBroker);
             }
         }
     }
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.pulsar.client.api.PulsarClientException.UnsupportedAuthenticationException;
+import org.apache.pulsar.common.util.netty.TransportProfile;
 
 /**
  * Builder interface that is used to construct a {@link PulsarClient} instance.
@@ -228,6 +229,17 @@ public interface ClientBuilder extends Cloneable {
      */
     ClientBuilder enableTcpNoDelay(boolean enableTcpNoDelay);
 
+    /**
+     * Configure the Netty options of the connections to the brokers, see {@link TransportProfile}.
+     * <p>
+     * The <code>useTcpNoDelay</code> flag still applies on top of the profile.
+     * <p>
+     * Default value is {@link TransportProfile#Default}, which keeps the Netty defaults
+     *
+     * @param transportProfile
+     */
+    ClientBuilder transportProfile(TransportProfile transportProfile);
+
     /**
      * Configure whether to use TLS encryption on the connection
      * <i>(default: true if serviceUrl starts with "pulsar+ssl://", false otherwise)</i>
@@ -26,5 +26,11 @@ public enum CompressionType {
     LZ4,
 
     /** Compress with ZLib */
-    ZLIB
+    ZLIB,
+
+    /** Compress with Zstandard. Better compression than LZ4 at a similar speed, decompression faster than ZLib */
+    ZSTD,
+
+    /** Compress with Snappy */
+    SNAPPY
 }
@@ -214,7 +214,10 @@ public class ProducerConfiguration implements Serializable {
      * <ul>
      * <li><code>CompressionType.LZ4</code></li>
      * <li><code>CompressionType.ZLIB</code></li>
+     * <li><code>CompressionType.ZSTD</code></li>
+     * <li><code>CompressionType.SNAPPY</code></li>
      * </ul>
+     * The consumers of the topic need to support the compression type, ZSTD and SNAPPY require Pulsar 2.3.0 or later.
      *
      * @param compressionType
      * @return
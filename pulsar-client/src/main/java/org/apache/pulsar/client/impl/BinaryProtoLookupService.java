@@ -27,6 +27,7 @@ import io.netty.buffer.ByteBuf;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -41,10 +42,12 @@ import org.apache.pulsar.common.api.Commands;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetTopicsOfNamespace.Mode;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.LookupType;
+import org.apache.pulsar.common.api.proto.PulsarApi.ProtocolVersion;
 import org.apache.pulsar.common.naming.NamespaceName;
 import org.apache.pulsar.common.naming.TopicName;
 import org.apache.pulsar.common.partition.PartitionedTopicMetadata;
 import org.apache.pulsar.common.schema.SchemaInfo;
+import org.apache.pulsar.common.util.FutureUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +57,11 @@ public class BinaryProtoLookupService implements LookupService {
     protected volatile InetSocketAddress serviceAddress;
     private final boolean useTls;
     private final ExecutorService executor;
+    private final LookupBatcher lookupBatcher = new LookupBatcher(false);
+    private final LookupBatcher partitionMetadataBatcher = new LookupBatcher(true);
+
+    // Maximum number of topics resolved by a single batched lookup
+    static final int MAX_LOOKUP_BATCH_SIZE = 1000;
 
     public BinaryProtoLookupService(PulsarClientImpl client, String serviceUrl, boolean useTls, ExecutorService executor)
             throws PulsarClientException {
@@ -86,7 +94,9 @@ public class BinaryProtoLookupService implements LookupService {
      * @return broker-socket-address that serves given topic
      */
     public CompletableFuture<Pair<InetSocketAddress, InetSocketAddress>> getBroker(TopicName topicName) {
-        return findBroker(serviceAddress, false, topicName);
+        CompletableFuture<Pair<InetSocketAddress, InetSocketAddress>> addressFuture = new CompletableFuture<>();
+        handleLookupResult(lookupBatcher.lookup(topicName), topicName, addressFuture);
+        return addressFuture;
     }
 
     /**
@@ -94,7 +104,9 @@ public class BinaryProtoLookupService implements LookupService {
      *
      */
     public CompletableFuture<PartitionedTopicMetadata> getPartitionedTopicMetadata(TopicName topicName) {
-        return getPartitionedTopicMetadata(serviceAddress, topicName);
+        CompletableFuture<PartitionedTopicMetadata> partitionFuture = new CompletableFuture<PartitionedTopicMetadata>();
+        handlePartitionResult(partitionMetadataBatcher.lookup(topicName), topicName, partitionFuture);
+        return partitionFuture;
     }
 
     private CompletableFuture<Pair<InetSocketAddress, InetSocketAddress>> findBroker(InetSocketAddress socketAddress,
@@ -104,55 +116,7 @@ public class BinaryProtoLookupService implements LookupService {
         client.getCnxPool().getConnection(socketAddress).thenAccept(clientCnx -> {
             long requestId = client.newRequestId();
             ByteBuf request = Commands.newLookup(topicName.toString(), authoritative, requestId);
-            clientCnx.newLookup(request, requestId).thenAccept(lookupDataResult -> {
-                URI uri = null;
-                try {
-                    // (1) build response broker-address
-                    if (useTls) {
-                        uri = new URI(lookupDataResult.brokerUrlTls);
-                    } else {
-                        String serviceUrl = lookupDataResult.brokerUrl;
-                        uri = new URI(serviceUrl);
-                    }
-
-                    InetSocketAddress responseBrokerAddress = InetSocketAddress.createUnresolved(uri.getHost(), uri.getPort());
-
-                    // (2) redirect to given address if response is: redirect
-                    if (lookupDataResult.redirect) {
-                        findBroker(responseBrokerAddress, lookupDataResult.authoritative, topicName)
-                                .thenAccept(addressPair -> {
-                                    addressFuture.complete(addressPair);
-                                }).exceptionally((lookupException) -> {
-                                    // lookup failed
-                                    log.warn("[{}] lookup failed : {}", topicName.toString(),
-                                            lookupException.getMessage(), lookupException);
-                                    addressFuture.completeExceptionally(lookupException);
-                                    return null;
-                                });
-                    } else {
-                        // (3) received correct broker to connect
-                        if (lookupDataResult.proxyThroughServiceUrl) {
-                            // Connect through proxy
-                            addressFuture.complete(Pair.of(responseBrokerAddress, serviceAddress));
-                        } else {
-                            // Normal result with direct connection to broker
-                            addressFuture.complete(Pair.of(responseBrokerAddress, responseBrokerAddress));
-                        }
-                    }
-
-                } catch (Exception parseUrlException) {
-                    // Failed to parse url
-                    log.warn("[{}] invalid url {} : {}", topicName.toString(), uri, parseUrlException.getMessage(),
-                            parseUrlException);
-                    addressFuture.completeExceptionally(parseUrlException);
-                }
-            }).exceptionally((sendException) -> {
-                // lookup failed
-                log.warn("[{}] failed to send lookup request : {}", topicName.toString(), sendException.getMessage(),
-                        sendException instanceof ClosedChannelException ? null : sendException);
-                addressFuture.completeExceptionally(sendException);
-                return null;
-            });
+            handleLookupResult(clientCnx.newLookup(request, requestId), topicName, addressFuture);
         }).exceptionally(connectionException -> {
             addressFuture.completeExceptionally(connectionException);
             return null;
@@ -160,34 +124,76 @@ public class BinaryProtoLookupService implements LookupService {
         return addressFuture;
     }
 
-    private CompletableFuture<PartitionedTopicMetadata> getPartitionedTopicMetadata(InetSocketAddress socketAddress,
-            TopicName topicName) {
-
-        CompletableFuture<PartitionedTopicMetadata> partitionFuture = new CompletableFuture<PartitionedTopicMetadata>();
+    private void handleLookupResult(CompletableFuture<LookupDataResult> lookupFuture, TopicName topicName,
+            CompletableFuture<Pair<InetSocketAddress, InetSocketAddress>> addressFuture) {
+        lookupFuture.thenAccept(lookupDataResult -> {
+            URI uri = null;
+            try {
+                // (1) build response broker-address
+                if (useTls) {
+                    uri = new URI(lookupDataResult.brokerUrlTls);
+                } else {
+                    String serviceUrl = lookupDataResult.brokerUrl;
+                    uri = new URI(serviceUrl);
+                }
 
-        client.getCnxPool().getConnection(socketAddress).thenAccept(clientCnx -> {
-            long requestId = client.newRequestId();
-            ByteBuf request = Commands.newPartitionMetadataRequest(topicName.toString(), requestId);
-            clientCnx.newLookup(request, requestId).thenAccept(lookupDataResult -> {
-                try {
-                    partitionFuture.complete(new PartitionedTopicMetadata(lookupDataResult.partitions));
-                } catch (Exception e) {
-                    partitionFuture.completeExceptionally(new PulsarClientException.LookupException(
-                            format("Failed to parse partition-response redirect=%s , partitions with %s",
-                                    lookupDataResult.redirect, lookupDataResult.partitions, e.getMessage())));
+                InetSocketAddress responseBrokerAddress = InetSocketAddress.createUnresolved(uri.getHost(),
+                        uri.getPort());
+
+                // (2) redirect to given address if response is: redirect
+                if (lookupDataResult.redirect) {
+                    findBroker(responseBrokerAddress, lookupDataResult.authoritative, topicName)
+                            .thenAccept(addressPair -> {
+                                addressFuture.complete(addressPair);
+                            }).exceptionally((lookupException) -> {
+                                // lookup failed
+                                log.warn("[{}] lookup failed : {}", topicName.toString(),
+                                        lookupException.getMessage(), lookupException);
+                                addressFuture.completeExceptionally(lookupException);
+                                return null;
+                            });
+                } else {
+                    // (3) received correct broker to connect
+                    if (lookupDataResult.proxyThroughServiceUrl) {
+                        // Connect through proxy
+                        addressFuture.complete(Pair.of(responseBrokerAddress, serviceAddress));
+                    } else {
+                        // Normal result with direct connection to broker
+                        addressFuture.complete(Pair.of(responseBrokerAddress, responseBrokerAddress));
+                    }
                 }
-            }).exceptionally((e) -> {
-                log.warn("[{}] failed to get Partitioned metadata : {}", topicName.toString(),
-                        e.getCause().getMessage(), e);
-                partitionFuture.completeExceptionally(e);
-                return null;
-            });
-        }).exceptionally(connectionException -> {
-            partitionFuture.completeExceptionally(connectionException);
+
+            } catch (Exception parseUrlException) {
+                // Failed to parse url
+                log.warn("[{}] invalid url {} : {}", topicName.toString(), uri, parseUrlException.getMessage(),
+                        parseUrlException);
+                addressFuture.completeExceptionally(parseUrlException);
+            }
+        }).exceptionally((sendException) -> {
+            // lookup failed
+            log.warn("[{}] failed to send lookup request : {}", topicName.toString(), sendException.getMessage(),
+                    sendException instanceof ClosedChannelException ? null : sendException);
+            addressFuture.completeExceptionally(sendException);
             return null;
         });
+    }
 
-        return partitionFuture;
+    private void handlePartitionResult(CompletableFuture<LookupDataResult> lookupFuture, TopicName topicName,
+            CompletableFuture<PartitionedTopicMetadata> partitionFuture) {
+        lookupFuture.thenAccept(lookupDataResult -> {
+            try {
+                partitionFuture.complete(new PartitionedTopicMetadata(lookupDataResult.partitions));
+            } catch (Exception e) {
+                partitionFuture.completeExceptionally(new PulsarClientException.LookupException(
+                        format("Failed to parse partition-response redirect=%s , partitions with %s",
+                                lookupDataResult.redirect, lookupDataResult.partitions, e.getMessage())));
+            }
+        }).exceptionally((e) -> {
+            log.warn("[{}] failed to get Partitioned metadata : {}", topicName.toString(),
+                    e.getCause().getMessage(), e);
+            partitionFuture.completeExceptionally(e);
+            return null;
+        });
     }
 
     @Override
@@ -264,6 +270,93 @@ public class BinaryProtoLookupService implements LookupService {
         });
     }
 
+    /**
+     * Batches the first-hop lookups sent to the service url.
+     *
+     * A batch is sent as soon as the previous one has completed, with all the lookups issued in the meantime, so that
+     * a single lookup is sent right away while a burst of lookups (e.g. when subscribing to a partitioned topic or to a
+     * topics pattern) only costs a few round trips. Redirects are followed with single-topic lookups. Lookups are sent
+     * one by one to the brokers and proxies which do not support batched lookups.
+     */
+    private class LookupBatcher {
+        private final boolean partitionedMetadata;
+        private final List<Pair<TopicName, CompletableFuture<LookupDataResult>>> pendingLookups = new ArrayList<>();
+        private boolean batchInFlight = false;
+
+        LookupBatcher(boolean partitionedMetadata) {
+            this.partitionedMetadata = partitionedMetadata;
+        }
+
+        CompletableFuture<LookupDataResult> lookup(TopicName topicName) {
+            CompletableFuture<LookupDataResult> future = new CompletableFuture<>();
+            boolean sendBatch;
+            synchronized (this) {
+                pendingLookups.add(Pair.of(topicName, future));
+                sendBatch = !batchInFlight;
+                batchInFlight = true;
+            }
+            if (sendBatch) {
+                sendNextBatch();
+            }
+            return future;
+        }
+
+        private void sendNextBatch() {
+            final List<Pair<TopicName, CompletableFuture<LookupDataResult>>> batch;
+            synchronized (this) {
+                if (pendingLookups.isEmpty()) {
+                    batchInFlight = false;
+                    return;
+                }
+                List<Pair<TopicName, CompletableFuture<LookupDataResult>>> head = pendingLookups.subList(0,
+                        Math.min(pendingLookups.size(), MAX_LOOKUP_BATCH_SIZE));
+                batch = new ArrayList<>(head);
+                head.clear();
+            }
+
+            client.getCnxPool().getConnection(serviceAddress).thenAccept(clientCnx -> {
+                if (clientCnx.getRemoteEndpointProtocolVersion() < ProtocolVersion.v14.getNumber()) {
+                    // The lookups are throttled by the connection
+                    batch.forEach(lookup -> sendLookup(clientCnx, lookup.getLeft(), lookup.getRight()));
+                    sendNextBatch();
+                    return;
+                }
+
+                long requestId = client.newRequestId();
+                List<String> topics = new ArrayList<>(batch.size());
+                List<CompletableFuture<LookupDataResult>> futures = new ArrayList<>(batch.size());
+                batch.forEach(lookup -> {
+                    topics.add(lookup.getLeft().toString());
+                    futures.add(lookup.getRight());
+                });
+                if (log.isDebugEnabled()) {
+                    log.debug("[{}] Sending batched lookup {} for {} topics", serviceAddress, requestId,
+                            topics.size());
+                }
+                clientCnx.newLookupTopics(Commands.newLookupTopics(topics, partitionedMetadata, requestId), requestId,
+                        futures);
+                FutureUtil.waitForAll(futures).whenComplete((ignore, ex) -> sendNextBatch());
+            }).exceptionally(connectionException -> {
+                batch.forEach(lookup -> lookup.getRight().completeExceptionally(connectionException));
+                sendNextBatch();
+                return null;
+            });
+        }
+
+        private void sendLookup(ClientCnx clientCnx, TopicName topicName, CompletableFuture<LookupDataResult> future) {
+            long requestId = client.newRequestId();
+            ByteBuf request = partitionedMetadata
+                    ? Commands.newPartitionMetadataRequest(topicName.toString(), requestId)
+                    : Commands.newLookup(topicName.toString(), false, requestId);
+            clientCnx.newLookup(request, requestId).whenComplete((lookupDataResult, ex) -> {
+                if (ex != null) {
+                    future.completeExceptionally(ex);
+                } else {
+                    future.complete(lookupDataResult);
+                }
+            });
+        }
+    }
 
     @Override
     public void close() throws Exception {
@@ -31,6 +31,7 @@ import org.apache.pulsar.client.api.PulsarClientException.UnsupportedAuthenticat
 import org.apache.pulsar.client.api.ServiceUrlProvider;
 import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
 import org.apache.pulsar.client.impl.conf.ConfigurationDataUtils;
+import org.apache.pulsar.common.util.netty.TransportProfile;
 
 public class ClientBuilderImpl implements ClientBuilder {
     ClientConfigurationData conf;
@@ -135,6 +136,12 @@ public class ClientBuilderImpl implements ClientBuilder {
         return this;
     }
 
+    @Override
+    public ClientBuilder transportProfile(TransportProfile transportProfile) {
+        conf.setTransportProfile(transportProfile);
+        return this;
+    }
+
     @Override
     public ClientBuilder enableTls(boolean useTls) {
         conf.setUseTls(useTls);
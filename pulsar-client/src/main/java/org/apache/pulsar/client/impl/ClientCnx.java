@@ -35,6 +35,8 @@ import io.netty.util.concurrent.Promise;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.channels.ClosedChannelException;
 import java.util.List;
 import java.util.Optional;
@@ -46,6 +48,7 @@ import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import javax.net.ssl.SSLSession;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.pulsar.client.api.Authentication;
@@ -64,6 +67,7 @@ import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetLastMessageIdRespo
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetSchemaResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetTopicsOfNamespaceResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandMessage;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandProducerSuccess;
@@ -87,6 +91,8 @@ public class ClientCnx extends PulsarHandler {
         new ConcurrentLongHashMap<>(16, 1);
     private final ConcurrentLongHashMap<CompletableFuture<LookupDataResult>> pendingLookupRequests =
         new ConcurrentLongHashMap<>(16, 1);
+    private final ConcurrentLongHashMap<List<CompletableFuture<LookupDataResult>>> pendingLookupTopicsRequests =
+        new ConcurrentLongHashMap<>(16, 1);
     // LookupRequests that waiting in client side.
     private final BlockingQueue<Pair<Long, Pair<ByteBuf, CompletableFuture<LookupDataResult>>>> waitingLookupRequests;
     private final ConcurrentLongHashMap<CompletableFuture<MessageIdData>> pendingGetLastMessageIdRequests =
@@ -117,6 +123,7 @@ public class ClientCnx extends PulsarHandler {
     // Remote hostName with which client is connected
     private String remoteHostName = null;
     private boolean isTlsHostnameVerificationEnable;
+    private final boolean useTls;
     private DefaultHostnameVerifier hostnameVerifier;
 
     enum State {
@@ -137,6 +144,7 @@ public class ClientCnx extends PulsarHandler {
         this.eventLoopGroup = eventLoopGroup;
         this.maxNumberOfRejectedRequestPerConnection = conf.getMaxNumberOfRejectedRequestPerConnection();
         this.operationTimeoutMs = conf.getOperationTimeoutMs();
+        this.useTls = conf.isUseTls();
         this.state = State.None;
         this.isTlsHostnameVerificationEnable = conf.isTlsHostnameVerificationEnable();
         this.hostnameVerifier = new DefaultHostnameVerifier();
@@ -192,6 +200,8 @@ public class ClientCnx extends PulsarHandler {
         pendingRequests.forEach((key, future) -> future.completeExceptionally(e));
         pendingLookupRequests.forEach((key, future) -> future.completeExceptionally(e));
         waitingLookupRequests.forEach(pair -> pair.getRight().getRight().completeExceptionally(e));
+        pendingLookupTopicsRequests
+                .forEach((key, futures) -> futures.forEach(future -> future.completeExceptionally(e)));
         pendingGetLastMessageIdRequests.forEach((key, future) -> future.completeExceptionally(e));
         pendingGetTopicsRequests.forEach((key, future) -> future.completeExceptionally(e));
         pendingGetSchemaRequests.forEach((key, future) -> future.completeExceptionally(e));
@@ -203,6 +213,7 @@ public class ClientCnx extends PulsarHandler {
         pendingRequests.clear();
         pendingLookupRequests.clear();
         waitingLookupRequests.clear();
+        pendingLookupTopicsRequests.clear();
         pendingGetLastMessageIdRequests.clear();
         pendingGetTopicsRequests.clear();
 
@@ -372,22 +383,26 @@ public class ClientCnx extends PulsarHandler {
                 }
                 return;
             }
-            // Complete future with exception if : Result.response=fail/null
-            if (!lookupResult.hasResponse()
-                    || CommandLookupTopicResponse.LookupType.Failed.equals(lookupResult.getResponse())) {
-                if (lookupResult.hasError()) {
-                    checkServerError(lookupResult.getError(), lookupResult.getMessage());
-                    requestFuture.completeExceptionally(
-                            getPulsarClientException(lookupResult.getError(), lookupResult.getMessage()));
-                } else {
-                    requestFuture
-                            .completeExceptionally(new PulsarClientException.LookupException("Empty lookup response"));
-                }
+            completeLookup(requestFuture, lookupResult);
+        } else {
+            log.warn("{} Received unknown request id from server: {}", ctx.channel(), lookupResult.getRequestId());
+        }
+    }
+
+    private void completeLookup(CompletableFuture<LookupDataResult> requestFuture,
+            CommandLookupTopicResponse lookupResult) {
+        // Complete future with exception if : Result.response=fail/null
+        if (!lookupResult.hasResponse()
+                || CommandLookupTopicResponse.LookupType.Failed.equals(lookupResult.getResponse())) {
+            if (lookupResult.hasError()) {
+                checkServerError(lookupResult.getError(), lookupResult.getMessage());
+                requestFuture.completeExceptionally(
+                        getPulsarClientException(lookupResult.getError(), lookupResult.getMessage()));
             } else {
-                requestFuture.complete(new LookupDataResult(lookupResult));
+                requestFuture.completeExceptionally(new PulsarClientException.LookupException("Empty lookup response"));
             }
         } else {
-            log.warn("{} Received unknown request id from server: {}", ctx.channel(), lookupResult.getRequestId());
+            requestFuture.complete(new LookupDataResult(lookupResult));
         }
     }
 
@@ -407,23 +422,60 @@ public class ClientCnx extends PulsarHandler {
                 }
                 return;
             }
-            // Complete future with exception if : Result.response=fail/null
-            if (!lookupResult.hasResponse()
-                    || CommandPartitionedTopicMetadataResponse.LookupType.Failed.equals(lookupResult.getResponse())) {
-                if (lookupResult.hasError()) {
-                    checkServerError(lookupResult.getError(), lookupResult.getMessage());
-                    requestFuture.completeExceptionally(
-                            getPulsarClientException(lookupResult.getError(), lookupResult.getMessage()));
-                } else {
-                    requestFuture
-                            .completeExceptionally(new PulsarClientException.LookupException("Empty lookup response"));
-                }
+            completePartitionLookup(requestFuture, lookupResult);
+        } else {
+            log.warn("{} Received unknown request id from server: {}", ctx.channel(), lookupResult.getRequestId());
+        }
+    }
+
+    private void completePartitionLookup(CompletableFuture<LookupDataResult> requestFuture,
+            CommandPartitionedTopicMetadataResponse lookupResult) {
+        // Complete future with exception if : Result.response=fail/null
+        if (!lookupResult.hasResponse()
+                || CommandPartitionedTopicMetadataResponse.LookupType.Failed.equals(lookupResult.getResponse())) {
+            if (lookupResult.hasError()) {
+                checkServerError(lookupResult.getError(), lookupResult.getMessage());
+                requestFuture.completeExceptionally(
+                        getPulsarClientException(lookupResult.getError(), lookupResult.getMessage()));
             } else {
-                // return LookupDataResult when Result.response = success/redirect
-                requestFuture.complete(new LookupDataResult(lookupResult.getPartitions()));
+                requestFuture.completeExceptionally(new PulsarClientException.LookupException("Empty lookup response"));
             }
         } else {
-            log.warn("{} Received unknown request id from server: {}", ctx.channel(), lookupResult.getRequestId());
+            // return LookupDataResult when Result.response = success/redirect
+            requestFuture.complete(new LookupDataResult(lookupResult.getPartitions()));
+        }
+    }
+
+    @Override
+    protected void handleLookupTopicsResponse(CommandLookupTopicsResponse lookupTopicsResult) {
+        long requestId = lookupTopicsResult.getRequestId();
+        if (log.isDebugEnabled()) {
+            log.debug("{} Received batched lookup response {}: {} lookups, {} partition lookups", ctx.channel(),
+                    requestId, lookupTopicsResult.getLookupResponsesCount(),
+                    lookupTopicsResult.getPartitionMetadataResponsesCount());
+        }
+
+        List<CompletableFuture<LookupDataResult>> requestFutures = pendingLookupTopicsRequests.remove(requestId);
+        if (requestFutures == null) {
+            log.warn("{} Received unknown request id from server: {}", ctx.channel(), requestId);
+            return;
+        }
+
+        List<CommandLookupTopicResponse> lookupResults = lookupTopicsResult.getLookupResponsesList();
+        List<CommandPartitionedTopicMetadataResponse> partitionResults = lookupTopicsResult
+                .getPartitionMetadataResponsesList();
+        for (int i = 0; i < requestFutures.size(); i++) {
+            CompletableFuture<LookupDataResult> requestFuture = requestFutures.get(i);
+            if (requestFuture.isDone()) {
+                continue;
+            }
+            if (i < lookupResults.size()) {
+                completeLookup(requestFuture, lookupResults.get(i));
+            } else if (i < partitionResults.size()) {
+                completePartitionLookup(requestFuture, partitionResults.get(i));
+            } else {
+                requestFuture.completeExceptionally(new PulsarClientException.LookupException("Empty lookup response"));
+            }
         }
     }
 
@@ -524,7 +576,10 @@ public class ClientCnx extends PulsarHandler {
         final long producerId = closeProducer.getProducerId();
         ProducerImpl<?> producer = producers.get(producerId);
         if (producer != null) {
-            producer.connectionClosed(this);
+            producer.connectionClosed(this, getAssignedBrokerAddress(
+                    closeProducer.hasAssignedBrokerServiceUrl() ? closeProducer.getAssignedBrokerServiceUrl() : null,
+                    closeProducer.hasAssignedBrokerServiceUrlTls() ? closeProducer.getAssignedBrokerServiceUrlTls()
+                            : null));
         } else {
             log.warn("Producer with id {} not found while closing producer ", producerId);
         }
@@ -536,12 +591,42 @@ public class ClientCnx extends PulsarHandler {
         final long consumerId = closeConsumer.getConsumerId();
         ConsumerImpl<?> consumer = consumers.get(consumerId);
         if (consumer != null) {
-            consumer.connectionClosed(this);
+            consumer.connectionClosed(this, getAssignedBrokerAddress(
+                    closeConsumer.hasAssignedBrokerServiceUrl() ? closeConsumer.getAssignedBrokerServiceUrl() : null,
+                    closeConsumer.hasAssignedBrokerServiceUrlTls() ? closeConsumer.getAssignedBrokerServiceUrlTls()
+                            : null));
         } else {
             log.warn("Consumer with id {} not found while closing consumer ", consumerId);
         }
     }
 
+    /**
+     * When the broker hands a topic over to another broker, it tells the client where to reconnect.
+     *
+     * @return the logical and physical addresses to use for the next connection, if the new broker is known
+     */
+    private Optional<Pair<InetSocketAddress, InetSocketAddress>> getAssignedBrokerAddress(String serviceUrl,
+            String serviceUrlTls) {
+        String assignedUrl = useTls ? serviceUrlTls : serviceUrl;
+        if (StringUtils.isBlank(assignedUrl)) {
+            return Optional.empty();
+        }
+
+        try {
+            URI uri = new URI(assignedUrl);
+            InetSocketAddress brokerAddress = InetSocketAddress.createUnresolved(uri.getHost(), uri.getPort());
+            if (proxyToTargetBrokerAddress != null && remoteAddress instanceof InetSocketAddress) {
+                // Keep going through the same proxy
+                return Optional.of(Pair.of(brokerAddress, (InetSocketAddress) remoteAddress));
+            } else {
+                return Optional.of(Pair.of(brokerAddress, brokerAddress));
+            }
+        } catch (URISyntaxException e) {
+            log.warn("[{}] Invalid assigned broker url {}: {}", remoteAddress, assignedUrl, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     @Override
     protected boolean isHandshakeCompleted() {
         return state == State.Ready;
@@ -577,6 +662,32 @@ public class ClientCnx extends PulsarHandler {
         return future;
     }
 
+    /**
+     * Send a batched lookup, whose responses complete the given futures in order.
+     *
+     * The batched lookups are not subject to the lookup request limits of the connection, since each lookup service
+     * only sends one batch at a time.
+     */
+    public void newLookupTopics(ByteBuf request, long requestId, List<CompletableFuture<LookupDataResult>> futures) {
+        pendingLookupTopicsRequests.put(requestId, futures);
+        eventLoopGroup.schedule(() -> {
+            if (pendingLookupTopicsRequests.remove(requestId) != null) {
+                TimeoutException e = new TimeoutException(
+                        requestId + " batched lookup request timedout after ms " + operationTimeoutMs);
+                futures.forEach(future -> future.completeExceptionally(e));
+            }
+        }, operationTimeoutMs, TimeUnit.MILLISECONDS);
+        ctx.writeAndFlush(request).addListener(writeFuture -> {
+            if (!writeFuture.isSuccess()) {
+                log.warn("{} Failed to send request {} to broker: {}", ctx.channel(), requestId,
+                        writeFuture.cause().getMessage());
+                if (pendingLookupTopicsRequests.remove(requestId) != null) {
+                    futures.forEach(future -> future.completeExceptionally(writeFuture.cause()));
+                }
+            }
+        });
+    }
+
     public CompletableFuture<List<String>> newGetTopicsOfNamespace(ByteBuf request, long requestId) {
         CompletableFuture<List<String>> future = new CompletableFuture<>();
 
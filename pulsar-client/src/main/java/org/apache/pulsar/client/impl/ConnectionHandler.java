@@ -18,8 +18,12 @@
  */
 package org.apache.pulsar.client.impl;
 
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.impl.HandlerState.State;
 import org.slf4j.Logger;
@@ -49,6 +53,14 @@ class ConnectionHandler {
     }
 
     protected void grabCnx() {
+        grabCnx(Optional.empty());
+    }
+
+    /**
+     * Get a connection for the topic. When the address of the broker serving the topic is already known (logical and
+     * physical addresses), the lookup is skipped.
+     */
+    private void grabCnx(Optional<Pair<InetSocketAddress, InetSocketAddress>> brokerAddress) {
         if (CLIENT_CNX_UPDATER.get(this) != null) {
             log.warn("[{}] [{}] Client cnx already set, ignoring reconnection request", state.topic, state.getHandlerName());
             return;
@@ -61,8 +73,11 @@ class ConnectionHandler {
         }
 
         try {
-            state.client.getConnection(state.topic) //
-                    .thenAccept(cnx -> connection.connectionOpened(cnx)) //
+            CompletableFuture<ClientCnx> cnxFuture = brokerAddress.isPresent()
+                    ? state.client.getCnxPool().getConnection(brokerAddress.get().getLeft(),
+                            brokerAddress.get().getRight())
+                    : state.client.getConnection(state.topic);
+            cnxFuture.thenAccept(cnx -> connection.connectionOpened(cnx)) //
                     .exceptionally(this::handleConnectionError);
         } catch (Throwable t) {
             log.warn("[{}] [{}] Exception thrown while getting connection: ", state.topic, state.getHandlerName(), t);
@@ -99,6 +114,14 @@ class ConnectionHandler {
     }
 
     protected void connectionClosed(ClientCnx cnx) {
+        connectionClosed(cnx, Optional.empty());
+    }
+
+    /**
+     * Reconnect after the broker closed the producer or consumer. When the broker handed the topic over to another
+     * broker, it provides its address, which is used for the next connection attempt instead of doing a lookup.
+     */
+    protected void connectionClosed(ClientCnx cnx, Optional<Pair<InetSocketAddress, InetSocketAddress>> assignedBroker) {
         if (CLIENT_CNX_UPDATER.compareAndSet(this, cnx, null)) {
             if (!isValidStateForReconnection()) {
                 log.info("[{}] [{}] Ignoring reconnection request (state: {})", state.topic, state.getHandlerName(), state.getState());
@@ -110,7 +133,7 @@ class ConnectionHandler {
                     delayMs / 1000.0);
             state.client.timer().newTimeout(timeout -> {
                 log.info("[{}] [{}] Reconnecting after timeout", state.topic, state.getHandlerName());
-                grabCnx();
+                grabCnx(assignedBroker);
             }, delayMs, TimeUnit.MILLISECONDS);
         }
     }
@@ -41,7 +41,7 @@ import org.apache.pulsar.client.util.ConsumerName;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck.AckType;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandSubscribe.SubType;
 import org.apache.pulsar.common.util.FutureUtil;
-import org.apache.pulsar.common.util.collections.GrowableArrayBlockingQueue;
+import org.apache.pulsar.common.util.collections.GrowableMpscArrayBlockingQueue;
 
 public abstract class ConsumerBase<T> extends HandlerState implements Consumer<T> {
 
@@ -76,7 +76,7 @@ public abstract class ConsumerBase<T> extends HandlerState implements Consumer<T
         if (receiverQueueSize <= 1) {
             this.incomingMessages = Queues.newArrayBlockingQueue(1);
         } else {
-            this.incomingMessages = new GrowableArrayBlockingQueue<>();
+            this.incomingMessages = new GrowableMpscArrayBlockingQueue<>();
         }
 
         this.listenerExecutor = listenerExecutor;
@@ -18,9 +18,9 @@
  */
 package org.apache.pulsar.client.impl;
 
-import static com.scurrilous.circe.checksum.Crc32cIntChecksum.computeChecksum;
 import static org.apache.pulsar.common.api.Commands.hasChecksum;
 import static org.apache.pulsar.common.api.Commands.readChecksum;
+import static org.apache.pulsar.common.util.Crc32cChecksum.computeChecksum;
 
 import io.netty.buffer.ByteBuf;
 
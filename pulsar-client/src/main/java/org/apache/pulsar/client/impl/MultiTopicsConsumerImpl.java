@@ -247,7 +247,7 @@ public class MultiTopicsConsumerImpl<T> extends ConsumerBase<T> {
             } else {
                 // Enqueue the message so that it can be retrieved when application calls receive()
                 // Waits for the queue to have space for the message
-                // This should never block cause MultiTopicsConsumerImpl should always use GrowableArrayBlockingQueue
+                // This should never block cause MultiTopicsConsumerImpl should always use GrowableMpscArrayBlockingQueue
                 incomingMessages.put(topicMessage);
             }
         } catch (InterruptedException e) {
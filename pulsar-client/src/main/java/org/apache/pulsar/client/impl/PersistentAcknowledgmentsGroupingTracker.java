@@ -25,7 +25,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -37,6 +36,7 @@ import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.impl.conf.ConsumerConfigurationData;
 import org.apache.pulsar.common.api.Commands;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck.AckType;
+import org.apache.pulsar.common.util.collections.ConcurrentLongPairSet;
 
 /**
  * Group the acknowledgments for a certain time and then sends them out in a single protobuf command.
@@ -64,16 +64,16 @@ public class PersistentAcknowledgmentsGroupingTracker implements Acknowledgments
 
     /**
      * This is a set of all the individual acks that the application has issued and that were not already sent to
-     * broker.
+     * broker, as (ledgerId, entryId) pairs.
      */
-    private final ConcurrentSkipListSet<MessageIdImpl> pendingIndividualAcks;
+    private final ConcurrentLongPairSet pendingIndividualAcks;
 
     private final ScheduledFuture<?> scheduledTask;
 
     public PersistentAcknowledgmentsGroupingTracker(ConsumerImpl<?> consumer, ConsumerConfigurationData<?> conf,
                                                     EventLoopGroup eventLoopGroup) {
         this.consumer = consumer;
-        this.pendingIndividualAcks = new ConcurrentSkipListSet<>();
+        this.pendingIndividualAcks = new ConcurrentLongPairSet();
         this.acknowledgementGroupTimeMicros = conf.getAcknowledgementsGroupTimeMicros();
 
         if (acknowledgementGroupTimeMicros > 0) {
@@ -93,7 +93,8 @@ public class PersistentAcknowledgmentsGroupingTracker implements Acknowledgments
             // Already included in a cumulative ack
             return true;
         } else {
-            return pendingIndividualAcks.contains(messageId);
+            MessageIdImpl msgId = (MessageIdImpl) messageId;
+            return pendingIndividualAcks.contains(msgId.getLedgerId(), msgId.getEntryId());
         }
     }
 
@@ -106,7 +107,7 @@ public class PersistentAcknowledgmentsGroupingTracker implements Acknowledgments
             doCumulativeAck(msgId);
         } else {
             // Individual ack
-            pendingIndividualAcks.add(msgId);
+            pendingIndividualAcks.add(msgId.getLedgerId(), msgId.getEntryId());
             if (pendingIndividualAcks.size() >= MAX_ACK_GROUP_SIZE) {
                 flush();
             }
@@ -140,7 +141,7 @@ public class PersistentAcknowledgmentsGroupingTracker implements Acknowledgments
         final ByteBuf cmd = Commands.newAck(consumer.consumerId, msgId.getLedgerId(), msgId.getEntryId(), ackType, null,
                 properties);
 
-        cnx.ctx().writeAndFlush(cmd, cnx.ctx().voidPromise());
+        cnx.writeAndFlushLater(cmd);
         return true;
     }
 
@@ -173,29 +174,19 @@ public class PersistentAcknowledgmentsGroupingTracker implements Acknowledgments
         if (!pendingIndividualAcks.isEmpty()) {
             if (Commands.peerSupportsMultiMessageAcknowledgment(cnx.getRemoteEndpointProtocolVersion())) {
                 // We can send 1 single protobuf command with all individual acks
-                List<Pair<Long, Long>> entriesToAck = new ArrayList<>(pendingIndividualAcks.size());
-                while (true) {
-                    MessageIdImpl msgId = pendingIndividualAcks.pollFirst();
-                    if (msgId == null) {
-                        break;
-                    }
-
-                    entriesToAck.add(Pair.of(msgId.getLedgerId(), msgId.getEntryId()));
-                }
+                List<Pair<Long, Long>> entriesToAck = new ArrayList<>((int) pendingIndividualAcks.size());
+                // Each ack is removed as it gets collected, so that the ones added concurrently are not lost
+                pendingIndividualAcks.removeIf((ledgerId, entryId) -> entriesToAck.add(Pair.of(ledgerId, entryId)));
 
                 cnx.ctx().write(Commands.newMultiMessageAck(consumer.consumerId, entriesToAck),
                         cnx.ctx().voidPromise());
             } else {
                 // When talking to older brokers, send the acknowledgments individually
-                while (true) {
-                    MessageIdImpl msgId = pendingIndividualAcks.pollFirst();
-                    if (msgId == null) {
-                        break;
-                    }
-
-                    cnx.ctx().write(Commands.newAck(consumer.consumerId, msgId.getLedgerId(), msgId.getEntryId(),
-                            AckType.Individual, null, Collections.emptyMap()), cnx.ctx().voidPromise());
-                }
+                pendingIndividualAcks.removeIf((ledgerId, entryId) -> {
+                    cnx.ctx().write(Commands.newAck(consumer.consumerId, ledgerId, entryId, AckType.Individual, null,
+                            Collections.emptyMap()), cnx.ctx().voidPromise());
+                    return true;
+                });
             }
         }
 
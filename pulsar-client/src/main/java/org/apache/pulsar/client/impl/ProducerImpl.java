@@ -19,11 +19,10 @@
 package org.apache.pulsar.client.impl;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.scurrilous.circe.checksum.Crc32cIntChecksum.computeChecksum;
-import static com.scurrilous.circe.checksum.Crc32cIntChecksum.resumeChecksum;
 import static java.lang.String.format;
 import static org.apache.pulsar.common.api.Commands.hasChecksum;
 import static org.apache.pulsar.common.api.Commands.readChecksum;
+import static org.apache.pulsar.common.util.Crc32cChecksum.computeChecksum;
 
 import com.google.common.collect.Queues;
 
@@ -36,6 +35,7 @@ import io.netty.util.TimerTask;
 import io.netty.util.concurrent.ScheduledFuture;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +48,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.pulsar.client.api.CompressionType;
 import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.api.MessageId;
@@ -787,8 +788,7 @@ public class ProducerImpl<T> extends ProducerBase<T> implements TimerTask, Conne
                 if (hasChecksum(headerFrame)) {
                     int checksum = readChecksum(headerFrame);
                     // msg.readerIndex is already at header-payload index, Recompute checksum for headers-payload
-                    int metadataChecksum = computeChecksum(headerFrame);
-                    long computedChecksum = resumeChecksum(metadataChecksum, msg.getSecond());
+                    long computedChecksum = computeChecksum(headerFrame, msg.getSecond());
                     return checksum == computedChecksum;
                 } else {
                     log.warn("[{}] [{}] checksum is not present into message with id {}", topic, producerName,
@@ -1363,6 +1363,10 @@ public class ProducerImpl<T> extends ProducerBase<T> implements TimerTask, Conne
             return PulsarApi.CompressionType.LZ4;
         case ZLIB:
             return PulsarApi.CompressionType.ZLIB;
+        case ZSTD:
+            return PulsarApi.CompressionType.ZSTD;
+        case SNAPPY:
+            return PulsarApi.CompressionType.SNAPPY;
 
         default:
             throw new RuntimeException("Invalid compression type");
@@ -1391,6 +1395,10 @@ public class ProducerImpl<T> extends ProducerBase<T> implements TimerTask, Conne
         this.connectionHandler.connectionClosed(cnx);
     }
 
+    void connectionClosed(ClientCnx cnx, Optional<Pair<InetSocketAddress, InetSocketAddress>> assignedBroker) {
+        this.connectionHandler.connectionClosed(cnx, assignedBroker);
+    }
+
     ClientCnx getClientCnx() {
         return this.connectionHandler.getClientCnx();
     }
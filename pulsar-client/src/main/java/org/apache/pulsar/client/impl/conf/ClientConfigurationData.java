@@ -23,6 +23,7 @@ import java.io.Serializable;
 import org.apache.pulsar.client.api.Authentication;
 import org.apache.pulsar.client.api.ServiceUrlProvider;
 import org.apache.pulsar.client.impl.auth.AuthenticationDisabled;
+import org.apache.pulsar.common.util.netty.TransportProfile;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -49,6 +50,7 @@ public class ClientConfigurationData implements Serializable, Cloneable {
     private int connectionsPerBroker = 1;
 
     private boolean useTcpNoDelay = true;
+    private TransportProfile transportProfile = TransportProfile.Default;
 
     private boolean useTls = false;
     private String tlsTrustCertsFilePath = "";
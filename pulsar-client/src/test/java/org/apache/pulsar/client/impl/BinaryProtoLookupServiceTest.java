@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.client.impl;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import io.netty.buffer.ByteBuf;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.pulsar.client.impl.BinaryProtoLookupService.LookupDataResult;
+import org.apache.pulsar.common.api.proto.PulsarApi.ProtocolVersion;
+import org.apache.pulsar.common.naming.TopicName;
+import org.apache.pulsar.common.partition.PartitionedTopicMetadata;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class BinaryProtoLookupServiceTest {
+
+    private ClientCnx clientCnx;
+    private BinaryProtoLookupService lookupService;
+    private List<List<CompletableFuture<LookupDataResult>>> sentBatches;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        clientCnx = mock(ClientCnx.class);
+        sentBatches = new ArrayList<>();
+        doAnswer(invocation -> {
+            sentBatches.add((List<CompletableFuture<LookupDataResult>>) invocation.getArguments()[2]);
+            return null;
+        }).when(clientCnx).newLookupTopics(any(ByteBuf.class), anyLong(), any(List.class));
+
+        ConnectionPool cnxPool = mock(ConnectionPool.class);
+        doReturn(CompletableFuture.completedFuture(clientCnx)).when(cnxPool).getConnection(any(InetSocketAddress.class));
+
+        PulsarClientImpl client = mock(PulsarClientImpl.class);
+        AtomicLong requestIdGenerator = new AtomicLong();
+        doAnswer(invocation -> requestIdGenerator.getAndIncrement()).when(client).newRequestId();
+        doReturn(cnxPool).when(client).getCnxPool();
+
+        lookupService = new BinaryProtoLookupService(client, "pulsar://localhost:6650", false, null);
+    }
+
+    @Test
+    public void testBatchedLookups() throws Exception {
+        doReturn(ProtocolVersion.v14.getNumber()).when(clientCnx).getRemoteEndpointProtocolVersion();
+
+        // The first lookup is sent right away
+        CompletableFuture<PartitionedTopicMetadata> first = lookupService
+                .getPartitionedTopicMetadata(TopicName.get("persistent://prop/ns/t1"));
+        assertEquals(sentBatches.size(), 1);
+        assertEquals(sentBatches.get(0).size(), 1);
+
+        // The lookups issued while a batch is in flight are sent together once it completes
+        CompletableFuture<PartitionedTopicMetadata> second = lookupService
+                .getPartitionedTopicMetadata(TopicName.get("persistent://prop/ns/t2"));
+        CompletableFuture<PartitionedTopicMetadata> third = lookupService
+                .getPartitionedTopicMetadata(TopicName.get("persistent://prop/ns/t3"));
+        assertEquals(sentBatches.size(), 1);
+        assertFalse(second.isDone());
+
+        sentBatches.get(0).get(0).complete(new LookupDataResult(0));
+        assertEquals(first.get().partitions, 0);
+        assertEquals(sentBatches.size(), 2);
+        assertEquals(sentBatches.get(1).size(), 2);
+
+        sentBatches.get(1).get(0).complete(new LookupDataResult(2));
+        sentBatches.get(1).get(1).complete(new LookupDataResult(3));
+        assertEquals(second.get().partitions, 2);
+        assertEquals(third.get().partitions, 3);
+        assertEquals(sentBatches.size(), 2);
+
+        verify(clientCnx, never()).newLookup(any(ByteBuf.class), anyLong());
+    }
+
+    @Test
+    public void testLookupsWithoutBatchingSupport() throws Exception {
+        doReturn(ProtocolVersion.v13.getNumber()).when(clientCnx).getRemoteEndpointProtocolVersion();
+        doReturn(CompletableFuture.completedFuture(new LookupDataResult(4))).when(clientCnx)
+                .newLookup(any(ByteBuf.class), anyLong());
+
+        CompletableFuture<PartitionedTopicMetadata> first = lookupService
+                .getPartitionedTopicMetadata(TopicName.get("persistent://prop/ns/t1"));
+        CompletableFuture<PartitionedTopicMetadata> second = lookupService
+                .getPartitionedTopicMetadata(TopicName.get("persistent://prop/ns/t2"));
+        assertEquals(first.get().partitions, 4);
+        assertEquals(second.get().partitions, 4);
+
+        // The brokers older than v14 get one lookup request per topic
+        verify(clientCnx, times(2)).newLookup(any(ByteBuf.class), anyLong());
+        assertEquals(sentBatches.size(), 0);
+    }
+}
@@ -22,6 +22,7 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
 import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.common.util.netty.TransportProfile;
 import org.testng.annotations.Test;
 
 public class BuildersTest {
@@ -43,6 +44,15 @@ public class BuildersTest {
         assertEquals(b2.conf.getServiceUrl(), "pulsar://other-broker:6650");
     }
 
+    @Test
+    public void transportProfileTest() {
+        ClientBuilderImpl builder = (ClientBuilderImpl) PulsarClient.builder().serviceUrl("pulsar://service:6650");
+        assertEquals(builder.conf.getTransportProfile(), TransportProfile.Default);
+
+        builder = (ClientBuilderImpl) builder.transportProfile(TransportProfile.HighThroughput);
+        assertEquals(builder.conf.getTransportProfile(), TransportProfile.HighThroughput);
+    }
+
     @Test
     public void enableTlsTest() {
         ClientBuilderImpl builder = (ClientBuilderImpl)PulsarClient.builder().serviceUrl("pulsar://service:6650");
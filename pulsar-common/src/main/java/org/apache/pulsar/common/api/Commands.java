@@ -18,8 +18,7 @@
  */
 package org.apache.pulsar.common.api;
 
-import static com.scurrilous.circe.checksum.Crc32cIntChecksum.computeChecksum;
-import static com.scurrilous.circe.checksum.Crc32cIntChecksum.resumeChecksum;
+import static org.apache.pulsar.common.util.Crc32cChecksum.computeChecksum;
 import static org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString.copyFrom;
 import static org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString.copyFromUtf8;
 
@@ -59,6 +58,8 @@ import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetTopicsOfNamespaceR
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopic;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.LookupType;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandMessage;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadata;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse;
@@ -405,9 +406,20 @@ public class Commands {
     }
 
     public static ByteBuf newCloseConsumer(long consumerId, long requestId) {
+        return newCloseConsumer(consumerId, requestId, null, null);
+    }
+
+    public static ByteBuf newCloseConsumer(long consumerId, long requestId, String assignedBrokerServiceUrl,
+            String assignedBrokerServiceUrlTls) {
         CommandCloseConsumer.Builder closeConsumerBuilder = CommandCloseConsumer.newBuilder();
         closeConsumerBuilder.setConsumerId(consumerId);
         closeConsumerBuilder.setRequestId(requestId);
+        if (assignedBrokerServiceUrl != null) {
+            closeConsumerBuilder.setAssignedBrokerServiceUrl(assignedBrokerServiceUrl);
+        }
+        if (assignedBrokerServiceUrlTls != null) {
+            closeConsumerBuilder.setAssignedBrokerServiceUrlTls(assignedBrokerServiceUrlTls);
+        }
         CommandCloseConsumer closeConsumer = closeConsumerBuilder.build();
         ByteBuf res = serializeWithSize(
                 BaseCommand.newBuilder().setType(Type.CLOSE_CONSUMER).setCloseConsumer(closeConsumer));
@@ -428,9 +440,20 @@ public class Commands {
     }
 
     public static ByteBuf newCloseProducer(long producerId, long requestId) {
+        return newCloseProducer(producerId, requestId, null, null);
+    }
+
+    public static ByteBuf newCloseProducer(long producerId, long requestId, String assignedBrokerServiceUrl,
+            String assignedBrokerServiceUrlTls) {
         CommandCloseProducer.Builder closeProducerBuilder = CommandCloseProducer.newBuilder();
         closeProducerBuilder.setProducerId(producerId);
         closeProducerBuilder.setRequestId(requestId);
+        if (assignedBrokerServiceUrl != null) {
+            closeProducerBuilder.setAssignedBrokerServiceUrl(assignedBrokerServiceUrl);
+        }
+        if (assignedBrokerServiceUrlTls != null) {
+            closeProducerBuilder.setAssignedBrokerServiceUrlTls(assignedBrokerServiceUrlTls);
+        }
         CommandCloseProducer closeProducer = closeProducerBuilder.build();
         ByteBuf res = serializeWithSize(
                 BaseCommand.newBuilder().setType(Type.CLOSE_PRODUCER).setCloseProducer(closeProducerBuilder));
@@ -528,6 +551,11 @@ public class Commands {
     }
 
     public static ByteBuf newPartitionMetadataResponse(ServerError error, String errorMsg, long requestId) {
+        return newPartitionMetadataResponse(newPartitionMetadataResponseCommand(error, errorMsg, requestId));
+    }
+
+    public static CommandPartitionedTopicMetadataResponse newPartitionMetadataResponseCommand(ServerError error,
+            String errorMsg, long requestId) {
         CommandPartitionedTopicMetadataResponse.Builder partitionMetadataResponseBuilder = CommandPartitionedTopicMetadataResponse
                 .newBuilder();
         partitionMetadataResponseBuilder.setRequestId(requestId);
@@ -538,9 +566,14 @@ public class Commands {
         }
 
         CommandPartitionedTopicMetadataResponse partitionMetadataResponse = partitionMetadataResponseBuilder.build();
+        partitionMetadataResponseBuilder.recycle();
+        return partitionMetadataResponse;
+    }
+
+    private static ByteBuf newPartitionMetadataResponse(
+            CommandPartitionedTopicMetadataResponse partitionMetadataResponse) {
         ByteBuf res = serializeWithSize(BaseCommand.newBuilder().setType(Type.PARTITIONED_METADATA_RESPONSE)
                 .setPartitionMetadataResponse(partitionMetadataResponse));
-        partitionMetadataResponseBuilder.recycle();
         partitionMetadataResponse.recycle();
         return res;
     }
@@ -558,6 +591,11 @@ public class Commands {
     }
 
     public static ByteBuf newPartitionMetadataResponse(int partitions, long requestId) {
+        return newPartitionMetadataResponse(newPartitionMetadataResponseCommand(partitions, requestId));
+    }
+
+    public static CommandPartitionedTopicMetadataResponse newPartitionMetadataResponseCommand(int partitions,
+            long requestId) {
         CommandPartitionedTopicMetadataResponse.Builder partitionMetadataResponseBuilder = CommandPartitionedTopicMetadataResponse
                 .newBuilder();
         partitionMetadataResponseBuilder.setPartitions(partitions);
@@ -565,11 +603,8 @@ public class Commands {
         partitionMetadataResponseBuilder.setRequestId(requestId);
 
         CommandPartitionedTopicMetadataResponse partitionMetadataResponse = partitionMetadataResponseBuilder.build();
-        ByteBuf res = serializeWithSize(BaseCommand.newBuilder().setType(Type.PARTITIONED_METADATA_RESPONSE)
-                .setPartitionMetadataResponse(partitionMetadataResponse));
         partitionMetadataResponseBuilder.recycle();
-        partitionMetadataResponse.recycle();
-        return res;
+        return partitionMetadataResponse;
     }
 
     public static ByteBuf newLookup(String topic, boolean authoritative, long requestId) {
@@ -586,6 +621,13 @@ public class Commands {
 
     public static ByteBuf newLookupResponse(String brokerServiceUrl, String brokerServiceUrlTls, boolean authoritative,
             LookupType response, long requestId, boolean proxyThroughServiceUrl) {
+        return newLookupResponse(newLookupResponseCommand(brokerServiceUrl, brokerServiceUrlTls, authoritative,
+                response, requestId, proxyThroughServiceUrl));
+    }
+
+    public static CommandLookupTopicResponse newLookupResponseCommand(String brokerServiceUrl,
+            String brokerServiceUrlTls, boolean authoritative, LookupType response, long requestId,
+            boolean proxyThroughServiceUrl) {
         CommandLookupTopicResponse.Builder commandLookupTopicResponseBuilder = CommandLookupTopicResponse.newBuilder();
         commandLookupTopicResponseBuilder.setBrokerServiceUrl(brokerServiceUrl);
         if (brokerServiceUrlTls != null) {
@@ -597,14 +639,26 @@ public class Commands {
         commandLookupTopicResponseBuilder.setProxyThroughServiceUrl(proxyThroughServiceUrl);
 
         CommandLookupTopicResponse commandLookupTopicResponse = commandLookupTopicResponseBuilder.build();
+        commandLookupTopicResponseBuilder.recycle();
+        return commandLookupTopicResponse;
+    }
+
+    /**
+     * Serialize a lookup response, which is recycled.
+     */
+    public static ByteBuf newLookupResponse(CommandLookupTopicResponse commandLookupTopicResponse) {
         ByteBuf res = serializeWithSize(BaseCommand.newBuilder().setType(Type.LOOKUP_RESPONSE)
                 .setLookupTopicResponse(commandLookupTopicResponse));
-        commandLookupTopicResponseBuilder.recycle();
         commandLookupTopicResponse.recycle();
         return res;
     }
 
     public static ByteBuf newLookupErrorResponse(ServerError error, String errorMsg, long requestId) {
+        return newLookupResponse(newLookupErrorResponseCommand(error, errorMsg, requestId));
+    }
+
+    public static CommandLookupTopicResponse newLookupErrorResponseCommand(ServerError error, String errorMsg,
+            long requestId) {
         CommandLookupTopicResponse.Builder connectionBuilder = CommandLookupTopicResponse.newBuilder();
         connectionBuilder.setRequestId(requestId);
         connectionBuilder.setError(error);
@@ -614,9 +668,44 @@ public class Commands {
         connectionBuilder.setResponse(LookupType.Failed);
 
         CommandLookupTopicResponse connectionBroker = connectionBuilder.build();
-        ByteBuf res = serializeWithSize(BaseCommand.newBuilder().setType(Type.LOOKUP_RESPONSE).setLookupTopicResponse(connectionBroker));
         connectionBuilder.recycle();
-        connectionBroker.recycle();
+        return connectionBroker;
+    }
+
+    public static ByteBuf newLookupTopics(List<String> topics, boolean partitionedMetadata, long requestId) {
+        CommandLookupTopics.Builder lookupTopicsBuilder = CommandLookupTopics.newBuilder();
+        lookupTopicsBuilder.setRequestId(requestId);
+        lookupTopicsBuilder.addAllTopics(topics);
+        lookupTopicsBuilder.setPartitionedMetadata(partitionedMetadata);
+        CommandLookupTopics lookupTopics = lookupTopicsBuilder.build();
+        ByteBuf res = serializeWithSize(
+                BaseCommand.newBuilder().setType(Type.LOOKUP_TOPICS).setLookupTopics(lookupTopics));
+        lookupTopicsBuilder.recycle();
+        lookupTopics.recycle();
+        return res;
+    }
+
+    /**
+     * Serialize the response to a batched lookup, recycling the given responses.
+     *
+     * @param lookupResponses
+     *            the response for each topic of the request, when looking up the owner brokers
+     * @param partitionMetadataResponses
+     *            the response for each topic of the request, when getting the partitioned topic metadata
+     */
+    public static ByteBuf newLookupTopicsResponse(long requestId, List<CommandLookupTopicResponse> lookupResponses,
+            List<CommandPartitionedTopicMetadataResponse> partitionMetadataResponses) {
+        CommandLookupTopicsResponse.Builder lookupTopicsResponseBuilder = CommandLookupTopicsResponse.newBuilder();
+        lookupTopicsResponseBuilder.setRequestId(requestId);
+        lookupTopicsResponseBuilder.addAllLookupResponses(lookupResponses);
+        lookupTopicsResponseBuilder.addAllPartitionMetadataResponses(partitionMetadataResponses);
+        CommandLookupTopicsResponse lookupTopicsResponse = lookupTopicsResponseBuilder.build();
+        ByteBuf res = serializeWithSize(BaseCommand.newBuilder().setType(Type.LOOKUP_TOPICS_RESPONSE)
+                .setLookupTopicsResponse(lookupTopicsResponse));
+        lookupTopicsResponseBuilder.recycle();
+        lookupTopicsResponse.recycle();
+        lookupResponses.forEach(CommandLookupTopicResponse::recycle);
+        partitionMetadataResponses.forEach(CommandPartitionedTopicMetadataResponse::recycle);
         return res;
     }
 
@@ -945,8 +1034,7 @@ public class Commands {
         if (includeChecksum) {
             headers.markReaderIndex();
             headers.readerIndex(checksumReaderIndex + checksumSize);
-            int metadataChecksum = computeChecksum(headers);
-            int computedChecksum = resumeChecksum(metadataChecksum, payload);
+            int computedChecksum = computeChecksum(headers, payload);
             // set computed checksum
             headers.setInt(checksumReaderIndex, computedChecksum);
             headers.resetReaderIndex();
@@ -993,8 +1081,7 @@ public class Commands {
         if (includeChecksum) {
             metadataAndPayload.markReaderIndex();
             metadataAndPayload.readerIndex(checksumReaderIndex + checksumSize);
-            int metadataChecksum = computeChecksum(metadataAndPayload);
-            int computedChecksum = resumeChecksum(metadataChecksum, payload);
+            int computedChecksum = computeChecksum(metadataAndPayload, payload);
             // set computed checksum
             metadataAndPayload.setInt(checksumReaderIndex, computedChecksum);
             metadataAndPayload.resetReaderIndex();
@@ -0,0 +1,348 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.api;
+
+import io.netty.buffer.ByteBuf;
+
+import org.apache.pulsar.common.api.proto.PulsarApi.BaseCommand;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck.AckType;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandFlow;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandMessage;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandSend;
+import org.apache.pulsar.common.api.proto.PulsarApi.MessageIdData;
+
+/**
+ * Decoder of the commands exchanged for each message (SEND, MESSAGE, ACK and FLOW), reading their fields straight
+ * from the frame instead of going through the generic parsing of {@link BaseCommand}.
+ *
+ * <p>Only the layout written by the Pulsar brokers and clients is recognized. The methods return null on any other
+ * field or on a repeated message id, and throw an {@link IndexOutOfBoundsException} on a truncated command. In both
+ * cases the caller has to reset the buffer and parse the command with the generic parser, which also takes care of
+ * reporting the errors.
+ *
+ * <p>The writer index of the buffer must be set to the end of the command before calling {@link #readType(ByteBuf)}.
+ */
+final class HotCommandDecoder {
+
+    private static final int WIRETYPE_VARINT = 0;
+    private static final int WIRETYPE_LENGTH_DELIMITED = 2;
+
+    private static final int TYPE_TAG = tag(1, WIRETYPE_VARINT);
+
+    private static final int SEND_TAG = tag(BaseCommand.SEND_FIELD_NUMBER, WIRETYPE_LENGTH_DELIMITED);
+    private static final int MESSAGE_TAG = tag(BaseCommand.MESSAGE_FIELD_NUMBER, WIRETYPE_LENGTH_DELIMITED);
+    private static final int ACK_TAG = tag(BaseCommand.ACK_FIELD_NUMBER, WIRETYPE_LENGTH_DELIMITED);
+    private static final int FLOW_TAG = tag(BaseCommand.FLOW_FIELD_NUMBER, WIRETYPE_LENGTH_DELIMITED);
+
+    private static final int SEND_PRODUCER_ID_TAG = tag(CommandSend.PRODUCER_ID_FIELD_NUMBER, WIRETYPE_VARINT);
+    private static final int SEND_SEQUENCE_ID_TAG = tag(CommandSend.SEQUENCE_ID_FIELD_NUMBER, WIRETYPE_VARINT);
+    private static final int SEND_NUM_MESSAGES_TAG = tag(CommandSend.NUM_MESSAGES_FIELD_NUMBER, WIRETYPE_VARINT);
+
+    private static final int MESSAGE_CONSUMER_ID_TAG = tag(CommandMessage.CONSUMER_ID_FIELD_NUMBER, WIRETYPE_VARINT);
+    private static final int MESSAGE_MESSAGE_ID_TAG = tag(CommandMessage.MESSAGE_ID_FIELD_NUMBER,
+            WIRETYPE_LENGTH_DELIMITED);
+    private static final int MESSAGE_REDELIVERY_COUNT_TAG = tag(CommandMessage.REDELIVERY_COUNT_FIELD_NUMBER,
+            WIRETYPE_VARINT);
+
+    private static final int ACK_CONSUMER_ID_TAG = tag(CommandAck.CONSUMER_ID_FIELD_NUMBER, WIRETYPE_VARINT);
+    private static final int ACK_ACK_TYPE_TAG = tag(CommandAck.ACK_TYPE_FIELD_NUMBER, WIRETYPE_VARINT);
+    private static final int ACK_MESSAGE_ID_TAG = tag(CommandAck.MESSAGE_ID_FIELD_NUMBER, WIRETYPE_LENGTH_DELIMITED);
+
+    private static final int FLOW_CONSUMER_ID_TAG = tag(CommandFlow.CONSUMER_ID_FIELD_NUMBER, WIRETYPE_VARINT);
+    private static final int FLOW_MESSAGE_PERMITS_TAG = tag(CommandFlow.MESSAGEPERMITS_FIELD_NUMBER,
+            WIRETYPE_VARINT);
+
+    private static final int MESSAGE_ID_LEDGER_ID_TAG = tag(MessageIdData.LEDGERID_FIELD_NUMBER, WIRETYPE_VARINT);
+    private static final int MESSAGE_ID_ENTRY_ID_TAG = tag(MessageIdData.ENTRYID_FIELD_NUMBER, WIRETYPE_VARINT);
+    private static final int MESSAGE_ID_PARTITION_TAG = tag(MessageIdData.PARTITION_FIELD_NUMBER, WIRETYPE_VARINT);
+    private static final int MESSAGE_ID_BATCH_INDEX_TAG = tag(MessageIdData.BATCH_INDEX_FIELD_NUMBER,
+            WIRETYPE_VARINT);
+
+    private HotCommandDecoder() {
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return (fieldNumber << 3) | wireType;
+    }
+
+    /**
+     * Read the type of the command and the header of its nested message.
+     *
+     * @return the type of the command, positioning the buffer at the start of the nested message, or null if the
+     *         command is not one of the commands handled by this decoder
+     */
+    static BaseCommand.Type readType(ByteBuf buffer) {
+        if (buffer.readableBytes() < 4 || buffer.readUnsignedByte() != TYPE_TAG) {
+            return null;
+        }
+        final int typeNumber = buffer.readUnsignedByte();
+        final BaseCommand.Type type;
+        final int expectedTag;
+        switch (typeNumber) {
+        case BaseCommand.Type.SEND_VALUE:
+            type = BaseCommand.Type.SEND;
+            expectedTag = SEND_TAG;
+            break;
+        case BaseCommand.Type.MESSAGE_VALUE:
+            type = BaseCommand.Type.MESSAGE;
+            expectedTag = MESSAGE_TAG;
+            break;
+        case BaseCommand.Type.ACK_VALUE:
+            type = BaseCommand.Type.ACK;
+            expectedTag = ACK_TAG;
+            break;
+        case BaseCommand.Type.FLOW_VALUE:
+            type = BaseCommand.Type.FLOW;
+            expectedTag = FLOW_TAG;
+            break;
+        default:
+            return null;
+        }
+        if (buffer.readUnsignedByte() != expectedTag) {
+            return null;
+        }
+        // The nested message has to be the last field of the command
+        final long length = readVarInt(buffer);
+        return length == buffer.readableBytes() ? type : null;
+    }
+
+    static CommandSend readSend(ByteBuf buffer) {
+        long producerId = 0;
+        long sequenceId = 0;
+        int numMessages = 0;
+        boolean hasProducerId = false;
+        boolean hasSequenceId = false;
+        boolean hasNumMessages = false;
+
+        while (buffer.isReadable()) {
+            final int tag = buffer.readUnsignedByte();
+            if (tag == SEND_PRODUCER_ID_TAG) {
+                producerId = readVarInt(buffer);
+                hasProducerId = true;
+            } else if (tag == SEND_SEQUENCE_ID_TAG) {
+                sequenceId = readVarInt(buffer);
+                hasSequenceId = true;
+            } else if (tag == SEND_NUM_MESSAGES_TAG) {
+                numMessages = (int) readVarInt(buffer);
+                hasNumMessages = true;
+            } else {
+                return null;
+            }
+        }
+        if (!hasProducerId || !hasSequenceId) {
+            return null;
+        }
+
+        CommandSend.Builder builder = CommandSend.newBuilder();
+        builder.setProducerId(producerId);
+        builder.setSequenceId(sequenceId);
+        if (hasNumMessages) {
+            builder.setNumMessages(numMessages);
+        }
+        CommandSend send = builder.build();
+        builder.recycle();
+        return send;
+    }
+
+    static CommandMessage readMessage(ByteBuf buffer) {
+        long consumerId = 0;
+        int redeliveryCount = 0;
+        boolean hasConsumerId = false;
+        boolean hasRedeliveryCount = false;
+        MessageIdData messageId = null;
+
+        while (buffer.isReadable()) {
+            final int tag = buffer.readUnsignedByte();
+            if (tag == MESSAGE_CONSUMER_ID_TAG) {
+                consumerId = readVarInt(buffer);
+                hasConsumerId = true;
+            } else if (tag == MESSAGE_REDELIVERY_COUNT_TAG) {
+                redeliveryCount = (int) readVarInt(buffer);
+                hasRedeliveryCount = true;
+            } else if (tag == MESSAGE_MESSAGE_ID_TAG && messageId == null) {
+                messageId = readMessageId(buffer);
+                if (messageId == null) {
+                    return null;
+                }
+            } else {
+                return recycle(messageId);
+            }
+        }
+        if (!hasConsumerId || messageId == null) {
+            return recycle(messageId);
+        }
+
+        CommandMessage.Builder builder = CommandMessage.newBuilder();
+        builder.setConsumerId(consumerId);
+        builder.setMessageId(messageId);
+        if (hasRedeliveryCount) {
+            builder.setRedeliveryCount(redeliveryCount);
+        }
+        CommandMessage message = builder.build();
+        builder.recycle();
+        return message;
+    }
+
+    static CommandAck readAck(ByteBuf buffer) {
+        long consumerId = 0;
+        AckType ackType = null;
+        boolean hasConsumerId = false;
+        MessageIdData messageId = null;
+
+        while (buffer.isReadable()) {
+            final int tag = buffer.readUnsignedByte();
+            if (tag == ACK_CONSUMER_ID_TAG) {
+                consumerId = readVarInt(buffer);
+                hasConsumerId = true;
+            } else if (tag == ACK_ACK_TYPE_TAG) {
+                ackType = AckType.valueOf((int) readVarInt(buffer));
+                if (ackType == null) {
+                    return recycle(messageId);
+                }
+            } else if (tag == ACK_MESSAGE_ID_TAG && messageId == null) {
+                // Clients send a single message id per ack, the lists are left to the generic parser
+                messageId = readMessageId(buffer);
+                if (messageId == null) {
+                    return null;
+                }
+            } else {
+                return recycle(messageId);
+            }
+        }
+        if (!hasConsumerId || ackType == null) {
+            return recycle(messageId);
+        }
+
+        CommandAck.Builder builder = CommandAck.newBuilder();
+        builder.setConsumerId(consumerId);
+        builder.setAckType(ackType);
+        if (messageId != null) {
+            builder.addMessageId(messageId);
+        }
+        CommandAck ack = builder.build();
+        builder.recycle();
+        return ack;
+    }
+
+    static CommandFlow readFlow(ByteBuf buffer) {
+        long consumerId = 0;
+        int messagePermits = 0;
+        boolean hasConsumerId = false;
+        boolean hasMessagePermits = false;
+
+        while (buffer.isReadable()) {
+            final int tag = buffer.readUnsignedByte();
+            if (tag == FLOW_CONSUMER_ID_TAG) {
+                consumerId = readVarInt(buffer);
+                hasConsumerId = true;
+            } else if (tag == FLOW_MESSAGE_PERMITS_TAG) {
+                messagePermits = (int) readVarInt(buffer);
+                hasMessagePermits = true;
+            } else {
+                return null;
+            }
+        }
+        if (!hasConsumerId || !hasMessagePermits) {
+            return null;
+        }
+
+        CommandFlow.Builder builder = CommandFlow.newBuilder();
+        builder.setConsumerId(consumerId);
+        builder.setMessagePermits(messagePermits);
+        CommandFlow flow = builder.build();
+        builder.recycle();
+        return flow;
+    }
+
+    private static MessageIdData readMessageId(ByteBuf buffer) {
+        final long length = readVarInt(buffer);
+        if (length < 0 || length > buffer.readableBytes()) {
+            return null;
+        }
+        final int end = buffer.readerIndex() + (int) length;
+
+        long ledgerId = 0;
+        long entryId = 0;
+        int partition = 0;
+        int batchIndex = 0;
+        boolean hasLedgerId = false;
+        boolean hasEntryId = false;
+        boolean hasPartition = false;
+        boolean hasBatchIndex = false;
+
+        while (buffer.readerIndex() < end) {
+            final int tag = buffer.readUnsignedByte();
+            if (tag == MESSAGE_ID_LEDGER_ID_TAG) {
+                ledgerId = readVarInt(buffer);
+                hasLedgerId = true;
+            } else if (tag == MESSAGE_ID_ENTRY_ID_TAG) {
+                entryId = readVarInt(buffer);
+                hasEntryId = true;
+            } else if (tag == MESSAGE_ID_PARTITION_TAG) {
+                partition = (int) readVarInt(buffer);
+                hasPartition = true;
+            } else if (tag == MESSAGE_ID_BATCH_INDEX_TAG) {
+                batchIndex = (int) readVarInt(buffer);
+                hasBatchIndex = true;
+            } else {
+                return null;
+            }
+        }
+        if (buffer.readerIndex() != end || !hasLedgerId || !hasEntryId) {
+            return null;
+        }
+
+        MessageIdData.Builder builder = MessageIdData.newBuilder();
+        builder.setLedgerId(ledgerId);
+        builder.setEntryId(entryId);
+        if (hasPartition) {
+            builder.setPartition(partition);
+        }
+        if (hasBatchIndex) {
+            builder.setBatchIndex(batchIndex);
+        }
+        MessageIdData messageId = builder.build();
+        builder.recycle();
+        return messageId;
+    }
+
+    private static <T> T recycle(MessageIdData messageId) {
+        if (messageId != null) {
+            messageId.recycle();
+        }
+        return null;
+    }
+
+    /**
+     * Read a base 128 varint, failing with an {@link IndexOutOfBoundsException} past the writer index of the buffer
+     * or on a varint longer than 10 bytes.
+     */
+    private static long readVarInt(ByteBuf buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buffer.readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IndexOutOfBoundsException("Malformed varint");
+    }
+}
@@ -42,6 +42,8 @@ import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetTopicsOfNamespace;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetTopicsOfNamespaceResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopic;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandMessage;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadata;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse;
@@ -79,6 +81,10 @@ public abstract class PulsarDecoder extends ChannelInboundHandlerAdapter {
         try {
             // De-serialize the command
             int cmdSize = (int) buffer.readUnsignedInt();
+            if (handleHotCommand(ctx, buffer, cmdSize)) {
+                return;
+            }
+
             int writerIndex = buffer.writerIndex();
             buffer.writerIndex(buffer.readerIndex() + cmdSize);
             ByteBufCodedInputStream cmdInputStream = ByteBufCodedInputStream.get(buffer);
@@ -303,6 +309,22 @@ public abstract class PulsarDecoder extends ChannelInboundHandlerAdapter {
                 handleGetSchemaResponse(cmd.getGetSchemaResponse());
                 cmd.getGetSchemaResponse().recycle();
                 break;
+
+            case LOOKUP_TOPICS:
+                checkArgument(cmd.hasLookupTopics());
+                handleLookupTopics(cmd.getLookupTopics());
+                cmd.getLookupTopics().recycle();
+                break;
+
+            case LOOKUP_TOPICS_RESPONSE:
+                checkArgument(cmd.hasLookupTopicsResponse());
+                CommandLookupTopicsResponse lookupTopicsResponse = cmd.getLookupTopicsResponse();
+                handleLookupTopicsResponse(lookupTopicsResponse);
+                lookupTopicsResponse.getLookupResponsesList().forEach(CommandLookupTopicResponse::recycle);
+                lookupTopicsResponse.getPartitionMetadataResponsesList()
+                        .forEach(CommandPartitionedTopicMetadataResponse::recycle);
+                lookupTopicsResponse.recycle();
+                break;
             }
         } finally {
             if (cmdBuilder != null) {
@@ -317,6 +339,72 @@ public abstract class PulsarDecoder extends ChannelInboundHandlerAdapter {
         }
     }
 
+    /**
+     * Decode and handle the commands exchanged for each message without going through the generic parsing of
+     * {@link BaseCommand}.
+     *
+     * @return false, with the buffer left untouched, if the command has to be parsed by the generic parser
+     */
+    private boolean handleHotCommand(ChannelHandlerContext ctx, ByteBuf buffer, int cmdSize) {
+        final int readerIndex = buffer.readerIndex();
+        final int writerIndex = buffer.writerIndex();
+        if (cmdSize < 0 || cmdSize > buffer.readableBytes()) {
+            return false;
+        }
+
+        buffer.writerIndex(readerIndex + cmdSize);
+        BaseCommand.Type type = null;
+        CommandSend send = null;
+        CommandMessage message = null;
+        CommandAck ack = null;
+        CommandFlow flow = null;
+        try {
+            type = HotCommandDecoder.readType(buffer);
+            if (type == BaseCommand.Type.SEND) {
+                send = HotCommandDecoder.readSend(buffer);
+            } else if (type == BaseCommand.Type.MESSAGE) {
+                message = HotCommandDecoder.readMessage(buffer);
+            } else if (type == BaseCommand.Type.ACK) {
+                ack = HotCommandDecoder.readAck(buffer);
+            } else if (type == BaseCommand.Type.FLOW) {
+                flow = HotCommandDecoder.readFlow(buffer);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Truncated command, let the generic parser report it
+        } finally {
+            buffer.writerIndex(writerIndex);
+        }
+
+        if (send == null && message == null && ack == null && flow == null) {
+            buffer.readerIndex(readerIndex);
+            return false;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("[{}] Received cmd {}", ctx.channel().remoteAddress(), type);
+        }
+
+        messageReceived();
+
+        if (send != null) {
+            handleSend(send, buffer.markReaderIndex());
+            send.recycle();
+        } else if (message != null) {
+            handleMessage(message, buffer);
+            message.recycle();
+        } else if (ack != null) {
+            handleAck(ack);
+            for (int i = 0; i < ack.getMessageIdCount(); i++) {
+                ack.getMessageId(i).recycle();
+            }
+            ack.recycle();
+        } else {
+            handleFlow(flow);
+            flow.recycle();
+        }
+        return true;
+    }
+
     protected abstract void messageReceived();
 
     protected void handlePartitionMetadataRequest(CommandPartitionedTopicMetadata response) {
@@ -335,6 +423,14 @@ public abstract class PulsarDecoder extends ChannelInboundHandlerAdapter {
         throw new UnsupportedOperationException();
     }
 
+    protected void handleLookupTopics(CommandLookupTopics lookupTopics) {
+        throw new UnsupportedOperationException();
+    }
+
+    protected void handleLookupTopicsResponse(CommandLookupTopicsResponse lookupTopicsResponse) {
+        throw new UnsupportedOperationException();
+    }
+
     protected void handleConnect(CommandConnect connect) {
         throw new UnsupportedOperationException();
     }
@@ -38,6 +38,15 @@ public abstract class PulsarHandler extends PulsarDecoder {
     private boolean waitingForPingResponse = false;
     private ScheduledFuture<?> keepAliveTask;
 
+    // Commands written by writeAndFlushLater() that were not flushed yet
+    private int pendingWrites = 0;
+    private boolean readInProgress = false;
+    private boolean flushScheduled = false;
+    private final Runnable flushTask = this::flushPendingWrites;
+
+    // Max number of commands written by writeAndFlushLater() before forcing a flush
+    static final int MAX_PENDING_WRITES = 256;
+
     public int getRemoteEndpointProtocolVersion() {
         return remoteEndpointProtocolVersion;
     }
@@ -70,6 +79,50 @@ public abstract class PulsarHandler extends PulsarDecoder {
         cancelKeepAliveTask();
     }
 
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        readInProgress = true;
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        readInProgress = false;
+        flushPendingWrites();
+        ctx.fireChannelReadComplete();
+    }
+
+    /**
+     * Write a command without flushing it right away. The flush is done at the end of the current read of the
+     * connection, or by a task of the event loop when the connection is not reading, so that the commands written in
+     * the meantime, like the receipts of the messages persisted by the same BookKeeper write, are sent with a single
+     * system call.
+     *
+     * <p>The commands are written from the event loop of the connection, in the order of the calls.
+     */
+    public void writeAndFlushLater(Object cmd) {
+        if (!ctx.executor().inEventLoop()) {
+            ctx.executor().execute(() -> writeAndFlushLater(cmd));
+            return;
+        }
+
+        ctx.write(cmd, ctx.voidPromise());
+        if (++pendingWrites >= MAX_PENDING_WRITES) {
+            flushPendingWrites();
+        } else if (!readInProgress && !flushScheduled) {
+            flushScheduled = true;
+            ctx.executor().execute(flushTask);
+        }
+    }
+
+    private void flushPendingWrites() {
+        flushScheduled = false;
+        if (pendingWrites > 0) {
+            pendingWrites = 0;
+            ctx.flush();
+        }
+    }
+
     @Override
     final protected void handlePing(CommandPing ping) {
         // Immediately reply success to ping requests
@@ -13,11 +13,15 @@ public final class PulsarApi {
     NONE(0, 0),
     LZ4(1, 1),
     ZLIB(2, 2),
+    ZSTD(3, 3),
+    SNAPPY(4, 4),
     ;
     
     public static final int NONE_VALUE = 0;
     public static final int LZ4_VALUE = 1;
     public static final int ZLIB_VALUE = 2;
+    public static final int ZSTD_VALUE = 3;
+    public static final int SNAPPY_VALUE = 4;
     
     
     public final int getNumber() { return value; }
@@ -27,6 +31,8 @@ public final class PulsarApi {
         case 0: return NONE;
         case 1: return LZ4;
         case 2: return ZLIB;
+        case 3: return ZSTD;
+        case 4: return SNAPPY;
         default: return null;
       }
     }
@@ -201,6 +207,7 @@ public final class PulsarApi {
     v11(11, 11),
     v12(12, 12),
     v13(13, 13),
+    v14(14, 14),
     ;
     
     public static final int v0_VALUE = 0;
@@ -217,6 +224,7 @@ public final class PulsarApi {
     public static final int v11_VALUE = 11;
     public static final int v12_VALUE = 12;
     public static final int v13_VALUE = 13;
+    public static final int v14_VALUE = 14;
     
     
     public final int getNumber() { return value; }
@@ -237,6 +245,7 @@ public final class PulsarApi {
         case 11: return v11;
         case 12: return v12;
         case 13: return v13;
+        case 14: return v14;
         default: return null;
       }
     }
@@ -11239,6 +11248,1148 @@ public final class PulsarApi {
     // @@protoc_insertion_point(class_scope:pulsar.proto.CommandLookupTopicResponse)
   }
   
+  public interface CommandLookupTopicsOrBuilder
+      extends org.apache.pulsar.shaded.com.google.protobuf.v241.MessageLiteOrBuilder {
+    
+    // required uint64 request_id = 1;
+    boolean hasRequestId();
+    long getRequestId();
+    
+    // repeated string topics = 2;
+    java.util.List<String> getTopicsList();
+    int getTopicsCount();
+    String getTopics(int index);
+    
+    // optional bool partitioned_metadata = 3 [default = false];
+    boolean hasPartitionedMetadata();
+    boolean getPartitionedMetadata();
+  }
+  public static final class CommandLookupTopics extends
+      org.apache.pulsar.shaded.com.google.protobuf.v241.GeneratedMessageLite
+      implements CommandLookupTopicsOrBuilder, org.apache.pulsar.common.util.protobuf.ByteBufCodedOutputStream.ByteBufGeneratedMessage  {
+    // Use CommandLookupTopics.newBuilder() to construct.
+    private io.netty.util.Recycler.Handle handle;
+    private CommandLookupTopics(io.netty.util.Recycler.Handle handle) {
+      this.handle = handle;
+    }
+    
+     private static final io.netty.util.Recycler<CommandLookupTopics> RECYCLER = new io.netty.util.Recycler<CommandLookupTopics>() {
+            protected CommandLookupTopics newObject(Handle handle) {
+              return new CommandLookupTopics(handle);
+            }
+          };
+        
+        public void recycle() {
+            this.initFields();
+            this.memoizedIsInitialized = -1;
+            this.bitField0_ = 0;
+            this.memoizedSerializedSize = -1;
+            if (handle != null) { RECYCLER.recycle(this, handle); }
+        }
+         
+    private CommandLookupTopics(boolean noInit) {}
+    
+    private static final CommandLookupTopics defaultInstance;
+    public static CommandLookupTopics getDefaultInstance() {
+      return defaultInstance;
+    }
+    
+    public CommandLookupTopics getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+    
+    private int bitField0_;
+    // required uint64 request_id = 1;
+    public static final int REQUEST_ID_FIELD_NUMBER = 1;
+    private long requestId_;
+    public boolean hasRequestId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    public long getRequestId() {
+      return requestId_;
+    }
+    
+    // repeated string topics = 2;
+    public static final int TOPICS_FIELD_NUMBER = 2;
+    private org.apache.pulsar.shaded.com.google.protobuf.v241.LazyStringList topics_;
+    public java.util.List<String>
+        getTopicsList() {
+      return topics_;
+    }
+    public int getTopicsCount() {
+      return topics_.size();
+    }
+    public String getTopics(int index) {
+      return topics_.get(index);
+    }
+    
+    // optional bool partitioned_metadata = 3 [default = false];
+    public static final int PARTITIONED_METADATA_FIELD_NUMBER = 3;
+    private boolean partitionedMetadata_;
+    public boolean hasPartitionedMetadata() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    public boolean getPartitionedMetadata() {
+      return partitionedMetadata_;
+    }
+    
+    private void initFields() {
+      requestId_ = 0L;
+      topics_ = org.apache.pulsar.shaded.com.google.protobuf.v241.LazyStringArrayList.EMPTY;
+      partitionedMetadata_ = false;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+      
+      if (!hasRequestId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+    
+    public void writeTo(org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream output)
+                        throws java.io.IOException {
+        throw new RuntimeException("Cannot use CodedOutputStream");
+    }
+    
+    public void writeTo(org.apache.pulsar.common.util.protobuf.ByteBufCodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeUInt64(1, requestId_);
+      }
+      for (int i = 0; i < topics_.size(); i++) {
+        output.writeBytes(2, topics_.getByteString(i));
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBool(3, partitionedMetadata_);
+      }
+    }
+    
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+    
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeUInt64Size(1, requestId_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < topics_.size(); i++) {
+          dataSize += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+            .computeBytesSizeNoTag(topics_.getByteString(i));
+        }
+        size += dataSize;
+        size += 1 * getTopicsList().size();
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeBoolSize(3, partitionedMetadata_);
+      }
+      memoizedSerializedSize = size;
+      return size;
+    }
+    
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+    
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseFrom(
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString data)
+        throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+         throw new RuntimeException("Disabled");
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseFrom(
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString data,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+         throw new RuntimeException("Disabled");
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseFrom(byte[] data)
+        throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data).buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseFrom(
+        byte[] data,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data, extensionRegistry)
+               .buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input).buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseFrom(
+        java.io.InputStream input,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input, extensionRegistry)
+               .buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      Builder builder = newBuilder();
+      if (builder.mergeDelimitedFrom(input)) {
+        return builder.buildParsed();
+      } else {
+        return null;
+      }
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseDelimitedFrom(
+        java.io.InputStream input,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      Builder builder = newBuilder();
+      if (builder.mergeDelimitedFrom(input, extensionRegistry)) {
+        return builder.buildParsed();
+      } else {
+        return null;
+      }
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseFrom(
+        org.apache.pulsar.shaded.com.google.protobuf.v241.CodedInputStream input)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input).buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics parseFrom(
+        org.apache.pulsar.shaded.com.google.protobuf.v241.CodedInputStream input,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input, extensionRegistry)
+               .buildParsed();
+    }
+    
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+    
+    public static final class Builder extends
+        org.apache.pulsar.shaded.com.google.protobuf.v241.GeneratedMessageLite.Builder<
+          org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics, Builder>
+        implements org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsOrBuilder, org.apache.pulsar.common.util.protobuf.ByteBufCodedInputStream.ByteBufMessageBuilder  {
+      // Construct using org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.newBuilder()
+      private final io.netty.util.Recycler.Handle handle;
+      private Builder(io.netty.util.Recycler.Handle handle) {
+        this.handle = handle;
+        maybeForceBuilderInitialization();
+      }
+      private final static io.netty.util.Recycler<Builder> RECYCLER = new io.netty.util.Recycler<Builder>() {
+         protected Builder newObject(io.netty.util.Recycler.Handle handle) {
+               return new Builder(handle);
+             }
+            };
+      
+       public void recycle() {
+                clear();
+                if (handle != null) {RECYCLER.recycle(this, handle);}
+            }
+      
+      private void maybeForceBuilderInitialization() {
+      }
+      private static Builder create() {
+        return RECYCLER.get();
+      }
+      
+      public Builder clear() {
+        super.clear();
+        requestId_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        topics_ = org.apache.pulsar.shaded.com.google.protobuf.v241.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        partitionedMetadata_ = false;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+      
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+      
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics getDefaultInstanceForType() {
+        return org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.getDefaultInstance();
+      }
+      
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics build() {
+        org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+      
+      private org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics buildParsed()
+          throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+        org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(
+            result).asInvalidProtocolBufferException();
+        }
+        return result;
+      }
+      
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics buildPartial() {
+        org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics result = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.RECYCLER.get();
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.requestId_ = requestId_;
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          topics_ = new org.apache.pulsar.shaded.com.google.protobuf.v241.UnmodifiableLazyStringList(
+              topics_);
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.topics_ = topics_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.partitionedMetadata_ = partitionedMetadata_;
+        result.bitField0_ = to_bitField0_;
+        return result;
+      }
+      
+      public Builder mergeFrom(org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics other) {
+        if (other == org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.getDefaultInstance()) return this;
+        if (other.hasRequestId()) {
+          setRequestId(other.getRequestId());
+        }
+        if (!other.topics_.isEmpty()) {
+          if (topics_.isEmpty()) {
+            topics_ = other.topics_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureTopicsIsMutable();
+            topics_.addAll(other.topics_);
+          }
+          
+        }
+        if (other.hasPartitionedMetadata()) {
+          setPartitionedMetadata(other.getPartitionedMetadata());
+        }
+        return this;
+      }
+      
+      public final boolean isInitialized() {
+        if (!hasRequestId()) {
+          
+          return false;
+        }
+        return true;
+      }
+      
+      public Builder mergeFrom(org.apache.pulsar.shaded.com.google.protobuf.v241.CodedInputStream input,
+                              org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+                              throws java.io.IOException {
+         throw new java.io.IOException("Merge from CodedInputStream is disabled");
+                              }
+      public Builder mergeFrom(
+          org.apache.pulsar.common.util.protobuf.ByteBufCodedInputStream input,
+          org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        while (true) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              
+              return this;
+            default: {
+              if (!input.skipField(tag)) {
+                
+                return this;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              requestId_ = input.readUInt64();
+              break;
+            }
+            case 18: {
+              ensureTopicsIsMutable();
+              topics_.add(input.readBytes());
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              partitionedMetadata_ = input.readBool();
+              break;
+            }
+          }
+        }
+      }
+      
+      private int bitField0_;
+      
+      // required uint64 request_id = 1;
+      private long requestId_ ;
+      public boolean hasRequestId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      public long getRequestId() {
+        return requestId_;
+      }
+      public Builder setRequestId(long value) {
+        bitField0_ |= 0x00000001;
+        requestId_ = value;
+        
+        return this;
+      }
+      public Builder clearRequestId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        requestId_ = 0L;
+        
+        return this;
+      }
+      
+      // repeated string topics = 2;
+      private org.apache.pulsar.shaded.com.google.protobuf.v241.LazyStringList topics_ = org.apache.pulsar.shaded.com.google.protobuf.v241.LazyStringArrayList.EMPTY;
+      private void ensureTopicsIsMutable() {
+        if (!((bitField0_ & 0x00000002) == 0x00000002)) {
+          topics_ = new org.apache.pulsar.shaded.com.google.protobuf.v241.LazyStringArrayList(topics_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+      public java.util.List<String>
+          getTopicsList() {
+        return java.util.Collections.unmodifiableList(topics_);
+      }
+      public int getTopicsCount() {
+        return topics_.size();
+      }
+      public String getTopics(int index) {
+        return topics_.get(index);
+      }
+      public Builder setTopics(
+          int index, String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureTopicsIsMutable();
+        topics_.set(index, value);
+        
+        return this;
+      }
+      public Builder addTopics(String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureTopicsIsMutable();
+        topics_.add(value);
+        
+        return this;
+      }
+      public Builder addAllTopics(
+          java.lang.Iterable<String> values) {
+        ensureTopicsIsMutable();
+        super.addAll(values, topics_);
+        
+        return this;
+      }
+      public Builder clearTopics() {
+        topics_ = org.apache.pulsar.shaded.com.google.protobuf.v241.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        
+        return this;
+      }
+      void addTopics(org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString value) {
+        ensureTopicsIsMutable();
+        topics_.add(value);
+        
+      }
+      
+      // optional bool partitioned_metadata = 3 [default = false];
+      private boolean partitionedMetadata_ ;
+      public boolean hasPartitionedMetadata() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      public boolean getPartitionedMetadata() {
+        return partitionedMetadata_;
+      }
+      public Builder setPartitionedMetadata(boolean value) {
+        bitField0_ |= 0x00000004;
+        partitionedMetadata_ = value;
+        
+        return this;
+      }
+      public Builder clearPartitionedMetadata() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        partitionedMetadata_ = false;
+        
+        return this;
+      }
+      
+      // @@protoc_insertion_point(builder_scope:pulsar.proto.CommandLookupTopics)
+    }
+    
+    static {
+      defaultInstance = new CommandLookupTopics(true);
+      defaultInstance.initFields();
+    }
+    
+    // @@protoc_insertion_point(class_scope:pulsar.proto.CommandLookupTopics)
+  }
+  
+  public interface CommandLookupTopicsResponseOrBuilder
+      extends org.apache.pulsar.shaded.com.google.protobuf.v241.MessageLiteOrBuilder {
+    
+    // required uint64 request_id = 1;
+    boolean hasRequestId();
+    long getRequestId();
+    
+    // repeated .pulsar.proto.CommandLookupTopicResponse lookup_responses = 2;
+    java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse> 
+        getLookupResponsesList();
+    org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse getLookupResponses(int index);
+    int getLookupResponsesCount();
+    
+    // repeated .pulsar.proto.CommandPartitionedTopicMetadataResponse partition_metadata_responses = 3;
+    java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse> 
+        getPartitionMetadataResponsesList();
+    org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse getPartitionMetadataResponses(int index);
+    int getPartitionMetadataResponsesCount();
+  }
+  public static final class CommandLookupTopicsResponse extends
+      org.apache.pulsar.shaded.com.google.protobuf.v241.GeneratedMessageLite
+      implements CommandLookupTopicsResponseOrBuilder, org.apache.pulsar.common.util.protobuf.ByteBufCodedOutputStream.ByteBufGeneratedMessage  {
+    // Use CommandLookupTopicsResponse.newBuilder() to construct.
+    private io.netty.util.Recycler.Handle handle;
+    private CommandLookupTopicsResponse(io.netty.util.Recycler.Handle handle) {
+      this.handle = handle;
+    }
+    
+     private static final io.netty.util.Recycler<CommandLookupTopicsResponse> RECYCLER = new io.netty.util.Recycler<CommandLookupTopicsResponse>() {
+            protected CommandLookupTopicsResponse newObject(Handle handle) {
+              return new CommandLookupTopicsResponse(handle);
+            }
+          };
+        
+        public void recycle() {
+            this.initFields();
+            this.memoizedIsInitialized = -1;
+            this.bitField0_ = 0;
+            this.memoizedSerializedSize = -1;
+            if (handle != null) { RECYCLER.recycle(this, handle); }
+        }
+         
+    private CommandLookupTopicsResponse(boolean noInit) {}
+    
+    private static final CommandLookupTopicsResponse defaultInstance;
+    public static CommandLookupTopicsResponse getDefaultInstance() {
+      return defaultInstance;
+    }
+    
+    public CommandLookupTopicsResponse getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+    
+    private int bitField0_;
+    // required uint64 request_id = 1;
+    public static final int REQUEST_ID_FIELD_NUMBER = 1;
+    private long requestId_;
+    public boolean hasRequestId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    public long getRequestId() {
+      return requestId_;
+    }
+    
+    // repeated .pulsar.proto.CommandLookupTopicResponse lookup_responses = 2;
+    public static final int LOOKUP_RESPONSES_FIELD_NUMBER = 2;
+    private java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse> lookupResponses_;
+    public java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse> getLookupResponsesList() {
+      return lookupResponses_;
+    }
+    public java.util.List<? extends org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponseOrBuilder> 
+        getLookupResponsesOrBuilderList() {
+      return lookupResponses_;
+    }
+    public int getLookupResponsesCount() {
+      return lookupResponses_.size();
+    }
+    public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse getLookupResponses(int index) {
+      return lookupResponses_.get(index);
+    }
+    public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponseOrBuilder getLookupResponsesOrBuilder(
+        int index) {
+      return lookupResponses_.get(index);
+    }
+    
+    // repeated .pulsar.proto.CommandPartitionedTopicMetadataResponse partition_metadata_responses = 3;
+    public static final int PARTITION_METADATA_RESPONSES_FIELD_NUMBER = 3;
+    private java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse> partitionMetadataResponses_;
+    public java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse> getPartitionMetadataResponsesList() {
+      return partitionMetadataResponses_;
+    }
+    public java.util.List<? extends org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponseOrBuilder> 
+        getPartitionMetadataResponsesOrBuilderList() {
+      return partitionMetadataResponses_;
+    }
+    public int getPartitionMetadataResponsesCount() {
+      return partitionMetadataResponses_.size();
+    }
+    public org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse getPartitionMetadataResponses(int index) {
+      return partitionMetadataResponses_.get(index);
+    }
+    public org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponseOrBuilder getPartitionMetadataResponsesOrBuilder(
+        int index) {
+      return partitionMetadataResponses_.get(index);
+    }
+    
+    private void initFields() {
+      requestId_ = 0L;
+      lookupResponses_ = java.util.Collections.emptyList();
+      partitionMetadataResponses_ = java.util.Collections.emptyList();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+      
+      if (!hasRequestId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      for (int i = 0; i < getLookupResponsesCount(); i++) {
+        if (!getLookupResponses(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      for (int i = 0; i < getPartitionMetadataResponsesCount(); i++) {
+        if (!getPartitionMetadataResponses(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+    
+    public void writeTo(org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream output)
+                        throws java.io.IOException {
+        throw new RuntimeException("Cannot use CodedOutputStream");
+    }
+    
+    public void writeTo(org.apache.pulsar.common.util.protobuf.ByteBufCodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeUInt64(1, requestId_);
+      }
+      for (int i = 0; i < lookupResponses_.size(); i++) {
+        output.writeMessage(2, lookupResponses_.get(i));
+      }
+      for (int i = 0; i < partitionMetadataResponses_.size(); i++) {
+        output.writeMessage(3, partitionMetadataResponses_.get(i));
+      }
+    }
+    
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+    
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeUInt64Size(1, requestId_);
+      }
+      for (int i = 0; i < lookupResponses_.size(); i++) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeMessageSize(2, lookupResponses_.get(i));
+      }
+      for (int i = 0; i < partitionMetadataResponses_.size(); i++) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeMessageSize(3, partitionMetadataResponses_.get(i));
+      }
+      memoizedSerializedSize = size;
+      return size;
+    }
+    
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+    
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseFrom(
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString data)
+        throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+         throw new RuntimeException("Disabled");
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseFrom(
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString data,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+         throw new RuntimeException("Disabled");
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseFrom(byte[] data)
+        throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data).buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseFrom(
+        byte[] data,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+      return newBuilder().mergeFrom(data, extensionRegistry)
+               .buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input).buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseFrom(
+        java.io.InputStream input,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input, extensionRegistry)
+               .buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      Builder builder = newBuilder();
+      if (builder.mergeDelimitedFrom(input)) {
+        return builder.buildParsed();
+      } else {
+        return null;
+      }
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseDelimitedFrom(
+        java.io.InputStream input,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      Builder builder = newBuilder();
+      if (builder.mergeDelimitedFrom(input, extensionRegistry)) {
+        return builder.buildParsed();
+      } else {
+        return null;
+      }
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseFrom(
+        org.apache.pulsar.shaded.com.google.protobuf.v241.CodedInputStream input)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input).buildParsed();
+    }
+    public static org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse parseFrom(
+        org.apache.pulsar.shaded.com.google.protobuf.v241.CodedInputStream input,
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return newBuilder().mergeFrom(input, extensionRegistry)
+               .buildParsed();
+    }
+    
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+    
+    public static final class Builder extends
+        org.apache.pulsar.shaded.com.google.protobuf.v241.GeneratedMessageLite.Builder<
+          org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse, Builder>
+        implements org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponseOrBuilder, org.apache.pulsar.common.util.protobuf.ByteBufCodedInputStream.ByteBufMessageBuilder  {
+      // Construct using org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.newBuilder()
+      private final io.netty.util.Recycler.Handle handle;
+      private Builder(io.netty.util.Recycler.Handle handle) {
+        this.handle = handle;
+        maybeForceBuilderInitialization();
+      }
+      private final static io.netty.util.Recycler<Builder> RECYCLER = new io.netty.util.Recycler<Builder>() {
+         protected Builder newObject(io.netty.util.Recycler.Handle handle) {
+               return new Builder(handle);
+             }
+            };
+      
+       public void recycle() {
+                clear();
+                if (handle != null) {RECYCLER.recycle(this, handle);}
+            }
+      
+      private void maybeForceBuilderInitialization() {
+      }
+      private static Builder create() {
+        return RECYCLER.get();
+      }
+      
+      public Builder clear() {
+        super.clear();
+        requestId_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        lookupResponses_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        partitionMetadataResponses_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+      
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+      
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse getDefaultInstanceForType() {
+        return org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.getDefaultInstance();
+      }
+      
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse build() {
+        org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+      
+      private org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse buildParsed()
+          throws org.apache.pulsar.shaded.com.google.protobuf.v241.InvalidProtocolBufferException {
+        org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(
+            result).asInvalidProtocolBufferException();
+        }
+        return result;
+      }
+      
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse buildPartial() {
+        org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse result = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.RECYCLER.get();
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.requestId_ = requestId_;
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          lookupResponses_ = java.util.Collections.unmodifiableList(lookupResponses_);
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.lookupResponses_ = lookupResponses_;
+        if (((bitField0_ & 0x00000004) == 0x00000004)) {
+          partitionMetadataResponses_ = java.util.Collections.unmodifiableList(partitionMetadataResponses_);
+          bitField0_ = (bitField0_ & ~0x00000004);
+        }
+        result.partitionMetadataResponses_ = partitionMetadataResponses_;
+        result.bitField0_ = to_bitField0_;
+        return result;
+      }
+      
+      public Builder mergeFrom(org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse other) {
+        if (other == org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.getDefaultInstance()) return this;
+        if (other.hasRequestId()) {
+          setRequestId(other.getRequestId());
+        }
+        if (!other.lookupResponses_.isEmpty()) {
+          if (lookupResponses_.isEmpty()) {
+            lookupResponses_ = other.lookupResponses_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureLookupResponsesIsMutable();
+            lookupResponses_.addAll(other.lookupResponses_);
+          }
+          
+        }
+        if (!other.partitionMetadataResponses_.isEmpty()) {
+          if (partitionMetadataResponses_.isEmpty()) {
+            partitionMetadataResponses_ = other.partitionMetadataResponses_;
+            bitField0_ = (bitField0_ & ~0x00000004);
+          } else {
+            ensurePartitionMetadataResponsesIsMutable();
+            partitionMetadataResponses_.addAll(other.partitionMetadataResponses_);
+          }
+          
+        }
+        return this;
+      }
+      
+      public final boolean isInitialized() {
+        if (!hasRequestId()) {
+          
+          return false;
+        }
+        for (int i = 0; i < getLookupResponsesCount(); i++) {
+          if (!getLookupResponses(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        for (int i = 0; i < getPartitionMetadataResponsesCount(); i++) {
+          if (!getPartitionMetadataResponses(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        return true;
+      }
+      
+      public Builder mergeFrom(org.apache.pulsar.shaded.com.google.protobuf.v241.CodedInputStream input,
+                              org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+                              throws java.io.IOException {
+         throw new java.io.IOException("Merge from CodedInputStream is disabled");
+                              }
+      public Builder mergeFrom(
+          org.apache.pulsar.common.util.protobuf.ByteBufCodedInputStream input,
+          org.apache.pulsar.shaded.com.google.protobuf.v241.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        while (true) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              
+              return this;
+            default: {
+              if (!input.skipField(tag)) {
+                
+                return this;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              requestId_ = input.readUInt64();
+              break;
+            }
+            case 18: {
+              org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.Builder subBuilder = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.newBuilder();
+              input.readMessage(subBuilder, extensionRegistry);
+              addLookupResponses(subBuilder.buildPartial());
+              break;
+            }
+            case 26: {
+              org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse.Builder subBuilder = org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse.newBuilder();
+              input.readMessage(subBuilder, extensionRegistry);
+              addPartitionMetadataResponses(subBuilder.buildPartial());
+              break;
+            }
+          }
+        }
+      }
+      
+      private int bitField0_;
+      
+      // required uint64 request_id = 1;
+      private long requestId_ ;
+      public boolean hasRequestId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      public long getRequestId() {
+        return requestId_;
+      }
+      public Builder setRequestId(long value) {
+        bitField0_ |= 0x00000001;
+        requestId_ = value;
+        
+        return this;
+      }
+      public Builder clearRequestId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        requestId_ = 0L;
+        
+        return this;
+      }
+      
+      // repeated .pulsar.proto.CommandLookupTopicResponse lookup_responses = 2;
+      private java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse> lookupResponses_ =
+        java.util.Collections.emptyList();
+      private void ensureLookupResponsesIsMutable() {
+        if (!((bitField0_ & 0x00000002) == 0x00000002)) {
+          lookupResponses_ = new java.util.ArrayList<org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse>(lookupResponses_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+      
+      public java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse> getLookupResponsesList() {
+        return java.util.Collections.unmodifiableList(lookupResponses_);
+      }
+      public int getLookupResponsesCount() {
+        return lookupResponses_.size();
+      }
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse getLookupResponses(int index) {
+        return lookupResponses_.get(index);
+      }
+      public Builder setLookupResponses(
+          int index, org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureLookupResponsesIsMutable();
+        lookupResponses_.set(index, value);
+        
+        return this;
+      }
+      public Builder setLookupResponses(
+          int index, org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.Builder builderForValue) {
+        ensureLookupResponsesIsMutable();
+        lookupResponses_.set(index, builderForValue.build());
+        
+        return this;
+      }
+      public Builder addLookupResponses(org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureLookupResponsesIsMutable();
+        lookupResponses_.add(value);
+        
+        return this;
+      }
+      public Builder addLookupResponses(
+          int index, org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureLookupResponsesIsMutable();
+        lookupResponses_.add(index, value);
+        
+        return this;
+      }
+      public Builder addLookupResponses(
+          org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.Builder builderForValue) {
+        ensureLookupResponsesIsMutable();
+        lookupResponses_.add(builderForValue.build());
+        
+        return this;
+      }
+      public Builder addLookupResponses(
+          int index, org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.Builder builderForValue) {
+        ensureLookupResponsesIsMutable();
+        lookupResponses_.add(index, builderForValue.build());
+        
+        return this;
+      }
+      public Builder addAllLookupResponses(
+          java.lang.Iterable<? extends org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse> values) {
+        ensureLookupResponsesIsMutable();
+        super.addAll(values, lookupResponses_);
+        
+        return this;
+      }
+      public Builder clearLookupResponses() {
+        lookupResponses_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        
+        return this;
+      }
+      public Builder removeLookupResponses(int index) {
+        ensureLookupResponsesIsMutable();
+        lookupResponses_.remove(index);
+        
+        return this;
+      }
+      
+      // repeated .pulsar.proto.CommandPartitionedTopicMetadataResponse partition_metadata_responses = 3;
+      private java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse> partitionMetadataResponses_ =
+        java.util.Collections.emptyList();
+      private void ensurePartitionMetadataResponsesIsMutable() {
+        if (!((bitField0_ & 0x00000004) == 0x00000004)) {
+          partitionMetadataResponses_ = new java.util.ArrayList<org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse>(partitionMetadataResponses_);
+          bitField0_ |= 0x00000004;
+         }
+      }
+      
+      public java.util.List<org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse> getPartitionMetadataResponsesList() {
+        return java.util.Collections.unmodifiableList(partitionMetadataResponses_);
+      }
+      public int getPartitionMetadataResponsesCount() {
+        return partitionMetadataResponses_.size();
+      }
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse getPartitionMetadataResponses(int index) {
+        return partitionMetadataResponses_.get(index);
+      }
+      public Builder setPartitionMetadataResponses(
+          int index, org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensurePartitionMetadataResponsesIsMutable();
+        partitionMetadataResponses_.set(index, value);
+        
+        return this;
+      }
+      public Builder setPartitionMetadataResponses(
+          int index, org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse.Builder builderForValue) {
+        ensurePartitionMetadataResponsesIsMutable();
+        partitionMetadataResponses_.set(index, builderForValue.build());
+        
+        return this;
+      }
+      public Builder addPartitionMetadataResponses(org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensurePartitionMetadataResponsesIsMutable();
+        partitionMetadataResponses_.add(value);
+        
+        return this;
+      }
+      public Builder addPartitionMetadataResponses(
+          int index, org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensurePartitionMetadataResponsesIsMutable();
+        partitionMetadataResponses_.add(index, value);
+        
+        return this;
+      }
+      public Builder addPartitionMetadataResponses(
+          org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse.Builder builderForValue) {
+        ensurePartitionMetadataResponsesIsMutable();
+        partitionMetadataResponses_.add(builderForValue.build());
+        
+        return this;
+      }
+      public Builder addPartitionMetadataResponses(
+          int index, org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse.Builder builderForValue) {
+        ensurePartitionMetadataResponsesIsMutable();
+        partitionMetadataResponses_.add(index, builderForValue.build());
+        
+        return this;
+      }
+      public Builder addAllPartitionMetadataResponses(
+          java.lang.Iterable<? extends org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadataResponse> values) {
+        ensurePartitionMetadataResponsesIsMutable();
+        super.addAll(values, partitionMetadataResponses_);
+        
+        return this;
+      }
+      public Builder clearPartitionMetadataResponses() {
+        partitionMetadataResponses_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        
+        return this;
+      }
+      public Builder removePartitionMetadataResponses(int index) {
+        ensurePartitionMetadataResponsesIsMutable();
+        partitionMetadataResponses_.remove(index);
+        
+        return this;
+      }
+      
+      // @@protoc_insertion_point(builder_scope:pulsar.proto.CommandLookupTopicsResponse)
+    }
+    
+    static {
+      defaultInstance = new CommandLookupTopicsResponse(true);
+      defaultInstance.initFields();
+    }
+    
+    // @@protoc_insertion_point(class_scope:pulsar.proto.CommandLookupTopicsResponse)
+  }
+  
   public interface CommandProducerOrBuilder
       extends org.apache.pulsar.shaded.com.google.protobuf.v241.MessageLiteOrBuilder {
     
@@ -17002,6 +18153,14 @@ public final class PulsarApi {
     // required uint64 request_id = 2;
     boolean hasRequestId();
     long getRequestId();
+    
+    // optional string assignedBrokerServiceUrl = 3;
+    boolean hasAssignedBrokerServiceUrl();
+    String getAssignedBrokerServiceUrl();
+    
+    // optional string assignedBrokerServiceUrlTls = 4;
+    boolean hasAssignedBrokerServiceUrlTls();
+    String getAssignedBrokerServiceUrlTls();
   }
   public static final class CommandCloseProducer extends
       org.apache.pulsar.shaded.com.google.protobuf.v241.GeneratedMessageLite
@@ -17058,9 +18217,75 @@ public final class PulsarApi {
       return requestId_;
     }
     
+    // optional string assignedBrokerServiceUrl = 3;
+    public static final int ASSIGNEDBROKERSERVICEURL_FIELD_NUMBER = 3;
+    private java.lang.Object assignedBrokerServiceUrl_;
+    public boolean hasAssignedBrokerServiceUrl() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    public String getAssignedBrokerServiceUrl() {
+      java.lang.Object ref = assignedBrokerServiceUrl_;
+      if (ref instanceof String) {
+        return (String) ref;
+      } else {
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString bs = 
+            (org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref;
+        String s = bs.toStringUtf8();
+        if (org.apache.pulsar.shaded.com.google.protobuf.v241.Internal.isValidUtf8(bs)) {
+          assignedBrokerServiceUrl_ = s;
+        }
+        return s;
+      }
+    }
+    private org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString getAssignedBrokerServiceUrlBytes() {
+      java.lang.Object ref = assignedBrokerServiceUrl_;
+      if (ref instanceof String) {
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString b = 
+            org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString.copyFromUtf8((String) ref);
+        assignedBrokerServiceUrl_ = b;
+        return b;
+      } else {
+        return (org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref;
+      }
+    }
+    
+    // optional string assignedBrokerServiceUrlTls = 4;
+    public static final int ASSIGNEDBROKERSERVICEURLTLS_FIELD_NUMBER = 4;
+    private java.lang.Object assignedBrokerServiceUrlTls_;
+    public boolean hasAssignedBrokerServiceUrlTls() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    public String getAssignedBrokerServiceUrlTls() {
+      java.lang.Object ref = assignedBrokerServiceUrlTls_;
+      if (ref instanceof String) {
+        return (String) ref;
+      } else {
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString bs = 
+            (org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref;
+        String s = bs.toStringUtf8();
+        if (org.apache.pulsar.shaded.com.google.protobuf.v241.Internal.isValidUtf8(bs)) {
+          assignedBrokerServiceUrlTls_ = s;
+        }
+        return s;
+      }
+    }
+    private org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString getAssignedBrokerServiceUrlTlsBytes() {
+      java.lang.Object ref = assignedBrokerServiceUrlTls_;
+      if (ref instanceof String) {
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString b = 
+            org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString.copyFromUtf8((String) ref);
+        assignedBrokerServiceUrlTls_ = b;
+        return b;
+      } else {
+        return (org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref;
+      }
+    }
+    
     private void initFields() {
       producerId_ = 0L;
       requestId_ = 0L;
+      assignedBrokerServiceUrl_ = "";
+      assignedBrokerServiceUrlTls_ = "";
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -17093,6 +18318,12 @@ public final class PulsarApi {
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         output.writeUInt64(2, requestId_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeBytes(3, getAssignedBrokerServiceUrlBytes());
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeBytes(4, getAssignedBrokerServiceUrlTlsBytes());
+      }
     }
     
     private int memoizedSerializedSize = -1;
@@ -17109,6 +18340,14 @@ public final class PulsarApi {
         size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
           .computeUInt64Size(2, requestId_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeBytesSize(3, getAssignedBrokerServiceUrlBytes());
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeBytesSize(4, getAssignedBrokerServiceUrlTlsBytes());
+      }
       memoizedSerializedSize = size;
       return size;
     }
@@ -17226,6 +18465,10 @@ public final class PulsarApi {
         bitField0_ = (bitField0_ & ~0x00000001);
         requestId_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000002);
+        assignedBrokerServiceUrl_ = "";
+        bitField0_ = (bitField0_ & ~0x00000004);
+        assignedBrokerServiceUrlTls_ = "";
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
       
@@ -17267,6 +18510,14 @@ public final class PulsarApi {
           to_bitField0_ |= 0x00000002;
         }
         result.requestId_ = requestId_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.assignedBrokerServiceUrl_ = assignedBrokerServiceUrl_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.assignedBrokerServiceUrlTls_ = assignedBrokerServiceUrlTls_;
         result.bitField0_ = to_bitField0_;
         return result;
       }
@@ -17279,6 +18530,12 @@ public final class PulsarApi {
         if (other.hasRequestId()) {
           setRequestId(other.getRequestId());
         }
+        if (other.hasAssignedBrokerServiceUrl()) {
+          setAssignedBrokerServiceUrl(other.getAssignedBrokerServiceUrl());
+        }
+        if (other.hasAssignedBrokerServiceUrlTls()) {
+          setAssignedBrokerServiceUrlTls(other.getAssignedBrokerServiceUrlTls());
+        }
         return this;
       }
       
@@ -17326,6 +18583,16 @@ public final class PulsarApi {
               requestId_ = input.readUInt64();
               break;
             }
+            case 26: {
+              bitField0_ |= 0x00000004;
+              assignedBrokerServiceUrl_ = input.readBytes();
+              break;
+            }
+            case 34: {
+              bitField0_ |= 0x00000008;
+              assignedBrokerServiceUrlTls_ = input.readBytes();
+              break;
+            }
           }
         }
       }
@@ -17374,6 +18641,78 @@ public final class PulsarApi {
         return this;
       }
       
+      // optional string assignedBrokerServiceUrl = 3;
+      private java.lang.Object assignedBrokerServiceUrl_ = "";
+      public boolean hasAssignedBrokerServiceUrl() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      public String getAssignedBrokerServiceUrl() {
+        java.lang.Object ref = assignedBrokerServiceUrl_;
+        if (!(ref instanceof String)) {
+          String s = ((org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref).toStringUtf8();
+          assignedBrokerServiceUrl_ = s;
+          return s;
+        } else {
+          return (String) ref;
+        }
+      }
+      public Builder setAssignedBrokerServiceUrl(String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        assignedBrokerServiceUrl_ = value;
+        
+        return this;
+      }
+      public Builder clearAssignedBrokerServiceUrl() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        assignedBrokerServiceUrl_ = getDefaultInstance().getAssignedBrokerServiceUrl();
+        
+        return this;
+      }
+      void setAssignedBrokerServiceUrl(org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString value) {
+        bitField0_ |= 0x00000004;
+        assignedBrokerServiceUrl_ = value;
+        
+      }
+      
+      // optional string assignedBrokerServiceUrlTls = 4;
+      private java.lang.Object assignedBrokerServiceUrlTls_ = "";
+      public boolean hasAssignedBrokerServiceUrlTls() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      public String getAssignedBrokerServiceUrlTls() {
+        java.lang.Object ref = assignedBrokerServiceUrlTls_;
+        if (!(ref instanceof String)) {
+          String s = ((org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref).toStringUtf8();
+          assignedBrokerServiceUrlTls_ = s;
+          return s;
+        } else {
+          return (String) ref;
+        }
+      }
+      public Builder setAssignedBrokerServiceUrlTls(String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        assignedBrokerServiceUrlTls_ = value;
+        
+        return this;
+      }
+      public Builder clearAssignedBrokerServiceUrlTls() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        assignedBrokerServiceUrlTls_ = getDefaultInstance().getAssignedBrokerServiceUrlTls();
+        
+        return this;
+      }
+      void setAssignedBrokerServiceUrlTls(org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString value) {
+        bitField0_ |= 0x00000008;
+        assignedBrokerServiceUrlTls_ = value;
+        
+      }
+      
       // @@protoc_insertion_point(builder_scope:pulsar.proto.CommandCloseProducer)
     }
     
@@ -17395,6 +18734,14 @@ public final class PulsarApi {
     // required uint64 request_id = 2;
     boolean hasRequestId();
     long getRequestId();
+    
+    // optional string assignedBrokerServiceUrl = 3;
+    boolean hasAssignedBrokerServiceUrl();
+    String getAssignedBrokerServiceUrl();
+    
+    // optional string assignedBrokerServiceUrlTls = 4;
+    boolean hasAssignedBrokerServiceUrlTls();
+    String getAssignedBrokerServiceUrlTls();
   }
   public static final class CommandCloseConsumer extends
       org.apache.pulsar.shaded.com.google.protobuf.v241.GeneratedMessageLite
@@ -17451,9 +18798,75 @@ public final class PulsarApi {
       return requestId_;
     }
     
+    // optional string assignedBrokerServiceUrl = 3;
+    public static final int ASSIGNEDBROKERSERVICEURL_FIELD_NUMBER = 3;
+    private java.lang.Object assignedBrokerServiceUrl_;
+    public boolean hasAssignedBrokerServiceUrl() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    public String getAssignedBrokerServiceUrl() {
+      java.lang.Object ref = assignedBrokerServiceUrl_;
+      if (ref instanceof String) {
+        return (String) ref;
+      } else {
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString bs = 
+            (org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref;
+        String s = bs.toStringUtf8();
+        if (org.apache.pulsar.shaded.com.google.protobuf.v241.Internal.isValidUtf8(bs)) {
+          assignedBrokerServiceUrl_ = s;
+        }
+        return s;
+      }
+    }
+    private org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString getAssignedBrokerServiceUrlBytes() {
+      java.lang.Object ref = assignedBrokerServiceUrl_;
+      if (ref instanceof String) {
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString b = 
+            org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString.copyFromUtf8((String) ref);
+        assignedBrokerServiceUrl_ = b;
+        return b;
+      } else {
+        return (org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref;
+      }
+    }
+    
+    // optional string assignedBrokerServiceUrlTls = 4;
+    public static final int ASSIGNEDBROKERSERVICEURLTLS_FIELD_NUMBER = 4;
+    private java.lang.Object assignedBrokerServiceUrlTls_;
+    public boolean hasAssignedBrokerServiceUrlTls() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    public String getAssignedBrokerServiceUrlTls() {
+      java.lang.Object ref = assignedBrokerServiceUrlTls_;
+      if (ref instanceof String) {
+        return (String) ref;
+      } else {
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString bs = 
+            (org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref;
+        String s = bs.toStringUtf8();
+        if (org.apache.pulsar.shaded.com.google.protobuf.v241.Internal.isValidUtf8(bs)) {
+          assignedBrokerServiceUrlTls_ = s;
+        }
+        return s;
+      }
+    }
+    private org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString getAssignedBrokerServiceUrlTlsBytes() {
+      java.lang.Object ref = assignedBrokerServiceUrlTls_;
+      if (ref instanceof String) {
+        org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString b = 
+            org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString.copyFromUtf8((String) ref);
+        assignedBrokerServiceUrlTls_ = b;
+        return b;
+      } else {
+        return (org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref;
+      }
+    }
+    
     private void initFields() {
       consumerId_ = 0L;
       requestId_ = 0L;
+      assignedBrokerServiceUrl_ = "";
+      assignedBrokerServiceUrlTls_ = "";
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -17486,6 +18899,12 @@ public final class PulsarApi {
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         output.writeUInt64(2, requestId_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeBytes(3, getAssignedBrokerServiceUrlBytes());
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeBytes(4, getAssignedBrokerServiceUrlTlsBytes());
+      }
     }
     
     private int memoizedSerializedSize = -1;
@@ -17502,6 +18921,14 @@ public final class PulsarApi {
         size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
           .computeUInt64Size(2, requestId_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeBytesSize(3, getAssignedBrokerServiceUrlBytes());
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeBytesSize(4, getAssignedBrokerServiceUrlTlsBytes());
+      }
       memoizedSerializedSize = size;
       return size;
     }
@@ -17619,6 +19046,10 @@ public final class PulsarApi {
         bitField0_ = (bitField0_ & ~0x00000001);
         requestId_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000002);
+        assignedBrokerServiceUrl_ = "";
+        bitField0_ = (bitField0_ & ~0x00000004);
+        assignedBrokerServiceUrlTls_ = "";
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
       
@@ -17660,6 +19091,14 @@ public final class PulsarApi {
           to_bitField0_ |= 0x00000002;
         }
         result.requestId_ = requestId_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.assignedBrokerServiceUrl_ = assignedBrokerServiceUrl_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.assignedBrokerServiceUrlTls_ = assignedBrokerServiceUrlTls_;
         result.bitField0_ = to_bitField0_;
         return result;
       }
@@ -17672,6 +19111,12 @@ public final class PulsarApi {
         if (other.hasRequestId()) {
           setRequestId(other.getRequestId());
         }
+        if (other.hasAssignedBrokerServiceUrl()) {
+          setAssignedBrokerServiceUrl(other.getAssignedBrokerServiceUrl());
+        }
+        if (other.hasAssignedBrokerServiceUrlTls()) {
+          setAssignedBrokerServiceUrlTls(other.getAssignedBrokerServiceUrlTls());
+        }
         return this;
       }
       
@@ -17719,6 +19164,16 @@ public final class PulsarApi {
               requestId_ = input.readUInt64();
               break;
             }
+            case 26: {
+              bitField0_ |= 0x00000004;
+              assignedBrokerServiceUrl_ = input.readBytes();
+              break;
+            }
+            case 34: {
+              bitField0_ |= 0x00000008;
+              assignedBrokerServiceUrlTls_ = input.readBytes();
+              break;
+            }
           }
         }
       }
@@ -17767,6 +19222,78 @@ public final class PulsarApi {
         return this;
       }
       
+      // optional string assignedBrokerServiceUrl = 3;
+      private java.lang.Object assignedBrokerServiceUrl_ = "";
+      public boolean hasAssignedBrokerServiceUrl() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      public String getAssignedBrokerServiceUrl() {
+        java.lang.Object ref = assignedBrokerServiceUrl_;
+        if (!(ref instanceof String)) {
+          String s = ((org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref).toStringUtf8();
+          assignedBrokerServiceUrl_ = s;
+          return s;
+        } else {
+          return (String) ref;
+        }
+      }
+      public Builder setAssignedBrokerServiceUrl(String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        assignedBrokerServiceUrl_ = value;
+        
+        return this;
+      }
+      public Builder clearAssignedBrokerServiceUrl() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        assignedBrokerServiceUrl_ = getDefaultInstance().getAssignedBrokerServiceUrl();
+        
+        return this;
+      }
+      void setAssignedBrokerServiceUrl(org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString value) {
+        bitField0_ |= 0x00000004;
+        assignedBrokerServiceUrl_ = value;
+        
+      }
+      
+      // optional string assignedBrokerServiceUrlTls = 4;
+      private java.lang.Object assignedBrokerServiceUrlTls_ = "";
+      public boolean hasAssignedBrokerServiceUrlTls() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      public String getAssignedBrokerServiceUrlTls() {
+        java.lang.Object ref = assignedBrokerServiceUrlTls_;
+        if (!(ref instanceof String)) {
+          String s = ((org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString) ref).toStringUtf8();
+          assignedBrokerServiceUrlTls_ = s;
+          return s;
+        } else {
+          return (String) ref;
+        }
+      }
+      public Builder setAssignedBrokerServiceUrlTls(String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        assignedBrokerServiceUrlTls_ = value;
+        
+        return this;
+      }
+      public Builder clearAssignedBrokerServiceUrlTls() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        assignedBrokerServiceUrlTls_ = getDefaultInstance().getAssignedBrokerServiceUrlTls();
+        
+        return this;
+      }
+      void setAssignedBrokerServiceUrlTls(org.apache.pulsar.shaded.com.google.protobuf.v241.ByteString value) {
+        bitField0_ |= 0x00000008;
+        assignedBrokerServiceUrlTls_ = value;
+        
+      }
+      
       // @@protoc_insertion_point(builder_scope:pulsar.proto.CommandCloseConsumer)
     }
     
@@ -25035,6 +26562,14 @@ public final class PulsarApi {
     // optional .pulsar.proto.CommandGetSchemaResponse getSchemaResponse = 35;
     boolean hasGetSchemaResponse();
     org.apache.pulsar.common.api.proto.PulsarApi.CommandGetSchemaResponse getGetSchemaResponse();
+    
+    // optional .pulsar.proto.CommandLookupTopics lookupTopics = 36;
+    boolean hasLookupTopics();
+    org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics getLookupTopics();
+    
+    // optional .pulsar.proto.CommandLookupTopicsResponse lookupTopicsResponse = 37;
+    boolean hasLookupTopicsResponse();
+    org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse getLookupTopicsResponse();
   }
   public static final class BaseCommand extends
       org.apache.pulsar.shaded.com.google.protobuf.v241.GeneratedMessageLite
@@ -25107,6 +26642,8 @@ public final class PulsarApi {
       GET_TOPICS_OF_NAMESPACE_RESPONSE(31, 33),
       GET_SCHEMA(32, 34),
       GET_SCHEMA_RESPONSE(33, 35),
+      LOOKUP_TOPICS(34, 36),
+      LOOKUP_TOPICS_RESPONSE(35, 37),
       ;
       
       public static final int CONNECT_VALUE = 2;
@@ -25143,6 +26680,8 @@ public final class PulsarApi {
       public static final int GET_TOPICS_OF_NAMESPACE_RESPONSE_VALUE = 33;
       public static final int GET_SCHEMA_VALUE = 34;
       public static final int GET_SCHEMA_RESPONSE_VALUE = 35;
+      public static final int LOOKUP_TOPICS_VALUE = 36;
+      public static final int LOOKUP_TOPICS_RESPONSE_VALUE = 37;
       
       
       public final int getNumber() { return value; }
@@ -25183,6 +26722,8 @@ public final class PulsarApi {
           case 33: return GET_TOPICS_OF_NAMESPACE_RESPONSE;
           case 34: return GET_SCHEMA;
           case 35: return GET_SCHEMA_RESPONSE;
+          case 36: return LOOKUP_TOPICS;
+          case 37: return LOOKUP_TOPICS_RESPONSE;
           default: return null;
         }
       }
@@ -25560,6 +27101,26 @@ public final class PulsarApi {
       return getSchemaResponse_;
     }
     
+    // optional .pulsar.proto.CommandLookupTopics lookupTopics = 36;
+    public static final int LOOKUPTOPICS_FIELD_NUMBER = 36;
+    private org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics lookupTopics_;
+    public boolean hasLookupTopics() {
+      return ((bitField1_ & 0x00000008) == 0x00000008);
+    }
+    public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics getLookupTopics() {
+      return lookupTopics_;
+    }
+    
+    // optional .pulsar.proto.CommandLookupTopicsResponse lookupTopicsResponse = 37;
+    public static final int LOOKUPTOPICSRESPONSE_FIELD_NUMBER = 37;
+    private org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse lookupTopicsResponse_;
+    public boolean hasLookupTopicsResponse() {
+      return ((bitField1_ & 0x00000010) == 0x00000010);
+    }
+    public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse getLookupTopicsResponse() {
+      return lookupTopicsResponse_;
+    }
+    
     private void initFields() {
       type_ = org.apache.pulsar.common.api.proto.PulsarApi.BaseCommand.Type.CONNECT;
       connect_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandConnect.getDefaultInstance();
@@ -25596,6 +27157,8 @@ public final class PulsarApi {
       getTopicsOfNamespaceResponse_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandGetTopicsOfNamespaceResponse.getDefaultInstance();
       getSchema_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandGetSchema.getDefaultInstance();
       getSchemaResponse_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandGetSchemaResponse.getDefaultInstance();
+      lookupTopics_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.getDefaultInstance();
+      lookupTopicsResponse_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.getDefaultInstance();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -25798,6 +27361,18 @@ public final class PulsarApi {
           return false;
         }
       }
+      if (hasLookupTopics()) {
+        if (!getLookupTopics().isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      if (hasLookupTopicsResponse()) {
+        if (!getLookupTopicsResponse().isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
       memoizedIsInitialized = 1;
       return true;
     }
@@ -25915,6 +27490,12 @@ public final class PulsarApi {
       if (((bitField1_ & 0x00000004) == 0x00000004)) {
         output.writeMessage(35, getSchemaResponse_);
       }
+      if (((bitField1_ & 0x00000008) == 0x00000008)) {
+        output.writeMessage(36, lookupTopics_);
+      }
+      if (((bitField1_ & 0x00000010) == 0x00000010)) {
+        output.writeMessage(37, lookupTopicsResponse_);
+      }
     }
     
     private int memoizedSerializedSize = -1;
@@ -26063,6 +27644,14 @@ public final class PulsarApi {
         size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
           .computeMessageSize(35, getSchemaResponse_);
       }
+      if (((bitField1_ & 0x00000008) == 0x00000008)) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeMessageSize(36, lookupTopics_);
+      }
+      if (((bitField1_ & 0x00000010) == 0x00000010)) {
+        size += org.apache.pulsar.shaded.com.google.protobuf.v241.CodedOutputStream
+          .computeMessageSize(37, lookupTopicsResponse_);
+      }
       memoizedSerializedSize = size;
       return size;
     }
@@ -26246,6 +27835,10 @@ public final class PulsarApi {
         bitField1_ = (bitField1_ & ~0x00000002);
         getSchemaResponse_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandGetSchemaResponse.getDefaultInstance();
         bitField1_ = (bitField1_ & ~0x00000004);
+        lookupTopics_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.getDefaultInstance();
+        bitField1_ = (bitField1_ & ~0x00000008);
+        lookupTopicsResponse_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.getDefaultInstance();
+        bitField1_ = (bitField1_ & ~0x00000010);
         return this;
       }
       
@@ -26421,6 +28014,14 @@ public final class PulsarApi {
           to_bitField1_ |= 0x00000004;
         }
         result.getSchemaResponse_ = getSchemaResponse_;
+        if (((from_bitField1_ & 0x00000008) == 0x00000008)) {
+          to_bitField1_ |= 0x00000008;
+        }
+        result.lookupTopics_ = lookupTopics_;
+        if (((from_bitField1_ & 0x00000010) == 0x00000010)) {
+          to_bitField1_ |= 0x00000010;
+        }
+        result.lookupTopicsResponse_ = lookupTopicsResponse_;
         result.bitField0_ = to_bitField0_;
         result.bitField1_ = to_bitField1_;
         return result;
@@ -26533,6 +28134,12 @@ public final class PulsarApi {
         if (other.hasGetSchemaResponse()) {
           mergeGetSchemaResponse(other.getGetSchemaResponse());
         }
+        if (other.hasLookupTopics()) {
+          mergeLookupTopics(other.getLookupTopics());
+        }
+        if (other.hasLookupTopicsResponse()) {
+          mergeLookupTopicsResponse(other.getLookupTopicsResponse());
+        }
         return this;
       }
       
@@ -26733,6 +28340,18 @@ public final class PulsarApi {
             return false;
           }
         }
+        if (hasLookupTopics()) {
+          if (!getLookupTopics().isInitialized()) {
+            
+            return false;
+          }
+        }
+        if (hasLookupTopicsResponse()) {
+          if (!getLookupTopicsResponse().isInitialized()) {
+            
+            return false;
+          }
+        }
         return true;
       }
       
@@ -27107,6 +28726,26 @@ public final class PulsarApi {
               subBuilder.recycle();
               break;
             }
+            case 290: {
+              org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.Builder subBuilder = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.newBuilder();
+              if (hasLookupTopics()) {
+                subBuilder.mergeFrom(getLookupTopics());
+              }
+              input.readMessage(subBuilder, extensionRegistry);
+              setLookupTopics(subBuilder.buildPartial());
+              subBuilder.recycle();
+              break;
+            }
+            case 298: {
+              org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.Builder subBuilder = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.newBuilder();
+              if (hasLookupTopicsResponse()) {
+                subBuilder.mergeFrom(getLookupTopicsResponse());
+              }
+              input.readMessage(subBuilder, extensionRegistry);
+              setLookupTopicsResponse(subBuilder.buildPartial());
+              subBuilder.recycle();
+              break;
+            }
           }
         }
       }
@@ -28600,6 +30239,92 @@ public final class PulsarApi {
         return this;
       }
       
+      // optional .pulsar.proto.CommandLookupTopics lookupTopics = 36;
+      private org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics lookupTopics_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.getDefaultInstance();
+      public boolean hasLookupTopics() {
+        return ((bitField1_ & 0x00000008) == 0x00000008);
+      }
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics getLookupTopics() {
+        return lookupTopics_;
+      }
+      public Builder setLookupTopics(org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        lookupTopics_ = value;
+        
+        bitField1_ |= 0x00000008;
+        return this;
+      }
+      public Builder setLookupTopics(
+          org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.Builder builderForValue) {
+        lookupTopics_ = builderForValue.build();
+        
+        bitField1_ |= 0x00000008;
+        return this;
+      }
+      public Builder mergeLookupTopics(org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics value) {
+        if (((bitField1_ & 0x00000008) == 0x00000008) &&
+            lookupTopics_ != org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.getDefaultInstance()) {
+          lookupTopics_ =
+            org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.newBuilder(lookupTopics_).mergeFrom(value).buildPartial();
+        } else {
+          lookupTopics_ = value;
+        }
+        
+        bitField1_ |= 0x00000008;
+        return this;
+      }
+      public Builder clearLookupTopics() {
+        lookupTopics_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics.getDefaultInstance();
+        
+        bitField1_ = (bitField1_ & ~0x00000008);
+        return this;
+      }
+      
+      // optional .pulsar.proto.CommandLookupTopicsResponse lookupTopicsResponse = 37;
+      private org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse lookupTopicsResponse_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.getDefaultInstance();
+      public boolean hasLookupTopicsResponse() {
+        return ((bitField1_ & 0x00000010) == 0x00000010);
+      }
+      public org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse getLookupTopicsResponse() {
+        return lookupTopicsResponse_;
+      }
+      public Builder setLookupTopicsResponse(org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        lookupTopicsResponse_ = value;
+        
+        bitField1_ |= 0x00000010;
+        return this;
+      }
+      public Builder setLookupTopicsResponse(
+          org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.Builder builderForValue) {
+        lookupTopicsResponse_ = builderForValue.build();
+        
+        bitField1_ |= 0x00000010;
+        return this;
+      }
+      public Builder mergeLookupTopicsResponse(org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse value) {
+        if (((bitField1_ & 0x00000010) == 0x00000010) &&
+            lookupTopicsResponse_ != org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.getDefaultInstance()) {
+          lookupTopicsResponse_ =
+            org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.newBuilder(lookupTopicsResponse_).mergeFrom(value).buildPartial();
+        } else {
+          lookupTopicsResponse_ = value;
+        }
+        
+        bitField1_ |= 0x00000010;
+        return this;
+      }
+      public Builder clearLookupTopicsResponse() {
+        lookupTopicsResponse_ = org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse.getDefaultInstance();
+        
+        bitField1_ = (bitField1_ & ~0x00000010);
+        return this;
+      }
+      
       // @@protoc_insertion_point(builder_scope:pulsar.proto.BaseCommand)
     }
     
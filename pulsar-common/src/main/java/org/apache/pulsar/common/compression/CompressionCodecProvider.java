@@ -23,9 +23,18 @@ import java.util.EnumMap;
 import lombok.experimental.UtilityClass;
 
 import org.apache.pulsar.common.api.proto.PulsarApi.CompressionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @UtilityClass
 public class CompressionCodecProvider {
+    private static final Logger log = LoggerFactory.getLogger(CompressionCodecProvider.class);
+
+    /**
+     * System property setting the level of the zstd codec, read once when the zstd codec is first requested.
+     */
+    public static final String ZSTD_LEVEL_PROPERTY = "pulsar.compression.zstd.level";
+
     private static final EnumMap<CompressionType, CompressionCodec> codecs;
 
     static {
@@ -33,9 +42,31 @@ public class CompressionCodecProvider {
         codecs.put(CompressionType.NONE, new CompressionCodecNone());
         codecs.put(CompressionType.LZ4, new CompressionCodecLZ4());
         codecs.put(CompressionType.ZLIB, new CompressionCodecZLib());
+        codecs.put(CompressionType.SNAPPY, new CompressionCodecSnappy());
+    }
+
+    // Created on first use, so that the other codecs never depend on the zstd native library
+    private static class ZstdCodecHolder {
+        private static final CompressionCodec CODEC = newZstdCodec();
     }
 
     public static CompressionCodec getCompressionCodec(CompressionType type) {
+        if (type == CompressionType.ZSTD) {
+            return ZstdCodecHolder.CODEC;
+        }
         return codecs.get(type);
     }
+
+    static CompressionCodecZstd newZstdCodec() {
+        Integer level = Integer.getInteger(ZSTD_LEVEL_PROPERTY);
+        if (level == null) {
+            return new CompressionCodecZstd();
+        }
+        try {
+            return new CompressionCodecZstd(level);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring {}={}: {}", ZSTD_LEVEL_PROPERTY, level, e.getMessage());
+            return new CompressionCodecZstd();
+        }
+    }
 }
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.compression;
+
+import static org.apache.pulsar.common.compression.CompressionCodecZstd.toDirect;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.xerial.snappy.Snappy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Snappy Compression
+ */
+public class CompressionCodecSnappy implements CompressionCodec {
+
+    @Override
+    public ByteBuf encode(ByteBuf source) {
+        int uncompressedLength = source.readableBytes();
+        int maxLength = Snappy.maxCompressedLength(uncompressedLength);
+
+        // The native library only reads and writes direct buffers
+        ByteBuf directSource = toDirect(source);
+        ByteBuf target = PooledByteBufAllocator.DEFAULT.directBuffer(maxLength, maxLength);
+        try {
+            ByteBuffer sourceNio = directSource.nioBuffer(directSource.readerIndex(), uncompressedLength);
+            ByteBuffer targetNio = target.nioBuffer(0, maxLength);
+
+            int compressedLength = Snappy.compress(sourceNio, targetNio);
+            target.writerIndex(compressedLength);
+            return target;
+        } catch (IOException e) {
+            target.release();
+            throw new RuntimeException("Failed to compress with snappy", e);
+        } finally {
+            if (directSource != source) {
+                directSource.release();
+            }
+        }
+    }
+
+    @Override
+    public ByteBuf decode(ByteBuf encoded, int uncompressedLength) throws IOException {
+        ByteBuf directEncoded = toDirect(encoded);
+        ByteBuf uncompressed = PooledByteBufAllocator.DEFAULT.directBuffer(uncompressedLength, uncompressedLength);
+        try {
+            ByteBuffer encodedNio = directEncoded.nioBuffer(directEncoded.readerIndex(), directEncoded.readableBytes());
+            ByteBuffer uncompressedNio = uncompressed.nioBuffer(0, uncompressedLength);
+
+            if (Snappy.uncompressedLength(encodedNio) != uncompressedLength) {
+                throw new IOException("Invalid snappy uncompressed size, expected " + uncompressedLength);
+            }
+            Snappy.uncompress(encodedNio, uncompressedNio);
+            uncompressed.writerIndex(uncompressedLength);
+            return uncompressed;
+        } catch (IOException e) {
+            uncompressed.release();
+            throw e;
+        } finally {
+            if (directEncoded != encoded) {
+                directEncoded.release();
+            }
+        }
+    }
+}
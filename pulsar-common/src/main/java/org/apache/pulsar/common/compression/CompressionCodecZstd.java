@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.compression;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Zstandard Compression
+ *
+ * <p>Compresses better than LZ4 at a comparable speed for the low levels, and approaches ZLib ratios at the high levels
+ * while still decompressing much faster. The level only matters for the compression, any level is decompressed the
+ * same way.
+ */
+public class CompressionCodecZstd implements CompressionCodec {
+
+    /**
+     * Default level of the zstd library, the best speed/ratio trade-off for most payloads.
+     */
+    public static final int DEFAULT_LEVEL = 3;
+
+    /**
+     * Highest level of the zstd library. Checked without the native library, which is only loaded when a payload is
+     * compressed or decompressed.
+     */
+    public static final int MAX_LEVEL = 22;
+
+    private final int level;
+
+    public CompressionCodecZstd() {
+        this(DEFAULT_LEVEL);
+    }
+
+    public CompressionCodecZstd(int level) {
+        checkArgument(level >= 1 && level <= MAX_LEVEL, "Invalid zstd compression level: %s", level);
+        this.level = level;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public ByteBuf encode(ByteBuf source) {
+        int uncompressedLength = source.readableBytes();
+        int maxLength = (int) Zstd.compressBound(uncompressedLength);
+
+        // The native library only reads and writes direct buffers
+        ByteBuf directSource = toDirect(source);
+        ByteBuf target = PooledByteBufAllocator.DEFAULT.directBuffer(maxLength, maxLength);
+        try {
+            ByteBuffer sourceNio = directSource.nioBuffer(directSource.readerIndex(), uncompressedLength);
+            ByteBuffer targetNio = target.nioBuffer(0, maxLength);
+
+            int compressedLength = Zstd.compress(targetNio, sourceNio, level);
+            target.writerIndex(compressedLength);
+            return target;
+        } catch (RuntimeException e) {
+            target.release();
+            throw e;
+        } finally {
+            if (directSource != source) {
+                directSource.release();
+            }
+        }
+    }
+
+    @Override
+    public ByteBuf decode(ByteBuf encoded, int uncompressedLength) throws IOException {
+        ByteBuf directEncoded = toDirect(encoded);
+        ByteBuf uncompressed = PooledByteBufAllocator.DEFAULT.directBuffer(uncompressedLength, uncompressedLength);
+        try {
+            ByteBuffer encodedNio = directEncoded.nioBuffer(directEncoded.readerIndex(), directEncoded.readableBytes());
+            ByteBuffer uncompressedNio = uncompressed.nioBuffer(0, uncompressedLength);
+
+            int decompressedLength = Zstd.decompress(uncompressedNio, encodedNio);
+            if (decompressedLength != uncompressedLength) {
+                throw new IOException("Invalid zstd uncompressed size: expected " + uncompressedLength + " but got "
+                        + decompressedLength);
+            }
+            uncompressed.writerIndex(uncompressedLength);
+            return uncompressed;
+        } catch (IOException e) {
+            uncompressed.release();
+            throw e;
+        } catch (RuntimeException e) {
+            uncompressed.release();
+            throw new IOException("Failed to decompress zstd payload", e);
+        } finally {
+            if (directEncoded != encoded) {
+                directEncoded.release();
+            }
+        }
+    }
+
+    /**
+     * @return the buffer itself if its content is in a single direct memory region, else a direct copy of its readable
+     *         bytes, to be released by the caller
+     */
+    static ByteBuf toDirect(ByteBuf buffer) {
+        if (buffer.isDirect() && buffer.nioBufferCount() == 1) {
+            return buffer;
+        }
+        int length = buffer.readableBytes();
+        ByteBuf copy = PooledByteBufAllocator.DEFAULT.directBuffer(length, length);
+        copy.writeBytes(buffer, buffer.readerIndex(), length);
+        return copy;
+    }
+}
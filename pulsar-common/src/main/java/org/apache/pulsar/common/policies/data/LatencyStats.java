@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.policies.data;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Latency distribution of a broker operation during the last stats interval.
+ */
+public class LatencyStats {
+
+    /** Number of operations recorded during the last stats interval */
+    public long count;
+
+    /** Average latency. ms */
+    public double avg;
+
+    /** Latency percentiles. ms */
+    public double p50;
+    public double p95;
+    public double p99;
+    public double p999;
+
+    /** Max latency. ms */
+    public double max;
+
+    public void reset() {
+        this.count = 0;
+        this.avg = 0;
+        this.p50 = 0;
+        this.p95 = 0;
+        this.p99 = 0;
+        this.p999 = 0;
+        this.max = 0;
+    }
+
+    // Percentiles cannot be merged precisely: the aggregated percentiles are the max of the individual ones
+    public LatencyStats add(LatencyStats stats) {
+        checkNotNull(stats);
+        long totalCount = this.count + stats.count;
+        if (totalCount > 0) {
+            this.avg = (this.avg * this.count + stats.avg * stats.count) / totalCount;
+        }
+        this.count = totalCount;
+        this.p50 = Math.max(this.p50, stats.p50);
+        this.p95 = Math.max(this.p95, stats.p95);
+        this.p99 = Math.max(this.p99, stats.p99);
+        this.p999 = Math.max(this.p999, stats.p999);
+        this.max = Math.max(this.max, stats.max);
+        return this;
+    }
+}
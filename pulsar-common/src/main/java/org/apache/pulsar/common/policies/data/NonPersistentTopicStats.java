@@ -36,6 +36,15 @@ public class NonPersistentTopicStats extends TopicStats {
      **/
     public double msgDropRate;
 
+    /**
+     * for non-persistent topic with sharded fan-out: broker drops msg if too many messages are already queued for
+     * dispatch in a fan-out shard
+     **/
+    public double msgFanOutDropRate;
+
+    /** Number of messages queued for dispatch in each fan-out shard */
+    public List<Integer> fanOutShardsPendingMessages;
+
     /** List of connected publishers on this topic w/ their stats */
     public List<NonPersistentPublisherStats> publishers;
 
@@ -49,11 +58,14 @@ public class NonPersistentTopicStats extends TopicStats {
         this.publishers = Lists.newArrayList();
         this.subscriptions = Maps.newHashMap();
         this.replication = Maps.newTreeMap();
+        this.fanOutShardsPendingMessages = Lists.newArrayList();
     }
 
     public void reset() {
         super.reset();
         this.msgDropRate = 0;
+        this.msgFanOutDropRate = 0;
+        this.fanOutShardsPendingMessages.clear();
     }
 
     // if the stats are added for the 1st time, we will need to make a copy of these stats and add it to the current
@@ -62,6 +74,7 @@ public class NonPersistentTopicStats extends TopicStats {
         checkNotNull(stats);
         super.add(stats);
         this.msgDropRate += stats.msgDropRate;
+        this.msgFanOutDropRate += stats.msgFanOutDropRate;
         return this;
     }
     
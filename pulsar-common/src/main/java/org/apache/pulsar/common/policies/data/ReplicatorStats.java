@@ -46,6 +46,12 @@ public class ReplicatorStats {
     /** Time in seconds from the time a message was produced to the time when it is about to be replicated */
     public long replicationDelayInSeconds;
 
+    /** Number of messages sent to the remote cluster and not yet acknowledged */
+    public long pendingMessages;
+
+    /** Number of bytes sent to the remote cluster and not yet acknowledged */
+    public long pendingBytes;
+
     /** Address of incoming replication connection */
     public String inboundConnection;
 
@@ -68,6 +74,8 @@ public class ReplicatorStats {
         this.replicationBacklog += stats.replicationBacklog;
         this.connected &= stats.connected;
         this.replicationDelayInSeconds = Math.max(this.replicationDelayInSeconds, stats.replicationDelayInSeconds);
+        this.pendingMessages += stats.pendingMessages;
+        this.pendingBytes += stats.pendingBytes;
         return this;
     }
 }
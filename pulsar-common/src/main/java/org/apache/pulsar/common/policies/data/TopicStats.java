@@ -60,10 +60,24 @@ public class TopicStats {
 
     public String deduplicationStatus;
 
+    // Latency stats are only populated when the broker has topic latency histograms enabled
+
+    /** Latency between the reception of a message and its persistence */
+    public LatencyStats publishLatency;
+
+    /** Latency between the dispatcher read and the write to the consumer connection */
+    public LatencyStats dispatchLatency;
+
+    /** Latency of the processing of consumers acknowledgments */
+    public LatencyStats ackLatency;
+
     public TopicStats() {
         this.publishers = Lists.newArrayList();
         this.subscriptions = Maps.newHashMap();
         this.replication = Maps.newTreeMap();
+        this.publishLatency = new LatencyStats();
+        this.dispatchLatency = new LatencyStats();
+        this.ackLatency = new LatencyStats();
     }
 
     public void reset() {
@@ -78,6 +92,9 @@ public class TopicStats {
         this.subscriptions.clear();
         this.replication.clear();
         this.deduplicationStatus = null;
+        this.publishLatency.reset();
+        this.dispatchLatency.reset();
+        this.ackLatency.reset();
     }
 
     // if the stats are added for the 1st time, we will need to make a copy of these stats and add it to the current
@@ -92,6 +109,9 @@ public class TopicStats {
         double newAverageMsgSize = (this.averageMsgSize * (this.count - 1) + stats.averageMsgSize) / this.count;
         this.averageMsgSize = newAverageMsgSize;
         this.storageSize += stats.storageSize;
+        this.publishLatency.add(stats.publishLatency);
+        this.dispatchLatency.add(stats.dispatchLatency);
+        this.ackLatency.add(stats.ackLatency);
         if (this.publishers.size() != stats.publishers.size()) {
             for (int i = 0; i < stats.publishers.size(); i++) {
                 PublisherStats publisherStats = new PublisherStats();
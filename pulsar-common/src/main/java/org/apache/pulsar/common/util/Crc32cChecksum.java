@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util;
+
+import com.scurrilous.circe.checksum.Crc32cIntChecksum;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.zip.Checksum;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CRC32C checksum of the messages, computed with the fastest implementation available.
+ *
+ * <p>On Java 9 and later, {@code java.util.zip.CRC32C} is used: it is an intrinsic of the JIT and does not pay the cost
+ * of a JNI call on small messages. Otherwise, the checksum goes through the circe library, which uses its native SSE4.2
+ * implementation when it can be loaded and falls back to a pure Java table-driven implementation.
+ *
+ * <p>The checksums never change the indexes of the buffers, and are computed over the readable bytes of each of the
+ * components of composite buffers without copying them.
+ */
+public final class Crc32cChecksum {
+
+    private static final Logger log = LoggerFactory.getLogger(Crc32cChecksum.class);
+
+    /**
+     * An implementation of the CRC32C checksum.
+     */
+    interface Implementation {
+        int checksum(ByteBuf buffer);
+
+        int checksum(ByteBuf first, ByteBuf second);
+    }
+
+    // Null if the JVM does not provide java.util.zip.CRC32C
+    static final Implementation JDK = JdkImplementation.create();
+    static final Implementation CIRCE = new CirceImplementation();
+
+    private static final Implementation IMPLEMENTATION = JDK != null ? JDK : CIRCE;
+
+    static {
+        log.info("Using {} for the CRC32C checksums", JDK != null ? "java.util.zip.CRC32C" : "circe");
+    }
+
+    private Crc32cChecksum() {
+    }
+
+    /**
+     * @return the CRC32C checksum of the readable bytes of the buffer
+     */
+    public static int computeChecksum(ByteBuf buffer) {
+        return IMPLEMENTATION.checksum(buffer);
+    }
+
+    /**
+     * Compute the checksum of two buffers as if they were a single one, such as the headers and the payload of a
+     * {@link org.apache.pulsar.common.api.ByteBufPair}.
+     *
+     * @return the CRC32C checksum of the readable bytes of the first buffer followed by the readable bytes of the second
+     */
+    public static int computeChecksum(ByteBuf first, ByteBuf second) {
+        return IMPLEMENTATION.checksum(first, second);
+    }
+
+    static final class CirceImplementation implements Implementation {
+        @Override
+        public int checksum(ByteBuf buffer) {
+            return Crc32cIntChecksum.computeChecksum(buffer);
+        }
+
+        @Override
+        public int checksum(ByteBuf first, ByteBuf second) {
+            return Crc32cIntChecksum.resumeChecksum(Crc32cIntChecksum.computeChecksum(first), second);
+        }
+    }
+
+    static final class JdkImplementation implements Implementation {
+
+        // The class and its update(ByteBuffer) method only exist on Java 9 and later. The handles are static so that
+        // the JIT inlines their calls.
+        private static final MethodHandle CONSTRUCTOR;
+        private static final MethodHandle UPDATE_BYTE_BUFFER;
+
+        static {
+            MethodHandle constructor = null;
+            MethodHandle updateByteBuffer = null;
+            try {
+                final Class<?> crc32cClass = Class.forName("java.util.zip.CRC32C");
+                final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                constructor = lookup.findConstructor(crc32cClass, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Checksum.class));
+                updateByteBuffer = lookup
+                        .findVirtual(crc32cClass, "update", MethodType.methodType(void.class, ByteBuffer.class))
+                        .asType(MethodType.methodType(void.class, Checksum.class, ByteBuffer.class));
+            } catch (ReflectiveOperationException e) {
+                constructor = null;
+                updateByteBuffer = null;
+            }
+            CONSTRUCTOR = constructor;
+            UPDATE_BYTE_BUFFER = updateByteBuffer;
+        }
+
+        private final FastThreadLocal<Checksum> checksums = new FastThreadLocal<Checksum>() {
+            @Override
+            protected Checksum initialValue() {
+                try {
+                    return (Checksum) CONSTRUCTOR.invokeExact();
+                } catch (Throwable t) {
+                    throw new IllegalStateException("Failed to create a CRC32C checksum", t);
+                }
+            }
+        };
+
+        private JdkImplementation() {
+        }
+
+        static JdkImplementation create() {
+            return CONSTRUCTOR != null ? new JdkImplementation() : null;
+        }
+
+        @Override
+        public int checksum(ByteBuf buffer) {
+            final Checksum checksum = checksums.get();
+            checksum.reset();
+            update(checksum, buffer);
+            return (int) checksum.getValue();
+        }
+
+        @Override
+        public int checksum(ByteBuf first, ByteBuf second) {
+            final Checksum checksum = checksums.get();
+            checksum.reset();
+            update(checksum, first);
+            update(checksum, second);
+            return (int) checksum.getValue();
+        }
+
+        private static void update(Checksum checksum, ByteBuf buffer) {
+            final int readerIndex = buffer.readerIndex();
+            final int length = buffer.readableBytes();
+            if (length == 0) {
+                return;
+            }
+
+            final int nioBufferCount = buffer.nioBufferCount();
+            if (buffer.hasArray()) {
+                checksum.update(buffer.array(), buffer.arrayOffset() + readerIndex, length);
+            } else if (nioBufferCount == 1) {
+                update(checksum, buffer.nioBuffer(readerIndex, length));
+            } else if (nioBufferCount > 1) {
+                // Composite buffers, each of the components is read in place
+                for (ByteBuffer nioBuffer : buffer.nioBuffers(readerIndex, length)) {
+                    update(checksum, nioBuffer);
+                }
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.getBytes(readerIndex, bytes);
+                checksum.update(bytes, 0, length);
+            }
+        }
+
+        private static void update(Checksum checksum, ByteBuffer buffer) {
+            try {
+                UPDATE_BYTE_BUFFER.invokeExact(checksum, buffer);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+}
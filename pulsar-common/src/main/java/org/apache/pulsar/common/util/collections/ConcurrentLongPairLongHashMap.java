@@ -0,0 +1,586 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.collections;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Map from a pair of longs to a long, like the position of an entry (ledgerId, entryId) to a counter.
+ *
+ * <p>Provides similar methods as a ConcurrentMap&lt;(long,long),long&gt; but since it's an open hash map with linear
+ * probing, no node allocations are required to store the keys and values, and no boxing is required.
+ *
+ * <p>Keys and values <strong>MUST</strong> be &gt;= 0. {@link #ValueNotFound} is returned for the missing keys.
+ */
+public class ConcurrentLongPairLongHashMap {
+
+    public static final long ValueNotFound = -1L;
+
+    private static final long EmptyKey = -1L;
+    private static final long DeletedKey = -2L;
+
+    private static final float MapFillFactor = 0.66f;
+
+    private static final int DefaultExpectedItems = 256;
+    private static final int DefaultConcurrencyLevel = 16;
+
+    // Number of longs of each bucket in the table: the 2 keys and the value
+    private static final int BucketSize = 3;
+
+    private final Section[] sections;
+
+    public static interface EntryProcessor {
+        void accept(long key1, long key2, long value);
+    }
+
+    public static interface LongPairLongPredicate {
+        boolean test(long key1, long key2, long value);
+    }
+
+    public ConcurrentLongPairLongHashMap() {
+        this(DefaultExpectedItems);
+    }
+
+    public ConcurrentLongPairLongHashMap(int expectedItems) {
+        this(expectedItems, DefaultConcurrencyLevel);
+    }
+
+    public ConcurrentLongPairLongHashMap(int expectedItems, int concurrencyLevel) {
+        checkArgument(expectedItems > 0);
+        checkArgument(concurrencyLevel > 0);
+        checkArgument(expectedItems >= concurrencyLevel);
+
+        int numSections = concurrencyLevel;
+        int perSectionExpectedItems = expectedItems / numSections;
+        int perSectionCapacity = (int) (perSectionExpectedItems / MapFillFactor);
+        this.sections = new Section[numSections];
+
+        for (int i = 0; i < numSections; i++) {
+            sections[i] = new Section(perSectionCapacity);
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Section s : sections) {
+            size += s.size;
+        }
+        return size;
+    }
+
+    public long capacity() {
+        long capacity = 0;
+        for (Section s : sections) {
+            capacity += s.capacity;
+        }
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        for (Section s : sections) {
+            if (s.size != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long getUsedBucketCount() {
+        long usedBucketCount = 0;
+        for (Section s : sections) {
+            usedBucketCount += s.usedBuckets;
+        }
+        return usedBucketCount;
+    }
+
+    /**
+     * @return the value associated with the key, or {@link #ValueNotFound} if the key is not in the map
+     */
+    public long get(long key1, long key2) {
+        checkBiggerEqualZero(key1);
+        long h = hash(key1, key2);
+        return getSection(h).get(key1, key2, (int) h);
+    }
+
+    public boolean containsKey(long key1, long key2) {
+        return get(key1, key2) != ValueNotFound;
+    }
+
+    /**
+     * @return the previous value associated with the key, or {@link #ValueNotFound} if there was none
+     */
+    public long put(long key1, long key2, long value) {
+        checkBiggerEqualZero(key1);
+        checkBiggerEqualZero(value);
+        long h = hash(key1, key2);
+        return getSection(h).put(key1, key2, value, (int) h, false);
+    }
+
+    /**
+     * @return the value already associated with the key, or {@link #ValueNotFound} if the value was inserted
+     */
+    public long putIfAbsent(long key1, long key2, long value) {
+        checkBiggerEqualZero(key1);
+        checkBiggerEqualZero(value);
+        long h = hash(key1, key2);
+        return getSection(h).put(key1, key2, value, (int) h, true);
+    }
+
+    /**
+     * Atomically add a delta to the value associated with a key, the value of a missing key being 0.
+     *
+     * @return the new value associated with the key
+     */
+    public long addAndGet(long key1, long key2, long delta) {
+        checkBiggerEqualZero(key1);
+        long h = hash(key1, key2);
+        return getSection(h).addAndGet(key1, key2, delta, (int) h);
+    }
+
+    /**
+     * @return the value that was associated with the key, or {@link #ValueNotFound} if the key was not in the map
+     */
+    public long remove(long key1, long key2) {
+        checkBiggerEqualZero(key1);
+        long h = hash(key1, key2);
+        return getSection(h).remove(key1, key2, ValueNotFound, (int) h);
+    }
+
+    /**
+     * Remove an entry only if the key is associated with the given value.
+     *
+     * @return true if the entry was removed
+     */
+    public boolean remove(long key1, long key2, long value) {
+        checkBiggerEqualZero(key1);
+        checkBiggerEqualZero(value);
+        long h = hash(key1, key2);
+        return getSection(h).remove(key1, key2, value, (int) h) != ValueNotFound;
+    }
+
+    /**
+     * Removes all of the entries of this map that satisfy the given predicate.
+     *
+     * @return number of removed entries
+     */
+    public int removeIf(LongPairLongPredicate filter) {
+        Objects.requireNonNull(filter);
+        int removedEntries = 0;
+        for (Section s : sections) {
+            removedEntries += s.removeIf(filter);
+        }
+        return removedEntries;
+    }
+
+    private final Section getSection(long hash) {
+        // Use 32 msb out of long to get the section
+        final int sectionIdx = (int) (hash >>> 32) & (sections.length - 1);
+        return sections[sectionIdx];
+    }
+
+    public void clear() {
+        for (Section s : sections) {
+            s.clear();
+        }
+    }
+
+    public void forEach(EntryProcessor processor) {
+        for (Section s : sections) {
+            s.forEach(processor);
+        }
+    }
+
+    // A section is a portion of the hash map that is covered by a single
+    @SuppressWarnings("serial")
+    private static final class Section extends StampedLock {
+        // Keys and values are stored interleaved in the table array
+        private volatile long[] table;
+
+        private volatile int capacity;
+        private volatile int size;
+        private int usedBuckets;
+        private int resizeThreshold;
+
+        Section(int capacity) {
+            this.capacity = alignToPowerOfTwo(capacity);
+            this.table = new long[BucketSize * this.capacity];
+            this.size = 0;
+            this.usedBuckets = 0;
+            this.resizeThreshold = (int) (this.capacity * MapFillFactor);
+            Arrays.fill(table, EmptyKey);
+        }
+
+        long get(long key1, long key2, int keyHash) {
+            long stamp = tryOptimisticRead();
+            boolean acquiredLock = false;
+
+            // The bucket is always taken from the table that is being probed, so that a rehash can only make the
+            // optimistic read fail the validation
+            long[] table = this.table;
+            int bucket = signSafeMod(keyHash, table.length / BucketSize);
+
+            try {
+                while (true) {
+                    // First try optimistic locking
+                    long storedKey1 = table[bucket];
+                    long storedKey2 = table[bucket + 1];
+                    long storedValue = table[bucket + 2];
+
+                    if (!acquiredLock && validate(stamp)) {
+                        // The values we have read are consistent
+                        if (key1 == storedKey1 && key2 == storedKey2) {
+                            return storedValue;
+                        } else if (storedKey1 == EmptyKey) {
+                            // Not found
+                            return ValueNotFound;
+                        }
+                    } else {
+                        // Fallback to acquiring read lock
+                        if (!acquiredLock) {
+                            stamp = readLock();
+                            acquiredLock = true;
+
+                            table = this.table;
+                            bucket = signSafeMod(keyHash, table.length / BucketSize);
+                            storedKey1 = table[bucket];
+                            storedKey2 = table[bucket + 1];
+                            storedValue = table[bucket + 2];
+                        }
+
+                        if (key1 == storedKey1 && key2 == storedKey2) {
+                            return storedValue;
+                        } else if (storedKey1 == EmptyKey) {
+                            // Not found
+                            return ValueNotFound;
+                        }
+                    }
+
+                    bucket = nextBucket(bucket, table);
+                }
+            } finally {
+                if (acquiredLock) {
+                    unlockRead(stamp);
+                }
+            }
+        }
+
+        long put(long key1, long key2, long value, int keyHash, boolean onlyIfAbsent) {
+            long stamp = writeLock();
+            int bucket = signSafeMod(keyHash, capacity);
+
+            // Remember where we find the first available spot
+            int firstDeletedKey = -1;
+
+            try {
+                while (true) {
+                    long storedKey1 = table[bucket];
+                    long storedKey2 = table[bucket + 1];
+                    long storedValue = table[bucket + 2];
+
+                    if (key1 == storedKey1 && key2 == storedKey2) {
+                        if (!onlyIfAbsent) {
+                            // Over written an old value for same key
+                            table[bucket + 2] = value;
+                        }
+                        return storedValue;
+                    } else if (storedKey1 == EmptyKey) {
+                        // Found an empty bucket. This means the key is not in the map. If we've already seen a deleted
+                        // key, we should write at that position
+                        insert(firstDeletedKey != -1 ? firstDeletedKey : bucket, firstDeletedKey == -1, key1, key2,
+                                value);
+                        return ValueNotFound;
+                    } else if (storedKey1 == DeletedKey) {
+                        // The bucket contained a different deleted key
+                        if (firstDeletedKey == -1) {
+                            firstDeletedKey = bucket;
+                        }
+                    }
+
+                    bucket = nextBucket(bucket, table);
+                }
+            } finally {
+                unlockWriteAndRehashIfNeeded(stamp);
+            }
+        }
+
+        long addAndGet(long key1, long key2, long delta, int keyHash) {
+            long stamp = writeLock();
+            int bucket = signSafeMod(keyHash, capacity);
+
+            // Remember where we find the first available spot
+            int firstDeletedKey = -1;
+
+            try {
+                while (true) {
+                    long storedKey1 = table[bucket];
+                    long storedKey2 = table[bucket + 1];
+                    long storedValue = table[bucket + 2];
+
+                    if (key1 == storedKey1 && key2 == storedKey2) {
+                        long newValue = storedValue + delta;
+                        checkBiggerEqualZero(newValue);
+                        table[bucket + 2] = newValue;
+                        return newValue;
+                    } else if (storedKey1 == EmptyKey) {
+                        checkBiggerEqualZero(delta);
+                        insert(firstDeletedKey != -1 ? firstDeletedKey : bucket, firstDeletedKey == -1, key1, key2,
+                                delta);
+                        return delta;
+                    } else if (storedKey1 == DeletedKey) {
+                        // The bucket contained a different deleted key
+                        if (firstDeletedKey == -1) {
+                            firstDeletedKey = bucket;
+                        }
+                    }
+
+                    bucket = nextBucket(bucket, table);
+                }
+            } finally {
+                unlockWriteAndRehashIfNeeded(stamp);
+            }
+        }
+
+        private void insert(int bucket, boolean emptyBucket, long key1, long key2, long value) {
+            if (emptyBucket) {
+                ++usedBuckets;
+            }
+
+            table[bucket] = key1;
+            table[bucket + 1] = key2;
+            table[bucket + 2] = value;
+            ++size;
+        }
+
+        private void unlockWriteAndRehashIfNeeded(long stamp) {
+            if (usedBuckets > resizeThreshold) {
+                try {
+                    rehash();
+                } finally {
+                    unlockWrite(stamp);
+                }
+            } else {
+                unlockWrite(stamp);
+            }
+        }
+
+        private long remove(long key1, long key2, long value, int keyHash) {
+            long stamp = writeLock();
+            int bucket = signSafeMod(keyHash, capacity);
+
+            try {
+                while (true) {
+                    long storedKey1 = table[bucket];
+                    long storedKey2 = table[bucket + 1];
+                    long storedValue = table[bucket + 2];
+                    if (key1 == storedKey1 && key2 == storedKey2) {
+                        if (value == ValueNotFound || value == storedValue) {
+                            --size;
+                            cleanBucket(bucket);
+                            return storedValue;
+                        } else {
+                            return ValueNotFound;
+                        }
+                    } else if (storedKey1 == EmptyKey) {
+                        // Key wasn't found
+                        return ValueNotFound;
+                    }
+
+                    bucket = nextBucket(bucket, table);
+                }
+            } finally {
+                unlockWrite(stamp);
+            }
+        }
+
+        private int removeIf(LongPairLongPredicate filter) {
+            long stamp = writeLock();
+            int removedEntries = 0;
+
+            try {
+                // Go through all the buckets for this section
+                for (int bucket = 0; bucket < table.length; bucket += BucketSize) {
+                    long storedKey1 = table[bucket];
+                    long storedKey2 = table[bucket + 1];
+                    long storedValue = table[bucket + 2];
+
+                    if (storedKey1 != DeletedKey && storedKey1 != EmptyKey
+                            && filter.test(storedKey1, storedKey2, storedValue)) {
+                        --size;
+                        // Mark the bucket as deleted: emptying it could break the probing of the keys that were
+                        // already visited
+                        table[bucket] = DeletedKey;
+                        table[bucket + 1] = DeletedKey;
+                        table[bucket + 2] = DeletedKey;
+                        removedEntries++;
+                    }
+                }
+            } finally {
+                unlockWrite(stamp);
+            }
+
+            return removedEntries;
+        }
+
+        private void cleanBucket(int bucket) {
+            int nextInArray = nextBucket(bucket, table);
+            long cleanedKey = table[nextInArray] == EmptyKey ? EmptyKey : DeletedKey;
+            if (cleanedKey == EmptyKey) {
+                --usedBuckets;
+            }
+
+            table[bucket] = cleanedKey;
+            table[bucket + 1] = cleanedKey;
+            table[bucket + 2] = cleanedKey;
+        }
+
+        void clear() {
+            long stamp = writeLock();
+
+            try {
+                Arrays.fill(table, EmptyKey);
+                this.size = 0;
+                this.usedBuckets = 0;
+            } finally {
+                unlockWrite(stamp);
+            }
+        }
+
+        public void forEach(EntryProcessor processor) {
+            long stamp = tryOptimisticRead();
+
+            long[] table = this.table;
+            boolean acquiredReadLock = false;
+
+            try {
+
+                // Validate no rehashing
+                if (!validate(stamp)) {
+                    // Fallback to read lock
+                    stamp = readLock();
+                    acquiredReadLock = true;
+                    table = this.table;
+                }
+
+                // Go through all the buckets for this section
+                for (int bucket = 0; bucket < table.length; bucket += BucketSize) {
+                    long storedKey1 = table[bucket];
+                    long storedKey2 = table[bucket + 1];
+                    long storedValue = table[bucket + 2];
+
+                    if (!acquiredReadLock && !validate(stamp)) {
+                        // Fallback to acquiring read lock
+                        stamp = readLock();
+                        acquiredReadLock = true;
+
+                        storedKey1 = table[bucket];
+                        storedKey2 = table[bucket + 1];
+                        storedValue = table[bucket + 2];
+                    }
+
+                    if (storedKey1 != DeletedKey && storedKey1 != EmptyKey) {
+                        processor.accept(storedKey1, storedKey2, storedValue);
+                    }
+                }
+            } finally {
+                if (acquiredReadLock) {
+                    unlockRead(stamp);
+                }
+            }
+        }
+
+        private void rehash() {
+            // Expand the hashmap
+            int newCapacity = capacity * 2;
+            long[] newTable = new long[BucketSize * newCapacity];
+            Arrays.fill(newTable, EmptyKey);
+
+            // Re-hash table
+            for (int i = 0; i < table.length; i += BucketSize) {
+                long storedKey1 = table[i];
+                long storedKey2 = table[i + 1];
+                long storedValue = table[i + 2];
+                if (storedKey1 != EmptyKey && storedKey1 != DeletedKey) {
+                    insertKeyValueNoLock(newTable, newCapacity, storedKey1, storedKey2, storedValue);
+                }
+            }
+
+            table = newTable;
+            usedBuckets = size;
+            // Capacity needs to be updated after the values, so that we won't see
+            // a capacity value bigger than the actual array size
+            capacity = newCapacity;
+            resizeThreshold = (int) (capacity * MapFillFactor);
+        }
+
+        private static void insertKeyValueNoLock(long[] table, int capacity, long key1, long key2, long value) {
+            int bucket = signSafeMod(hash(key1, key2), capacity);
+
+            while (true) {
+                long storedKey1 = table[bucket];
+
+                if (storedKey1 == EmptyKey) {
+                    // The bucket is empty, so we can use it
+                    table[bucket] = key1;
+                    table[bucket + 1] = key2;
+                    table[bucket + 2] = value;
+                    return;
+                }
+
+                bucket = nextBucket(bucket, table);
+            }
+        }
+    }
+
+    private static final long HashMixer = 0xc6a4a7935bd1e995l;
+    private static final int R = 47;
+
+    final static long hash(long key1, long key2) {
+        long hash = key1 * HashMixer;
+        hash ^= hash >>> R;
+        hash *= HashMixer;
+        hash += 31 + (key2 * HashMixer);
+        hash ^= hash >>> R;
+        hash *= HashMixer;
+        return hash;
+    }
+
+    // Index in the table of the first long of the bucket
+    static final int signSafeMod(long n, int Max) {
+        return (int) (n & (Max - 1)) * BucketSize;
+    }
+
+    private static final int nextBucket(int bucket, long[] table) {
+        int next = bucket + BucketSize;
+        return next < table.length ? next : 0;
+    }
+
+    private static final int alignToPowerOfTwo(int n) {
+        return (int) Math.pow(2, 32 - Integer.numberOfLeadingZeros(n - 1));
+    }
+
+    private static final void checkBiggerEqualZero(long n) {
+        if (n < 0L) {
+            throw new IllegalArgumentException("Keys and values must be >= 0");
+        }
+    }
+}
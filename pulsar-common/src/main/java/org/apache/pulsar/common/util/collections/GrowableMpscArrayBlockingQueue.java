@@ -0,0 +1,500 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.collections;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import io.netty.util.internal.MathUtil;
+
+/**
+ * This implements an unbounded {@link BlockingQueue} where the producers never take a lock.
+ *
+ * The items are stored in a linked list of arrays. The producers claim a slot in the last array with an atomic
+ * increment, and link a new array, up to twice as big, when the last one is full. The consumers take the items in
+ * order under a lock that is never taken by the producers, so the thread enqueuing the items and the one reading
+ * them don't contend, as they do with {@link GrowableArrayBlockingQueue}.
+ *
+ * The blocking operations spin for a while before parking on a condition. The producers only signal it when there
+ * are parked consumers, that is when the queue was empty.
+ *
+ * Removing an arbitrary item with {@link #remove(Object)} takes the consumers lock and moves the items before it by
+ * one slot, so it is linear in the position of the item. The iterator is weakly consistent: it goes over a snapshot
+ * of the items taken under the consumers lock, and doesn't see the items added afterwards.
+ */
+public class GrowableMpscArrayBlockingQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+
+    // Maximum size of the arrays linked when the previous one is full
+    private static final int MAX_CHUNK_SIZE = 1024;
+
+    // Number of times a blocked consumer checks the queue before parking
+    private static final int SPIN_TRIES = 128;
+
+    private static final class Chunk<T> {
+        final AtomicReferenceArray<T> items;
+
+        // Next slot to be claimed by a producer, it can go past the end of the array when the chunk is full
+        volatile int producerIndex = 0;
+        volatile Chunk<T> next = null;
+
+        Chunk(int capacity) {
+            items = new AtomicReferenceArray<>(capacity);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<Chunk> PRODUCER_INDEX_UPDATER = AtomicIntegerFieldUpdater
+            .newUpdater(Chunk.class, "producerIndex");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT_UPDATER = AtomicReferenceFieldUpdater
+            .newUpdater(Chunk.class, Chunk.class, "next");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<GrowableMpscArrayBlockingQueue, Chunk> TAIL_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(GrowableMpscArrayBlockingQueue.class, Chunk.class, "tail");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<GrowableMpscArrayBlockingQueue> SIZE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(GrowableMpscArrayBlockingQueue.class, "size");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<GrowableMpscArrayBlockingQueue> WAITING_CONSUMERS_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(GrowableMpscArrayBlockingQueue.class, "waitingConsumers");
+
+    // Producers side
+    private volatile Chunk<T> tail;
+
+    // Consumers side, guarded by the consumerLock
+    private final ReentrantLock consumerLock = new ReentrantLock();
+    private Chunk<T> head;
+    private int headIndex = 0;
+
+    // Number of items published by the producers and not yet consumed
+    private volatile int size = 0;
+
+    // Consumers parked until an item is added
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition isNotEmpty = waitLock.newCondition();
+    private volatile int waitingConsumers = 0;
+
+    public GrowableMpscArrayBlockingQueue() {
+        this(64);
+    }
+
+    public GrowableMpscArrayBlockingQueue(int initialCapacity) {
+        Chunk<T> chunk = new Chunk<>(MathUtil.findNextPositivePowerOfTwo(initialCapacity));
+        head = chunk;
+        tail = chunk;
+    }
+
+    @Override
+    public T remove() {
+        T item = poll();
+        if (item == null) {
+            throw new NoSuchElementException();
+        }
+
+        return item;
+    }
+
+    @Override
+    public T poll() {
+        if (SIZE_UPDATER.get(this) == 0) {
+            return null;
+        }
+
+        consumerLock.lock();
+        try {
+            return SIZE_UPDATER.get(this) > 0 ? dequeue() : null;
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    @Override
+    public T element() {
+        T item = peek();
+        if (item == null) {
+            throw new NoSuchElementException();
+        }
+
+        return item;
+    }
+
+    @Override
+    public T peek() {
+        if (SIZE_UPDATER.get(this) == 0) {
+            return null;
+        }
+
+        consumerLock.lock();
+        try {
+            if (SIZE_UPDATER.get(this) == 0) {
+                return null;
+            }
+
+            moveToNextChunkIfNeeded();
+            return awaitItem(head, headIndex);
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(T e) {
+        // Queue is unbounded and it will never reject new items
+        put(e);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void put(T e) {
+        Objects.requireNonNull(e);
+
+        while (true) {
+            Chunk<T> chunk = tail;
+            int index = PRODUCER_INDEX_UPDATER.getAndIncrement(chunk);
+            if (index < chunk.items.length()) {
+                chunk.items.lazySet(index, e);
+                break;
+            }
+
+            // The chunk is full, link a new one or use the one linked by another producer
+            Chunk<T> next = chunk.next;
+            if (next == null) {
+                Chunk<T> newChunk = new Chunk<>(Math.min(chunk.items.length() * 2, MAX_CHUNK_SIZE));
+                next = NEXT_UPDATER.compareAndSet(chunk, null, newChunk) ? newChunk : chunk.next;
+            }
+            TAIL_UPDATER.compareAndSet(this, chunk, next);
+        }
+
+        SIZE_UPDATER.incrementAndGet(this);
+
+        if (WAITING_CONSUMERS_UPDATER.get(this) > 0) {
+            waitLock.lock();
+            try {
+                isNotEmpty.signal();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean add(T e) {
+        put(e);
+        return true;
+    }
+
+    @Override
+    public boolean offer(T e, long timeout, TimeUnit unit) {
+        // Queue is unbounded and it will never reject new items
+        put(e);
+        return true;
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        T item = spinPoll();
+        if (item != null) {
+            return item;
+        }
+
+        waitLock.lockInterruptibly();
+        WAITING_CONSUMERS_UPDATER.incrementAndGet(this);
+        try {
+            while ((item = poll()) == null) {
+                isNotEmpty.await();
+            }
+            return item;
+        } finally {
+            if (WAITING_CONSUMERS_UPDATER.decrementAndGet(this) > 0 && SIZE_UPDATER.get(this) > 0) {
+                // There are still entries to consume, in case the signal was taken by this consumer
+                isNotEmpty.signal();
+            }
+            waitLock.unlock();
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNanos = unit.toNanos(timeout);
+        if (timeoutNanos <= 0) {
+            return poll();
+        }
+
+        T item = spinPoll();
+        if (item != null) {
+            return item;
+        }
+
+        waitLock.lockInterruptibly();
+        WAITING_CONSUMERS_UPDATER.incrementAndGet(this);
+        try {
+            while ((item = poll()) == null) {
+                if (timeoutNanos <= 0) {
+                    return null;
+                }
+
+                timeoutNanos = isNotEmpty.awaitNanos(timeoutNanos);
+            }
+            return item;
+        } finally {
+            if (WAITING_CONSUMERS_UPDATER.decrementAndGet(this) > 0 && SIZE_UPDATER.get(this) > 0) {
+                // There are still entries to consume, in case the signal was taken by this consumer
+                isNotEmpty.signal();
+            }
+            waitLock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> c, int maxElements) {
+        consumerLock.lock();
+
+        try {
+            int drainedItems = 0;
+            int size = SIZE_UPDATER.get(this);
+
+            while (drainedItems < size && drainedItems < maxElements) {
+                c.add(dequeue());
+                ++drainedItems;
+            }
+
+            return drainedItems;
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        consumerLock.lock();
+
+        try {
+            int size = SIZE_UPDATER.get(this);
+
+            for (int i = 0; i < size; i++) {
+                dequeue();
+            }
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return removeItem(o, false);
+    }
+
+    @Override
+    public int size() {
+        return SIZE_UPDATER.get(this);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        final Iterator<T> snapshot = toList().iterator();
+        return new Iterator<T>() {
+            private T lastItem = null;
+
+            @Override
+            public boolean hasNext() {
+                return snapshot.hasNext();
+            }
+
+            @Override
+            public T next() {
+                lastItem = snapshot.next();
+                return lastItem;
+            }
+
+            @Override
+            public void remove() {
+                if (lastItem == null) {
+                    throw new IllegalStateException();
+                }
+                // The item may have been consumed since the snapshot was taken
+                removeItem(lastItem, true);
+                lastItem = null;
+            }
+        };
+    }
+
+    public List<T> toList() {
+        List<T> list = new ArrayList<>(size());
+        forEach(list::add);
+        return list;
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        consumerLock.lock();
+
+        try {
+            Chunk<T> chunk = head;
+            int index = headIndex;
+            int size = SIZE_UPDATER.get(this);
+
+            for (int i = 0; i < size; i++) {
+                if (index == chunk.items.length()) {
+                    chunk = awaitNextChunk(chunk);
+                    index = 0;
+                }
+
+                action.accept(awaitItem(chunk, index));
+                ++index;
+            }
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        forEach(item -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+
+            sb.append(item);
+        });
+        sb.append(']');
+        return sb.toString();
+    }
+
+    private T spinPoll() {
+        for (int i = 0; i < SPIN_TRIES; i++) {
+            T item = poll();
+            if (item != null) {
+                return item;
+            }
+
+            if (i >= SPIN_TRIES / 2) {
+                Thread.yield();
+            }
+        }
+
+        return null;
+    }
+
+    // Removes the first item equal to the given one, or the same instance, by moving the items before it to the next
+    // slot. Only the consumers write to the slots of the published items, so the producers are not affected.
+    private boolean removeItem(Object o, boolean sameInstance) {
+        if (o == null) {
+            return false;
+        }
+
+        consumerLock.lock();
+        try {
+            int size = SIZE_UPDATER.get(this);
+            if (size == 0) {
+                return false;
+            }
+
+            moveToNextChunkIfNeeded();
+            List<Chunk<T>> chunks = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            Chunk<T> chunk = head;
+            int index = headIndex;
+            for (int i = 0; i < size; i++) {
+                if (index == chunk.items.length()) {
+                    chunk = awaitNextChunk(chunk);
+                    index = 0;
+                }
+
+                T item = awaitItem(chunk, index);
+                chunks.add(chunk);
+                indexes.add(index);
+                if (sameInstance ? item == o : o.equals(item)) {
+                    for (int j = i; j > 0; j--) {
+                        chunks.get(j).items.lazySet(indexes.get(j), chunks.get(j - 1).items.get(indexes.get(j - 1)));
+                    }
+                    head.items.lazySet(headIndex, null);
+                    ++headIndex;
+                    SIZE_UPDATER.decrementAndGet(this);
+                    return true;
+                }
+                ++index;
+            }
+            return false;
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    // Takes the item at the head, the consumerLock must be held and the queue must not be empty
+    private T dequeue() {
+        moveToNextChunkIfNeeded();
+
+        T item = awaitItem(head, headIndex);
+        head.items.lazySet(headIndex, null);
+        ++headIndex;
+        SIZE_UPDATER.decrementAndGet(this);
+        return item;
+    }
+
+    private void moveToNextChunkIfNeeded() {
+        if (headIndex == head.items.length()) {
+            head = awaitNextChunk(head);
+            headIndex = 0;
+        }
+    }
+
+    // The size only counts the published items, while all the slots before the last published one were already
+    // claimed, so an item that is not visible yet is being written by a producer
+    private static <T> T awaitItem(Chunk<T> chunk, int index) {
+        T item;
+        while ((item = chunk.items.get(index)) == null) {
+            Thread.yield();
+        }
+        return item;
+    }
+
+    private static <T> Chunk<T> awaitNextChunk(Chunk<T> chunk) {
+        Chunk<T> next;
+        while ((next = chunk.next) == null) {
+            Thread.yield();
+        }
+        return next;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.AdaptiveRecvByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.handler.flush.FlushConsolidationHandler;
+
+/**
+ * Netty options shared by the connections of the brokers, of the proxy and of the clients.
+ *
+ * <p>{@link #Default} keeps the options that were used before the profiles were introduced: the server connections
+ * get the options below, while the client connections keep the Netty defaults. {@link #LowLatency} makes
+ * each connection read less at once, so that an event loop goes around its connections faster, and acknowledges the
+ * incoming packets right away. {@link #HighThroughput} lets more data be buffered and read at once, and consolidates
+ * the flushes so that fewer, larger writes reach the socket.
+ *
+ * <p>The epoll options are only applied when the native transport is available.
+ */
+public enum TransportProfile {
+
+    Default(EpollMode.LEVEL_TRIGGERED, false, 16, 32 * 1024, 64 * 1024, 1024, 16 * 1024, 1024 * 1024, 16, 0),
+
+    LowLatency(EpollMode.LEVEL_TRIGGERED, true, 16, 32 * 1024, 64 * 1024, 1024, 16 * 1024, 1024 * 1024, 4, 0),
+
+    HighThroughput(EpollMode.EDGE_TRIGGERED, false, 32, 256 * 1024, 1024 * 1024, 16 * 1024, 64 * 1024,
+            4 * 1024 * 1024, 32, 256);
+
+    public static final String FLUSH_CONSOLIDATION_HANDLER = "flushConsolidation";
+
+    private final EpollMode epollMode;
+    private final boolean tcpQuickAck;
+    private final int writeSpinCount;
+    private final WriteBufferWaterMark writeBufferWaterMark;
+    private final int minReceiveBufferSize;
+    private final int initialReceiveBufferSize;
+    private final int maxReceiveBufferSize;
+    // Number of reads done on a connection before the event loop moves on to the next one
+    private final int maxMessagesPerRead;
+    // Number of flushes consolidated into a single one when the connection is not reading, 0 to disable
+    private final int explicitFlushAfterFlushes;
+
+    TransportProfile(EpollMode epollMode, boolean tcpQuickAck, int writeSpinCount, int writeBufferLowWaterMark,
+            int writeBufferHighWaterMark, int minReceiveBufferSize, int initialReceiveBufferSize,
+            int maxReceiveBufferSize, int maxMessagesPerRead, int explicitFlushAfterFlushes) {
+        this.epollMode = epollMode;
+        this.tcpQuickAck = tcpQuickAck;
+        this.writeSpinCount = writeSpinCount;
+        this.writeBufferWaterMark = new WriteBufferWaterMark(writeBufferLowWaterMark, writeBufferHighWaterMark);
+        this.minReceiveBufferSize = minReceiveBufferSize;
+        this.initialReceiveBufferSize = initialReceiveBufferSize;
+        this.maxReceiveBufferSize = maxReceiveBufferSize;
+        this.maxMessagesPerRead = maxMessagesPerRead;
+        this.explicitFlushAfterFlushes = explicitFlushAfterFlushes;
+    }
+
+    public EpollMode getEpollMode() {
+        return epollMode;
+    }
+
+    public boolean isTcpQuickAck() {
+        return tcpQuickAck;
+    }
+
+    public int getWriteSpinCount() {
+        return writeSpinCount;
+    }
+
+    public WriteBufferWaterMark getWriteBufferWaterMark() {
+        return writeBufferWaterMark;
+    }
+
+    public int getMaxMessagesPerRead() {
+        return maxMessagesPerRead;
+    }
+
+    public int getExplicitFlushAfterFlushes() {
+        return explicitFlushAfterFlushes;
+    }
+
+    public boolean isFlushConsolidationEnabled() {
+        return explicitFlushAfterFlushes > 0;
+    }
+
+    private AdaptiveRecvByteBufAllocator newRecvByteBufAllocator() {
+        AdaptiveRecvByteBufAllocator allocator = new AdaptiveRecvByteBufAllocator(minReceiveBufferSize,
+                initialReceiveBufferSize, maxReceiveBufferSize);
+        allocator.maxMessagesPerRead(maxMessagesPerRead);
+        return allocator;
+    }
+
+    /**
+     * Set the options of the connections accepted by a server.
+     */
+    public void apply(ServerBootstrap bootstrap) {
+        bootstrap.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        bootstrap.childOption(ChannelOption.TCP_NODELAY, true);
+        bootstrap.childOption(ChannelOption.WRITE_SPIN_COUNT, writeSpinCount);
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark);
+        bootstrap.childOption(ChannelOption.RCVBUF_ALLOCATOR, newRecvByteBufAllocator());
+
+        if (Epoll.isAvailable()) {
+            bootstrap.childOption(EpollChannelOption.EPOLL_MODE, epollMode);
+            if (tcpQuickAck) {
+                bootstrap.childOption(EpollChannelOption.TCP_QUICKACK, true);
+            }
+        }
+    }
+
+    /**
+     * Set the options of the connections opened by a client. The {@link #Default} profile only sets the pooled
+     * allocator, and leaves the other options to the Netty defaults.
+     */
+    public void apply(Bootstrap bootstrap) {
+        bootstrap.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        if (this == Default) {
+            return;
+        }
+        bootstrap.option(ChannelOption.TCP_NODELAY, true);
+        bootstrap.option(ChannelOption.WRITE_SPIN_COUNT, writeSpinCount);
+        bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark);
+        bootstrap.option(ChannelOption.RCVBUF_ALLOCATOR, newRecvByteBufAllocator());
+
+        if (Epoll.isAvailable()) {
+            bootstrap.option(EpollChannelOption.EPOLL_MODE, epollMode);
+            if (tcpQuickAck) {
+                bootstrap.option(EpollChannelOption.TCP_QUICKACK, true);
+            }
+        }
+    }
+
+    /**
+     * Add the flush consolidation handler in front of the pipeline of a connection, if enabled by the profile. It has
+     * to be added before any handler that flushes, TLS included.
+     */
+    public void initPipeline(ChannelPipeline pipeline) {
+        if (isFlushConsolidationEnabled()) {
+            pipeline.addFirst(FLUSH_CONSOLIDATION_HANDLER,
+                    new FlushConsolidationHandler(explicitFlushAfterFlushes, true));
+        }
+    }
+}
@@ -195,6 +195,29 @@ public class LocalBrokerData extends JSONWritable implements LoadManagerReport {
         numProducers = totalNumProducers;
     }
 
+    /**
+     * Create a copy of this LocalBrokerData which keeps the aggregated data but not the stats and the lists of the
+     * bundles, for when those are reported separately.
+     */
+    public LocalBrokerData copyWithoutBundleStats() {
+        final LocalBrokerData copy = new LocalBrokerData(webServiceUrl, webServiceUrlTls, pulsarServiceUrl,
+                pulsarServiceUrlTls);
+        copy.persistentTopicsEnabled = persistentTopicsEnabled;
+        copy.nonPersistentTopicsEnabled = nonPersistentTopicsEnabled;
+        copy.updateSystemResourceUsage(cpu, memory, directMemory, bandwidthIn, bandwidthOut);
+        copy.msgThroughputIn = msgThroughputIn;
+        copy.msgThroughputOut = msgThroughputOut;
+        copy.msgRateIn = msgRateIn;
+        copy.msgRateOut = msgRateOut;
+        copy.lastUpdate = lastUpdate;
+        copy.numTopics = numTopics;
+        copy.numBundles = numBundles;
+        copy.numConsumers = numConsumers;
+        copy.numProducers = numProducers;
+        copy.brokerVersionString = brokerVersionString;
+        return copy;
+    }
+
     public double getMaxResourceUsage() {
         return max(cpu.percentUsage(), memory.percentUsage(), directMemory.percentUsage(), bandwidthIn.percentUsage(),
                 bandwidthOut.percentUsage()) / 100;
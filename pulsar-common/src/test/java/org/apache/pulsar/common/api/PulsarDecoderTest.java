@@ -20,14 +20,45 @@ package org.apache.pulsar.common.api;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.apache.pulsar.common.api.Commands.ChecksumType;
+import org.apache.pulsar.common.api.proto.PulsarApi.BaseCommand;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandAck.AckType;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandActiveConsumerChange;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandCloseConsumer;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandCloseProducer;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandFlow;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.LookupType;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopics;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicsResponse;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandMessage;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandSend;
+import org.apache.pulsar.common.api.proto.PulsarApi.MessageIdData;
+import org.apache.pulsar.common.api.proto.PulsarApi.MessageMetadata;
+import org.apache.pulsar.common.api.proto.PulsarApi.ServerError;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -56,5 +87,225 @@ public class PulsarDecoderTest {
             .handleActiveConsumerChange(any(CommandActiveConsumerChange.class));
     }
 
+    @Test
+    public void testCloseProducerWithAssignedBroker() throws Exception {
+        ByteBuf closeBuf = Commands.newCloseProducer(1L, -1L, "pulsar://broker-2:6650", "pulsar+ssl://broker-2:6651");
+        ByteBuf cmdBuf = closeBuf.slice(4, closeBuf.writerIndex() - 4);
+
+        doAnswer(invocation -> {
+            CommandCloseProducer closeProducer = (CommandCloseProducer) invocation.getArguments()[0];
+            assertEquals(closeProducer.getProducerId(), 1L);
+            assertEquals(closeProducer.getAssignedBrokerServiceUrl(), "pulsar://broker-2:6650");
+            assertEquals(closeProducer.getAssignedBrokerServiceUrlTls(), "pulsar+ssl://broker-2:6651");
+            return null;
+        }).when(decoder).handleCloseProducer(any(CommandCloseProducer.class));
+        decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+
+        verify(decoder, times(1)).handleCloseProducer(any(CommandCloseProducer.class));
+    }
+
+    @Test
+    public void testCloseConsumerWithoutAssignedBroker() throws Exception {
+        ByteBuf closeBuf = Commands.newCloseConsumer(2L, -1L);
+        ByteBuf cmdBuf = closeBuf.slice(4, closeBuf.writerIndex() - 4);
+
+        doAnswer(invocation -> {
+            CommandCloseConsumer closeConsumer = (CommandCloseConsumer) invocation.getArguments()[0];
+            assertEquals(closeConsumer.getConsumerId(), 2L);
+            assertFalse(closeConsumer.hasAssignedBrokerServiceUrl());
+            assertFalse(closeConsumer.hasAssignedBrokerServiceUrlTls());
+            return null;
+        }).when(decoder).handleCloseConsumer(any(CommandCloseConsumer.class));
+        decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+
+        verify(decoder, times(1)).handleCloseConsumer(any(CommandCloseConsumer.class));
+    }
+
+    @Test
+    public void testLookupTopics() throws Exception {
+        ByteBuf lookupBuf = Commands.newLookupTopics(Lists.newArrayList("persistent://prop/ns/t1",
+                "persistent://prop/ns/t2"), true, 3L);
+        ByteBuf cmdBuf = lookupBuf.slice(4, lookupBuf.writerIndex() - 4);
 
+        doAnswer(invocation -> {
+            CommandLookupTopics lookupTopics = (CommandLookupTopics) invocation.getArguments()[0];
+            assertEquals(lookupTopics.getRequestId(), 3L);
+            assertEquals(lookupTopics.getTopicsList(),
+                    Lists.newArrayList("persistent://prop/ns/t1", "persistent://prop/ns/t2"));
+            assertTrue(lookupTopics.getPartitionedMetadata());
+            return null;
+        }).when(decoder).handleLookupTopics(any(CommandLookupTopics.class));
+        decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+
+        verify(decoder, times(1)).handleLookupTopics(any(CommandLookupTopics.class));
+    }
+
+    @Test
+    public void testLookupTopicsResponse() throws Exception {
+        ByteBuf responseBuf = Commands.newLookupTopicsResponse(4L,
+                Lists.newArrayList(
+                        Commands.newLookupResponseCommand("pulsar://broker-1:6650", null, true, LookupType.Connect,
+                                4L, false),
+                        Commands.newLookupErrorResponseCommand(ServerError.InvalidTopicName, "invalid", 4L)),
+                Collections.emptyList());
+        ByteBuf cmdBuf = responseBuf.slice(4, responseBuf.writerIndex() - 4);
+
+        doAnswer(invocation -> {
+            CommandLookupTopicsResponse response = (CommandLookupTopicsResponse) invocation.getArguments()[0];
+            assertEquals(response.getRequestId(), 4L);
+            assertEquals(response.getLookupResponsesCount(), 2);
+            assertEquals(response.getPartitionMetadataResponsesCount(), 0);
+            CommandLookupTopicResponse first = response.getLookupResponses(0);
+            assertEquals(first.getResponse(), LookupType.Connect);
+            assertEquals(first.getBrokerServiceUrl(), "pulsar://broker-1:6650");
+            CommandLookupTopicResponse second = response.getLookupResponses(1);
+            assertEquals(second.getResponse(), LookupType.Failed);
+            assertEquals(second.getError(), ServerError.InvalidTopicName);
+            return null;
+        }).when(decoder).handleLookupTopicsResponse(any(CommandLookupTopicsResponse.class));
+        decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+
+        verify(decoder, times(1)).handleLookupTopicsResponse(any(CommandLookupTopicsResponse.class));
+    }
+
+    @Test
+    public void testSend() throws Exception {
+        MessageMetadata metadata = MessageMetadata.newBuilder().setProducerName("producer").setSequenceId(7L)
+                .setPublishTime(1L).build();
+        ByteBuf payload = Unpooled.wrappedBuffer("payload".getBytes(StandardCharsets.UTF_8));
+        ByteBufPair sendPair = Commands.newSend(5L, 7L, 3, ChecksumType.None, metadata, payload);
+        ByteBuf sendBuf = ByteBufPair.coalesce(sendPair);
+        sendPair.release();
+        ByteBuf cmdBuf = sendBuf.slice(4, sendBuf.writerIndex() - 4);
+
+        doAnswer(invocation -> {
+            CommandSend send = (CommandSend) invocation.getArguments()[0];
+            ByteBuf headersAndPayload = (ByteBuf) invocation.getArguments()[1];
+            assertEquals(send.getProducerId(), 5L);
+            assertEquals(send.getSequenceId(), 7L);
+            assertEquals(send.getNumMessages(), 3);
+            assertEquals(Commands.parseMessageMetadata(headersAndPayload).getProducerName(), "producer");
+            assertEquals(headersAndPayload.toString(StandardCharsets.UTF_8), "payload");
+            return null;
+        }).when(decoder).handleSend(any(CommandSend.class), any(ByteBuf.class));
+        decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+
+        verify(decoder, times(1)).handleSend(any(CommandSend.class), any(ByteBuf.class));
+    }
+
+    @Test
+    public void testMessage() throws Exception {
+        MessageIdData messageId = MessageIdData.newBuilder().setLedgerId(10L).setEntryId(20L).setPartition(2)
+                .build();
+        ByteBuf metadataAndPayload = Unpooled.wrappedBuffer("payload".getBytes(StandardCharsets.UTF_8));
+        ByteBufPair messagePair = Commands.newMessage(6L, messageId, 4, metadataAndPayload);
+        ByteBuf messageBuf = ByteBufPair.coalesce(messagePair);
+        messagePair.release();
+        ByteBuf cmdBuf = messageBuf.slice(4, messageBuf.writerIndex() - 4);
+
+        doAnswer(invocation -> {
+            CommandMessage message = (CommandMessage) invocation.getArguments()[0];
+            ByteBuf buffer = (ByteBuf) invocation.getArguments()[1];
+            assertEquals(message.getConsumerId(), 6L);
+            assertEquals(message.getRedeliveryCount(), 4);
+            assertEquals(message.getMessageId().getLedgerId(), 10L);
+            assertEquals(message.getMessageId().getEntryId(), 20L);
+            assertEquals(message.getMessageId().getPartition(), 2);
+            assertFalse(message.getMessageId().hasBatchIndex());
+            assertEquals(message.getMessageId().getBatchIndex(), -1);
+            assertEquals(buffer.toString(StandardCharsets.UTF_8), "payload");
+            return null;
+        }).when(decoder).handleMessage(any(CommandMessage.class), any(ByteBuf.class));
+        decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+
+        verify(decoder, times(1)).handleMessage(any(CommandMessage.class), any(ByteBuf.class));
+    }
+
+    @Test
+    public void testAck() throws Exception {
+        ByteBuf ackBuf = Commands.newAck(8L, 30L, 40L, AckType.Cumulative, null, Collections.emptyMap());
+        ByteBuf cmdBuf = ackBuf.slice(4, ackBuf.writerIndex() - 4);
+
+        doAnswer(invocation -> {
+            CommandAck ack = (CommandAck) invocation.getArguments()[0];
+            assertEquals(ack.getConsumerId(), 8L);
+            assertEquals(ack.getAckType(), AckType.Cumulative);
+            assertEquals(ack.getMessageIdCount(), 1);
+            assertEquals(ack.getMessageId(0).getLedgerId(), 30L);
+            assertEquals(ack.getMessageId(0).getEntryId(), 40L);
+            assertFalse(ack.hasValidationError());
+            return null;
+        }).when(decoder).handleAck(any(CommandAck.class));
+        decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+
+        verify(decoder, times(1)).handleAck(any(CommandAck.class));
+    }
+
+    @Test
+    public void testAckWithPropertiesUsesGenericParser() throws Exception {
+        ByteBuf ackBuf = Commands.newAck(8L, 30L, 40L, AckType.Individual, null, ImmutableMap.of("key", 5L));
+        ByteBuf cmdBuf = ackBuf.slice(4, ackBuf.writerIndex() - 4);
+
+        // The properties are not handled by the fast path
+        ByteBuf hotCmdBuf = cmdBuf.slice(4, cmdBuf.writerIndex() - 4);
+        assertEquals(HotCommandDecoder.readType(hotCmdBuf), BaseCommand.Type.ACK);
+        assertNull(HotCommandDecoder.readAck(hotCmdBuf));
+
+        doAnswer(invocation -> {
+            CommandAck ack = (CommandAck) invocation.getArguments()[0];
+            assertEquals(ack.getConsumerId(), 8L);
+            assertEquals(ack.getAckType(), AckType.Individual);
+            assertEquals(ack.getMessageId(0).getEntryId(), 40L);
+            assertEquals(ack.getPropertiesCount(), 1);
+            assertEquals(ack.getProperties(0).getKey(), "key");
+            assertEquals(ack.getProperties(0).getValue(), 5L);
+            return null;
+        }).when(decoder).handleAck(any(CommandAck.class));
+        decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+
+        verify(decoder, times(1)).handleAck(any(CommandAck.class));
+    }
+
+    @Test
+    public void testFlow() throws Exception {
+        ByteBuf flowBuf = Commands.newFlow(9L, 1000);
+        ByteBuf cmdBuf = flowBuf.slice(4, flowBuf.writerIndex() - 4);
+
+        doAnswer(invocation -> {
+            CommandFlow flow = (CommandFlow) invocation.getArguments()[0];
+            assertEquals(flow.getConsumerId(), 9L);
+            assertEquals(flow.getMessagePermits(), 1000);
+            return null;
+        }).when(decoder).handleFlow(any(CommandFlow.class));
+        decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+
+        verify(decoder, times(1)).handleFlow(any(CommandFlow.class));
+    }
+
+    @Test
+    public void testTruncatedHotCommand() throws Exception {
+        ByteBuf flowBuf = Commands.newFlow(9L, 1000);
+        ByteBuf cmdBuf = flowBuf.slice(4, flowBuf.writerIndex() - 4);
+        // Set the continuation bit of the last byte, so that the last varint runs past the end of the command
+        int last = cmdBuf.writerIndex() - 1;
+        cmdBuf.setByte(last, cmdBuf.getByte(last) | 0x80);
+
+        ByteBuf hotCmdBuf = cmdBuf.slice(4, cmdBuf.writerIndex() - 4);
+        assertEquals(HotCommandDecoder.readType(hotCmdBuf), BaseCommand.Type.FLOW);
+        try {
+            HotCommandDecoder.readFlow(hotCmdBuf);
+            fail("The command should be reported as truncated");
+        } catch (IndexOutOfBoundsException e) {
+            // Expected
+        }
+
+        // The command goes through the generic parser, which reports the error
+        try {
+            decoder.channelRead(mock(ChannelHandlerContext.class), cmdBuf);
+            fail("The command should fail to parse");
+        } catch (Exception e) {
+            // Expected
+        }
+        verify(decoder, never()).handleFlow(any(CommandFlow.class));
+    }
 }
@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.api;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandFlow;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class PulsarHandlerTest {
+
+    private FlushCounter flushCounter;
+    private EmbeddedChannel channel;
+    private TestHandler handler;
+
+    // Count the flushes reaching the socket
+    private static class FlushCounter extends ChannelOutboundHandlerAdapter {
+        int flushes = 0;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) throws Exception {
+            flushes++;
+            ctx.flush();
+        }
+    }
+
+    // Reply to each flow command with a pong, as the broker does with the send receipts
+    private static class TestHandler extends PulsarHandler {
+        TestHandler() {
+            super(0, TimeUnit.SECONDS);
+        }
+
+        @Override
+        protected void handleFlow(CommandFlow flow) {
+            writeAndFlushLater(Commands.newPong());
+        }
+
+        @Override
+        protected boolean isHandshakeCompleted() {
+            return true;
+        }
+    }
+
+    @BeforeMethod
+    public void setup() {
+        flushCounter = new FlushCounter();
+        handler = new TestHandler();
+        channel = new EmbeddedChannel(flushCounter, handler);
+    }
+
+    @AfterMethod
+    public void teardown() {
+        channel.finishAndReleaseAll();
+    }
+
+    private int releaseOutboundMessages() {
+        int count = 0;
+        Object msg;
+        while ((msg = channel.readOutbound()) != null) {
+            ((ByteBuf) msg).release();
+            count++;
+        }
+        return count;
+    }
+
+    private static ByteBuf newFlowFrame(long consumerId) {
+        ByteBuf cmd = Commands.newFlow(consumerId, 1);
+        // Skip the frame size, as done by the frame decoder
+        cmd.skipBytes(4);
+        return cmd;
+    }
+
+    @Test
+    public void testFlushAfterWritesOutsideOfRead() {
+        handler.writeAndFlushLater(Commands.newPong());
+        handler.writeAndFlushLater(Commands.newPong());
+        handler.writeAndFlushLater(Commands.newPong());
+        assertEquals(flushCounter.flushes, 0);
+        assertEquals(releaseOutboundMessages(), 0);
+
+        channel.runPendingTasks();
+        assertEquals(flushCounter.flushes, 1);
+        assertEquals(releaseOutboundMessages(), 3);
+
+        // Nothing is left to flush
+        channel.runPendingTasks();
+        assertEquals(flushCounter.flushes, 1);
+    }
+
+    @Test
+    public void testFlushAtEndOfRead() {
+        channel.writeInbound(newFlowFrame(1), newFlowFrame(2), newFlowFrame(3));
+        assertEquals(flushCounter.flushes, 1);
+        assertEquals(releaseOutboundMessages(), 3);
+    }
+
+    @Test
+    public void testFlushAfterMaxPendingWrites() {
+        for (int i = 0; i < PulsarHandler.MAX_PENDING_WRITES; i++) {
+            handler.writeAndFlushLater(Commands.newPong());
+        }
+        assertEquals(flushCounter.flushes, 1);
+        assertEquals(releaseOutboundMessages(), PulsarHandler.MAX_PENDING_WRITES);
+
+        channel.runPendingTasks();
+        assertEquals(flushCounter.flushes, 1);
+    }
+}
@@ -30,6 +30,7 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 
@@ -39,7 +40,8 @@ public class CompressorCodecTest {
 
     @DataProvider(name = "codec")
     public Object[][] codecProvider() {
-        return new Object[][] { { CompressionType.NONE }, { CompressionType.LZ4 }, { CompressionType.ZLIB }, };
+        return new Object[][] { { CompressionType.NONE }, { CompressionType.LZ4 }, { CompressionType.ZLIB },
+                { CompressionType.ZSTD }, { CompressionType.SNAPPY }, };
     }
 
     @Test(dataProvider = "codec")
@@ -107,6 +109,73 @@ public class CompressorCodecTest {
         }
     }
 
+    @Test(dataProvider = "codec")
+    void testHeapAndCompositeInput(CompressionType type) throws IOException {
+        CompressionCodec codec = CompressionCodecProvider.getCompressionCodec(type);
+        byte[] data = text.getBytes();
+        int half = data.length / 2;
+
+        ByteBuf heap = Unpooled.wrappedBuffer(data);
+        ByteBuf composite = Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(data, 0, half),
+                Unpooled.directBuffer().writeBytes(data, half, data.length - half));
+
+        for (ByteBuf raw : new ByteBuf[] { heap, composite }) {
+            ByteBuf compressed = codec.encode(raw);
+            ByteBuf uncompressed = codec.decode(Unpooled.wrappedBuffer(ByteBufUtil.getBytes(compressed)), data.length);
+            assertEquals(uncompressed, heap);
+
+            compressed.release();
+            uncompressed.release();
+        }
+        composite.release();
+    }
+
+    @Test
+    void testZstdLevels() throws IOException {
+        byte[] data = text.getBytes();
+        ByteBuf raw = Unpooled.wrappedBuffer(data);
+
+        CompressionCodec fast = new CompressionCodecZstd(1);
+        CompressionCodec strong = new CompressionCodecZstd(19);
+        ByteBuf fastCompressed = fast.encode(raw);
+        ByteBuf strongCompressed = strong.encode(raw);
+        assertTrue(strongCompressed.readableBytes() <= fastCompressed.readableBytes());
+
+        // Any level is decompressed by the default codec
+        ByteBuf uncompressed = CompressionCodecProvider.getCompressionCodec(CompressionType.ZSTD)
+                .decode(strongCompressed, data.length);
+        assertEquals(uncompressed, raw);
+
+        fastCompressed.release();
+        strongCompressed.release();
+        uncompressed.release();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    void testInvalidZstdLevel() {
+        new CompressionCodecZstd(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    void testZstdLevelAboveMax() {
+        new CompressionCodecZstd(CompressionCodecZstd.MAX_LEVEL + 1);
+    }
+
+    @Test
+    void testZstdLevelProperty() {
+        try {
+            System.setProperty(CompressionCodecProvider.ZSTD_LEVEL_PROPERTY, "9");
+            assertEquals(CompressionCodecProvider.newZstdCodec().getLevel(), 9);
+
+            // An invalid level falls back to the default one
+            System.setProperty(CompressionCodecProvider.ZSTD_LEVEL_PROPERTY, "100");
+            assertEquals(CompressionCodecProvider.newZstdCodec().getLevel(), CompressionCodecZstd.DEFAULT_LEVEL);
+        } finally {
+            System.clearProperty(CompressionCodecProvider.ZSTD_LEVEL_PROPERTY);
+        }
+        assertEquals(CompressionCodecProvider.newZstdCodec().getLevel(), CompressionCodecZstd.DEFAULT_LEVEL);
+    }
+
     @Test(dataProvider = "codec")
     void testCodecProvider(CompressionType type) throws IOException {
         CompressionCodec codec1 = CompressionCodecProvider.getCompressionCodec(type);
@@ -21,6 +21,7 @@ package org.apache.pulsar.common.compression;
 import static com.scurrilous.circe.params.CrcParameters.CRC32C;
 import static org.testng.Assert.assertEquals;
 
+import org.apache.pulsar.common.util.Crc32cChecksum;
 import org.testng.annotations.Test;
 
 import com.scurrilous.circe.IncrementalIntHash;
@@ -30,6 +31,7 @@ import com.scurrilous.circe.crc.StandardCrcProvider;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 
 public class Crc32cChecksumTest {
@@ -154,4 +156,60 @@ public class Crc32cChecksumTest {
 
     }
 
+    @Test
+    public void testChecksum() {
+        ByteBuf heapPayload = Unpooled.wrappedBuffer(inputBytes);
+        assertEquals(Crc32cChecksum.computeChecksum(heapPayload), expectedChecksum);
+        heapPayload.release();
+
+        ByteBuf directPayload = ByteBufAllocator.DEFAULT.directBuffer(inputBytes.length);
+        directPayload.writeBytes(inputBytes);
+        assertEquals(Crc32cChecksum.computeChecksum(directPayload), expectedChecksum);
+        // The indexes of the buffer are left untouched
+        assertEquals(directPayload.readerIndex(), 0);
+        assertEquals(directPayload.readableBytes(), inputBytes.length);
+        directPayload.release();
+    }
+
+    @Test
+    public void testChecksumOfBufferPair() {
+        byte[] data = new byte[4096];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        int expected = Crc32cIntChecksum.computeChecksum(Unpooled.wrappedBuffer(data));
+
+        // Headers in a heap buffer and payload in a direct buffer, read from a non zero index
+        ByteBuf headers = Unpooled.buffer(200);
+        headers.writeBytes(new byte[10]);
+        headers.readerIndex(10);
+        headers.writeBytes(data, 0, 100);
+        ByteBuf payload = ByteBufAllocator.DEFAULT.directBuffer(data.length - 100);
+        payload.writeBytes(data, 100, data.length - 100);
+
+        assertEquals(Crc32cChecksum.computeChecksum(headers, payload), expected);
+        assertEquals(headers.readerIndex(), 10);
+        assertEquals(Crc32cChecksum.computeChecksum(headers, Unpooled.EMPTY_BUFFER),
+                Crc32cIntChecksum.computeChecksum(headers));
+        headers.release();
+        payload.release();
+    }
+
+    @Test
+    public void testChecksumOfCompositeBuffer() {
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 7);
+        }
+        int expected = Crc32cIntChecksum.computeChecksum(Unpooled.wrappedBuffer(data));
+
+        ByteBuf direct = ByteBufAllocator.DEFAULT.directBuffer(600);
+        direct.writeBytes(data, 300, 600);
+        CompositeByteBuf composite = Unpooled.compositeBuffer();
+        composite.addComponents(true, Unpooled.wrappedBuffer(data, 0, 300), direct,
+                Unpooled.wrappedBuffer(data, 900, 100));
+
+        assertEquals(Crc32cChecksum.computeChecksum(composite), expected);
+        composite.release();
+    }
 }
@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.collections;
+
+import static org.apache.pulsar.common.util.collections.ConcurrentLongPairLongHashMap.ValueNotFound;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.Test;
+
+public class ConcurrentLongPairLongHashMapTest {
+
+    @Test
+    public void testConstructor() {
+        try {
+            new ConcurrentLongPairLongHashMap(0);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            new ConcurrentLongPairLongHashMap(16, 0);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+
+        try {
+            new ConcurrentLongPairLongHashMap(4, 8);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    @Test
+    public void simpleInsertions() {
+        ConcurrentLongPairLongHashMap map = new ConcurrentLongPairLongHashMap(16);
+
+        assertTrue(map.isEmpty());
+        assertEquals(map.put(1, 1, 11), ValueNotFound);
+        assertFalse(map.isEmpty());
+
+        assertEquals(map.put(1, 2, 12), ValueNotFound);
+        assertEquals(map.put(2, 1, 21), ValueNotFound);
+
+        assertEquals(map.size(), 3);
+
+        assertEquals(map.get(1, 1), 11);
+        assertEquals(map.get(1, 2), 12);
+        assertEquals(map.get(2, 1), 21);
+        assertEquals(map.get(2, 2), ValueNotFound);
+
+        assertEquals(map.remove(1, 1), 11);
+        assertEquals(map.size(), 2);
+        assertFalse(map.containsKey(1, 1));
+        assertTrue(map.containsKey(1, 2));
+
+        assertEquals(map.put(1, 2, 120), 12);
+        assertEquals(map.get(1, 2), 120);
+        assertEquals(map.size(), 2);
+
+        assertEquals(map.putIfAbsent(1, 2, 1200), 120);
+        assertEquals(map.get(1, 2), 120);
+    }
+
+    @Test
+    public void testRemove() {
+        ConcurrentLongPairLongHashMap map = new ConcurrentLongPairLongHashMap();
+
+        assertEquals(map.put(1, 1, 11), ValueNotFound);
+        assertFalse(map.remove(1, 1, 111));
+        assertFalse(map.remove(1, 0, 11));
+        assertFalse(map.isEmpty());
+        assertTrue(map.remove(1, 1, 11));
+        assertTrue(map.isEmpty());
+        assertEquals(map.remove(1, 1), ValueNotFound);
+    }
+
+    @Test
+    public void testAddAndGet() {
+        ConcurrentLongPairLongHashMap map = new ConcurrentLongPairLongHashMap();
+        assertEquals(map.addAndGet(1, 1, 1), 1);
+        assertEquals(map.addAndGet(1, 1, 1), 2);
+        assertEquals(map.addAndGet(1, 2, 1), 1);
+        assertEquals(map.get(1, 1), 2);
+
+        try {
+            map.addAndGet(1, 1, -3);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+        assertEquals(map.get(1, 1), 2);
+    }
+
+    @Test
+    public void testRehashing() {
+        int n = 16;
+        ConcurrentLongPairLongHashMap map = new ConcurrentLongPairLongHashMap(n / 2, 1);
+        assertEquals(map.capacity(), n);
+        assertEquals(map.size(), 0);
+
+        for (int i = 0; i < n; i++) {
+            map.put(i, 1, i);
+        }
+
+        assertEquals(map.capacity(), 2 * n);
+        assertEquals(map.size(), n);
+        for (int i = 0; i < n; i++) {
+            assertEquals(map.get(i, 1), i);
+        }
+    }
+
+    @Test
+    public void testHashConflictWithDeletion() {
+        ConcurrentLongPairLongHashMap map = new ConcurrentLongPairLongHashMap(16, 1);
+        final int capacity = (int) map.capacity();
+
+        // Pick 2 keys that fall into the same bucket
+        long key1 = 1;
+        long key2 = key1 + 1;
+        int bucket1 = ConcurrentLongPairLongHashMap.signSafeMod(ConcurrentLongPairLongHashMap.hash(key1, key1),
+                capacity);
+        while (ConcurrentLongPairLongHashMap.signSafeMod(ConcurrentLongPairLongHashMap.hash(key2, key2),
+                capacity) != bucket1) {
+            key2++;
+        }
+
+        assertEquals(map.put(key1, key1, 1), ValueNotFound);
+        assertEquals(map.put(key2, key2, 2), ValueNotFound);
+
+        assertEquals(map.remove(key1, key1), 1);
+        assertEquals(map.get(key2, key2), 2);
+
+        assertEquals(map.put(key1, key1, 3), ValueNotFound);
+        assertEquals(map.remove(key1, key1), 3);
+        assertEquals(map.putIfAbsent(key2, key2, 4), 2);
+
+        assertEquals(map.remove(key2, key2), 2);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testIterationAndRemoveIf() {
+        ConcurrentLongPairLongHashMap map = new ConcurrentLongPairLongHashMap();
+
+        for (int i = 0; i < 100; i++) {
+            map.put(1, i, 1);
+            map.put(2, i, 2);
+        }
+
+        AtomicLong sum = new AtomicLong();
+        map.forEach((key1, key2, value) -> sum.addAndGet(value));
+        assertEquals(sum.get(), 300);
+
+        // Remove a range of positions
+        assertEquals(map.removeIf((key1, key2, value) -> key1 == 1 || (key1 == 2 && key2 < 50)), 150);
+        assertEquals(map.size(), 50);
+        assertFalse(map.containsKey(2, 49));
+        assertTrue(map.containsKey(2, 50));
+    }
+
+    @Test
+    public void concurrentCounters() throws Throwable {
+        ConcurrentLongPairLongHashMap map = new ConcurrentLongPairLongHashMap();
+        ExecutorService executor = Executors.newCachedThreadPool();
+
+        final int nThreads = 8;
+        final int nKeys = 1000;
+        final int N = 100_000;
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < nThreads; i++) {
+            futures.add(executor.submit(() -> {
+                Random random = new Random();
+                for (int j = 0; j < N; j++) {
+                    map.addAndGet(1, random.nextInt(nKeys), 1);
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        AtomicLong total = new AtomicLong();
+        map.forEach((key1, key2, value) -> total.addAndGet(value));
+        assertEquals(total.get(), (long) nThreads * N);
+
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,352 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+public class GrowableMpscArrayBlockingQueueTest {
+
+    @Test
+    public void simple() throws Exception {
+        BlockingQueue<Integer> queue = new GrowableMpscArrayBlockingQueue<>(4);
+
+        assertNull(queue.poll());
+
+        assertEquals(queue.remainingCapacity(), Integer.MAX_VALUE);
+        assertEquals(queue.toString(), "[]");
+
+        try {
+            queue.element();
+            fail("Should have thrown exception");
+        } catch (NoSuchElementException e) {
+            // Expected
+        }
+
+        assertFalse(queue.iterator().hasNext());
+
+        // Test index rollover, across several chunks
+        for (int i = 0; i < 100; i++) {
+            queue.add(i);
+
+            assertEquals(queue.take().intValue(), i);
+        }
+
+        queue.offer(1);
+        assertEquals(queue.toString(), "[1]");
+        queue.offer(2);
+        assertEquals(queue.toString(), "[1, 2]");
+        queue.offer(3);
+        assertEquals(queue.toString(), "[1, 2, 3]");
+        queue.offer(4);
+        assertEquals(queue.toString(), "[1, 2, 3, 4]");
+
+        AtomicInteger value = new AtomicInteger(1);
+        queue.forEach(v -> {
+            assertEquals(v.intValue(), value.get());
+            value.incrementAndGet();
+        });
+
+        assertEquals(queue.size(), 4);
+
+        List<Integer> list = new ArrayList<>();
+        queue.drainTo(list, 3);
+
+        assertEquals(queue.size(), 1);
+        assertEquals(list, Lists.newArrayList(1, 2, 3));
+        assertEquals(queue.toString(), "[4]");
+        assertEquals(queue.peek().intValue(), 4);
+
+        assertEquals(queue.element().intValue(), 4);
+        assertEquals(queue.remove().intValue(), 4);
+        try {
+            queue.remove();
+            fail("Should have thrown exception");
+        } catch (NoSuchElementException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void growArray() throws Exception {
+        BlockingQueue<Integer> queue = new GrowableMpscArrayBlockingQueue<>(4);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertEquals(queue.size(), 1000);
+        assertEquals(queue.peek().intValue(), 0);
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(queue.poll().intValue(), i);
+        }
+        assertEquals(queue.size(), 500);
+
+        queue.clear();
+        assertEquals(queue.size(), 0);
+        assertNull(queue.poll());
+
+        assertTrue(queue.offer(1, 1, TimeUnit.SECONDS));
+        assertTrue(queue.offer(2, 1, TimeUnit.SECONDS));
+        assertTrue(queue.offer(3, 1, TimeUnit.SECONDS));
+        assertEquals(queue.size(), 3);
+
+        List<Integer> list = new ArrayList<>();
+        queue.drainTo(list);
+        assertEquals(queue.size(), 0);
+
+        assertEquals(list, Lists.newArrayList(1, 2, 3));
+    }
+
+    @Test
+    public void removeTest() throws Exception {
+        BlockingQueue<Integer> queue = new GrowableMpscArrayBlockingQueue<>(4);
+        assertFalse(queue.remove(1));
+
+        // Fill several chunks, after consuming a few items so that the head is not at the start of a chunk
+        for (int i = 0; i < 20; i++) {
+            queue.offer(i);
+        }
+        assertEquals(queue.take().intValue(), 0);
+        assertEquals(queue.take().intValue(), 1);
+
+        assertFalse(queue.remove(100));
+        assertEquals(queue.size(), 18);
+
+        // Head, middle of a later chunk and tail
+        assertTrue(queue.remove(2));
+        assertTrue(queue.remove(9));
+        assertTrue(queue.remove(19));
+        assertEquals(queue.size(), 15);
+        assertEquals(queue.toString(), "[3, 4, 5, 6, 7, 8, 10, 11, 12, 13, 14, 15, 16, 17, 18]");
+
+        // The order is kept for the items added afterwards
+        queue.offer(20);
+        List<Integer> list = new ArrayList<>();
+        queue.drainTo(list);
+        assertEquals(list, Lists.newArrayList(3, 4, 5, 6, 7, 8, 10, 11, 12, 13, 14, 15, 16, 17, 18, 20));
+        assertEquals(queue.size(), 0);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void collectionMethods() throws Exception {
+        BlockingQueue<Integer> queue = new GrowableMpscArrayBlockingQueue<>(4);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i);
+        }
+
+        assertTrue(queue.contains(5));
+        assertFalse(queue.contains(10));
+        assertEquals(queue.toArray(new Integer[0]), new Integer[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
+        assertTrue(queue.removeIf(i -> i % 2 == 0));
+        assertEquals(queue.toString(), "[1, 3, 5, 7, 9]");
+
+        assertTrue(queue.removeAll(Lists.newArrayList(1, 9)));
+        assertEquals(queue.toString(), "[3, 5, 7]");
+
+        assertTrue(queue.retainAll(Lists.newArrayList(5)));
+        assertEquals(queue.toString(), "[5]");
+        assertEquals(queue.size(), 1);
+
+        // The iterator is weakly consistent: it doesn't see the items added once created
+        Iterator<Integer> iterator = queue.iterator();
+        queue.offer(6);
+        assertEquals(iterator.next().intValue(), 5);
+        assertFalse(iterator.hasNext());
+        iterator.remove();
+        assertEquals(queue.toString(), "[6]");
+        assertEquals(queue.take().intValue(), 6);
+    }
+
+    @Test(timeOut = 10000)
+    public void blockingTake() throws Exception {
+        BlockingQueue<Integer> queue = new GrowableMpscArrayBlockingQueue<>();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        new Thread(() -> {
+            try {
+                int expected = 0;
+
+                for (int i = 0; i < 100; i++) {
+                    int n = queue.take();
+
+                    assertEquals(n, expected++);
+                }
+
+                latch.countDown();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }).start();
+
+        int n = 0;
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                queue.put(n);
+                ++n;
+            }
+
+            // Wait until all the entries are consumed
+            while (!queue.isEmpty()) {
+                Thread.sleep(1);
+            }
+        }
+
+        latch.await();
+    }
+
+    @Test(timeOut = 10000)
+    public void pollTimeout() throws Exception {
+        BlockingQueue<Integer> queue = new GrowableMpscArrayBlockingQueue<>(4);
+
+        assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+
+        queue.put(1);
+        assertEquals(queue.poll(1, TimeUnit.MILLISECONDS).intValue(), 1);
+
+        // 0 timeout should not block
+        assertNull(queue.poll(0, TimeUnit.HOURS));
+
+        queue.put(2);
+        queue.put(3);
+        assertEquals(queue.poll(1, TimeUnit.HOURS).intValue(), 2);
+        assertEquals(queue.poll(1, TimeUnit.HOURS).intValue(), 3);
+    }
+
+    @Test(timeOut = 10000)
+    public void pollTimeout2() throws Exception {
+        BlockingQueue<Integer> queue = new GrowableMpscArrayBlockingQueue<>();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        new Thread(() -> {
+            try {
+                queue.poll(1, TimeUnit.HOURS);
+
+                latch.countDown();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }).start();
+
+        // Make sure background thread is waiting on poll
+        Thread.sleep(100);
+        queue.put(1);
+
+        latch.await();
+    }
+
+    @Test(timeOut = 30000)
+    public void multipleProducers() throws Exception {
+        BlockingQueue<Integer> queue = new GrowableMpscArrayBlockingQueue<>(4);
+        ExecutorService executor = Executors.newCachedThreadPool();
+
+        final int nProducers = 8;
+        final int N = 100_000;
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < nProducers; i++) {
+            final int producerIdx = i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < N; j++) {
+                    queue.add(producerIdx * N + j);
+                }
+            }));
+        }
+
+        // The items of each producer are received in order
+        int[] lastReceived = new int[nProducers];
+        for (int i = 0; i < nProducers; i++) {
+            lastReceived[i] = -1;
+        }
+
+        for (int i = 0; i < nProducers * N; i++) {
+            int item = queue.take();
+            int producerIdx = item / N;
+            assertEquals(item % N, lastReceived[producerIdx] + 1);
+            lastReceived[producerIdx] = item % N;
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        assertTrue(queue.isEmpty());
+        executor.shutdown();
+    }
+
+    @Test(timeOut = 30000)
+    public void multipleConsumers() throws Exception {
+        BlockingQueue<Integer> queue = new GrowableMpscArrayBlockingQueue<>();
+        ExecutorService executor = Executors.newCachedThreadPool();
+
+        final int nConsumers = 4;
+        final int N = 100_000;
+
+        AtomicInteger received = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < nConsumers; i++) {
+            futures.add(executor.submit(() -> {
+                // Each consumer stops on a negative item
+                while (queue.take() >= 0) {
+                    received.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        for (int i = 0; i < N; i++) {
+            queue.put(i);
+        }
+
+        for (int i = 0; i < nConsumers; i++) {
+            queue.put(-1);
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        assertEquals(received.get(), N);
+        assertTrue(queue.isEmpty());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.common.util.netty;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.apache.pulsar.common.util.FieldParser;
+import org.testng.annotations.Test;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.AdaptiveRecvByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+
+public class TransportProfileTest {
+
+    @Test
+    public void testServerOptions() {
+        for (TransportProfile profile : TransportProfile.values()) {
+            ServerBootstrap bootstrap = new ServerBootstrap();
+            profile.apply(bootstrap);
+
+            Map<ChannelOption<?>, Object> options = bootstrap.config().childOptions();
+            assertEquals(options.get(ChannelOption.ALLOCATOR), PooledByteBufAllocator.DEFAULT);
+            assertEquals(options.get(ChannelOption.TCP_NODELAY), true);
+            assertEquals(options.get(ChannelOption.WRITE_SPIN_COUNT), profile.getWriteSpinCount());
+            assertEquals(options.get(ChannelOption.WRITE_BUFFER_WATER_MARK), profile.getWriteBufferWaterMark());
+            AdaptiveRecvByteBufAllocator allocator = (AdaptiveRecvByteBufAllocator) options
+                    .get(ChannelOption.RCVBUF_ALLOCATOR);
+            assertEquals(allocator.maxMessagesPerRead(), profile.getMaxMessagesPerRead());
+        }
+    }
+
+    @Test
+    public void testDefaultClientOptions() {
+        Bootstrap bootstrap = new Bootstrap();
+        TransportProfile.Default.apply(bootstrap);
+
+        // The client connections keep the Netty defaults
+        Map<ChannelOption<?>, Object> options = bootstrap.config().options();
+        assertEquals(options.size(), 1);
+        assertEquals(options.get(ChannelOption.ALLOCATOR), PooledByteBufAllocator.DEFAULT);
+    }
+
+    @Test
+    public void testClientOptions() {
+        for (TransportProfile profile : new TransportProfile[] { TransportProfile.LowLatency,
+                TransportProfile.HighThroughput }) {
+            Bootstrap bootstrap = new Bootstrap();
+            profile.apply(bootstrap);
+
+            Map<ChannelOption<?>, Object> options = bootstrap.config().options();
+            assertEquals(options.get(ChannelOption.ALLOCATOR), PooledByteBufAllocator.DEFAULT);
+            assertEquals(options.get(ChannelOption.TCP_NODELAY), true);
+            assertEquals(options.get(ChannelOption.WRITE_SPIN_COUNT), profile.getWriteSpinCount());
+            assertEquals(options.get(ChannelOption.WRITE_BUFFER_WATER_MARK), profile.getWriteBufferWaterMark());
+            assertTrue(options.get(ChannelOption.RCVBUF_ALLOCATOR) instanceof AdaptiveRecvByteBufAllocator);
+        }
+    }
+
+    @Test
+    public void testFlushConsolidation() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        TransportProfile.Default.initPipeline(channel.pipeline());
+        assertNull(channel.pipeline().get(TransportProfile.FLUSH_CONSOLIDATION_HANDLER));
+        channel.close();
+
+        channel = new EmbeddedChannel();
+        TransportProfile.HighThroughput.initPipeline(channel.pipeline());
+        assertNotNull(channel.pipeline().get(FlushConsolidationHandler.class));
+        assertEquals(channel.pipeline().names().get(0), TransportProfile.FLUSH_CONSOLIDATION_HANDLER);
+        channel.close();
+    }
+
+    @Test
+    public void testParseFromConfiguration() {
+        assertEquals(FieldParser.convert("LowLatency", TransportProfile.class), TransportProfile.LowLatency);
+        assertEquals(FieldParser.convert("HighThroughput", TransportProfile.class), TransportProfile.HighThroughput);
+    }
+}
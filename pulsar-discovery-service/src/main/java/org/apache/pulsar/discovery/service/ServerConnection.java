@@ -34,6 +34,7 @@ import org.apache.pulsar.common.api.PulsarHandler;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandConnect;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopic;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandPartitionedTopicMetadata;
+import org.apache.pulsar.common.api.proto.PulsarApi.ProtocolVersion;
 import org.apache.pulsar.common.api.proto.PulsarApi.ServerError;
 import org.apache.pulsar.common.naming.TopicName;
 import org.apache.pulsar.policies.data.loadbalancer.LoadManagerReport;
@@ -101,7 +102,8 @@ public class ServerConnection extends PulsarHandler {
                 return;
             }
         }
-        ctx.writeAndFlush(Commands.newConnected(connect.getProtocolVersion()));
+        // Batched lookups (v14) are not supported by the discovery service
+        ctx.writeAndFlush(Commands.newConnected(Math.min(connect.getProtocolVersion(), ProtocolVersion.v13_VALUE)));
         state = State.Connected;
         remoteEndpointProtocolVersion = connect.getProtocolVersion();
     }
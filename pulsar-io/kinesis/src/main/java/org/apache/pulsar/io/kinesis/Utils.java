@@ -154,6 +154,12 @@ public class Utils {
         case ZLIB:
             compressionType = org.apache.pulsar.io.kinesis.fbs.CompressionType.ZLIB;
             break;
+        case ZSTD:
+            compressionType = org.apache.pulsar.io.kinesis.fbs.CompressionType.ZSTD;
+            break;
+        case SNAPPY:
+            compressionType = org.apache.pulsar.io.kinesis.fbs.CompressionType.SNAPPY;
+            break;
         default:
             compressionType = org.apache.pulsar.io.kinesis.fbs.CompressionType.NONE;
 
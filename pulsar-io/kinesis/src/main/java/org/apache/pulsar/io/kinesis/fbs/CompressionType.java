@@ -7,8 +7,10 @@ public final class CompressionType {
   public static final byte NONE = 0;
   public static final byte LZ4 = 1;
   public static final byte ZLIB = 2;
+  public static final byte ZSTD = 3;
+  public static final byte SNAPPY = 4;
 
-  public static final String[] names = { "NONE", "LZ4", "ZLIB", };
+  public static final String[] names = { "NONE", "LZ4", "ZLIB", "ZSTD", "SNAPPY", };
 
   public static String name(int e) { return names[e]; }
 }
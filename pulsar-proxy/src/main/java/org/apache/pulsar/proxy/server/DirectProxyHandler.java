@@ -37,7 +37,6 @@ import org.slf4j.LoggerFactory;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
@@ -79,11 +78,12 @@ public class DirectProxyHandler {
         // Tie the backend connection on the same thread to avoid context
         // switches when passing data between the 2
         // connections
-        b.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        config.getTransportProfile().apply(b);
         b.group(inboundChannel.eventLoop()).channel(inboundChannel.getClass()).option(ChannelOption.AUTO_READ, false);
         b.handler(new ChannelInitializer<SocketChannel>() {
             @Override
             protected void initChannel(SocketChannel ch) throws Exception {
+                config.getTransportProfile().initPipeline(ch.pipeline());
                 if (config.isTlsEnabledWithBroker()) {
                     SslContext sslCtx;
                     // Set client certificate if available
@@ -24,6 +24,7 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.pulsar.common.api.Commands;
 import org.apache.pulsar.common.api.proto.PulsarApi.CommandGetTopicsOfNamespace;
@@ -36,6 +37,9 @@ import org.apache.pulsar.policies.data.loadbalancer.ServiceLookupData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import io.netty.buffer.ByteBuf;
 import io.prometheus.client.Counter;
 
@@ -48,6 +52,10 @@ public class LookupProxyHandler {
     private SocketAddress clientAddress;
     private String brokerServiceURL;
 
+    // Topics looked up on this connection, whose next lookups are not served from the lookup cache. The entries expire
+    // with the lookup cache ones: a cached result added after that was looked up from a broker by another connection
+    private final Cache<String, Boolean> lookedUpTopics;
+
     private static final Counter lookupRequests = Counter
             .build("pulsar_proxy_lookup_requests", "Counter of topic lookup requests").create().register();
 
@@ -80,6 +88,9 @@ public class LookupProxyHandler {
         this.connectWithTLS = proxy.getConfiguration().isTlsEnabledWithBroker();
         this.brokerServiceURL = this.connectWithTLS ? proxy.getConfiguration().getBrokerServiceURLTLS()
                 : proxy.getConfiguration().getBrokerServiceURL();
+        this.lookedUpTopics = proxy.getLookupResultCache() != null ? CacheBuilder.newBuilder()
+                .expireAfterWrite(proxy.getConfiguration().getLookupCacheExpirySeconds(), TimeUnit.SECONDS).build()
+                : null;
     }
 
     public void handleLookup(CommandLookupTopic lookup) {
@@ -90,6 +101,10 @@ public class LookupProxyHandler {
         if (this.service.getLookupRequestSemaphore().tryAcquire()) {
             lookupRequests.inc();
             String topic = lookup.getTopic();
+            if (replyFromLookupCache(clientRequestId, topic)) {
+                this.service.getLookupRequestSemaphore().release();
+                return;
+            }
             String serviceUrl;
             if (isBlank(brokerServiceURL)) {
                 ServiceLookupData availableBroker = null;
@@ -121,6 +136,39 @@ public class LookupProxyHandler {
 
     }
 
+    private boolean replyFromLookupCache(long clientRequestId, String topic) {
+        LookupResultCache lookupResultCache = service.getLookupResultCache();
+        if (lookupResultCache == null) {
+            return false;
+        }
+
+        String cacheKey = lookupCacheKey(topic);
+        boolean lookedUp = lookedUpTopics.getIfPresent(topic) != null;
+        lookedUpTopics.put(topic, Boolean.TRUE);
+        if (lookedUp) {
+            // The client looks up the topic again, so the broker it got may not be serving it anymore
+            lookupResultCache.invalidate(cacheKey);
+            return false;
+        }
+
+        String brokerUrl = lookupResultCache.get(cacheKey);
+        if (brokerUrl == null) {
+            return false;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("[{}] Lookup of topic {} served from cache: {}", clientAddress, topic, brokerUrl);
+        }
+        proxyConnection.ctx().writeAndFlush(Commands.newLookupResponse(brokerUrl, brokerUrl, true,
+                LookupType.Connect, clientRequestId, true /* this is coming from proxy */));
+        return true;
+    }
+
+    // The lookups are authorized by the brokers for the role of the client, so the results are cached per role
+    private String lookupCacheKey(String topic) {
+        String role = proxyConnection.clientAuthRole;
+        return role == null ? topic : role + '@' + topic;
+    }
+
     private void performLookup(long clientRequestId, String topic, String brokerServiceUrl, boolean authoritative,
             int numberOfRetries) {
         if (numberOfRetries == 0) {
@@ -154,6 +202,9 @@ public class LookupProxyHandler {
                     // Need to try the lookup again on a different broker
                     performLookup(clientRequestId, topic, brokerUrl, result.authoritative, numberOfRetries - 1);
                 } else {
+                    if (service.getLookupResultCache() != null) {
+                        service.getLookupResultCache().put(lookupCacheKey(topic), brokerUrl);
+                    }
                     // Reply the same address for both TLS non-TLS. The reason
                     // is that whether we use TLS
                     // and broker is independent of whether the client itself
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.proxy.server;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.policies.data.loadbalancer.ServiceLookupData;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.prometheus.client.Counter;
+
+/**
+ * Cache of the brokers serving the topics looked up through the proxy, shared by all the client connections.
+ *
+ * Entries are dropped when they expire, when their broker leaves the set of active brokers, and when a client looks up
+ * again a topic it already got from the cache, since it means that the broker returned was not serving the topic
+ * anymore.
+ */
+public class LookupResultCache {
+
+    private static final Counter lookupCacheHits = Counter
+            .build("pulsar_proxy_lookup_cache_hits", "Counter of topic lookups served from the proxy cache").create()
+            .register();
+
+    private static final Counter lookupCacheMisses = Counter
+            .build("pulsar_proxy_lookup_cache_misses", "Counter of topic lookups sent to the brokers").create()
+            .register();
+
+    private final Cache<String, String> brokerUrls;
+
+    public LookupResultCache(long expirySeconds) {
+        this.brokerUrls = CacheBuilder.newBuilder().expireAfterWrite(expirySeconds, TimeUnit.SECONDS).build();
+    }
+
+    /**
+     * @return the url of the broker serving the topic, or null if the lookup has to be sent to a broker
+     */
+    public String get(String topic) {
+        String brokerUrl = brokerUrls.getIfPresent(topic);
+        if (brokerUrl != null) {
+            lookupCacheHits.inc();
+        } else {
+            lookupCacheMisses.inc();
+        }
+        return brokerUrl;
+    }
+
+    public void put(String topic, String brokerUrl) {
+        brokerUrls.put(topic, brokerUrl);
+    }
+
+    public void invalidate(String topic) {
+        brokerUrls.invalidate(topic);
+    }
+
+    /**
+     * Drop the topics served by the brokers which are not active anymore.
+     */
+    public void retainBrokers(List<? extends ServiceLookupData> activeBrokers) {
+        Set<String> activeBrokerUrls = new HashSet<>();
+        activeBrokers.forEach(broker -> {
+            activeBrokerUrls.add(broker.getPulsarServiceUrl());
+            activeBrokerUrls.add(broker.getPulsarServiceUrlTls());
+        });
+        brokerUrls.asMap().values().removeIf(brokerUrl -> !activeBrokerUrls.contains(brokerUrl));
+    }
+
+    public long size() {
+        return brokerUrls.size();
+    }
+}
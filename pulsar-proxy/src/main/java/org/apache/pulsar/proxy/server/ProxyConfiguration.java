@@ -34,6 +34,7 @@ import lombok.Setter;
 import org.apache.pulsar.broker.authorization.PulsarAuthorizationProvider;
 import org.apache.pulsar.common.configuration.FieldContext;
 import org.apache.pulsar.common.configuration.PulsarConfiguration;
+import org.apache.pulsar.common.util.netty.TransportProfile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -72,6 +73,10 @@ public class ProxyConfiguration implements PulsarConfiguration {
     // Port to use to server binary-proto-tls request
     private int servicePortTls = 6651;
 
+    // Netty options of the connections of the clients and of the connections to the brokers:
+    // "Default", "LowLatency" or "HighThroughput"
+    private TransportProfile transportProfile = TransportProfile.Default;
+
     // Port to use to server HTTP request
     private int webServicePort = 8080;
     // Port to use to server HTTPS request
@@ -103,6 +108,11 @@ public class ProxyConfiguration implements PulsarConfiguration {
     // Max concurrent outbound Connections
     private int maxConcurrentLookupRequests = 50000;
 
+    // How long the brokers serving the topics looked up through the proxy are cached, in seconds. The cache is disabled
+    // when set to 0. A cached result may point to a broker which is not serving the topic anymore until the client
+    // looks up the topic again
+    private int lookupCacheExpirySeconds = 0;
+
     // Authentication settings of the proxy itself. Used to connect to brokers
     private String brokerClientAuthenticationPlugin;
     private String brokerClientAuthenticationParameters;
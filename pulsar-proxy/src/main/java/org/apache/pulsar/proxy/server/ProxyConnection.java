@@ -228,7 +228,9 @@ public class ProxyConnection extends PulsarHandler implements FutureListener<Voi
             // partitions metadata lookups
             state = State.ProxyLookupRequests;
             lookupProxyHandler = new LookupProxyHandler(service, this);
-            ctx.writeAndFlush(Commands.newConnected(protocolVersionToAdvertise));
+            // Batched lookups (v14) are not proxied
+            ctx.writeAndFlush(Commands.newConnected(
+                    Math.min(protocolVersionToAdvertise, PulsarApi.ProtocolVersion.v13_VALUE)));
         }
     }
 
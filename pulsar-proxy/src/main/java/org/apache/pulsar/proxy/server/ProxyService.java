@@ -22,9 +22,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.buffer.PooledByteBufAllocator;
-import io.netty.channel.AdaptiveRecvByteBufAllocator;
-import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import io.prometheus.client.Counter;
@@ -68,6 +65,8 @@ public class ProxyService implements Closeable {
 
     private BrokerDiscoveryProvider discoveryProvider;
 
+    private final LookupResultCache lookupResultCache;
+
     protected final AtomicReference<Semaphore> lookupRequestSemaphore;
 
     private static final int numThreads = Runtime.getRuntime().availableProcessors();
@@ -97,6 +96,8 @@ public class ProxyService implements Closeable {
 
         this.lookupRequestSemaphore = new AtomicReference<Semaphore>(
                 new Semaphore(proxyConfig.getMaxConcurrentLookupRequests(), false));
+        this.lookupResultCache = proxyConfig.getLookupCacheExpirySeconds() > 0
+                ? new LookupResultCache(proxyConfig.getLookupCacheExpirySeconds()) : null;
 
         String hostname;
         try {
@@ -115,20 +116,19 @@ public class ProxyService implements Closeable {
     public void start() throws Exception {
         if (!isBlank(proxyConfig.getZookeeperServers()) && !isBlank(proxyConfig.getConfigurationStoreServers())) {
             discoveryProvider = new BrokerDiscoveryProvider(this.proxyConfig, getZooKeeperClientFactory());
+            if (lookupResultCache != null) {
+                discoveryProvider.localZkCache.registerAvailableBrokersListener(lookupResultCache::retainBrokers);
+            }
             this.configurationCacheService = new ConfigurationCacheService(discoveryProvider.globalZkCache);
             authorizationService = new AuthorizationService(PulsarConfigurationLoader.convertFrom(proxyConfig),
                                                             configurationCacheService);
         }
 
         ServerBootstrap bootstrap = new ServerBootstrap();
-        bootstrap.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
         bootstrap.group(acceptorGroup, workerGroup);
-        bootstrap.childOption(ChannelOption.TCP_NODELAY, true);
-        bootstrap.childOption(ChannelOption.RCVBUF_ALLOCATOR,
-                new AdaptiveRecvByteBufAllocator(1024, 16 * 1024, 1 * 1024 * 1024));
+        proxyConfig.getTransportProfile().apply(bootstrap);
 
         bootstrap.channel(EventLoopUtil.getServerSocketChannelClass(workerGroup));
-        EventLoopUtil.enableTriggeredMode(bootstrap);
 
         bootstrap.childHandler(new ServiceChannelInitializer(this, proxyConfig, false));
         // Bind and start to accept incoming connections.
@@ -159,6 +159,13 @@ public class ProxyService implements Closeable {
         return discoveryProvider;
     }
 
+    /**
+     * @return the cache of lookup results, or null if disabled
+     */
+    public LookupResultCache getLookupResultCache() {
+        return lookupResultCache;
+    }
+
     public void close() throws IOException {
         if (discoveryProvider != null) {
             discoveryProvider.close();
@@ -24,6 +24,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import org.apache.bookkeeper.common.util.OrderedScheduler;
 import org.apache.pulsar.common.util.ObjectMapperFactory;
@@ -52,6 +54,8 @@ public class ZookeeperCacheLoader implements Closeable {
 
     private volatile List<LoadManagerReport> availableBrokers;
 
+    private final List<Consumer<List<LoadManagerReport>>> availableBrokersListeners = new CopyOnWriteArrayList<>();
+
     private final OrderedScheduler orderedExecutor = OrderedScheduler.newSchedulerBuilder().numThreads(8)
             .name("pulsar-discovery-ordered-cache").build();
 
@@ -95,6 +99,13 @@ public class ZookeeperCacheLoader implements Closeable {
         return availableBrokers;
     }
 
+    /**
+     * Register a listener notified with the new list of available brokers each time it changes.
+     */
+    public void registerAvailableBrokersListener(Consumer<List<LoadManagerReport>> listener) {
+        availableBrokersListeners.add(listener);
+    }
+
     public ZooKeeperCache getLocalZkCache() {
         return localZkCache;
     }
@@ -117,6 +128,7 @@ public class ZookeeperCacheLoader implements Closeable {
         }
 
         this.availableBrokers = availableBrokers;
+        availableBrokersListeners.forEach(listener -> listener.accept(availableBrokers));
     }
 
     private static final Logger log = LoggerFactory.getLogger(ZookeeperCacheLoader.class);
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.proxy.server;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import com.google.common.collect.Lists;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import org.apache.pulsar.client.impl.BinaryProtoLookupService.LookupDataResult;
+import org.apache.pulsar.client.impl.ClientCnx;
+import org.apache.pulsar.client.impl.ConnectionPool;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopic;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse;
+import org.apache.pulsar.common.api.proto.PulsarApi.CommandLookupTopicResponse.LookupType;
+import org.apache.pulsar.policies.data.loadbalancer.LocalBrokerData;
+import org.testng.annotations.Test;
+
+public class LookupResultCacheTest {
+
+    private static LocalBrokerData broker(String pulsarServiceUrl, String pulsarServiceUrlTls) {
+        return new LocalBrokerData(null, null, pulsarServiceUrl, pulsarServiceUrlTls);
+    }
+
+    @Test
+    public void testPutAndInvalidate() {
+        LookupResultCache cache = new LookupResultCache(60);
+        assertNull(cache.get("persistent://prop/ns/topic"));
+
+        cache.put("persistent://prop/ns/topic", "pulsar://broker-1:6650");
+        assertEquals(cache.get("persistent://prop/ns/topic"), "pulsar://broker-1:6650");
+
+        cache.invalidate("persistent://prop/ns/topic");
+        assertNull(cache.get("persistent://prop/ns/topic"));
+    }
+
+    @Test
+    public void testRetainBrokers() {
+        LookupResultCache cache = new LookupResultCache(60);
+        cache.put("persistent://prop/ns/topic-1", "pulsar://broker-1:6650");
+        cache.put("persistent://prop/ns/topic-2", "pulsar+ssl://broker-2:6651");
+        cache.put("persistent://prop/ns/topic-3", "pulsar://broker-3:6650");
+
+        // broker-3 left the cluster
+        cache.retainBrokers(Lists.newArrayList(broker("pulsar://broker-1:6650", "pulsar+ssl://broker-1:6651"),
+                broker("pulsar://broker-2:6650", "pulsar+ssl://broker-2:6651")));
+
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.get("persistent://prop/ns/topic-1"), "pulsar://broker-1:6650");
+        assertEquals(cache.get("persistent://prop/ns/topic-2"), "pulsar+ssl://broker-2:6651");
+        assertNull(cache.get("persistent://prop/ns/topic-3"));
+    }
+
+    @Test
+    public void testLookupProxyHandler() throws Exception {
+        ProxyConfiguration proxyConfig = new ProxyConfiguration();
+        proxyConfig.setBrokerServiceURL("pulsar://broker-1:6650");
+        proxyConfig.setLookupCacheExpirySeconds(60);
+        LookupResultCache cache = new LookupResultCache(60);
+
+        ProxyService proxyService = mock(ProxyService.class);
+        doReturn(proxyConfig).when(proxyService).getConfiguration();
+        doReturn(cache).when(proxyService).getLookupResultCache();
+        doReturn(new Semaphore(10)).when(proxyService).getLookupRequestSemaphore();
+
+        CommandLookupTopicResponse lookupResponse = CommandLookupTopicResponse.newBuilder().setRequestId(1)
+                .setBrokerServiceUrl("pulsar://broker-2:6650").setResponse(LookupType.Connect).build();
+        ClientCnx clientCnx = mock(ClientCnx.class);
+        doReturn(CompletableFuture.completedFuture(new LookupDataResult(lookupResponse))).when(clientCnx)
+                .newLookup(any(ByteBuf.class), anyLong());
+        ConnectionPool connectionPool = mock(ConnectionPool.class);
+        doReturn(CompletableFuture.completedFuture(clientCnx)).when(connectionPool)
+                .getConnection(any(InetSocketAddress.class));
+
+        ProxyConnection connection1 = mockProxyConnection(connectionPool);
+        ProxyConnection connection2 = mockProxyConnection(connectionPool);
+        LookupProxyHandler handler1 = new LookupProxyHandler(proxyService, connection1);
+        LookupProxyHandler handler2 = new LookupProxyHandler(proxyService, connection2);
+        String topic = "persistent://prop/ns/topic";
+
+        // Miss: the lookup is sent to the broker, and its result is cached
+        handler1.handleLookup(newLookup(topic, 1));
+        verify(clientCnx, times(1)).newLookup(any(ByteBuf.class), anyLong());
+        assertEquals(cache.get(topic), "pulsar://broker-2:6650");
+
+        // Hit: another connection gets the cached result
+        handler2.handleLookup(newLookup(topic, 1));
+        verify(clientCnx, times(1)).newLookup(any(ByteBuf.class), anyLong());
+        verify(connection2.ctx(), times(1)).writeAndFlush(any(ByteBuf.class));
+
+        // Re-lookup: the connection looks up the topic again, so the cached result is dropped and the broker is asked
+        handler2.handleLookup(newLookup(topic, 2));
+        verify(clientCnx, times(2)).newLookup(any(ByteBuf.class), anyLong());
+        verify(connection2.ctx(), times(2)).writeAndFlush(any(ByteBuf.class));
+        assertEquals(cache.get(topic), "pulsar://broker-2:6650");
+
+        // The first connection looked up the topic as well, so it is not served from the cache either
+        handler1.handleLookup(newLookup(topic, 2));
+        verify(clientCnx, times(3)).newLookup(any(ByteBuf.class), anyLong());
+    }
+
+    private static ProxyConnection mockProxyConnection(ConnectionPool connectionPool) {
+        ProxyConnection connection = mock(ProxyConnection.class);
+        doReturn(mock(ChannelHandlerContext.class)).when(connection).ctx();
+        doReturn(connectionPool).when(connection).getConnectionPool();
+        return connection;
+    }
+
+    private static CommandLookupTopic newLookup(String topic, long requestId) {
+        return CommandLookupTopic.newBuilder().setTopic(topic).setRequestId(requestId).build();
+    }
+}
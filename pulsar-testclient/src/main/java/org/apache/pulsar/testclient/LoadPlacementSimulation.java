@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.testclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.pulsar.broker.BrokerData;
+import org.apache.pulsar.broker.BundleData;
+import org.apache.pulsar.broker.ServiceConfiguration;
+import org.apache.pulsar.broker.TimeAverageBrokerData;
+import org.apache.pulsar.broker.TimeAverageMessageData;
+import org.apache.pulsar.broker.loadbalance.LoadData;
+import org.apache.pulsar.broker.loadbalance.ModularLoadManagerStrategy;
+import org.apache.pulsar.policies.data.loadbalancer.LocalBrokerData;
+import org.apache.pulsar.policies.data.loadbalancer.ResourceUsage;
+
+/**
+ * Offline simulation of the placement of a set of bundles on identical brokers, used to compare the balance achieved
+ * by placement strategies.
+ *
+ * <p>The bundles are assigned one by one, in the same order for every strategy. After each assignment, the resource
+ * usage of the selected broker is derived from the long term data of its bundles with a simple cost model: CPU and
+ * direct memory grow with the message rate and the throughput, and the NIC usage is the throughput itself.
+ */
+public class LoadPlacementSimulation {
+
+    /**
+     * Resource model of the simulated brokers.
+     */
+    public static class BrokerModel {
+        // Number of cores, the CPU limit being 100 per core.
+        public int cores = 8;
+
+        // NIC speed, for each direction.
+        public double nicSpeedGbps = 10;
+
+        // CPU used per message per second, as a percentage of one core.
+        public double cpuPerMessage = 0.002;
+
+        // Direct memory, in MB, used per MB/s of throughput.
+        public double directMemoryPerThroughput = 1;
+
+        public double directMemoryLimitMb = 4096;
+
+        // Heap usage, which does not depend on the load.
+        public double memoryUsageMb = 1024;
+
+        public double memoryLimitMb = 4096;
+    }
+
+    /**
+     * Balance of the placement computed by a strategy, as the usage of each resource on the most loaded broker and
+     * its coefficient of variation across the brokers.
+     */
+    public static class Result {
+        public final String strategy;
+        public final double[] maxUsage = new double[RESOURCES.length];
+        public final double[] variation = new double[RESOURCES.length];
+        public int overloadedBrokers;
+
+        Result(String strategy) {
+            this.strategy = strategy;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder(strategy).append(':');
+            for (int i = 0; i < RESOURCES.length; i++) {
+                sb.append(String.format(" %s max=%.1f%% cv=%.3f", RESOURCES[i], maxUsage[i] * 100, variation[i]));
+            }
+            return sb.append(String.format(" overloaded=%d", overloadedBrokers)).toString();
+        }
+    }
+
+    static final String[] RESOURCES = { "cpu", "memory", "directMemory", "bandwidthIn", "bandwidthOut" };
+
+    private static final double KBITS_PER_BYTE = 8.0 / 1024;
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    private final List<BundleData> bundles;
+    private final int numBrokers;
+    private final BrokerModel model;
+    private final ServiceConfiguration conf;
+
+    /**
+     * @param bundles
+     *            the bundles to place
+     * @param numBrokers
+     *            the number of simulated brokers
+     * @param model
+     *            the resource model of the brokers
+     * @param conf
+     *            the configuration given to the strategies
+     * @param seed
+     *            the seed used to shuffle the order of assignment of the bundles
+     */
+    public LoadPlacementSimulation(final Map<String, BundleData> bundles, final int numBrokers,
+            final BrokerModel model, final ServiceConfiguration conf, final long seed) {
+        this.bundles = new ArrayList<>(bundles.values());
+        Collections.shuffle(this.bundles, new Random(seed));
+        this.numBrokers = numBrokers;
+        this.model = model;
+        this.conf = conf;
+    }
+
+    /**
+     * Place all the bundles with the given strategy.
+     */
+    public Result run(final ModularLoadManagerStrategy strategy) {
+        final LoadData loadData = new LoadData();
+        final Map<String, BrokerData> brokers = loadData.getBrokerData();
+        for (int i = 0; i < numBrokers; i++) {
+            final BrokerData brokerData = new BrokerData(new LocalBrokerData());
+            brokerData.setTimeAverageData(new TimeAverageBrokerData());
+            updateUsage(brokerData);
+            brokers.put("broker-" + i, brokerData);
+        }
+
+        final Set<String> candidates = brokers.keySet();
+        for (BundleData bundle : bundles) {
+            final Optional<String> broker = strategy.selectBroker(candidates, bundle, loadData, conf);
+            if (!broker.isPresent()) {
+                continue;
+            }
+            final BrokerData brokerData = brokers.get(broker.get());
+            final TimeAverageBrokerData timeAverageData = brokerData.getTimeAverageData();
+            final TimeAverageMessageData longTermData = bundle.getLongTermData();
+            timeAverageData.setLongTermMsgRateIn(timeAverageData.getLongTermMsgRateIn() + longTermData.getMsgRateIn());
+            timeAverageData
+                    .setLongTermMsgRateOut(timeAverageData.getLongTermMsgRateOut() + longTermData.getMsgRateOut());
+            timeAverageData.setLongTermMsgThroughputIn(
+                    timeAverageData.getLongTermMsgThroughputIn() + longTermData.getMsgThroughputIn());
+            timeAverageData.setLongTermMsgThroughputOut(
+                    timeAverageData.getLongTermMsgThroughputOut() + longTermData.getMsgThroughputOut());
+            updateUsage(brokerData);
+        }
+
+        final Result result = new Result(strategy.getClass().getSimpleName());
+        final double overloadThreshold = conf.getLoadBalancerBrokerOverloadedThresholdPercentage() / 100.0;
+        final double[] sum = new double[RESOURCES.length];
+        final double[] sumSquares = new double[RESOURCES.length];
+        for (BrokerData brokerData : brokers.values()) {
+            final double[] usage = getUsage(brokerData.getLocalData());
+            for (int i = 0; i < RESOURCES.length; i++) {
+                result.maxUsage[i] = Math.max(result.maxUsage[i], usage[i]);
+                sum[i] += usage[i];
+                sumSquares[i] += usage[i] * usage[i];
+            }
+            if (brokerData.getLocalData().getMaxResourceUsage() > overloadThreshold) {
+                result.overloadedBrokers++;
+            }
+        }
+        for (int i = 0; i < RESOURCES.length; i++) {
+            final double mean = sum[i] / numBrokers;
+            final double variance = Math.max(0, sumSquares[i] / numBrokers - mean * mean);
+            result.variation[i] = mean > 0 ? Math.sqrt(variance) / mean : 0;
+        }
+        return result;
+    }
+
+    // Derive the resource usage of a broker from the long term data of its bundles.
+    private void updateUsage(final BrokerData brokerData) {
+        final TimeAverageBrokerData timeAverageData = brokerData.getTimeAverageData();
+        final double msgRate = timeAverageData.getLongTermMsgRateIn() + timeAverageData.getLongTermMsgRateOut();
+        final double throughputIn = timeAverageData.getLongTermMsgThroughputIn();
+        final double throughputOut = timeAverageData.getLongTermMsgThroughputOut();
+        final double nicLimitKbps = model.nicSpeedGbps * 1024 * 1024;
+
+        final LocalBrokerData localData = brokerData.getLocalData();
+        localData.setCpu(new ResourceUsage(msgRate * model.cpuPerMessage, model.cores * 100));
+        localData.setMemory(new ResourceUsage(model.memoryUsageMb, model.memoryLimitMb));
+        localData.setDirectMemory(new ResourceUsage(
+                (throughputIn + throughputOut) / BYTES_PER_MB * model.directMemoryPerThroughput,
+                model.directMemoryLimitMb));
+        localData.setBandwidthIn(new ResourceUsage(throughputIn * KBITS_PER_BYTE, nicLimitKbps));
+        localData.setBandwidthOut(new ResourceUsage(throughputOut * KBITS_PER_BYTE, nicLimitKbps));
+    }
+
+    private static double[] getUsage(final LocalBrokerData localData) {
+        return new double[] { localData.getCpu().percentUsage() / 100, localData.getMemory().percentUsage() / 100,
+                localData.getDirectMemory().percentUsage() / 100, localData.getBandwidthIn().percentUsage() / 100,
+                localData.getBandwidthOut().percentUsage() / 100 };
+    }
+}
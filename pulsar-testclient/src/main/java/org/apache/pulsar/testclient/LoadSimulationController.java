@@ -38,7 +38,9 @@ import java.util.concurrent.Future;
 
 import org.apache.bookkeeper.util.ZkUtils;
 import org.apache.pulsar.broker.BundleData;
+import org.apache.pulsar.broker.ServiceConfiguration;
 import org.apache.pulsar.broker.loadbalance.LoadManager;
+import org.apache.pulsar.broker.loadbalance.ModularLoadManagerStrategy;
 import org.apache.pulsar.common.policies.data.ResourceQuota;
 import org.apache.pulsar.common.util.ObjectMapperFactory;
 import org.apache.pulsar.policies.data.loadbalancer.LoadReport;
@@ -101,7 +103,7 @@ public class LoadSimulationController {
                 + "change tenant namespace topic\n" + "stop tenant namespace topic\n"
                 + "trade_group tenant group_name num_namespaces\n" + "change_group tenant group_name\n"
                 + "stop_group tenant group_name\n" + "script script_name\n" + "copy tenant_name source_zk target_zk\n"
-                + "stream source_zk\n" + "simulate zk\n", required = true)
+                + "stream source_zk\n" + "simulate zk\n" + "compare_strategies zk num_brokers\n", required = true)
         List<String> commandArguments;
 
         @Parameter(names = { "--rand-rate" }, description = "Choose message rate uniformly randomly from the next two "
@@ -124,6 +126,18 @@ public class LoadSimulationController {
         @Parameter(names = { "--topics-per-namespace" }, description = "Number of topics to create per namespace in "
                 + "trade_group (total number of topics is num_namespaces X num_topics)")
         int topicsPerNamespace = 1;
+
+        @Parameter(names = { "--strategies" }, description = "Comma separated list of the placement strategy classes "
+                + "to compare in compare_strategies")
+        String strategies = "org.apache.pulsar.broker.loadbalance.impl.LeastLongTermMessageRate,"
+                + "org.apache.pulsar.broker.loadbalance.impl.LeastWeightedResourceUsage";
+
+        @Parameter(names = { "--broker-cores" }, description = "Number of cores of the brokers in compare_strategies")
+        int brokerCores = 8;
+
+        @Parameter(names = { "--broker-nic-speed-gbps" }, description = "NIC speed of the brokers in "
+                + "compare_strategies")
+        double brokerNicSpeedGbps = 10;
     }
 
     // In stream mode, the BrokerWatcher watches the /loadbalance/broker zpath and adds LoadReportWatchers accordingly
@@ -512,6 +526,49 @@ public class LoadSimulationController {
         zkClient.close();
     }
 
+    // Recursively read the bundle data found under the given path.
+    private void getBundleData(final String path, final ZooKeeper zkClient, final Map<String, BundleData> bundleData)
+            throws Exception {
+        final List<String> children = zkClient.getChildren(path, false);
+        if (children.isEmpty()) {
+            bundleData.put(path.substring(BUNDLE_DATA_ROOT.length() + 1),
+                    ObjectMapperFactory.getThreadLocal().readValue(zkClient.getData(path, false, null),
+                            BundleData.class));
+        } else {
+            for (final String child : children) {
+                getBundleData(String.format("%s/%s", path, child), zkClient, bundleData);
+            }
+        }
+    }
+
+    // Handle the command line arguments associated with the compare_strategies command.
+    private void handleCompareStrategies(final ShellArguments arguments) throws Exception {
+        final List<String> commandArguments = arguments.commandArguments;
+        // Compare strategies expects two application arguments: ZooKeeper connect string and number of brokers.
+        if (checkAppArgs(commandArguments.size() - 1, 2)) {
+            final ZooKeeper zkClient = new ZooKeeper(commandArguments.get(1), 5000, null);
+            final int numBrokers = Integer.parseInt(commandArguments.get(2));
+            final Map<String, BundleData> bundleData = new HashMap<>();
+            try {
+                getBundleData(BUNDLE_DATA_ROOT, zkClient, bundleData);
+            } finally {
+                zkClient.close();
+            }
+
+            final LoadPlacementSimulation.BrokerModel model = new LoadPlacementSimulation.BrokerModel();
+            model.cores = arguments.brokerCores;
+            model.nicSpeedGbps = arguments.brokerNicSpeedGbps;
+            final ServiceConfiguration conf = new ServiceConfiguration();
+            final LoadPlacementSimulation simulation = new LoadPlacementSimulation(bundleData, numBrokers, model, conf,
+                    random.nextLong());
+            log.info("Placing {} bundles on {} brokers", bundleData.size(), numBrokers);
+            for (String strategy : arguments.strategies.split(",")) {
+                conf.setLoadBalancerLoadPlacementStrategy(strategy.trim());
+                log.info("{}", simulation.run(ModularLoadManagerStrategy.create(conf)));
+            }
+        }
+    }
+
     // Handle the command line arguments associated with the stop command.
     private void handleStop(final ShellArguments arguments) throws Exception {
         final List<String> commandArguments = arguments.commandArguments;
@@ -673,6 +730,9 @@ public class LoadSimulationController {
                 case "simulate":
                     handleSimulate(arguments);
                     break;
+                case "compare_strategies":
+                    handleCompareStrategies(arguments);
+                    break;
                 case "quit":
                 case "exit":
                     System.exit(0);
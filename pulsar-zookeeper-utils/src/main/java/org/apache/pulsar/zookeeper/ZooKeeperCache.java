@@ -18,6 +18,7 @@
  */
 package org.apache.pulsar.zookeeper;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
@@ -30,14 +31,17 @@ import java.nio.file.Paths;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.bookkeeper.common.util.OrderedExecutor;
@@ -84,6 +88,8 @@ public abstract class ZooKeeperCache implements Watcher {
     private final OrderedExecutor backgroundExecutor = OrderedExecutor.newBuilder().name("zk-cache-background").numThreads(2).build();
     private boolean shouldShutdownExecutor;
     public static final int cacheTimeOutInSec = 30;
+    // Maximum number of requests sent at the same time to prefetch a subtree
+    public static final int PREFETCH_MAX_PENDING = 1000;
 
     protected AtomicReference<ZooKeeper> zkSession = new AtomicReference<ZooKeeper>(null);
 
@@ -109,6 +115,10 @@ public abstract class ZooKeeperCache implements Watcher {
         return this.zkSession.get();
     }
 
+    OrderedExecutor getExecutor() {
+        return this.executor;
+    }
+
     public <T> void process(WatchedEvent event, final CacheUpdater<T> updater) {
         final String path = event.getPath();
         if (path != null) {
@@ -284,8 +294,10 @@ public abstract class ZooKeeperCache implements Watcher {
      */
     public <T> Optional<Entry<T, Stat>> getData(final String path, final Watcher watcher,
             final Deserializer<T> deserializer) throws Exception {
+        CompletableFuture<Optional<Entry<T, Stat>>> future = getDataAsync(path, watcher, deserializer);
+        checkBlockingLoad(path, future);
         try {
-            return getDataAsync(path, watcher, deserializer).get(cacheTimeOutInSec, TimeUnit.SECONDS);
+            return future.get(cacheTimeOutInSec, TimeUnit.SECONDS);
         } catch (ExecutionException e) {
             asyncInvalidate(path);
             Throwable cause = e.getCause();
@@ -306,6 +318,24 @@ public abstract class ZooKeeperCache implements Watcher {
         }
     }
 
+    /**
+     * Checks that the thread about to wait for the given load of a z-node is allowed to block. A thread which should
+     * never block is only reported, except for the zk event thread which would wait for its own callback.
+     */
+    void checkBlockingLoad(String path, CompletableFuture<?> future) {
+        if (future.isDone() || !ZooKeeperCacheStats.isNonBlockingThread()) {
+            return;
+        }
+
+        ZooKeeperCacheStats.recordBlockingLoad(path);
+        if (ZooKeeperCacheStats.isZooKeeperEventThread()) {
+            // The result is delivered on this same thread, so waiting for it would only end with the time-out
+            asyncInvalidate(path);
+            throw new IllegalStateException("Cannot wait for " + path + " zk-data on the zk event thread");
+        }
+        LOG.warn("Blocking {} while fetching {} zk-data, use the async cache methods", Thread.currentThread(), path);
+    }
+
     @SuppressWarnings({ "unchecked", "deprecation" })
     public <T> CompletableFuture<Optional<Entry<T, Stat>>> getDataAsync(final String path, final Watcher watcher,
             final Deserializer<T> deserializer) {
@@ -319,7 +349,9 @@ public abstract class ZooKeeperCache implements Watcher {
 
             // Broker doesn't restart on global-zk session lost: so handling unexpected exception
             try {
+                final long startNanos = System.nanoTime();
                 this.zkSession.get().getData(path, watcher, (rc, path1, ctx, content, stat) -> {
+                    ZooKeeperCacheStats.recordLoad(ZooKeeperCacheStats.DATA, path, startNanos);
                     if (rc == Code.OK.intValue()) {
                         try {
                             T obj = deserializer.deserialize(path, content);
@@ -385,7 +417,17 @@ public abstract class ZooKeeperCache implements Watcher {
                 @Override
                 public Set<String> call() throws Exception {
                     LOG.debug("Fetching children at {}", path);
-                    return Sets.newTreeSet(checkNotNull(zkSession.get()).getChildren(path, watcher));
+                    if (ZooKeeperCacheStats.isNonBlockingThread()) {
+                        ZooKeeperCacheStats.recordBlockingLoad(path);
+                        LOG.warn("Blocking {} while fetching the children of {}", Thread.currentThread(), path);
+                    }
+
+                    long startNanos = System.nanoTime();
+                    try {
+                        return Sets.newTreeSet(checkNotNull(zkSession.get()).getChildren(path, watcher));
+                    } finally {
+                        ZooKeeperCacheStats.recordLoad(ZooKeeperCacheStats.CHILDREN, path, startNanos);
+                    }
                 }
             });
         } catch (ExecutionException e) {
@@ -409,6 +451,201 @@ public abstract class ZooKeeperCache implements Watcher {
         }
     }
 
+    /**
+     * Async version of {@link #getChildren(String, Watcher)}, the future is completed on the ordered executor thread
+     * of the path.
+     *
+     * @param path
+     * @param watcher
+     * @return a future completed with the children, or failed with a {@link NoNodeException} if the z-node is missing
+     */
+    public CompletableFuture<Set<String>> getChildrenAsync(final String path, final Watcher watcher) {
+        checkNotNull(path);
+
+        Set<String> cachedChildren = childrenCache.getIfPresent(path);
+        if (cachedChildren != null) {
+            return CompletableFuture.completedFuture(cachedChildren);
+        }
+
+        CompletableFuture<Set<String>> future = new CompletableFuture<>();
+        final long startNanos = System.nanoTime();
+        try {
+            this.zkSession.get().getChildren(path, watcher, (rc, path1, ctx, children) -> {
+                ZooKeeperCacheStats.recordLoad(ZooKeeperCacheStats.CHILDREN, path, startNanos);
+                if (rc == Code.OK.intValue()) {
+                    Set<String> childrenSet = Sets.newTreeSet(children);
+                    childrenCache.put(path, childrenSet);
+                    completeOrdered(path, () -> future.complete(childrenSet));
+                } else if (rc == Code.NONODE.intValue()) {
+                    // The node we want may not exist yet, so put a watcher on its existance, as getChildren does
+                    this.zkSession.get().exists(path, watcher, (rc2, path2, ctx2, stat) -> {
+                        if (rc2 == Code.OK.intValue()) {
+                            getChildrenAsync(path, watcher).whenComplete((childrenSet, ex) -> {
+                                if (ex != null) {
+                                    future.completeExceptionally(ex);
+                                } else {
+                                    future.complete(childrenSet);
+                                }
+                            });
+                        } else {
+                            completeOrdered(path, () -> future.completeExceptionally(
+                                    KeeperException.create(Code.get(rc2), path)));
+                        }
+                    }, null);
+                } else {
+                    completeOrdered(path,
+                            () -> future.completeExceptionally(KeeperException.create(Code.get(rc), path)));
+                }
+            }, null);
+        } catch (Exception e) {
+            LOG.warn("Failed to access zkSession for {} {}", path, e.getMessage(), e);
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    // Avoid using the zk-client thread to process the result
+    private void completeOrdered(String path, Runnable completion) {
+        try {
+            executor.executeOrdered(path, new SafeRunnable() {
+                @Override
+                public void safeRun() {
+                    completion.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor is shutting down
+            completion.run();
+        }
+    }
+
+    /**
+     * Loads in the data cache all the z-nodes found at the given depth below the root path, eg. all the namespace
+     * policies with a depth of 2 below "/admin/policies".
+     *
+     * The children lists and the data are fetched with async requests, pipelined up to {@link #PREFETCH_MAX_PENDING}
+     * at a time, so no thread is blocked while the subtree is loaded. The children lists are not cached, as the
+     * watches set on them would not trigger the reload of the children caches. Missing z-nodes are skipped, as well as the
+     * z-nodes which cannot be read or deserialized.
+     *
+     * @param rootPath
+     *            path of the subtree to load
+     * @param depth
+     *            depth of the z-nodes to load below the root path, 0 loads the root itself
+     * @param watcher
+     *            watcher set on the loaded z-nodes, as for {@link #getDataAsync(String, Watcher, Deserializer)}
+     * @param deserializer
+     *            deserializer of the loaded z-nodes
+     * @return a future completed with the number of z-nodes which were loaded in the cache
+     */
+    public <T> CompletableFuture<Integer> prefetchAsync(final String rootPath, final int depth,
+            final Watcher watcher, final Deserializer<T> deserializer) {
+        checkNotNull(rootPath);
+        checkNotNull(deserializer);
+        checkArgument(depth >= 0);
+
+        SubtreePrefetch<T> prefetch = new SubtreePrefetch<>(depth, watcher, deserializer);
+        prefetch.add(rootPath, 0);
+        prefetch.run();
+        return prefetch.future;
+    }
+
+    private final class SubtreePrefetch<T> {
+        private final int depth;
+        private final Watcher watcher;
+        private final Deserializer<T> deserializer;
+
+        private final Queue<Entry<String, Integer>> pendingNodes = new ConcurrentLinkedQueue<>();
+        // Z-nodes added and not yet processed, including the pending ones
+        private final AtomicInteger remainingNodes = new AtomicInteger();
+        private final AtomicInteger pendingRequests = new AtomicInteger();
+        // Number of requests to send the pending z-nodes, so that a single thread sends them at a time
+        private final AtomicInteger runRequests = new AtomicInteger();
+        private final AtomicInteger loadedNodes = new AtomicInteger();
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        SubtreePrefetch(int depth, Watcher watcher, Deserializer<T> deserializer) {
+            this.depth = depth;
+            this.watcher = watcher;
+            this.deserializer = deserializer;
+        }
+
+        void add(String path, int level) {
+            remainingNodes.incrementAndGet();
+            pendingNodes.add(new SimpleImmutableEntry<>(path, level));
+        }
+
+        // Send the requests of the pending z-nodes while below the limit. Requests completing synchronously, eg. for
+        // cached z-nodes, only request another pass instead of recursing into this method.
+        void run() {
+            int missed = runRequests.incrementAndGet();
+            if (missed != 1) {
+                return;
+            }
+            do {
+                while (pendingRequests.get() < PREFETCH_MAX_PENDING) {
+                    Entry<String, Integer> node = pendingNodes.poll();
+                    if (node == null) {
+                        break;
+                    }
+
+                    pendingRequests.incrementAndGet();
+                    if (node.getValue() < depth) {
+                        listChildren(node.getKey(), node.getValue());
+                    } else {
+                        loadData(node.getKey());
+                    }
+                }
+                missed = runRequests.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void listChildren(String path, int level) {
+            final long startNanos = System.nanoTime();
+            try {
+                zkSession.get().getChildren(path, null, (rc, path1, ctx, children) -> {
+                    ZooKeeperCacheStats.recordLoad(ZooKeeperCacheStats.CHILDREN, path, startNanos);
+                    if (rc == Code.OK.intValue()) {
+                        for (String child : children) {
+                            add(path.equals("/") ? "/" + child : path + "/" + child, level + 1);
+                        }
+                    } else if (rc != Code.NONODE.intValue()) {
+                        LOG.warn("Failed to list the children of {} to prefetch them: {}", path,
+                                KeeperException.create(Code.get(rc)).getMessage());
+                    }
+                    completed();
+                }, null);
+            } catch (Exception e) {
+                LOG.warn("Failed to list the children of {} to prefetch them: {}", path, e.getMessage());
+                completed();
+            }
+        }
+
+        private void loadData(String path) {
+            getDataAsync(path, watcher, deserializer).whenComplete((data, ex) -> {
+                if (ex != null) {
+                    // The subtree may mix z-nodes of different kinds, eg. the v1 clusters among the v2 namespaces
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Failed to prefetch {} zk-data: {}", path, ex.getMessage());
+                    }
+                } else if (data.isPresent()) {
+                    loadedNodes.incrementAndGet();
+                }
+                completed();
+            });
+        }
+
+        private void completed() {
+            pendingRequests.decrementAndGet();
+            run();
+
+            if (remainingNodes.decrementAndGet() == 0) {
+                future.complete(loadedNodes.get());
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T getDataIfPresent(String path) {
         return (T) dataCache.getIfPresent(path);
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pulsar.zookeeper;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.ImmutableSet;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Summary;
+
+/**
+ * Latency of the z-node loads done by the {@link ZooKeeperCache} and count of the cache misses that blocked a thread
+ * which is not supposed to block, labelled by path prefix.
+ */
+final class ZooKeeperCacheStats {
+    static final String DATA = "data";
+    static final String CHILDREN = "children";
+
+    // Threads of the Netty event loop groups, built with a DefaultThreadFactory named "*-io" (eg. "pulsar-io-2-1"),
+    // and of the BookKeeper ordered executors (eg. "bookkeeper-ml-workers-OrderedExecutor-3-0")
+    private static final Pattern NON_BLOCKING_THREAD_NAME = Pattern
+            .compile(".*(-io-\\d+-\\d+|-OrderedExecutor-\\d+-\\d+|-OrderedScheduler-\\d+-\\d+)");
+
+    // Roots whose z-nodes are directly keyed by tenant, eg. "/namespace/<tenant>/<namespace>"
+    private static final Set<String> TENANT_ROOTS = ImmutableSet.of("/namespace", "/managed-ledgers", "/schemas");
+
+    private static final Summary loadLatency = Summary.build().name("pulsar_zk_cache_load_latency_ms")
+            .help("Latency in millis of the z-nodes loaded by the ZooKeeper cache") //
+            .quantile(0.50, 0.01) //
+            .quantile(0.95, 0.01) //
+            .quantile(0.99, 0.01) //
+            .quantile(1.0, 0.01) //
+            .maxAgeSeconds(60) //
+            .labelNames("type", "path") //
+            .create().register();
+
+    private static final Counter blockingLoads = Counter
+            .build("pulsar_zk_cache_blocking_loads",
+                    "Counter of ZooKeeper cache misses waited on by an IO, ordered executor or ZooKeeper event thread")
+            .labelNames("path").create().register();
+
+    static void recordLoad(String type, String path, long startNanos) {
+        loadLatency.labels(type, pathPrefix(path))
+                .observe((double) TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos) / 1000.0);
+    }
+
+    static void recordBlockingLoad(String path) {
+        blockingLoads.labels(pathPrefix(path)).inc();
+    }
+
+    /**
+     * Netty event loops and the BookKeeper ordered executors run on {@link FastThreadLocalThread}s, like the general
+     * purpose pools of the broker, so they are told apart by their names. The ZooKeeper client delivers the watches
+     * and the async results on its "-EventThread".
+     */
+    static boolean isNonBlockingThread() {
+        Thread thread = Thread.currentThread();
+        return (thread instanceof FastThreadLocalThread
+                && NON_BLOCKING_THREAD_NAME.matcher(thread.getName()).matches()) || isZooKeeperEventThread();
+    }
+
+    static boolean isZooKeeperEventThread() {
+        return Thread.currentThread().getName().endsWith("-EventThread");
+    }
+
+    /**
+     * Only keep the first 2 components of the path, eg. "/admin/policies", to bound the number of label values. The
+     * second component is a tenant below "/namespace", "/managed-ledgers" and "/schemas", so only the first one is
+     * kept there.
+     */
+    static String pathPrefix(String path) {
+        int end = path.indexOf('/', 1);
+        if (end != -1 && !TENANT_ROOTS.contains(path.substring(0, end))) {
+            end = path.indexOf('/', end + 1);
+        }
+        return end == -1 ? path : path.substring(0, end);
+    }
+
+    private ZooKeeperCacheStats() {
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.pulsar.zookeeper;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.pulsar.zookeeper.ZooKeeperCache.CacheUpdater;
@@ -67,18 +68,22 @@ public class ZooKeeperChildrenCache implements Watcher, CacheUpdater<Set<String>
 
     @Override
     public void reloadCache(final String path) {
-        try {
-            cache.invalidate(path);
-            Set<String> children = cache.getChildren(path, this);
+        cache.invalidate(path);
+        // Don't block the ordered executor while the children are fetched, they are notified on the same thread
+        cache.getChildrenAsync(path, this).thenAccept(children -> {
             LOG.info("reloadCache called in zookeeperChildrenCache for path {}", path);
             for (ZooKeeperCacheListener<Set<String>> listener : listeners) {
                 listener.onUpdate(path, children, null);
             }
-        } catch (KeeperException.NoNodeException nne) {
-            LOG.debug("Node [{}] does not exist", nne.getPath());
-        } catch (Exception e) {
-            LOG.warn("Reloading ZooKeeperDataCache failed at path:{}", path);
-        }
+        }).exceptionally(ex -> {
+            Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+            if (cause instanceof KeeperException.NoNodeException) {
+                LOG.debug("Node [{}] does not exist", path);
+            } else {
+                LOG.warn("Reloading ZooKeeperDataCache failed at path:{}", path);
+            }
+            return null;
+        });
     }
 
     @Override
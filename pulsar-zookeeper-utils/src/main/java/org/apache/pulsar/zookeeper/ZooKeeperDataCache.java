@@ -91,13 +91,25 @@ public abstract class ZooKeeperDataCache<T> implements Deserializer<T>, CacheUpd
      * @throws Exception
      */
     public Optional<T> get(final String path) throws Exception {
-        return getAsync(path).get();
+        CompletableFuture<Optional<T>> future = getAsync(path);
+        cache.checkBlockingLoad(path, future);
+        return future.get();
     }
 
     public Optional<Entry<T, Stat>> getWithStat(final String path) throws Exception {
         return cache.getData(path, this, this);
     }
 
+    /**
+     * Loads in the cache all the z-nodes found at the given depth below the root path, with pipelined async requests.
+     *
+     * @see ZooKeeperCache#prefetchAsync(String, int, Watcher, Deserializer)
+     * @return a future completed with the number of z-nodes which were loaded in the cache
+     */
+    public CompletableFuture<Integer> prefetchAsync(final String rootPath, final int depth) {
+        return cache.prefetchAsync(rootPath, depth, this, this);
+    }
+
     /**
      * Only for UTs (for now), as this clears the whole ZK data cache.
      */
@@ -111,12 +123,14 @@ public abstract class ZooKeeperDataCache<T> implements Deserializer<T>, CacheUpd
 
     @Override
     public void reloadCache(final String path) {
-        try {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Reloading ZooKeeperDataCache at path {}", path);
-            }
-            cache.invalidate(path);
-            Optional<Entry<T, Stat>> cacheEntry = cache.getData(path, this, this);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Reloading ZooKeeperDataCache at path {}", path);
+        }
+        cache.invalidate(path);
+
+        // The reload runs on the ordered executor: don't block it while the z-node is fetched, and get back to the
+        // thread of the path to notify the listeners in order
+        cache.getDataAsync(path, this, this).thenAcceptAsync(cacheEntry -> {
             if (!cacheEntry.isPresent()) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Node [{}] does not exist", path);
@@ -133,9 +147,10 @@ public abstract class ZooKeeperDataCache<T> implements Deserializer<T>, CacheUpd
                     LOG.debug("Notified listener {} at path {}", listener, path);
                 }
             }
-        } catch (Exception e) {
-            LOG.warn("Reloading ZooKeeperDataCache failed at path: {}", path, e);
-        }
+        }, cache.getExecutor().chooseThread(path)).exceptionally(ex -> {
+            LOG.warn("Reloading ZooKeeperDataCache failed at path: {}", path, ex);
+            return null;
+        });
     }
 
     @Override
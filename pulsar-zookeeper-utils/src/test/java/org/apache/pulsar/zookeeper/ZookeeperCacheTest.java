@@ -55,6 +55,7 @@ import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.MoreExecutors;
 
 import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.FastThreadLocalThread;
 
 @Test
 public class ZookeeperCacheTest {
@@ -432,6 +433,109 @@ public class ZookeeperCacheTest {
         scheduledExecutor.shutdown();
     }
 
+    @Test(timeOut = 10000)
+    public void testPrefetch() throws Exception {
+        ZooKeeperCache zkCacheService = new LocalZooKeeperCache(zkClient, executor);
+        AtomicInteger deserializations = new AtomicInteger();
+        ZooKeeperDataCache<String> zkCache = new ZooKeeperDataCache<String>(zkCacheService) {
+            @Override
+            public String deserialize(String key, byte[] content) throws Exception {
+                deserializations.incrementAndGet();
+                return new String(content);
+            }
+        };
+
+        zkClient.create("/prefetch", new byte[0], null, null);
+        for (String tenant : Lists.newArrayList("tenant-a", "tenant-b")) {
+            zkClient.create("/prefetch/" + tenant, new byte[0], null, null);
+            for (int i = 0; i < 10; i++) {
+                String path = "/prefetch/" + tenant + "/ns-" + i;
+                zkClient.create(path, path.getBytes(), null, null);
+            }
+        }
+        zkClient.create("/prefetch/empty-tenant", new byte[0], null, null);
+
+        // Only the z-nodes at the given depth are loaded
+        assertEquals(zkCache.prefetchAsync("/prefetch", 2).get().intValue(), 20);
+        assertEquals(deserializations.get(), 20);
+        assertNotNull(zkCacheService.getDataIfPresent("/prefetch/tenant-a/ns-0"));
+        assertNotNull(zkCacheService.getDataIfPresent("/prefetch/tenant-b/ns-9"));
+        assertNull(zkCacheService.getDataIfPresent("/prefetch/tenant-a"));
+
+        // The reads are served from the cache
+        assertEquals(zkCache.get("/prefetch/tenant-b/ns-5").get(), "/prefetch/tenant-b/ns-5");
+        assertEquals(deserializations.get(), 20);
+
+        // The prefetched z-nodes are watched
+        zkClient.setData("/prefetch/tenant-a/ns-1", "updated".getBytes(), -1);
+        // Wait for the watch to be triggered
+        Thread.sleep(100);
+        assertEquals(zkCache.get("/prefetch/tenant-a/ns-1").get(), "updated");
+
+        assertEquals(zkCache.prefetchAsync("/prefetch/tenant-a/ns-2", 0).get().intValue(), 1);
+        assertEquals(zkCache.prefetchAsync("/non-existing", 2).get().intValue(), 0);
+    }
+
+    @Test(timeOut = 30000)
+    public void testPrefetchCachedSubtree() throws Exception {
+        ZooKeeperCache zkCacheService = new LocalZooKeeperCache(zkClient, executor);
+        ZooKeeperDataCache<String> zkCache = new ZooKeeperDataCache<String>(zkCacheService) {
+            @Override
+            public String deserialize(String key, byte[] content) throws Exception {
+                return new String(content);
+            }
+        };
+
+        final int numNodes = 10000;
+        zkClient.create("/prefetch-cached", new byte[0], null, null);
+        for (int i = 0; i < numNodes; i++) {
+            zkClient.create("/prefetch-cached/ns-" + i, new byte[0], null, null);
+        }
+        assertEquals(zkCache.prefetchAsync("/prefetch-cached", 1).get().intValue(), numNodes);
+
+        // The loads of the cached z-nodes complete synchronously, and must not recurse for each z-node
+        assertEquals(zkCache.prefetchAsync("/prefetch-cached", 1).get().intValue(), numNodes);
+    }
+
+    @Test
+    public void testPathPrefix() {
+        assertEquals(ZooKeeperCacheStats.pathPrefix("/admin"), "/admin");
+        assertEquals(ZooKeeperCacheStats.pathPrefix("/admin/policies"), "/admin/policies");
+        assertEquals(ZooKeeperCacheStats.pathPrefix("/admin/policies/tenant/ns"), "/admin/policies");
+        assertEquals(ZooKeeperCacheStats.pathPrefix("/loadbalance/brokers/localhost:8080"), "/loadbalance/brokers");
+
+        // The roots keyed by tenant only keep their first component
+        assertEquals(ZooKeeperCacheStats.pathPrefix("/namespace/tenant/ns/0x00000000_0xffffffff"), "/namespace");
+        assertEquals(ZooKeeperCacheStats.pathPrefix("/managed-ledgers/tenant/ns/persistent/topic"),
+                "/managed-ledgers");
+        assertEquals(ZooKeeperCacheStats.pathPrefix("/schemas/tenant/ns/topic"), "/schemas");
+        assertEquals(ZooKeeperCacheStats.pathPrefix("/schemas"), "/schemas");
+    }
+
+    @Test
+    public void testNonBlockingThreads() throws Exception {
+        // General purpose pools of the broker
+        assertFalse(isNonBlockingThread("pulsar-1-3", true));
+        assertFalse(isNonBlockingThread("pulsar-load-manager-4-1", true));
+        assertFalse(isNonBlockingThread("pulsar-backlog-quota-checker-9-1", true));
+        assertFalse(isNonBlockingThread("pulsar-io-2-1", false));
+
+        // Event loops and ordered executors
+        assertTrue(isNonBlockingThread("pulsar-io-2-1", true));
+        assertTrue(isNonBlockingThread("pulsar-client-io-1-4", true));
+        assertTrue(isNonBlockingThread("pulsar-ordered-OrderedExecutor-5-0", true));
+        assertTrue(isNonBlockingThread("bookkeeper-ml-scheduler-OrderedScheduler-0-0", true));
+    }
+
+    private static boolean isNonBlockingThread(String threadName, boolean fastThreadLocalThread) throws Exception {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Runnable check = () -> result.complete(ZooKeeperCacheStats.isNonBlockingThread());
+        Thread thread = fastThreadLocalThread ? new FastThreadLocalThread(check, threadName)
+                : new Thread(check, threadName);
+        thread.start();
+        return result.get();
+    }
+
     /**
      * <pre>
      * Verifies that if {@link ZooKeeperCache} fails to fetch data into the cache then